@@ -0,0 +1,22 @@
+package es.cic.curso25.proy008.analitica;
+
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+
+/**
+ * Estado final de la marca y la potencia de un vehículo tras una
+ * transacción, tal como lo anota {@link PotenciaListener}.
+ *
+ * @param tipo            Tipo de vehículo.
+ * @param id              Id del vehículo.
+ * @param marca           Marca actual.
+ * @param potencia        Potencia actual, en CV.
+ * @param concesionarioId Concesionario actual; {@code null} en las motos.
+ * @param existe          {@code false} si se ha borrado.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record CambioPotencia(TipoVehiculo tipo, long id, String marca, double potencia, Long concesionarioId,
+        boolean existe) {
+}
@@ -0,0 +1,472 @@
+package es.cic.curso25.proy008.analitica;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.cic.curso25.proy008.dto.CocheLectura;
+import es.cic.curso25.proy008.dto.GrupoAnalitica;
+import es.cic.curso25.proy008.enums.AgregadoAnalitica;
+import es.cic.curso25.proy008.enums.AgrupacionAnalitica;
+
+/**
+ * Copia en columnas, fuera del heap, de la tabla {@code coche} para las
+ * consultas de analítica.
+ * <p>
+ * Cada columna es un {@link ByteBuffer#allocateDirect buffer directo} en el
+ * orden nativo: potencias ({@code double}), marcas y concesionarios
+ * codificados con un diccionario ({@code int}), versiones e ids
+ * ({@code long}) y el encendido empaquetado en palabras de 64 bits. La fila
+ * de cada id la da un {@link IndiceFilas}, también fuera del heap. Las
+ * agregaciones recorren las columnas en orden, sin entidades ni objetos
+ * por fila: agrupar millones de coches cuesta milisegundos.
+ * </p>
+ * <p>
+ * Junto a las columnas se lleva un {@link HistogramaPotencia} por marca
+ * para {@code /analitica/potencia}: cada cambio quita la potencia que tenía
+ * la fila y añade la nueva, sin otra copia de los coches.
+ * </p>
+ * <p>
+ * Las filas no guardan orden: un borrado mueve la última fila al hueco. El
+ * vaciado de un concesionario se resuelve recorriendo su columna codificada,
+ * sin ir a la BBDD.
+ * Cada fila guarda la versión del coche y no se sobrescribe con una más
+ * antigua, por si dos commits del mismo coche se aplican en desorden. Los
+ * cambios que llegan durante una recarga se guardan y se repiten sobre las
+ * columnas recargadas, como en {@code IndiceEncendido}.
+ * </p>
+ * <p>
+ * Las lecturas comparten un {@link ReentrantReadWriteLock}; solo las
+ * escrituras son exclusivas.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class ColumnasCoche {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ColumnasCoche.class);
+
+    private static final int CAPACIDAD_INICIAL = 1024;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Columnas columnas = new Columnas(CAPACIDAD_INICIAL);
+
+    // Cambios aplicados durante una recarga en curso (null si no hay)
+    private List<Operacion> durante;
+
+    /**
+     * Guarda el estado confirmado de un coche, nuevo o modificado.
+     *
+     * @param coche Columnas del coche tras el commit.
+     */
+    public void guardar(CocheLectura coche) {
+        lock.writeLock().lock();
+        try {
+            if (durante != null) {
+                durante.add(new Operacion(coche.id(), coche, false));
+            }
+            columnas.guardar(coche);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param id Coche borrado en una transacción confirmada.
+     */
+    public void borrar(long id) {
+        lock.writeLock().lock();
+        try {
+            if (durante != null) {
+                durante.add(new Operacion(id, null, false));
+            }
+            columnas.borrar(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Quita los coches de un concesionario vaciado con un borrado masivo.
+     *
+     * @param concesionarioId Concesionario vaciado en una transacción confirmada.
+     * @return ids de los coches quitados.
+     */
+    public long[] vaciar(long concesionarioId) {
+        lock.writeLock().lock();
+        try {
+            if (durante != null) {
+                durante.add(new Operacion(concesionarioId, null, true));
+            }
+            return columnas.vaciar(concesionarioId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empieza una recarga: desde aquí se guardan los cambios para
+     * repetirlos en las columnas recargadas.
+     */
+    public void empezarRecarga() {
+        lock.writeLock().lock();
+        try {
+            durante = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye las columnas por las filas leídas de la BBDD.
+     *
+     * @param coches Coches leídos tras {@link #empezarRecarga()}.
+     */
+    public void terminarRecarga(List<CocheLectura> coches) {
+        Columnas nuevas = new Columnas(Math.max(CAPACIDAD_INICIAL, coches.size()));
+        coches.forEach(nuevas::guardar);
+        lock.writeLock().lock();
+        try {
+            if (durante != null) {
+                for (Operacion operacion : durante) {
+                    if (operacion.vaciado()) {
+                        nuevas.vaciar(operacion.id());
+                    } else if (operacion.coche() != null) {
+                        nuevas.guardar(operacion.coche());
+                    } else {
+                        nuevas.borrar(operacion.id());
+                    }
+                }
+            }
+            durante = null;
+            columnas = nuevas;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.debug("Columnas de coches recargadas: {} filas", nuevas.filas);
+    }
+
+    /**
+     * Agrupa los coches y agrega su potencia.
+     *
+     * @param agrupacion Columna por la que se agrupa.
+     * @param agregado   Agregado de cada grupo.
+     * @param encendido  Si no es {@code null}, solo los coches con ese encendido.
+     * @return un elemento por grupo con coches, ordenados por clave.
+     */
+    public List<GrupoAnalitica> agregar(AgrupacionAnalitica agrupacion, AgregadoAnalitica agregado,
+            Boolean encendido) {
+        lock.readLock().lock();
+        try {
+            return columnas.agregar(agrupacion, agregado, encendido);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Suma a {@code suma} los histogramas de potencia de los coches de una
+     * marca.
+     *
+     * @param marca Marca, o {@code null} para todas.
+     * @param suma  Histograma al que se suman.
+     */
+    public void sumarPotencias(String marca, HistogramaPotencia suma) {
+        lock.readLock().lock();
+        try {
+            columnas.sumarPotencias(marca, suma);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return número de coches.
+     */
+    public int getFilas() {
+        lock.readLock().lock();
+        try {
+            return columnas.filas;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return bytes reservados fuera del heap.
+     */
+    public long getBytes() {
+        lock.readLock().lock();
+        try {
+            return columnas.getBytes();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Cambio guardado durante una recarga; {@code coche} es {@code null} en
+     * los borrados, y en los vaciados {@code id} es el del concesionario.
+     */
+    private record Operacion(long id, CocheLectura coche, boolean vaciado) {
+    }
+
+    /**
+     * Columnas y diccionarios. No es seguro entre hilos: lo protege el
+     * cerrojo de {@link ColumnasCoche}.
+     */
+    private static final class Columnas {
+
+        private int capacidad;
+
+        private int filas;
+
+        private LongBuffer ids;
+
+        private LongBuffer versiones;
+
+        private DoubleBuffer potencias;
+
+        private IntBuffer marcas;
+
+        private IntBuffer concesionarios;
+
+        private LongBuffer encendidos;
+
+        private final IndiceFilas filaPorId;
+
+        private final Diccionario<String> diccionarioMarcas = new Diccionario<>();
+
+        private final Diccionario<Long> diccionarioConcesionarios = new Diccionario<>();
+
+        // Histograma de potencias de cada código de marca
+        private final List<HistogramaPotencia> histogramas = new ArrayList<>();
+
+        Columnas(int capacidad) {
+            this.capacidad = capacidad;
+            filaPorId = new IndiceFilas(capacidad);
+            ids = directo(capacidad * Long.BYTES).asLongBuffer();
+            versiones = directo(capacidad * Long.BYTES).asLongBuffer();
+            potencias = directo(capacidad * Double.BYTES).asDoubleBuffer();
+            marcas = directo(capacidad * Integer.BYTES).asIntBuffer();
+            concesionarios = directo(capacidad * Integer.BYTES).asIntBuffer();
+            encendidos = directo(palabras(capacidad) * Long.BYTES).asLongBuffer();
+        }
+
+        void guardar(CocheLectura coche) {
+            long version = coche.version() != null ? coche.version() : 0;
+            int fila = filaPorId.get(coche.id());
+            if (fila == IndiceFilas.AUSENTE) {
+                if (filas == capacidad) {
+                    crecer();
+                }
+                fila = filas++;
+                filaPorId.put(coche.id(), fila);
+                ids.put(fila, coche.id());
+            } else if (versiones.get(fila) > version) {
+                return;
+            } else {
+                histogramas.get(marcas.get(fila)).quitar(potencias.get(fila));
+            }
+            int marca = diccionarioMarcas.codigo(coche.marca());
+            if (marca == histogramas.size()) {
+                histogramas.add(new HistogramaPotencia());
+            }
+            histogramas.get(marca).anadir(coche.potencia());
+            versiones.put(fila, version);
+            potencias.put(fila, coche.potencia());
+            marcas.put(fila, marca);
+            concesionarios.put(fila, diccionarioConcesionarios.codigo(coche.concesionarioId()));
+            ponerEncendido(fila, coche.encendido());
+        }
+
+        void borrar(long id) {
+            int fila = filaPorId.remove(id);
+            if (fila == IndiceFilas.AUSENTE) {
+                return;
+            }
+            histogramas.get(marcas.get(fila)).quitar(potencias.get(fila));
+            int ultima = --filas;
+            if (fila != ultima) {
+                long movido = ids.get(ultima);
+                ids.put(fila, movido);
+                versiones.put(fila, versiones.get(ultima));
+                potencias.put(fila, potencias.get(ultima));
+                marcas.put(fila, marcas.get(ultima));
+                concesionarios.put(fila, concesionarios.get(ultima));
+                ponerEncendido(fila, isEncendido(ultima));
+                filaPorId.put(movido, fila);
+            }
+            ponerEncendido(ultima, false);
+        }
+
+        long[] vaciar(long concesionarioId) {
+            Integer codigo = diccionarioConcesionarios.buscar(concesionarioId);
+            if (codigo == null) {
+                return new long[0];
+            }
+            long[] quitados = new long[filas];
+            int total = 0;
+            // Hacia atrás: la última fila, que ocupa cada hueco, ya se ha mirado
+            for (int fila = filas - 1; fila >= 0; fila--) {
+                if (concesionarios.get(fila) == codigo) {
+                    quitados[total] = ids.get(fila);
+                    borrar(quitados[total++]);
+                }
+            }
+            return Arrays.copyOf(quitados, total);
+        }
+
+        List<GrupoAnalitica> agregar(AgrupacionAnalitica agrupacion, AgregadoAnalitica agregado, Boolean encendido) {
+            IntBuffer grupos = agrupacion == AgrupacionAnalitica.MARCA ? marcas : concesionarios;
+            Diccionario<?> diccionario = agrupacion == AgrupacionAnalitica.MARCA
+                    ? diccionarioMarcas : diccionarioConcesionarios;
+            int tamano = diccionario.getTamano();
+            long[] cuentas = new long[tamano];
+            double[] sumas = new double[tamano];
+            double[] maximos = new double[tamano];
+            Arrays.fill(maximos, Double.NEGATIVE_INFINITY);
+
+            if (encendido == null) {
+                // Bucle sin saltos: las tres acumulaciones cuestan casi lo mismo que una
+                for (int fila = 0; fila < filas; fila++) {
+                    acumular(grupos.get(fila), potencias.get(fila), cuentas, sumas, maximos);
+                }
+            } else {
+                // Se recorren los bits puestos de cada palabra, no las filas una a una
+                int total = palabras(filas);
+                for (int palabra = 0; palabra < total; palabra++) {
+                    long bits = encendido ? encendidos.get(palabra) : ~encendidos.get(palabra);
+                    int base = palabra << 6;
+                    if (filas - base < 64) {
+                        bits &= (1L << (filas - base)) - 1;
+                    }
+                    while (bits != 0) {
+                        int fila = base + Long.numberOfTrailingZeros(bits);
+                        acumular(grupos.get(fila), potencias.get(fila), cuentas, sumas, maximos);
+                        bits &= bits - 1;
+                    }
+                }
+            }
+
+            List<GrupoAnalitica> resultado = new ArrayList<>();
+            for (int codigo = 0; codigo < tamano; codigo++) {
+                if (cuentas[codigo] > 0) {
+                    double valor = switch (agregado) {
+                        case AVG -> sumas[codigo] / cuentas[codigo];
+                        case MAX -> maximos[codigo];
+                        case COUNT -> cuentas[codigo];
+                    };
+                    resultado.add(new GrupoAnalitica(String.valueOf(diccionario.valor(codigo)), cuentas[codigo],
+                            valor));
+                }
+            }
+            Comparator<GrupoAnalitica> orden = agrupacion == AgrupacionAnalitica.MARCA
+                    ? Comparator.comparing(GrupoAnalitica::grupo)
+                    : Comparator.comparingLong(grupo -> Long.parseLong(grupo.grupo()));
+            resultado.sort(orden);
+            return resultado;
+        }
+
+        void sumarPotencias(String marca, HistogramaPotencia suma) {
+            if (marca == null) {
+                histogramas.forEach(suma::sumar);
+                return;
+            }
+            Integer codigo = diccionarioMarcas.buscar(marca);
+            if (codigo != null) {
+                suma.sumar(histogramas.get(codigo));
+            }
+        }
+
+        long getBytes() {
+            return (long) capacidad * (Long.BYTES * 2 + Double.BYTES + Integer.BYTES * 2)
+                    + (long) palabras(capacidad) * Long.BYTES + filaPorId.getBytes();
+        }
+
+        private static void acumular(int grupo, double potencia, long[] cuentas, double[] sumas, double[] maximos) {
+            cuentas[grupo]++;
+            sumas[grupo] += potencia;
+            maximos[grupo] = Math.max(maximos[grupo], potencia);
+        }
+
+        private boolean isEncendido(int fila) {
+            return (encendidos.get(fila >>> 6) & (1L << fila)) != 0;
+        }
+
+        private void ponerEncendido(int fila, boolean valor) {
+            int palabra = fila >>> 6;
+            long bits = encendidos.get(palabra);
+            encendidos.put(palabra, valor ? bits | (1L << fila) : bits & ~(1L << fila));
+        }
+
+        /**
+         * Duplica la capacidad copiando cada columna a un buffer nuevo; el
+         * anterior lo libera el recolector.
+         */
+        private void crecer() {
+            int nueva = capacidad * 2;
+            ids = directo(nueva * Long.BYTES).asLongBuffer().put(0, ids, 0, filas);
+            versiones = directo(nueva * Long.BYTES).asLongBuffer().put(0, versiones, 0, filas);
+            potencias = directo(nueva * Double.BYTES).asDoubleBuffer().put(0, potencias, 0, filas);
+            marcas = directo(nueva * Integer.BYTES).asIntBuffer().put(0, marcas, 0, filas);
+            concesionarios = directo(nueva * Integer.BYTES).asIntBuffer().put(0, concesionarios, 0, filas);
+            encendidos = directo(palabras(nueva) * Long.BYTES).asLongBuffer()
+                .put(0, encendidos, 0, palabras(capacidad));
+            capacidad = nueva;
+        }
+
+        private static int palabras(int bits) {
+            return (bits + 63) >>> 6;
+        }
+
+        private static ByteBuffer directo(int bytes) {
+            return ByteBuffer.allocateDirect(bytes).order(ByteOrder.nativeOrder());
+        }
+    }
+
+    /**
+     * Codifica cada valor distinto con un entero consecutivo. Los códigos
+     * no se reutilizan; una recarga parte de un diccionario vacío.
+     */
+    private static final class Diccionario<T> {
+
+        private final Map<T, Integer> codigos = new HashMap<>();
+
+        private final List<T> valores = new ArrayList<>();
+
+        int codigo(T valor) {
+            return codigos.computeIfAbsent(valor, v -> {
+                valores.add(v);
+                return valores.size() - 1;
+            });
+        }
+
+        Integer buscar(T valor) {
+            return codigos.get(valor);
+        }
+
+        T valor(int codigo) {
+            return valores.get(codigo);
+        }
+
+        int getTamano() {
+            return valores.size();
+        }
+    }
+}
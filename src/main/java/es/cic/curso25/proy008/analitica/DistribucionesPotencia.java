@@ -0,0 +1,162 @@
+package es.cic.curso25.proy008.analitica;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.cic.curso25.proy008.dto.PotenciaVehiculo;
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+
+/**
+ * Un {@link HistogramaPotencia} por marca de moto, mantenido con cada alta,
+ * cambio y borrado.
+ * <p>
+ * Los histogramas de los coches no están aquí: los lleva
+ * {@link ColumnasCoche} junto a las columnas, que ya guardan la marca y la
+ * potencia de cada coche. Para las motos se guarda aquí la marca y la
+ * potencia de cada una, para quitar el valor anterior cuando cambia: así
+ * los cambios son estados finales y aplicarlos dos veces no descuadra nada.
+ * Lo mantienen {@link PotenciaListener} tras cada commit y las recargas de
+ * {@code AnaliticaService}; los cambios que llegan durante una recarga se
+ * guardan y se vuelven a aplicar sobre lo recargado, como en
+ * {@code IndiceEncendido}.
+ * </p>
+ * <p>
+ * Las lecturas comparten un {@link ReentrantReadWriteLock}; solo las
+ * escrituras son exclusivas.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class DistribucionesPotencia {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DistribucionesPotencia.class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Distribucion motos = new Distribucion();
+
+    // Cambios aplicados durante una recarga en curso (null si no hay)
+    private List<CambioPotencia> durante;
+
+    /**
+     * Aplica los cambios de una transacción confirmada; los coches se ignoran.
+     *
+     * @param cambios Estado final de cada vehículo tocado.
+     */
+    public void aplicar(List<CambioPotencia> cambios) {
+        lock.writeLock().lock();
+        try {
+            for (CambioPotencia cambio : cambios) {
+                if (cambio.tipo() != TipoVehiculo.MOTO) {
+                    continue;
+                }
+                if (durante != null) {
+                    durante.add(cambio);
+                }
+                motos.aplicar(cambio);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empieza una recarga: desde aquí se guardan los cambios para
+     * repetirlos en lo recargado.
+     */
+    public void empezarRecarga() {
+        lock.writeLock().lock();
+        try {
+            durante = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye las motos por las leídas de la BBDD.
+     *
+     * @param vehiculos Marca y potencia de cada moto según la BBDD.
+     */
+    public void terminarRecarga(List<PotenciaVehiculo> vehiculos) {
+        Distribucion nueva = new Distribucion();
+        for (PotenciaVehiculo vehiculo : vehiculos) {
+            nueva.aplicar(new CambioPotencia(TipoVehiculo.MOTO, vehiculo.id(), vehiculo.marca(),
+                    vehiculo.potencia(), null, true));
+        }
+        lock.writeLock().lock();
+        try {
+            if (durante != null) {
+                durante.forEach(nueva::aplicar);
+                durante = null;
+            }
+            motos = nueva;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.debug("Distribución de potencia de motos recargada: {} motos", nueva.vehiculos.size());
+    }
+
+    /**
+     * Suma a {@code suma} los histogramas de las motos de una marca.
+     *
+     * @param marca Marca, o {@code null} para todas.
+     * @param suma  Histograma al que se suman.
+     */
+    public void sumar(String marca, HistogramaPotencia suma) {
+        lock.readLock().lock();
+        try {
+            if (marca == null) {
+                motos.porMarca.values().forEach(suma::sumar);
+            } else {
+                HistogramaPotencia histograma = motos.porMarca.get(marca);
+                if (histograma != null) {
+                    suma.sumar(histograma);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private record Vehiculo(String marca, double potencia) {
+    }
+
+    /**
+     * Histogramas por marca y la marca y potencia de cada moto. Lo protege
+     * el cerrojo de {@link DistribucionesPotencia}.
+     */
+    private static final class Distribucion {
+
+        private final Map<Long, Vehiculo> vehiculos = new HashMap<>();
+
+        private final Map<String, HistogramaPotencia> porMarca = new HashMap<>();
+
+        void aplicar(CambioPotencia cambio) {
+            Vehiculo nuevo = cambio.existe() ? new Vehiculo(cambio.marca(), cambio.potencia()) : null;
+            Vehiculo anterior = nuevo != null ? vehiculos.put(cambio.id(), nuevo) : vehiculos.remove(cambio.id());
+            if (Objects.equals(anterior, nuevo)) {
+                return;
+            }
+            if (anterior != null) {
+                HistogramaPotencia histograma = porMarca.get(anterior.marca());
+                histograma.quitar(anterior.potencia());
+                if (histograma.getTotal() == 0) {
+                    porMarca.remove(anterior.marca());
+                }
+            }
+            if (nuevo != null) {
+                porMarca.computeIfAbsent(nuevo.marca(), m -> new HistogramaPotencia()).anadir(nuevo.potencia());
+            }
+        }
+    }
+}
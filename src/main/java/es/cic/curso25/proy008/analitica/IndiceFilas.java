@@ -0,0 +1,162 @@
+package es.cic.curso25.proy008.analitica;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+
+/**
+ * Fila de cada id en {@link ColumnasCoche}: una tabla hash de {@code long} a
+ * {@code int} con direccionamiento abierto, fuera del heap.
+ * <p>
+ * Claves y valores van en dos {@link ByteBuffer#allocateDirect buffers
+ * directos} paralelos, sin objetos por entrada: cada coche ocupa 12 bytes
+ * por hueco en lugar de una entrada de {@code HashMap} con un
+ * {@code Long} y un {@code Integer}, y el recolector no los recorre. Las
+ * colisiones se resuelven con sondeo lineal, y los borrados desplazan
+ * hacia atrás las entradas siguientes en vez de dejar marcas. Cada valor se
+ * guarda sumándole uno, de modo que un hueco a cero (como sale de
+ * {@code allocateDirect}) está libre.
+ * </p>
+ * <p>
+ * No es seguro entre hilos: lo protege el cerrojo de {@link ColumnasCoche}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class IndiceFilas {
+
+    /**
+     * Valor devuelto para un id que no está.
+     */
+    public static final int AUSENTE = -1;
+
+    private int huecos;
+
+    private int mascara;
+
+    private int tamano;
+
+    private LongBuffer claves;
+
+    private IntBuffer valores;
+
+    /**
+     * @param capacidad Entradas previstas; la tabla crece si se pasan.
+     */
+    public IndiceFilas(int capacidad) {
+        // Potencia de dos con al menos el doble de huecos que entradas
+        reservar(Integer.highestOneBit(Math.max(8, capacidad - 1)) << 2);
+    }
+
+    /**
+     * @param clave Id.
+     * @return su fila, o {@link #AUSENTE}.
+     */
+    public int get(long clave) {
+        return valores.get(buscar(clave)) - 1;
+    }
+
+    /**
+     * @param clave Id.
+     * @param fila  Fila, no negativa.
+     */
+    public void put(long clave, int fila) {
+        if ((tamano + 1) * 4L > huecos * 3L) {
+            crecer();
+        }
+        int hueco = buscar(clave);
+        if (valores.get(hueco) == 0) {
+            tamano++;
+            claves.put(hueco, clave);
+        }
+        valores.put(hueco, fila + 1);
+    }
+
+    /**
+     * @param clave Id.
+     * @return la fila que tenía, o {@link #AUSENTE}.
+     */
+    public int remove(long clave) {
+        int hueco = buscar(clave);
+        int fila = valores.get(hueco) - 1;
+        if (fila == AUSENTE) {
+            return AUSENTE;
+        }
+        tamano--;
+        // Se adelantan las entradas que, tras el hueco, podían haber ido en él
+        for (int siguiente = (hueco + 1) & mascara; valores.get(siguiente) != 0;
+                siguiente = (siguiente + 1) & mascara) {
+            int ideal = inicio(claves.get(siguiente));
+            if (((siguiente - ideal) & mascara) >= ((siguiente - hueco) & mascara)) {
+                claves.put(hueco, claves.get(siguiente));
+                valores.put(hueco, valores.get(siguiente));
+                hueco = siguiente;
+            }
+        }
+        valores.put(hueco, 0);
+        return fila;
+    }
+
+    /**
+     * @return número de ids guardados.
+     */
+    public int size() {
+        return tamano;
+    }
+
+    /**
+     * @return bytes reservados fuera del heap.
+     */
+    public long getBytes() {
+        return (long) huecos * (Long.BYTES + Integer.BYTES);
+    }
+
+    /**
+     * @return hueco con la clave, o el hueco libre en el que acaba su sondeo.
+     */
+    private int buscar(long clave) {
+        int hueco = inicio(clave);
+        while (valores.get(hueco) != 0 && claves.get(hueco) != clave) {
+            hueco = (hueco + 1) & mascara;
+        }
+        return hueco;
+    }
+
+    private int inicio(long clave) {
+        long mezcla = clave * 0x9E3779B97F4A7C15L;
+        return (int) (mezcla ^ (mezcla >>> 32)) & mascara;
+    }
+
+    /**
+     * Duplica los huecos y vuelve a colocar cada entrada; los buffers
+     * anteriores los libera el recolector.
+     */
+    private void crecer() {
+        LongBuffer anterioresClaves = claves;
+        IntBuffer anterioresValores = valores;
+        int anteriores = huecos;
+        reservar(huecos * 2);
+        for (int hueco = 0; hueco < anteriores; hueco++) {
+            int valor = anterioresValores.get(hueco);
+            if (valor != 0) {
+                long clave = anterioresClaves.get(hueco);
+                int nuevo = inicio(clave);
+                while (valores.get(nuevo) != 0) {
+                    nuevo = (nuevo + 1) & mascara;
+                }
+                claves.put(nuevo, clave);
+                valores.put(nuevo, valor);
+            }
+        }
+    }
+
+    private void reservar(int huecos) {
+        this.huecos = huecos;
+        this.mascara = huecos - 1;
+        claves = ByteBuffer.allocateDirect(huecos * Long.BYTES).order(ByteOrder.nativeOrder()).asLongBuffer();
+        valores = ByteBuffer.allocateDirect(huecos * Integer.BYTES).order(ByteOrder.nativeOrder()).asIntBuffer();
+    }
+}
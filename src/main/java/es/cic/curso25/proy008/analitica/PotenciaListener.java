@@ -0,0 +1,120 @@
+package es.cic.curso25.proy008.analitica;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.Moto;
+
+/**
+ * Listener de Hibernate que lleva a {@link DistribucionesPotencia} la marca
+ * y la potencia de cada {@link Moto}, y a {@link RankingPotencia} las de cada
+ * {@link Coche} con su concesionario, cuando se insertan, modifican o borran.
+ * Los histogramas de los coches siguen a {@link ColumnasCoche}.
+ * <p>
+ * Se engancha por debajo de {@code CocheService} y {@code MotoService} para
+ * ver también los borrados en cascada de concesionarios y motoristas. Los
+ * cambios se acumulan por sesión y solo se aplican si la transacción se
+ * confirma. Los borrados masivos por JPQL no pasan por aquí: los aplica
+ * {@code AnaliticaService} con sus eventos de vaciado y de borrado de motos.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class PotenciaListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String POTENCIA = "potencia";
+
+    private static final String MARCA = "marca";
+
+    private static final String CONCESIONARIO = "concesionario";
+
+    private static final Map<Class<?>, TipoVehiculo> ENTIDADES = Map.of(
+            Coche.class, TipoVehiculo.COCHE,
+            Moto.class, TipoVehiculo.MOTO);
+
+    private final Map<EventSource, List<CambioPotencia>> pendientes = new ConcurrentHashMap<>();
+
+    private final DistribucionesPotencia distribucionesPotencia;
+
+    private final RankingPotencia rankingPotencia;
+
+    /**
+     * @param distribucionesPotencia Histogramas a los que se llevan los cambios.
+     * @param rankingPotencia        Ranking de coches por concesionario.
+     */
+    public PotenciaListener(DistribucionesPotencia distribucionesPotencia, RankingPotencia rankingPotencia) {
+        this.distribucionesPotencia = distribucionesPotencia;
+        this.rankingPotencia = rankingPotencia;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        anotar(event.getSession(), event.getPersister(), event.getId(), event.getState(), true);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        anotar(event.getSession(), event.getPersister(), event.getId(), event.getState(), true);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        anotar(event.getSession(), event.getPersister(), event.getId(), event.getDeletedState(), false);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void anotar(EventSource session, EntityPersister persister, Object id, Object[] estado,
+            boolean existe) {
+        TipoVehiculo tipo = ENTIDADES.get(persister.getMappedClass());
+        if (tipo == null) {
+            return;
+        }
+        List<String> propiedades = Arrays.asList(persister.getPropertyNames());
+        Object potencia = estado[propiedades.indexOf(POTENCIA)];
+        String marca = (String) estado[propiedades.indexOf(MARCA)];
+        int indiceConcesionario = propiedades.indexOf(CONCESIONARIO);
+        Long concesionarioId = indiceConcesionario >= 0 && estado[indiceConcesionario] instanceof Concesionario c
+                ? c.getId() : null;
+        lista(session).add(new CambioPotencia(tipo, ((Number) id).longValue(), marca,
+                potencia != null ? ((Number) potencia).doubleValue() : 0, concesionarioId, existe));
+    }
+
+    /**
+     * Lista de la sesión; al acabar la transacción se aplica si hubo commit
+     * y se olvida en cualquier caso.
+     */
+    private List<CambioPotencia> lista(EventSource session) {
+        return pendientes.computeIfAbsent(session, s -> {
+            s.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (exito, sesion) -> {
+                List<CambioPotencia> cambios = pendientes.remove(s);
+                if (exito && cambios != null) {
+                    distribucionesPotencia.aplicar(cambios);
+                    rankingPotencia.aplicar(cambios);
+                }
+            });
+            return new ArrayList<>();
+        });
+    }
+}
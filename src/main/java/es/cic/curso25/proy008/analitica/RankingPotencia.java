@@ -0,0 +1,284 @@
+package es.cic.curso25.proy008.analitica;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.cic.curso25.proy008.dto.CochePuesto;
+import es.cic.curso25.proy008.dto.PotenciaVehiculo;
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+
+/**
+ * Los {@value #CAPACIDAD} coches más potentes de cada concesionario,
+ * mantenidos con cada alta, cambio y borrado, sin ordenar la tabla.
+ * <p>
+ * Cada concesionario guarda como mucho {@value #CAPACIDAD} coches, ordenados
+ * por potencia de mayor a menor (y por id a igual potencia). Mientras no se
+ * ha pasado de ahí la lista está <em>completa</em>: tiene todos sus coches.
+ * Si se pasa, se descarta el último y la lista solo tiene los primeros;
+ * entonces un coche que cae por debajo del último ya no se puede colocar
+ * (podría haber otros sin guardar por encima), y si los borrados dejan menos
+ * coches de los que se piden la consulta no responde y hay que
+ * {@link #rellenar(long, List, long) rellenarla} desde la BBDD. Por eso se
+ * guardan más coches de los que se piden: los borrados casi nunca la agotan.
+ * </p>
+ * <p>
+ * Los cambios son estados finales de cada coche, así que aplicarlos dos veces
+ * no descuadra nada. Lo mantienen {@link PotenciaListener} tras cada commit
+ * y las recargas de {@code AnaliticaService}; los cambios que llegan durante
+ * una recarga se guardan y se vuelven a aplicar sobre lo recargado, como en
+ * {@link DistribucionesPotencia}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class RankingPotencia {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RankingPotencia.class);
+
+    /**
+     * Coches que se guardan por concesionario.
+     */
+    public static final int CAPACIDAD = 40;
+
+    /**
+     * Máximo de coches que se pueden pedir; la mitad de {@link #CAPACIDAD},
+     * para que haya margen para borrados.
+     */
+    public static final int MAXIMO_K = CAPACIDAD / 2;
+
+    private static final Comparator<PotenciaVehiculo> ORDEN = Comparator
+            .comparingDouble(PotenciaVehiculo::potencia).reversed()
+            .thenComparing(PotenciaVehiculo::id);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Estado estado = new Estado();
+
+    // Cambios aplicados durante una recarga en curso
+    private List<CambioPotencia> durante;
+
+    // Cambios aplicados desde el arranque, para saber si un relleno llega tarde
+    private long cambios;
+
+    /**
+     * Aplica los cambios de una transacción confirmada; las motos se ignoran.
+     *
+     * @param cambios Estado final de cada vehículo tocado.
+     */
+    public void aplicar(List<CambioPotencia> cambios) {
+        lock.writeLock().lock();
+        try {
+            for (CambioPotencia cambio : cambios) {
+                if (cambio.tipo() != TipoVehiculo.COCHE) {
+                    continue;
+                }
+                if (durante != null) {
+                    durante.add(cambio);
+                }
+                estado.aplicar(cambio);
+                this.cambios++;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Olvida los coches de un concesionario vaciado con un borrado masivo.
+     *
+     * @param concesionarioId Concesionario vaciado.
+     */
+    public void vaciar(long concesionarioId) {
+        lock.writeLock().lock();
+        try {
+            estado.vaciar(concesionarioId);
+            cambios++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @param concesionarioId Concesionario.
+     * @param k               Coches que se piden, hasta {@link #MAXIMO_K}.
+     * @return los {@code k} coches más potentes del concesionario (menos si
+     *         no tiene tantos), o {@code null} si lo guardado no basta y hay
+     *         que {@link #rellenar(long, List, long) rellenarlo}.
+     */
+    public List<PotenciaVehiculo> consultar(long concesionarioId, int k) {
+        lock.readLock().lock();
+        try {
+            Top top = estado.tops.get(concesionarioId);
+            if (top == null) {
+                return List.of();
+            }
+            if (!top.completo && top.coches.size() < k) {
+                return null;
+            }
+            return top.coches.stream().limit(k).toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return número de cambios aplicados hasta ahora; se pasa a
+     *         {@link #rellenar(long, List, long)}.
+     */
+    public long getCambios() {
+        lock.readLock().lock();
+        try {
+            return cambios;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye los coches de un concesionario por los leídos de la BBDD,
+     * salvo que se haya aplicado algún cambio desde la lectura.
+     *
+     * @param concesionarioId Concesionario.
+     * @param coches          Sus {@link #CAPACIDAD} coches más potentes, en orden.
+     * @param leidos          {@link #getCambios()} antes de leerlos.
+     */
+    public void rellenar(long concesionarioId, List<PotenciaVehiculo> coches, long leidos) {
+        lock.writeLock().lock();
+        try {
+            if (cambios != leidos) {
+                return;
+            }
+            estado.vaciar(concesionarioId);
+            Top top = estado.tops.computeIfAbsent(concesionarioId, id -> new Top());
+            top.completo = coches.size() < CAPACIDAD;
+            coches.forEach(coche -> estado.cargar(concesionarioId, top, coche));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empieza una recarga: desde aquí se guardan los cambios para
+     * repetirlos en lo recargado.
+     */
+    public void empezarRecarga() {
+        lock.writeLock().lock();
+        try {
+            durante = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye todo el ranking por el calculado con los coches leídos de
+     * la BBDD, los mismos que recargan {@link ColumnasCoche}.
+     * <p>
+     * El puesto y el total de cada concesionario los calculan las funciones
+     * de ventana de la lectura: solo se guardan los coches con puesto hasta
+     * {@value #CAPACIDAD}, sin ordenar nada aquí, y la lista está completa si
+     * el concesionario no tiene más.
+     * </p>
+     *
+     * @param coches Todos los coches, con su puesto y el total de su concesionario.
+     */
+    public void terminarRecarga(List<CochePuesto> coches) {
+        Estado nuevo = new Estado();
+        for (CochePuesto coche : coches) {
+            if (coche.concesionarioId() == null || coche.puesto() > CAPACIDAD) {
+                continue;
+            }
+            Top top = nuevo.tops.computeIfAbsent(coche.concesionarioId(), id -> new Top());
+            top.completo = coche.coches() <= CAPACIDAD;
+            nuevo.cargar(coche.concesionarioId(), top,
+                    new PotenciaVehiculo(coche.id(), coche.marca(), coche.potencia()));
+        }
+        lock.writeLock().lock();
+        try {
+            if (durante != null) {
+                durante.forEach(nuevo::aplicar);
+                durante = null;
+            }
+            estado = nuevo;
+            cambios++;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.debug("Ranking de potencia recargado: {} concesionarios", nuevo.tops.size());
+    }
+
+    /**
+     * Coches guardados de cada concesionario y dónde está cada uno. Lo
+     * protege el cerrojo de {@link RankingPotencia}.
+     */
+    private static final class Estado {
+
+        private final Map<Long, Top> tops = new HashMap<>();
+
+        // Concesionario de cada coche guardado
+        private final Map<Long, Long> ubicacion = new HashMap<>();
+
+        void aplicar(CambioPotencia cambio) {
+            Long anterior = ubicacion.remove(cambio.id());
+            if (anterior != null) {
+                Top top = tops.get(anterior);
+                top.coches.remove(top.porId.remove(cambio.id()));
+                if (top.completo && top.coches.isEmpty()) {
+                    tops.remove(anterior);
+                }
+            }
+            if (!cambio.existe() || cambio.concesionarioId() == null) {
+                return;
+            }
+            PotenciaVehiculo coche = new PotenciaVehiculo(cambio.id(), cambio.marca(), cambio.potencia());
+            Top top = tops.computeIfAbsent(cambio.concesionarioId(), id -> new Top());
+            // En una lista incompleta no se sabe qué hay por debajo del último
+            if (!top.completo && (top.coches.isEmpty() || ORDEN.compare(coche, top.coches.last()) > 0)) {
+                return;
+            }
+            cargar(cambio.concesionarioId(), top, coche);
+            if (top.coches.size() > CAPACIDAD) {
+                PotenciaVehiculo ultimo = top.coches.pollLast();
+                top.porId.remove(ultimo.id());
+                ubicacion.remove(ultimo.id());
+                top.completo = false;
+            }
+        }
+
+        void cargar(long concesionarioId, Top top, PotenciaVehiculo coche) {
+            top.coches.add(coche);
+            top.porId.put(coche.id(), coche);
+            ubicacion.put(coche.id(), concesionarioId);
+        }
+
+        void vaciar(long concesionarioId) {
+            Top top = tops.remove(concesionarioId);
+            if (top != null) {
+                top.porId.keySet().forEach(ubicacion::remove);
+            }
+        }
+    }
+
+    /**
+     * Coches más potentes de un concesionario.
+     */
+    private static final class Top {
+
+        private final TreeSet<PotenciaVehiculo> coches = new TreeSet<>(ORDEN);
+
+        private final Map<Long, PotenciaVehiculo> porId = new HashMap<>();
+
+        // true si están todos los coches del concesionario
+        private boolean completo = true;
+    }
+}
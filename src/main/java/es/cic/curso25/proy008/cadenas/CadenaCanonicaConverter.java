@@ -0,0 +1,30 @@
+package es.cic.curso25.proy008.cadenas;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Conversor JPA que sustituye cada valor leído de la BBDD por su instancia
+ * de {@link CadenasCanonicas}. Hacia la BBDD no cambia nada.
+ * <p>
+ * Se aplica con {@code @Convert} solo a las columnas de pocos valores
+ * distintos; no es {@code autoApply}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Converter
+public class CadenaCanonicaConverter implements AttributeConverter<String, String> {
+
+    @Override
+    public String convertToDatabaseColumn(String atributo) {
+        return atributo;
+    }
+
+    @Override
+    public String convertToEntityAttribute(String columna) {
+        return CadenasCanonicas.canonica(columna);
+    }
+}
@@ -0,0 +1,32 @@
+package es.cic.curso25.proy008.cadenas;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.deser.std.StdScalarDeserializer;
+import com.fasterxml.jackson.databind.deser.std.StringDeserializer;
+
+/**
+ * Deserializador de Jackson que devuelve la instancia de
+ * {@link CadenasCanonicas} de cada cadena leída del JSON.
+ * <p>
+ * Acepta lo mismo que el deserializador de cadenas por defecto, al que
+ * delega.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class CadenaCanonicaDeserializer extends StdScalarDeserializer<String> {
+
+    public CadenaCanonicaDeserializer() {
+        super(String.class);
+    }
+
+    @Override
+    public String deserialize(JsonParser parser, DeserializationContext contexto) throws IOException {
+        return CadenasCanonicas.canonica(StringDeserializer.instance.deserialize(parser, contexto));
+    }
+}
@@ -0,0 +1,90 @@
+package es.cic.curso25.proy008.cadenas;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Diccionario compartido de cadenas canónicas para columnas con pocos
+ * valores distintos (marcas, tipos de moto, ciudades).
+ * <p>
+ * Cada fila que se carga o cada JSON que se lee trae su propia copia de la
+ * cadena; {@link #canonica(String)} devuelve siempre la misma instancia para
+ * el mismo texto, así que un millón de coches de diez marcas guardan diez
+ * cadenas y no un millón.
+ * </p>
+ * <p>
+ * El diccionario está acotado: admite como mucho {@value #MAXIMO} cadenas
+ * de hasta {@value #LONGITUD_MAXIMA} caracteres, y una vez lleno devuelve
+ * las nuevas tal cual. Así un valor con muchos distintos, por error o por
+ * abuso, no lo hace crecer sin límite. No se usa {@link String#intern()}
+ * porque la tabla de la JVM no tiene tope ni se puede medir.
+ * </p>
+ * <p>
+ * Se desactiva con la propiedad de sistema
+ * {@code -Dproy008.cadenas.canonicas=false}, para comparar el consumo de
+ * memoria.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public final class CadenasCanonicas {
+
+    /**
+     * Número máximo de cadenas del diccionario.
+     */
+    public static final int MAXIMO = 4096;
+
+    /**
+     * Longitud máxima de las cadenas que se admiten.
+     */
+    public static final int LONGITUD_MAXIMA = 64;
+
+    private static final boolean HABILITADO =
+            Boolean.parseBoolean(System.getProperty("proy008.cadenas.canonicas", "true"));
+
+    private static final Map<String, String> CADENAS = new ConcurrentHashMap<>();
+
+    private static final LongAdder FUERA = new LongAdder();
+
+    private CadenasCanonicas() {
+    }
+
+    /**
+     * @param valor Cadena recién leída.
+     * @return la instancia canónica de {@code valor}, o el propio
+     *         {@code valor} si es {@code null}, demasiado largo o el
+     *         diccionario está lleno.
+     */
+    public static String canonica(String valor) {
+        if (!HABILITADO || valor == null) {
+            return valor;
+        }
+        String canonica = CADENAS.get(valor);
+        if (canonica != null) {
+            return canonica;
+        }
+        if (valor.length() > LONGITUD_MAXIMA || CADENAS.size() >= MAXIMO) {
+            FUERA.increment();
+            return valor;
+        }
+        canonica = CADENAS.putIfAbsent(valor, valor);
+        return canonica != null ? canonica : valor;
+    }
+
+    /**
+     * @return cadenas del diccionario.
+     */
+    public static int getTamano() {
+        return CADENAS.size();
+    }
+
+    /**
+     * @return cadenas que no se admitieron por largas o por diccionario lleno.
+     */
+    public static long getFuera() {
+        return FUERA.sum();
+    }
+}
@@ -0,0 +1,109 @@
+package es.cic.curso25.proy008.cambios;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PreInsertEvent;
+import org.hibernate.event.spi.PreInsertEventListener;
+import org.hibernate.event.spi.PreUpdateEvent;
+import org.hibernate.event.spi.PreUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Lapida;
+import es.cic.curso25.proy008.model.Moto;
+
+/**
+ * Listener de Hibernate que numera cada alta y modificación de
+ * {@link Coche} y {@link Moto} en su columna {@value #PROPIEDAD}, y deja una
+ * {@link Lapida} por cada borrado.
+ * <p>
+ * La numeración se hace en {@code PRE_INSERT}/{@code PRE_UPDATE}, sobre el
+ * estado que Hibernate va a escribir, así que no provoca sentencias extra.
+ * Las lápidas se acumulan en un {@link LoteLapidas} por sesión que se
+ * escribe antes del commit, como el historial.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class CambiosListener implements PreInsertEventListener, PreUpdateEventListener, PostDeleteEventListener {
+
+    /**
+     * Propiedad de las entidades sincronizables con el número del último cambio.
+     */
+    public static final String PROPIEDAD = "secuencia";
+
+    private static final Set<Class<?>> ENTIDADES = Set.of(Coche.class, Moto.class);
+
+    private final Map<EventSource, LoteLapidas> lotes = new ConcurrentHashMap<>();
+
+    private final SecuenciaCambios secuenciaCambios;
+
+    /**
+     * @param secuenciaCambios Reparto de números de secuencia.
+     */
+    public CambiosListener(SecuenciaCambios secuenciaCambios) {
+        this.secuenciaCambios = secuenciaCambios;
+    }
+
+    @Override
+    public boolean onPreInsert(PreInsertEvent event) {
+        numerar(event.getSession(), event.getPersister(), event.getEntity(), event.getState());
+        return false;
+    }
+
+    @Override
+    public boolean onPreUpdate(PreUpdateEvent event) {
+        numerar(event.getSession(), event.getPersister(), event.getEntity(), event.getState());
+        return false;
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        EntityPersister persister = event.getPersister();
+        if (!ENTIDADES.contains(persister.getMappedClass())) {
+            return;
+        }
+        Lapida lapida = new Lapida(secuenciaCambios.siguiente(event.getSession()),
+                persister.getMappedClass().getSimpleName(), ((Number) event.getId()).longValue(), Instant.now());
+        lotes.computeIfAbsent(event.getSession(), this::nuevoLote).anotar(lapida);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void numerar(EventSource session, EntityPersister persister, Object entidad, Object[] estado) {
+        if (!ENTIDADES.contains(persister.getMappedClass())) {
+            return;
+        }
+        int indice = Arrays.asList(persister.getPropertyNames()).indexOf(PROPIEDAD);
+        Long secuencia = secuenciaCambios.siguiente(session);
+        // Se cambia el estado que se escribe y la entidad, para que no quede sucia
+        estado[indice] = secuencia;
+        persister.setValue(entidad, indice, secuencia);
+    }
+
+    /**
+     * Crea el lote de la sesión y lo registra en su cola de acciones; el
+     * segundo proceso lo olvida al acabar la transacción, también si se
+     * deshace.
+     */
+    private LoteLapidas nuevoLote(EventSource session) {
+        LoteLapidas lote = new LoteLapidas();
+        session.getActionQueue().registerProcess(lote);
+        session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (exito, s) -> lotes.remove(session));
+        return lote;
+    }
+}
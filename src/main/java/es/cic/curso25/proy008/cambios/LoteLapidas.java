@@ -0,0 +1,51 @@
+package es.cic.curso25.proy008.cambios;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import es.cic.curso25.proy008.model.Lapida;
+
+/**
+ * Lápidas de una transacción, escritas en un único lote JDBC justo antes
+ * del commit, dentro de la misma transacción que los borrados.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+class LoteLapidas implements BeforeTransactionCompletionProcess {
+
+    private static final String INSERT = "INSERT INTO lapida "
+            + "(secuencia, entidad, entidad_id, borrado_en) VALUES (?, ?, ?, ?)";
+
+    private final List<Lapida> lapidas = new ArrayList<>();
+
+    void anotar(Lapida lapida) {
+        lapidas.add(lapida);
+    }
+
+    @Override
+    public void doBeforeTransactionCompletion(SessionImplementor session) {
+        if (lapidas.isEmpty()) {
+            return;
+        }
+        session.doWork(conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(INSERT)) {
+                for (Lapida lapida : lapidas) {
+                    ps.setLong(1, lapida.getSecuencia());
+                    ps.setString(2, lapida.getEntidad());
+                    ps.setLong(3, lapida.getEntidadId());
+                    ps.setTimestamp(4, Timestamp.from(lapida.getBorradoEn()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+        lapidas.clear();
+    }
+}
@@ -0,0 +1,147 @@
+package es.cic.curso25.proy008.cambios;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+
+import es.cic.curso25.proy008.model.Lapida;
+
+/**
+ * Reparte los números de la secuencia de cambios ({@code cambio_seq}) y
+ * calcula hasta dónde puede leer {@code GET /cambios} sin saltarse nada.
+ * <p>
+ * Los valores se reservan de la BBDD en bloques de
+ * {@value Lapida#BLOQUE_SECUENCIA} y se entregan en orden creciente bajo un
+ * {@link ReentrantLock}, como {@code BloqueIdsOptimizer}.
+ * </p>
+ * <p>
+ * Que los números crezcan no basta: una transacción puede tomar el 10,
+ * otra el 11 y confirmar antes que la primera. Un cliente que leyera el 11
+ * guardaría ese token y nunca vería el 10. Por eso cada transacción que
+ * escribe registra un <em>suelo</em> (un valor menor o igual que todos los
+ * que va a tomar) hasta que termina, y las lecturas se cortan en el
+ * {@link #getHorizonte horizonte}: el menor suelo pendiente, o el siguiente
+ * al último valor entregado. Todo lo que queda por debajo está confirmado o
+ * deshecho. El cálculo es local a la instancia: con varias instancias
+ * escribiendo habría que compartir los suelos.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class SecuenciaCambios {
+
+    private final Map<SessionImplementor, Long> suelos = new ConcurrentHashMap<>();
+
+    private final AtomicLong ultimo = new AtomicLong();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Protegidos por «lock»
+    private long siguiente;
+
+    private long limite;
+
+    /**
+     * Siguiente número de la secuencia para un cambio de la transacción en
+     * curso de {@code session}.
+     *
+     * @param session Sesión que escribe el cambio.
+     * @return número de secuencia.
+     */
+    public long siguiente(SessionImplementor session) {
+        registrarSuelo(session);
+        lock.lock();
+        try {
+            if (siguiente == limite) {
+                reservarBloque(session);
+            }
+            ultimo.set(siguiente);
+            return siguiente++;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Descarta lo que queda del bloque y reserva otro. Se llama después de
+     * un {@code INSERT ... SELECT} que toma valores directamente de la BBDD,
+     * para que el horizonte pueda avanzar más allá de ellos.
+     *
+     * @param session Sesión que ha escrito el cambio.
+     */
+    public void saltarBloque(SessionImplementor session) {
+        registrarSuelo(session);
+        lock.lock();
+        try {
+            reservarBloque(session);
+            ultimo.set(siguiente - 1);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Primer número de secuencia que aún puede pertenecer a una transacción
+     * sin terminar. Las lecturas de cambios deben quedarse por debajo.
+     *
+     * @param session Sesión de la lectura; se usa para reservar el primer
+     *                bloque si la instancia aún no ha escrito nada.
+     * @return horizonte de lectura (exclusivo).
+     */
+    public long getHorizonte(SessionImplementor session) {
+        if (ultimo.get() == 0) {
+            // Sin escrituras propias no se conoce el último valor repartido
+            lock.lock();
+            try {
+                if (ultimo.get() == 0) {
+                    reservarBloque(session);
+                    ultimo.set(siguiente - 1);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        // El último valor se lee antes que los suelos: lo que se reparta
+        // después queda por encima
+        long horizonte = ultimo.get() + 1;
+        for (long suelo : suelos.values()) {
+            horizonte = Math.min(horizonte, suelo);
+        }
+        return horizonte;
+    }
+
+    /**
+     * @return transacciones con cambios sin terminar.
+     */
+    public int getPendientes() {
+        return suelos.size();
+    }
+
+    private void registrarSuelo(SessionImplementor session) {
+        suelos.computeIfAbsent(session, s -> {
+            s.getActionQueue().registerProcess(
+                    (AfterTransactionCompletionProcess) (exito, sesion) -> suelos.remove(s));
+            return ultimo.get() + 1;
+        });
+    }
+
+    private void reservarBloque(SessionImplementor session) {
+        String sql = session.getJdbcServices().getDialect().getSequenceSupport()
+                .getSequenceNextValString(Lapida.SECUENCIA);
+        siguiente = session.doReturningWork(conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(sql); ResultSet rs = ps.executeQuery()) {
+                rs.next();
+                return rs.getLong(1);
+            }
+        });
+        limite = siguiente + Lapida.BLOQUE_SECUENCIA;
+    }
+}
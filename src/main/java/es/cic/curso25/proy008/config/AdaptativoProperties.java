@@ -0,0 +1,119 @@
+package es.cic.curso25.proy008.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propiedades {@code proy008.adaptativo.*} del límite de concurrencia
+ * adaptativo que protege a todos los controladores.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@ConfigurationProperties(prefix = "proy008.adaptativo")
+public class AdaptativoProperties {
+
+    /**
+     * Activa o desactiva el descarte de carga.
+     */
+    private boolean habilitado = true;
+
+    /**
+     * Límite con el que arranca el servicio.
+     */
+    private int limiteInicial = 20;
+
+    /**
+     * Límite mínimo, aunque la latencia siga subiendo.
+     */
+    private int limiteMinimo = 4;
+
+    /**
+     * Límite máximo, aunque la latencia sea estable.
+     */
+    private int limiteMaximo = 200;
+
+    /**
+     * Parte del límite disponible para las lecturas; el resto se reserva a escrituras.
+     */
+    private double fraccionLecturas = 0.75;
+
+    /**
+     * Crecimiento de latencia tolerado sobre la base antes de reducir el límite.
+     */
+    private double tolerancia = 1.5;
+
+    /**
+     * Peso de cada recálculo sobre el límite anterior.
+     */
+    private double suavizado = 0.2;
+
+    /**
+     * Muestras de la media móvil que hace de línea base.
+     */
+    private int ventanaLarga = 600;
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public int getLimiteInicial() {
+        return limiteInicial;
+    }
+
+    public void setLimiteInicial(int limiteInicial) {
+        this.limiteInicial = limiteInicial;
+    }
+
+    public int getLimiteMinimo() {
+        return limiteMinimo;
+    }
+
+    public void setLimiteMinimo(int limiteMinimo) {
+        this.limiteMinimo = limiteMinimo;
+    }
+
+    public int getLimiteMaximo() {
+        return limiteMaximo;
+    }
+
+    public void setLimiteMaximo(int limiteMaximo) {
+        this.limiteMaximo = limiteMaximo;
+    }
+
+    public double getFraccionLecturas() {
+        return fraccionLecturas;
+    }
+
+    public void setFraccionLecturas(double fraccionLecturas) {
+        this.fraccionLecturas = fraccionLecturas;
+    }
+
+    public double getTolerancia() {
+        return tolerancia;
+    }
+
+    public void setTolerancia(double tolerancia) {
+        this.tolerancia = tolerancia;
+    }
+
+    public double getSuavizado() {
+        return suavizado;
+    }
+
+    public void setSuavizado(double suavizado) {
+        this.suavizado = suavizado;
+    }
+
+    public int getVentanaLarga() {
+        return ventanaLarga;
+    }
+
+    public void setVentanaLarga(int ventanaLarga) {
+        this.ventanaLarga = ventanaLarga;
+    }
+}
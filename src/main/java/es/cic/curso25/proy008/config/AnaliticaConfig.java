@@ -0,0 +1,66 @@
+package es.cic.curso25.proy008.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import es.cic.curso25.proy008.analitica.DistribucionesPotencia;
+import es.cic.curso25.proy008.analitica.PotenciaListener;
+import es.cic.curso25.proy008.analitica.RankingPotencia;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Configuración de los histogramas de potencia de {@code /analitica/potencia}
+ * y del ranking de {@code /concesionarios/{id}/top-potencia}.
+ * <p>
+ * Registra {@link PotenciaListener} en los eventos {@code POST_INSERT},
+ * {@code POST_UPDATE} y {@code POST_DELETE} de Hibernate. La recarga la hace
+ * {@code AnaliticaService} cada {@code proy008.analitica.recarga}
+ * milisegundos.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class AnaliticaConfig {
+
+    /**
+     * @return histogramas de potencia de las motos por marca.
+     */
+    @Bean
+    public DistribucionesPotencia distribucionesPotencia() {
+        return new DistribucionesPotencia();
+    }
+
+    /**
+     * @return coches más potentes de cada concesionario.
+     */
+    @Bean
+    public RankingPotencia rankingPotencia() {
+        return new RankingPotencia();
+    }
+
+    /**
+     * Listener de potencia, ya registrado en la factoría de sesiones.
+     *
+     * @param entityManagerFactory   Factoría JPA.
+     * @param distribucionesPotencia Histogramas a los que se llevan los cambios.
+     * @param rankingPotencia        Ranking al que se llevan los cambios.
+     * @return listener registrado.
+     */
+    @Bean
+    public PotenciaListener potenciaListener(EntityManagerFactory entityManagerFactory,
+            DistribucionesPotencia distribucionesPotencia, RankingPotencia rankingPotencia) {
+        PotenciaListener listener = new PotenciaListener(distribucionesPotencia, rankingPotencia);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        return listener;
+    }
+}
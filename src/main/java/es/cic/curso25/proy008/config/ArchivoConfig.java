@@ -0,0 +1,55 @@
+package es.cic.curso25.proy008.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuración del archivo de vehículos borrados.
+ * <p>
+ * Activa las tareas programadas ({@code @Scheduled}) de
+ * {@code ArchivoService} y define el ejecutor de un solo hilo que vuelca
+ * las filas pendientes en cuanto se llena un lote, sin esperar al siguiente
+ * ciclo programado.
+ * </p>
+ * <p>
+ * Propiedades:
+ * <ul>
+ *   <li>{@code proy008.archivo.lote} – filas por lote JDBC (por defecto 500).</li>
+ *   <li>{@code proy008.archivo.intervalo} – milisegundos entre volcados (por defecto 1000).</li>
+ *   <li>{@code proy008.archivo.retencion} – antigüedad a partir de la que se purga (por defecto 365d).</li>
+ *   <li>{@code proy008.archivo.compactacion} – expresión cron de la compactación (por defecto a las 3:00).</li>
+ * </ul>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+@EnableScheduling
+public class ArchivoConfig {
+
+    /**
+     * Ejecutor de los volcados al archivo.
+     *
+     * @param virtuales Si se usan hilos virtuales.
+     * @return ejecutor inicializado por Spring.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor archivoExecutor(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtuales) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("archivo-");
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        // Basta un aviso pendiente: el volcado se lleva todo lo que haya en la cola
+        executor.setQueueCapacity(1);
+        executor.setRejectedExecutionHandler((tarea, pool) -> { });
+        executor.setVirtualThreads(virtuales);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
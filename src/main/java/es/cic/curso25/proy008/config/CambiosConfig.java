@@ -0,0 +1,55 @@
+package es.cic.curso25.proy008.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import es.cic.curso25.proy008.cambios.CambiosListener;
+import es.cic.curso25.proy008.cambios.SecuenciaCambios;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Configuración de la secuencia de cambios que sirve {@code GET /cambios}.
+ * <p>
+ * Registra {@link CambiosListener} en los eventos {@code PRE_INSERT},
+ * {@code PRE_UPDATE} y {@code POST_DELETE} de Hibernate. A diferencia del
+ * historial no se puede desactivar: sin él las filas nuevas no tendrían
+ * secuencia y los clientes dejarían de verlas.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class CambiosConfig {
+
+    /**
+     * @return reparto de números de la secuencia de cambios.
+     */
+    @Bean
+    public SecuenciaCambios secuenciaCambios() {
+        return new SecuenciaCambios();
+    }
+
+    /**
+     * Listener de cambios, ya registrado en la factoría de sesiones.
+     *
+     * @param entityManagerFactory Factoría JPA.
+     * @param secuenciaCambios     Reparto de números de secuencia.
+     * @return listener registrado.
+     */
+    @Bean
+    public CambiosListener cambiosListener(EntityManagerFactory entityManagerFactory,
+            SecuenciaCambios secuenciaCambios) {
+        CambiosListener listener = new CambiosListener(secuenciaCambios);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.PRE_INSERT, listener);
+        registry.appendListeners(EventType.PRE_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        return listener;
+    }
+}
@@ -0,0 +1,54 @@
+package es.cic.curso25.proy008.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuración del ejecutor dedicado del dashboard.
+ * <p>
+ * Las consultas de {@code GET /dashboard} se lanzan en paralelo sobre este
+ * ejecutor para no competir con el {@code applicationTaskExecutor} ni con los
+ * hilos de Tomcat. Con {@code spring.threads.virtual.enabled=true} sus hilos
+ * son virtuales; el límite real de concurrencia contra la BBDD lo sigue
+ * marcando el pool de conexiones.
+ * </p>
+ * <p>
+ * Propiedades:
+ * <ul>
+ *   <li>{@code proy008.dashboard.hilos} – tamaño del pool (por defecto 8).</li>
+ *   <li>{@code proy008.dashboard.cola} – peticiones en espera (por defecto 100).</li>
+ * </ul>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class DashboardConfig {
+
+    /**
+     * Ejecutor de las consultas del dashboard.
+     *
+     * @param hilos    Número de hilos del pool.
+     * @param cola     Capacidad de la cola de tareas.
+     * @param virtuales Si se usan hilos virtuales.
+     * @return ejecutor inicializado por Spring.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor dashboardExecutor(
+            @Value("${proy008.dashboard.hilos:8}") int hilos,
+            @Value("${proy008.dashboard.cola:100}") int cola,
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtuales) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("dashboard-");
+        executor.setCorePoolSize(hilos);
+        executor.setMaxPoolSize(hilos);
+        executor.setQueueCapacity(cola);
+        executor.setVirtualThreads(virtuales);
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        return executor;
+    }
+}
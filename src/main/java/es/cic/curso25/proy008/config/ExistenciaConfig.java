@@ -0,0 +1,59 @@
+package es.cic.curso25.proy008.config;
+
+import java.util.Set;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import es.cic.curso25.proy008.existencia.ExistenciaListener;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.model.Motorista;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Configuración de los filtros de existencia que usan {@code update} y
+ * {@code delete} para no consultar ids que seguro que no existen.
+ * <p>
+ * Registra {@link ExistenciaListener} en los eventos {@code PERSIST},
+ * {@code POST_INSERT} y {@code POST_DELETE} de Hibernate para {@link Coche}, {@link Moto} y
+ * {@link Motorista}.
+ * </p>
+ * <p>
+ * Propiedades:
+ * <ul>
+ *   <li>{@code proy008.existencia.habilitado} – si se descartan ids sin consultar (por defecto true).</li>
+ *   <li>{@code proy008.existencia.recarga} – milisegundos entre recargas desde la BBDD (por defecto 600000).</li>
+ * </ul>
+ * Los filtros solo ven lo que escribe esta instancia: con varias
+ * instancias sobre la misma BBDD debe desactivarse.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class ExistenciaConfig {
+
+    /**
+     * Listener de existencia, ya registrado en la factoría de sesiones.
+     *
+     * @param entityManagerFactory Factoría JPA.
+     * @return listener registrado.
+     */
+    @Bean
+    public ExistenciaListener existenciaListener(EntityManagerFactory entityManagerFactory) {
+        ExistenciaListener listener = new ExistenciaListener(Set.of(Coche.class, Moto.class, Motorista.class));
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        // Tras el listener por defecto, que es quien asigna el id
+        registry.appendListeners(EventType.PERSIST, listener);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        return listener;
+    }
+}
@@ -0,0 +1,130 @@
+package es.cic.curso25.proy008.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistration;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+import es.cic.curso25.proy008.flota.EncendidoListener;
+import es.cic.curso25.proy008.flota.EstadoEncendido;
+import es.cic.curso25.proy008.flota.FlotaWebSocketHandler;
+import es.cic.curso25.proy008.flota.IndiceEncendido;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Configuración del canal WebSocket {@code /ws/flota} con el encendido de
+ * coches y motos, y del índice en memoria de vehículos encendidos.
+ * <p>
+ * Registra {@link EncendidoListener} en los eventos {@code POST_INSERT},
+ * {@code POST_UPDATE} y {@code POST_DELETE} de Hibernate y publica
+ * {@link FlotaWebSocketHandler}. Los envíos se hacen en hilos virtuales,
+ * como los del inventario en vivo.
+ * </p>
+ * <p>
+ * Propiedades:
+ * <ul>
+ *   <li>{@code proy008.flota.tick} – milisegundos entre deltas (por defecto 250).</li>
+ *   <li>{@code proy008.flota.recarga} – milisegundos entre recargas desde la BBDD (por defecto 30000).</li>
+ *   <li>{@code proy008.flota.origenes} – orígenes permitidos, separados por comas (por defecto solo el propio).</li>
+ * </ul>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+@EnableWebSocket
+public class FlotaConfig implements WebSocketConfigurer {
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    private final String[] origenes;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param meterRegistry Registro de métricas, si existe.
+     * @param origenes      Orígenes permitidos.
+     */
+    public FlotaConfig(ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${proy008.flota.origenes:}") String[] origenes) {
+        this.meterRegistry = meterRegistry;
+        this.origenes = origenes;
+    }
+
+    /**
+     * @return estado de encendido de la flota.
+     */
+    @Bean
+    public EstadoEncendido estadoEncendido() {
+        return new EstadoEncendido();
+    }
+
+    /**
+     * @return índice de vehículos encendidos por concesionario.
+     */
+    @Bean
+    public IndiceEncendido indiceEncendido() {
+        return new IndiceEncendido();
+    }
+
+    /**
+     * Listener de encendido, ya registrado en la factoría de sesiones.
+     *
+     * @param entityManagerFactory Factoría JPA.
+     * @param estadoEncendido      Estado al que se llevan los cambios.
+     * @param indiceEncendido      Índice al que se llevan los cambios.
+     * @return listener registrado.
+     */
+    @Bean
+    public EncendidoListener encendidoListener(EntityManagerFactory entityManagerFactory,
+            EstadoEncendido estadoEncendido, IndiceEncendido indiceEncendido) {
+        EncendidoListener listener = new EncendidoListener(estadoEncendido, indiceEncendido);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        return listener;
+    }
+
+    /**
+     * Ejecutor de los envíos a las sesiones.
+     *
+     * @return ejecutor de hilos virtuales.
+     */
+    @Bean
+    public SimpleAsyncTaskExecutor flotaExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("flota-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * @return manejador de {@code /ws/flota}.
+     */
+    @Bean
+    public FlotaWebSocketHandler flotaWebSocketHandler() {
+        return new FlotaWebSocketHandler(estadoEncendido(), flotaExecutor(),
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        WebSocketHandlerRegistration registro = registry.addHandler(flotaWebSocketHandler(), "/ws/flota");
+        if (origenes.length > 0) {
+            registro.setAllowedOrigins(origenes);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package es.cic.curso25.proy008.config;
+
+import java.time.Duration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import es.cic.curso25.proy008.datasource.BulkheadDataSource;
+
+/**
+ * Configuración del modo de ejecución con hilos virtuales.
+ * <p>
+ * Solo se activa con {@code spring.threads.virtual.enabled=true} (perfil
+ * {@code virtual}) sobre Java 21. En ese modo Tomcat atiende cada petición
+ * en un hilo virtual y cada pool de {@link LecturaEscrituraDataSourceConfig}
+ * queda detrás de su propio {@link BulkheadDataSource}, con tantos permisos
+ * por defecto como conexiones tiene ese pool. El bulkhead va sobre cada pool
+ * y no sobre el proxy de enrutado: un único semáforo del tamaño de un pool
+ * limitaría lecturas y escrituras juntas y dejaría sin usar la mitad de las
+ * conexiones.
+ * </p>
+ * <p>
+ * Propiedades:
+ * <ul>
+ *   <li>{@code proy008.bulkhead.max-concurrencia} – permisos del pool de escritura.</li>
+ *   <li>{@code proy008.bulkhead.lectura.max-concurrencia} – permisos del pool de lectura.</li>
+ *   <li>{@code proy008.bulkhead.tiempo-espera} – espera máxima por un permiso.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class HilosVirtualesConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HilosVirtualesConfig.class);
+
+    /**
+     * Pone un {@link BulkheadDataSource} delante de cada pool del
+     * {@code dataSource} de enrutado.
+     * <p>
+     * Es {@code static} para que el post-procesador se registre antes de que
+     * se cree el {@code DataSource}.
+     * </p>
+     *
+     * @param environment entorno de Spring del que se leen los límites.
+     * @param beanFactory factoría de la que se obtienen los pools.
+     * @return post-procesador que aplica los bulkheads.
+     */
+    @Bean
+    static BeanPostProcessor bulkheadDataSourcePostProcessor(Environment environment, BeanFactory beanFactory) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof LazyConnectionDataSourceProxy dataSource)) {
+                    return bean;
+                }
+                Duration tiempoEspera = environment.getProperty("proy008.bulkhead.tiempo-espera",
+                        Duration.class, Duration.ofSeconds(5));
+                dataSource.setTargetDataSource(bulkhead(environment, "proy008.bulkhead.max-concurrencia",
+                        beanFactory.getBean("escrituraDataSource", HikariDataSource.class), tiempoEspera));
+                dataSource.setReadOnlyDataSource(bulkhead(environment, "proy008.bulkhead.lectura.max-concurrencia",
+                        beanFactory.getBean("lecturaDataSource", HikariDataSource.class), tiempoEspera));
+                return dataSource;
+            }
+        };
+    }
+
+    private static BulkheadDataSource bulkhead(Environment environment, String propiedad, HikariDataSource pool,
+            Duration tiempoEspera) {
+        int maxConcurrencia = environment.getProperty(propiedad, Integer.class, pool.getMaximumPoolSize());
+        LOGGER.info("Hilos virtuales activos: bulkhead de BBDD con {} permisos sobre el pool {}",
+                maxConcurrencia, pool.getPoolName());
+        return new BulkheadDataSource(pool, maxConcurrencia, tiempoEspera);
+    }
+}
@@ -0,0 +1,53 @@
+package es.cic.curso25.proy008.config;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.cic.curso25.proy008.historial.HistorialListener;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Configuración del historial de cambios.
+ * <p>
+ * Registra {@link HistorialListener} en los eventos {@code POST_INSERT} y
+ * {@code POST_UPDATE} de Hibernate. La propiedad
+ * {@code proy008.historial.instantanea-cada} (por defecto 10) acota cuántas
+ * diferencias hay que aplicar para reconstruir una versión y
+ * {@code proy008.historial.habilitado=false} deja de escribirlo.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class HistorialConfig {
+
+    /**
+     * Listener del historial, ya registrado en la factoría de sesiones.
+     *
+     * @param entityManagerFactory Factoría JPA.
+     * @param objectMapper         Serializador JSON de Spring.
+     * @param instantaneaCada      Cada cuántas versiones se guarda el estado completo.
+     * @return listener registrado.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "proy008.historial.habilitado", matchIfMissing = true)
+    public HistorialListener historialListener(EntityManagerFactory entityManagerFactory,
+            ObjectMapper objectMapper,
+            @Value("${proy008.historial.instantanea-cada:10}") int instantaneaCada) {
+        HistorialListener listener = new HistorialListener(objectMapper, instantaneaCada);
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        return listener;
+    }
+}
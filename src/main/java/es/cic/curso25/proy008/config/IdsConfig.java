@@ -0,0 +1,65 @@
+package es.cic.curso25.proy008.config;
+
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import es.cic.curso25.proy008.id.GeneradorIdAgrupado;
+import es.cic.curso25.proy008.id.MigracionSecuencias;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Moto;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Configuración de la generación de ids por bloques ({@code proy008.ids.*}).
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class IdsConfig {
+
+    /**
+     * Pasa a Hibernate el tamaño de bloque de {@link GeneradorIdAgrupado}.
+     * <p>
+     * Además, una secuencia existente con otro incremento sólo se registra en
+     * el log en vez de impedir el arranque: la corrige {@link MigracionSecuencias}.
+     * </p>
+     *
+     * @param tamanoBloque Ids reservados por cada llamada a la secuencia.
+     * @return personalizador de las propiedades de Hibernate.
+     */
+    @Bean
+    public HibernatePropertiesCustomizer tamanoBloqueIds(
+            @Value("${proy008.ids.tamano-bloque:" + GeneradorIdAgrupado.TAMANO_BLOQUE_POR_DEFECTO + "}") int tamanoBloque) {
+        return properties -> {
+            properties.put(GeneradorIdAgrupado.TAMANO_BLOQUE, tamanoBloque);
+            properties.put("hibernate.id.sequence.increment_size_mismatch_strategy", "log");
+        };
+    }
+
+    /**
+     * Reinicia las secuencias por encima de los ids existentes al arrancar,
+     * contando también los de coches y motos borrados que siguen en el
+     * archivo o en las lápidas.
+     *
+     * @param entityManagerFactory Factoría JPA.
+     * @param jdbcTemplate         Acceso JDBC.
+     * @return migrador de secuencias.
+     */
+    @Bean
+    public MigracionSecuencias migracionSecuencias(EntityManagerFactory entityManagerFactory,
+            JdbcTemplate jdbcTemplate) {
+        return new MigracionSecuencias(entityManagerFactory, jdbcTemplate, Map.of(
+                Coche.class, List.of("SELECT MAX(id) FROM coche_archivo",
+                        "SELECT MAX(entidad_id) FROM lapida WHERE entidad = 'Coche'"),
+                Moto.class, List.of("SELECT MAX(id) FROM moto_archivo",
+                        "SELECT MAX(entidad_id) FROM lapida WHERE entidad = 'Moto'")));
+    }
+}
@@ -0,0 +1,42 @@
+package es.cic.curso25.proy008.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+
+/**
+ * Configuración del inventario en vivo ({@code InventarioEnVivoService}).
+ * <p>
+ * Cada envío a un suscriptor puede quedarse bloqueado mientras su cliente
+ * no lee, así que se hace en hilos virtuales: un cliente lento no ocupa un
+ * hilo de plataforma ni retrasa a los demás. Requiere Java 21, como el
+ * resto del proyecto.
+ * </p>
+ * <p>
+ * Propiedades:
+ * <ul>
+ *   <li>{@code proy008.inventario.buffer} – eventos pendientes por suscriptor antes de descartarlo (por defecto 64).</li>
+ *   <li>{@code proy008.inventario.timeout} – duración máxima de una conexión (por defecto 30m).</li>
+ *   <li>{@code proy008.inventario.latido} – milisegundos entre comentarios de latido (por defecto 15000).</li>
+ * </ul>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class InventarioConfig {
+
+    /**
+     * Ejecutor de los envíos SSE.
+     *
+     * @return ejecutor de hilos virtuales.
+     */
+    @Bean
+    public SimpleAsyncTaskExecutor inventarioExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("inventario-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+}
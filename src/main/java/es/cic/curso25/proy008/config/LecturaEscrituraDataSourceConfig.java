@@ -0,0 +1,90 @@
+package es.cic.curso25.proy008.config;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Separa lecturas y escrituras en dos pools de conexiones.
+ * <p>
+ * El {@code dataSource} que usan JPA y el resto de la aplicación es un
+ * {@link LazyConnectionDataSourceProxy}: no pide conexión física hasta la
+ * primera sentencia y, si para entonces la transacción se ha marcado
+ * {@code @Transactional(readOnly = true)}, la toma del pool de lectura
+ * (réplica); en cualquier otro caso, del de escritura (primario).
+ * </p>
+ * <p>
+ * Propiedades:
+ * <ul>
+ *   <li>{@code spring.datasource.*} – primario, como hasta ahora.</li>
+ *   <li>{@code proy008.replica.hikari.*} – pool de la réplica. Si no se indica
+ *       {@code jdbc-url}, apunta a la misma BBDD que el primario, lo que en
+ *       local y en los tests (H2 en memoria) la mantiene sincronizada sin más.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class LecturaEscrituraDataSourceConfig {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LecturaEscrituraDataSourceConfig.class);
+
+    /**
+     * Pool del primario, que atiende todas las transacciones de escritura.
+     *
+     * @param properties Propiedades {@code spring.datasource.*}.
+     * @return pool Hikari del primario.
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource escrituraDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("escritura");
+        return dataSource;
+    }
+
+    /**
+     * Pool de la réplica, que atiende las transacciones de solo lectura.
+     *
+     * @param properties Propiedades {@code spring.datasource.*}, de las que se
+     *                   heredan URL y credenciales si no se sobrescriben.
+     * @return pool Hikari de la réplica.
+     */
+    @Bean
+    @ConfigurationProperties("proy008.replica.hikari")
+    public HikariDataSource lecturaDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("lectura");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * {@code DataSource} principal: enruta según el marcador de solo lectura
+     * de la transacción en curso.
+     *
+     * @param escrituraDataSource Pool del primario.
+     * @param lecturaDataSource   Pool de la réplica.
+     * @return proxy de enrutado.
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource escrituraDataSource, HikariDataSource lecturaDataSource) {
+        LOGGER.info("Lecturas en {}, escrituras en {}", lecturaDataSource.getJdbcUrl(), escrituraDataSource.getJdbcUrl());
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(escrituraDataSource);
+        dataSource.setReadOnlyDataSource(lecturaDataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,146 @@
+package es.cic.curso25.proy008.config;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Propiedades {@code proy008.limites.*} del limitador por ruta.
+ * <p>
+ * Cada entrada de {@code rutas} define, para un método HTTP y un patrón de
+ * ruta, un token bucket por cliente y, opcionalmente, un bulkhead común a
+ * todos los clientes. El cliente se identifica por la cabecera
+ * {@code cabeceraCliente} o, si no llega, por la IP remota.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@ConfigurationProperties(prefix = "proy008.limites")
+public class LimitesProperties {
+
+    /**
+     * Activa o desactiva por completo el limitador.
+     */
+    private boolean habilitado = true;
+
+    /**
+     * Cabecera con la clave de cliente.
+     */
+    private String cabeceraCliente = "X-Cliente-Id";
+
+    /**
+     * Número máximo de buckets por ruta antes de purgar los inactivos.
+     */
+    private int maxClientes = 10_000;
+
+    /**
+     * Rutas limitadas.
+     */
+    private List<Ruta> rutas = new ArrayList<>();
+
+    public boolean isHabilitado() {
+        return habilitado;
+    }
+
+    public void setHabilitado(boolean habilitado) {
+        this.habilitado = habilitado;
+    }
+
+    public String getCabeceraCliente() {
+        return cabeceraCliente;
+    }
+
+    public void setCabeceraCliente(String cabeceraCliente) {
+        this.cabeceraCliente = cabeceraCliente;
+    }
+
+    public int getMaxClientes() {
+        return maxClientes;
+    }
+
+    public void setMaxClientes(int maxClientes) {
+        this.maxClientes = maxClientes;
+    }
+
+    public List<Ruta> getRutas() {
+        return rutas;
+    }
+
+    public void setRutas(List<Ruta> rutas) {
+        this.rutas = rutas;
+    }
+
+    /**
+     * Límites de una ruta concreta.
+     */
+    public static class Ruta {
+
+        /**
+         * Método HTTP (GET, DELETE...).
+         */
+        private String metodo;
+
+        /**
+         * Patrón de ruta, con la sintaxis de {@code @RequestMapping}.
+         */
+        private String patron;
+
+        /**
+         * Ráfaga máxima de peticiones por cliente.
+         */
+        private int capacidad = 100;
+
+        /**
+         * Peticiones por segundo que recupera cada cliente.
+         */
+        private double recargaPorSegundo = 50;
+
+        /**
+         * Peticiones simultáneas en la ruta; 0 desactiva el bulkhead.
+         */
+        private int maxConcurrencia = 0;
+
+        public String getMetodo() {
+            return metodo;
+        }
+
+        public void setMetodo(String metodo) {
+            this.metodo = metodo;
+        }
+
+        public String getPatron() {
+            return patron;
+        }
+
+        public void setPatron(String patron) {
+            this.patron = patron;
+        }
+
+        public int getCapacidad() {
+            return capacidad;
+        }
+
+        public void setCapacidad(int capacidad) {
+            this.capacidad = capacidad;
+        }
+
+        public double getRecargaPorSegundo() {
+            return recargaPorSegundo;
+        }
+
+        public void setRecargaPorSegundo(double recargaPorSegundo) {
+            this.recargaPorSegundo = recargaPorSegundo;
+        }
+
+        public int getMaxConcurrencia() {
+            return maxConcurrencia;
+        }
+
+        public void setMaxConcurrencia(int maxConcurrencia) {
+            this.maxConcurrencia = maxConcurrencia;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package es.cic.curso25.proy008.config;
+
+import java.nio.file.Path;
+import java.util.List;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.cic.curso25.proy008.outbox.DestinoEventos;
+import es.cic.curso25.proy008.outbox.FicheroDestino;
+import es.cic.curso25.proy008.outbox.ListenerDestino;
+import es.cic.curso25.proy008.outbox.RelevoOutbox;
+import es.cic.curso25.proy008.repository.EventoSalidaRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Configuración del outbox de eventos de dominio.
+ * <p>
+ * Propiedades:
+ * <ul>
+ *   <li>{@code proy008.outbox.lote} – eventos por lote (por defecto 200).</li>
+ *   <li>{@code proy008.outbox.intervalo} – milisegundos entre rondas del relé (por defecto 500).</li>
+ *   <li>{@code proy008.outbox.fichero.habilitado} – activa el destino NDJSON (por defecto true).</li>
+ *   <li>{@code proy008.outbox.fichero.ruta} – fichero del destino NDJSON.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+public class OutboxConfig {
+
+    /**
+     * Destino en proceso, para los {@code @EventListener} de la aplicación.
+     *
+     * @param eventPublisher Publicador de eventos de Spring.
+     * @return destino {@code listener}.
+     */
+    @Bean
+    public ListenerDestino listenerDestino(ApplicationEventPublisher eventPublisher) {
+        return new ListenerDestino(eventPublisher);
+    }
+
+    /**
+     * Destino en fichero NDJSON.
+     *
+     * @param ruta         Fichero de salida.
+     * @param objectMapper Serializador JSON.
+     * @return destino {@code fichero}.
+     */
+    @Bean
+    @ConditionalOnProperty(name = "proy008.outbox.fichero.habilitado", matchIfMissing = true)
+    public FicheroDestino ficheroDestino(
+            @Value("${proy008.outbox.fichero.ruta:${java.io.tmpdir}/proy008/outbox.ndjson}") Path ruta,
+            ObjectMapper objectMapper) {
+        return new FicheroDestino(ruta, objectMapper);
+    }
+
+    /**
+     * Relé que entrega el outbox a todos los destinos declarados.
+     *
+     * @param eventoSalidaRepository Repositorio del outbox.
+     * @param destinos               Destinos declarados como beans.
+     * @param transactionManager     Gestor de transacciones.
+     * @param meterRegistry          Registro de métricas, si existe.
+     * @param lote                   Eventos por lote.
+     * @return relé programado.
+     */
+    @Bean
+    public RelevoOutbox relevoOutbox(EventoSalidaRepository eventoSalidaRepository, List<DestinoEventos> destinos,
+            PlatformTransactionManager transactionManager, ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${proy008.outbox.lote:200}") int lote) {
+        return new RelevoOutbox(eventoSalidaRepository, destinos, transactionManager,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new), lote);
+    }
+}
@@ -0,0 +1,80 @@
+package es.cic.curso25.proy008.config;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import es.cic.curso25.proy008.interceptor.LimiteAdaptativoInterceptor;
+import es.cic.curso25.proy008.interceptor.LimiteRutaInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Configuración de Spring MVC: registra los interceptores que se ejecutan
+ * delante de los controladores REST.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Configuration
+@EnableConfigurationProperties({ LimitesProperties.class, AdaptativoProperties.class })
+public class WebConfig implements WebMvcConfigurer {
+
+    private final LimitesProperties limitesProperties;
+
+    private final AdaptativoProperties adaptativoProperties;
+
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param limitesProperties    Configuración del limitador por ruta.
+     * @param adaptativoProperties Configuración del límite adaptativo.
+     * @param meterRegistry        Registro de métricas; en los tests de capa web
+     *                             puede no existir y se usa uno en memoria.
+     */
+    public WebConfig(LimitesProperties limitesProperties, AdaptativoProperties adaptativoProperties,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.limitesProperties = limitesProperties;
+        this.adaptativoProperties = adaptativoProperties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Limitador de tasa y concurrencia por ruta.
+     *
+     * @return interceptor configurado con {@code proy008.limites.*}.
+     */
+    @Bean
+    public LimiteRutaInterceptor limiteRutaInterceptor() {
+        return new LimiteRutaInterceptor(limitesProperties, meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /**
+     * Descarte de carga con límite de concurrencia adaptativo.
+     *
+     * @return interceptor configurado con {@code proy008.adaptativo.*}.
+     */
+    @Bean
+    public LimiteAdaptativoInterceptor limiteAdaptativoInterceptor() {
+        return new LimiteAdaptativoInterceptor(adaptativoProperties,
+                meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        // El descarte adaptativo va primero: rechaza antes de gastar tokens por cliente.
+        // Deja pasar por sí mismo los flujos (SSE, /reactivo/**), que durarían minutos
+        if (adaptativoProperties.isHabilitado()) {
+            registry.addInterceptor(limiteAdaptativoInterceptor());
+        }
+        if (limitesProperties.isHabilitado()) {
+            registry.addInterceptor(limiteRutaInterceptor());
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package es.cic.curso25.proy008.controller;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import es.cic.curso25.proy008.dto.DistribucionPotencia;
+import es.cic.curso25.proy008.dto.GrupoAnalitica;
+import es.cic.curso25.proy008.enums.AgregadoAnalitica;
+import es.cic.curso25.proy008.enums.AgrupacionAnalitica;
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+import es.cic.curso25.proy008.service.AnaliticaService;
+
+/**
+ * Controlador REST de analítica de coches y motos.
+ * <p>
+ * Responde con la copia en columnas y los histogramas de potencia de
+ * {@link AnaliticaService}, sin cargar entidades ni consultar la BBDD.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@RestController
+@RequestMapping("/analitica")
+public class AnaliticaController {
+
+    private final AnaliticaService analiticaService;
+
+    /**
+     * Constructor para la inyección del servicio de analítica.
+     *
+     * @param analiticaService Servicio con la copia en columnas.
+     */
+    public AnaliticaController(AnaliticaService analiticaService) {
+        this.analiticaService = analiticaService;
+    }
+
+    /**
+     * GET /analitica/coches : potencia agregada por marca o concesionario.
+     *
+     * @param groupBy   {@code marca} o {@code concesionario}.
+     * @param agg       {@code avg}, {@code max} o {@code count}.
+     * @param encendido Si se indica, solo los coches con ese encendido.
+     * @return un grupo por marca o concesionario, ordenados por clave.
+     */
+    @GetMapping("/coches")
+    public List<GrupoAnalitica> getCoches(@RequestParam(defaultValue = "marca") String groupBy,
+            @RequestParam(defaultValue = "count") String agg,
+            @RequestParam(required = false) Boolean encendido) {
+        AgrupacionAnalitica agrupacion = AgrupacionAnalitica.desde(groupBy);
+        if (agrupacion == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "groupBy no válido: " + groupBy);
+        }
+        AgregadoAnalitica agregado = AgregadoAnalitica.desde(agg);
+        if (agregado == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "agg no válido: " + agg);
+        }
+        return analiticaService.agregar(agrupacion, agregado, encendido);
+    }
+
+    /**
+     * GET /analitica/potencia : distribución de la potencia, con percentiles.
+     *
+     * @param marca Si se indica, solo los vehículos de esa marca.
+     * @param tipo  {@code coche} o {@code moto}; si no se indica, ambos.
+     * @return vehículos, media, mínimo, máximo, p50, p90, p99 y tramos.
+     */
+    @GetMapping("/potencia")
+    public DistribucionPotencia getPotencia(@RequestParam(required = false) String marca,
+            @RequestParam(required = false) String tipo) {
+        TipoVehiculo tipoVehiculo = null;
+        if (tipo != null) {
+            tipoVehiculo = Arrays.stream(TipoVehiculo.values())
+                .filter(t -> t.name().equalsIgnoreCase(tipo))
+                .findFirst()
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.BAD_REQUEST, "tipo no válido: " + tipo));
+        }
+        return analiticaService.distribucionPotencia(tipoVehiculo, marca);
+    }
+}
@@ -0,0 +1,62 @@
+package es.cic.curso25.proy008.controller;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.cic.curso25.proy008.model.CocheArchivado;
+import es.cic.curso25.proy008.service.ArchivoService;
+
+/**
+ * Controlador REST de consulta del archivo de vehículos borrados.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@RestController
+@RequestMapping("/archivo")
+public class ArchivoController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArchivoController.class);
+
+    private static final int LIMITE_MAXIMO = 1_000;
+
+    private final ArchivoService archivoService;
+
+    /**
+     * Constructor para la inyección del servicio del archivo.
+     *
+     * @param archivoService Servicio del archivo.
+     */
+    public ArchivoController(ArchivoService archivoService) {
+        this.archivoService = archivoService;
+    }
+
+    /**
+     * GET /archivo/coches : Coches borrados, del más reciente al más antiguo.
+     *
+     * @param concesionarioId Filtra por el concesionario al que pertenecían.
+     * @param desde           Archivados desde este instante (ISO-8601).
+     * @param hasta           Archivados antes de este instante (ISO-8601).
+     * @param limite          Máximo de resultados (como mucho {@value #LIMITE_MAXIMO}).
+     * @return coches archivados.
+     */
+    @GetMapping("/coches")
+    public List<CocheArchivado> getCoches(
+            @RequestParam(required = false) Long concesionarioId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant hasta,
+            @RequestParam(defaultValue = "100") int limite) {
+        LOGGER.info("Consultando el archivo de coches");
+        return archivoService.getCoches(concesionarioId, desde, hasta,
+                Math.max(1, Math.min(limite, LIMITE_MAXIMO)));
+    }
+}
@@ -0,0 +1,71 @@
+package es.cic.curso25.proy008.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+import es.cic.curso25.proy008.dto.PaginaCambios;
+import es.cic.curso25.proy008.service.CambiosService;
+
+/**
+ * Controlador REST de sincronización por diferencias de coches y motos.
+ * <p>
+ * El cliente guarda el {@code token} de cada respuesta y lo envía como
+ * {@code since} en la siguiente; la primera vez envía {@code 0}, o nada.
+ * Mientras {@code hayMas} sea {@code true} puede pedir la siguiente página
+ * de inmediato.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@RestController
+@RequestMapping("/cambios")
+public class CambiosController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CambiosController.class);
+
+    private static final int LIMITE_MAXIMO = 1_000;
+
+    private final CambiosService cambiosService;
+
+    /**
+     * Constructor para la inyección del servicio de cambios.
+     *
+     * @param cambiosService Servicio de la secuencia de cambios.
+     */
+    public CambiosController(CambiosService cambiosService) {
+        this.cambiosService = cambiosService;
+    }
+
+    /**
+     * GET /cambios?since=&limit= : Altas, modificaciones y borrados de coches
+     * y motos posteriores al token.
+     *
+     * @param since Token de la respuesta anterior.
+     * @param limit Máximo de cambios (como mucho {@value #LIMITE_MAXIMO}).
+     * @return página de cambios con el siguiente token.
+     */
+    @GetMapping
+    public PaginaCambios getCambios(
+            @RequestParam(name = "since", defaultValue = "0") String since,
+            @RequestParam(name = "limit", defaultValue = "100") int limit) {
+        LOGGER.info("Consultando cambios desde {}", since);
+        long desde;
+        try {
+            desde = Long.parseLong(since);
+        } catch (NumberFormatException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Token de cambios no válido: " + since);
+        }
+        if (desde < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Token de cambios no válido: " + since);
+        }
+        return cambiosService.getCambios(desde, Math.max(1, Math.min(limit, LIMITE_MAXIMO)));
+    }
+}
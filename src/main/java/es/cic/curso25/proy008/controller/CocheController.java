@@ -1,12 +1,16 @@
 package es.cic.curso25.proy008.controller;
 
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
 import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
 
+import es.cic.curso25.proy008.dto.EstadoHistorico;
 import es.cic.curso25.proy008.exception.ModificationSecurityException;
 import es.cic.curso25.proy008.model.Coche;
 import es.cic.curso25.proy008.service.CocheService;
@@ -67,6 +71,33 @@ public class CocheController {
         return cocheService.get(id);
     }
 
+    /**
+     * GET /coches/{id}?asOf={version|instante} : Estado pasado de un coche.
+     * <p>
+     * {@code asOf} es un número de versión ({@code 3}) o un instante
+     * ISO-8601 ({@code 2025-07-01T10:00:00Z}). Se responde desde el historial
+     * de cambios, con un 404 NOT FOUND si no hay historial en ese momento y
+     * un 400 BAD REQUEST si {@code asOf} no es ninguna de las dos cosas.
+     * </p>
+     *
+     * @param id   Identificador del coche.
+     * @param asOf Versión o instante.
+     * @return estado reconstruido del coche.
+     */
+    @GetMapping(value = "/{id}", params = "asOf")
+    public EstadoHistorico getAsOf(@PathVariable Long id, @RequestParam String asOf) {
+        LOGGER.info("Buscando coche con id {} en {}", id, asOf);
+        try {
+            if (!asOf.isEmpty() && asOf.chars().allMatch(Character::isDigit)) {
+                return cocheService.get(id, Long.parseLong(asOf));
+            }
+            return cocheService.get(id, Instant.parse(asOf));
+        } catch (NumberFormatException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "asOf debe ser una versión o un instante ISO-8601: " + asOf);
+        }
+    }
+
     /**
      * GET /coches : Recupera todos los coches.
      * <p>
@@ -143,4 +174,19 @@ public class CocheController {
         LOGGER.info("Borrando coche con id {}", id);
         cocheService.delete(id);
     }
+
+    /**
+     * DELETE /coches?concesionarioId={id} : Vacía el stock de un concesionario.
+     * <p>
+     * Se borra con una única sentencia, sin cargar los coches. Responde con
+     * un 200 OK aunque el concesionario no tenga coches.
+     * </p>
+     *
+     * @param concesionarioId Identificador del concesionario.
+     */
+    @DeleteMapping(params = "concesionarioId")
+    public void deleteByConcesionario(@RequestParam Long concesionarioId) {
+        LOGGER.info("Borrando los coches del concesionario {}", concesionarioId);
+        cocheService.deleteByConcesionario(concesionarioId);
+    }
 }
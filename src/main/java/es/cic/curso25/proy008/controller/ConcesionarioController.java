@@ -6,14 +6,21 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import es.cic.curso25.proy008.analitica.RankingPotencia;
+import es.cic.curso25.proy008.dto.PotenciaVehiculo;
 import es.cic.curso25.proy008.exception.ModificationSecurityException;
 import es.cic.curso25.proy008.model.Coche;
 import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.service.AnaliticaService;
 import es.cic.curso25.proy008.service.CocheService;
 import es.cic.curso25.proy008.service.ConcesionarioService;
+import es.cic.curso25.proy008.service.InventarioEnVivoService;
 
 /**
  * Controlador REST que expone los endpoints para gestionar concesionarios
@@ -38,6 +45,12 @@ public class ConcesionarioController {
     @Autowired
     private CocheService cocheService;
 
+    @Autowired
+    private InventarioEnVivoService inventarioEnVivoService;
+
+    @Autowired
+    private AnaliticaService analiticaService;
+
     /**
      * Recupera un concesionario por su identificador.
      *
@@ -94,6 +107,70 @@ public class ConcesionarioController {
         return cocheService.create(coche);
     }
 
+    /**
+     * Añade un coche nuevo a un concesionario sin cargar sus coches actuales.
+     *
+     * @param id    Identificador del concesionario en la URL.
+     * @param coche Objeto JSON con los datos del coche; sin <code>id</code>.
+     * @return La entidad {@link Coche} recién creada, con su <code>id</code> asignado.
+     */
+    @PostMapping("/{id}/coches")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Coche addCoche(@PathVariable Long id, @RequestBody Coche coche) {
+        LOGGER.info("Añadiendo coche al concesionario con id {}", id);
+        return concesionarioService.addCoche(id, coche);
+    }
+
+    /**
+     * Número de coches de un concesionario, calculado con un {@code count}.
+     *
+     * @param id Identificador del concesionario en la URL.
+     * @return número de coches asociados.
+     */
+    @GetMapping("/{id}/coches/numero")
+    public int getNumeroCoches(@PathVariable Long id) {
+        return concesionarioService.getNumeroCoches(id);
+    }
+
+    /**
+     * Los coches más potentes de un concesionario, del ranking en memoria de
+     * {@link AnaliticaService}, sin cargar ni ordenar sus coches.
+     *
+     * @param id Identificador del concesionario en la URL.
+     * @param k  Número de coches, entre 1 y {@link RankingPotencia#MAXIMO_K}.
+     * @return hasta {@code k} coches, de mayor a menor potencia.
+     * @throws ConcesionarioException Si no existe el concesionario.
+     */
+    @GetMapping("/{id}/top-potencia")
+    public List<PotenciaVehiculo> getTopPotencia(@PathVariable Long id, @RequestParam(defaultValue = "10") int k) {
+        if (k < 1 || k > RankingPotencia.MAXIMO_K) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "k debe estar entre 1 y " + RankingPotencia.MAXIMO_K + ": " + k);
+        }
+        List<PotenciaVehiculo> top = analiticaService.topPotencia(id, k);
+        if (top.isEmpty()) {
+            // Sin coches en el ranking: se comprueba que el concesionario existe
+            concesionarioService.get(id);
+        }
+        return top;
+    }
+
+    /**
+     * Cambios del inventario de un concesionario en tiempo real (Server-Sent
+     * Events). Cada evento se llama como su {@code TipoCambio} y lleva un
+     * {@code CambioInventario} en JSON.
+     *
+     * @param id Identificador del concesionario en la URL.
+     * @return emisor SSE de la conexión.
+     * @throws ConcesionarioException Si no existe el concesionario.
+     */
+    @GetMapping(value = "/{id}/coches/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCoches(@PathVariable Long id) {
+        LOGGER.info("Suscribiendo al inventario del concesionario con id {}", id);
+        concesionarioService.get(id);
+        return inventarioEnVivoService.suscribir(id);
+    }
+
     /**
      * Actualiza un concesionario existente.
      *
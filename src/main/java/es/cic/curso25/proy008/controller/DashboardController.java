@@ -0,0 +1,51 @@
+package es.cic.curso25.proy008.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.cic.curso25.proy008.dto.Dashboard;
+import es.cic.curso25.proy008.service.DashboardService;
+
+/**
+ * Controlador REST del dashboard de inicio.
+ * <p>
+ * Sustituye las cuatro llamadas secuenciales a los listados y el recuento
+ * en el cliente por una única petición a <code>/dashboard</code>.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@RestController
+@RequestMapping("/dashboard")
+public class DashboardController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardController.class);
+
+    private final DashboardService dashboardService;
+
+    /**
+     * Constructor para la inyección del servicio del dashboard.
+     *
+     * @param dashboardService Servicio que compone el resumen.
+     */
+    public DashboardController(DashboardService dashboardService) {
+        this.dashboardService = dashboardService;
+    }
+
+    /**
+     * GET /dashboard : Recuentos, concesionarios con más coches y
+     * vehículos encendidos.
+     *
+     * @return el {@link Dashboard} calculado.
+     */
+    @GetMapping
+    public Dashboard get() {
+        LOGGER.info("Obteniendo dashboard");
+        return dashboardService.get();
+    }
+}
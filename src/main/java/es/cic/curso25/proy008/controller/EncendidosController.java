@@ -0,0 +1,76 @@
+package es.cic.curso25.proy008.controller;
+
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.cic.curso25.proy008.service.FlotaService;
+
+/**
+ * Controlador REST de consultas de vehículos encendidos.
+ * <p>
+ * Responde con el índice en memoria de {@link FlotaService}, sin cargar
+ * entidades ni consultar la BBDD. El índice se actualiza tras cada commit,
+ * así que un cambio recién confirmado ya se ve en la siguiente petición.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@RestController
+public class EncendidosController {
+
+    private final FlotaService flotaService;
+
+    /**
+     * Constructor para la inyección del servicio de flota.
+     *
+     * @param flotaService Servicio con el índice de encendido.
+     */
+    public EncendidosController(FlotaService flotaService) {
+        this.flotaService = flotaService;
+    }
+
+    /**
+     * GET /coches/encendidos/count : número de coches encendidos.
+     *
+     * @param concesionarioId Concesionario a consultar; si falta, todos.
+     * @return número de coches con el motor encendido.
+     */
+    @GetMapping("/coches/encendidos/count")
+    public long contarCoches(@RequestParam(required = false) Long concesionarioId) {
+        return flotaService.contarCochesEncendidos(concesionarioId);
+    }
+
+    /**
+     * GET /coches/encendidos : ids de los coches encendidos.
+     *
+     * @param concesionarioId Concesionario a consultar; si falta, todos.
+     * @return ids en orden ascendente.
+     */
+    @GetMapping("/coches/encendidos")
+    public long[] getCoches(@RequestParam(required = false) Long concesionarioId) {
+        return flotaService.getCochesEncendidos(concesionarioId);
+    }
+
+    /**
+     * GET /motos/encendidas/count : número de motos encendidas.
+     *
+     * @return número de motos con el motor encendido.
+     */
+    @GetMapping("/motos/encendidas/count")
+    public long contarMotos() {
+        return flotaService.contarMotosEncendidas();
+    }
+
+    /**
+     * GET /motos/encendidas : ids de las motos encendidas.
+     *
+     * @return ids en orden ascendente.
+     */
+    @GetMapping("/motos/encendidas")
+    public long[] getMotos() {
+        return flotaService.getMotosEncendidas();
+    }
+}
@@ -0,0 +1,113 @@
+package es.cic.curso25.proy008.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import es.cic.curso25.proy008.dto.CocheLectura;
+import es.cic.curso25.proy008.dto.ConcesionarioLectura;
+import es.cic.curso25.proy008.dto.MotoLectura;
+import es.cic.curso25.proy008.dto.MotoristaLectura;
+import es.cic.curso25.proy008.service.LecturaReactivaService;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Controlador REST de lectura reactiva.
+ * <p>
+ * Ruta base: <code>/reactivo</code>. Convive con los controladores MVC/JPA
+ * y expone las mismas colecciones de solo lectura que éstos, leídas con
+ * R2DBC.
+ * </p>
+ * <p>
+ * Con {@code Accept: application/x-ndjson} cada elemento se escribe en cuanto
+ * llega de la BBDD y no se pide el siguiente hasta que se ha enviado el
+ * anterior (backpressure); el hilo del servidor se libera mientras tanto
+ * gracias al procesamiento asíncrono de Servlet. Con
+ * {@code application/json} se devuelve el array completo.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@RestController
+@RequestMapping("/reactivo")
+public class ReactivoController {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactivoController.class);
+
+    private final LecturaReactivaService lecturaReactivaService;
+
+    /**
+     * Constructor para la inyección del servicio reactivo.
+     *
+     * @param lecturaReactivaService Servicio de consultas R2DBC.
+     */
+    public ReactivoController(LecturaReactivaService lecturaReactivaService) {
+        this.lecturaReactivaService = lecturaReactivaService;
+    }
+
+    /**
+     * GET /reactivo/coches : Emite todos los coches.
+     *
+     * @return flujo de {@link CocheLectura}.
+     */
+    @GetMapping(value = "/coches", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public Flux<CocheLectura> coches() {
+        LOGGER.info("Emitiendo todos los coches");
+        return lecturaReactivaService.coches();
+    }
+
+    /**
+     * GET /reactivo/coches/{id} : Recupera un coche.
+     * <p>
+     * Responde 404 NOT FOUND si no existe.
+     * </p>
+     *
+     * @param id Identificador del coche.
+     * @return el {@link CocheLectura} correspondiente.
+     */
+    @GetMapping("/coches/{id}")
+    public Mono<CocheLectura> coche(@PathVariable Long id) {
+        LOGGER.info("Buscando coche con id {}", id);
+        return lecturaReactivaService.coche(id);
+    }
+
+    /**
+     * GET /reactivo/concesionarios : Emite todos los concesionarios.
+     *
+     * @return flujo de {@link ConcesionarioLectura}.
+     */
+    @GetMapping(value = "/concesionarios", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public Flux<ConcesionarioLectura> concesionarios() {
+        LOGGER.info("Emitiendo todos los concesionarios");
+        return lecturaReactivaService.concesionarios();
+    }
+
+    /**
+     * GET /reactivo/motos : Emite todas las motos.
+     *
+     * @return flujo de {@link MotoLectura}.
+     */
+    @GetMapping(value = "/motos", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public Flux<MotoLectura> motos() {
+        LOGGER.info("Emitiendo todas las motos");
+        return lecturaReactivaService.motos();
+    }
+
+    /**
+     * GET /reactivo/motoristas : Emite todos los motoristas.
+     *
+     * @return flujo de {@link MotoristaLectura}.
+     */
+    @GetMapping(value = "/motoristas", produces = { MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE })
+    public Flux<MotoristaLectura> motoristas() {
+        LOGGER.info("Emitiendo todos los motoristas");
+        return lecturaReactivaService.motoristas();
+    }
+}
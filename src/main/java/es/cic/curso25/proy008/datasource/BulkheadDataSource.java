@@ -0,0 +1,137 @@
+package es.cic.curso25.proy008.datasource;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * {@link DataSource} que limita el número de conexiones en uso simultáneo
+ * mediante un {@link Semaphore} justo (bulkhead).
+ * <p>
+ * Con hilos virtuales el servidor puede aceptar miles de peticiones a la vez;
+ * sin este límite todas ellas se agolparían esperando una conexión del pool
+ * de Hikari. El semáforo hace cola <em>antes</em> de llegar al pool, respeta
+ * el orden de llegada y falla rápido pasado {@code tiempoEspera}, en lugar
+ * de agotar el {@code connectionTimeout} de Hikari con cada petición.
+ * </p>
+ * <p>
+ * El permiso se libera al cerrar la conexión devuelta; cerrar dos veces la
+ * misma conexión no libera dos permisos.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class BulkheadDataSource extends DelegatingDataSource {
+
+    private final Semaphore permisos;
+
+    private final int maxConcurrencia;
+
+    private final Duration tiempoEspera;
+
+    /**
+     * Construye el bulkhead alrededor de un {@link DataSource} existente.
+     *
+     * @param destino         DataSource real (normalmente el pool de Hikari).
+     * @param maxConcurrencia Número máximo de conexiones abiertas a la vez.
+     * @param tiempoEspera    Tiempo máximo que una petición espera un permiso.
+     */
+    public BulkheadDataSource(DataSource destino, int maxConcurrencia, Duration tiempoEspera) {
+        super(destino);
+        if (maxConcurrencia < 1) {
+            throw new IllegalArgumentException("maxConcurrencia debe ser positivo: " + maxConcurrencia);
+        }
+        this.maxConcurrencia = maxConcurrencia;
+        this.tiempoEspera = tiempoEspera;
+        this.permisos = new Semaphore(maxConcurrencia, true);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        adquirir();
+        return envolver(() -> super.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        adquirir();
+        return envolver(() -> super.getConnection(username, password));
+    }
+
+    /**
+     * Número de permisos libres en este momento.
+     *
+     * @return conexiones que aún pueden abrirse sin esperar.
+     */
+    public int getPermisosDisponibles() {
+        return permisos.availablePermits();
+    }
+
+    /**
+     * Número máximo de conexiones concurrentes configurado.
+     *
+     * @return el tamaño del bulkhead.
+     */
+    public int getMaxConcurrencia() {
+        return maxConcurrencia;
+    }
+
+    private void adquirir() throws SQLException {
+        try {
+            if (!permisos.tryAcquire(tiempoEspera.toMillis(), TimeUnit.MILLISECONDS)) {
+                throw new SQLTransientConnectionException(
+                        "Bulkhead de base de datos saturado: " + maxConcurrencia
+                                + " conexiones en uso tras esperar " + tiempoEspera.toMillis() + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLTransientConnectionException("Interrumpido esperando una conexión", e);
+        }
+    }
+
+    private Connection envolver(ConexionSupplier supplier) throws SQLException {
+        Connection conexion;
+        try {
+            conexion = supplier.get();
+        } catch (SQLException | RuntimeException e) {
+            permisos.release();
+            throw e;
+        }
+        AtomicBoolean liberado = new AtomicBoolean(false);
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[] { Connection.class },
+                (proxy, metodo, args) -> {
+                    if ("close".equals(metodo.getName()) && liberado.compareAndSet(false, true)) {
+                        try {
+                            conexion.close();
+                        } finally {
+                            permisos.release();
+                        }
+                        return null;
+                    }
+                    try {
+                        return metodo.invoke(conexion, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    @FunctionalInterface
+    private interface ConexionSupplier {
+        Connection get() throws SQLException;
+    }
+}
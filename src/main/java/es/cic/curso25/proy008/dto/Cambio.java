@@ -0,0 +1,23 @@
+package es.cic.curso25.proy008.dto;
+
+/**
+ * Alta, modificación o borrado de una fila en la secuencia de cambios.
+ *
+ * @param secuencia Número del cambio; el mayor de una página es su token.
+ * @param entidad   Nombre de la entidad ({@code Coche} o {@code Moto}).
+ * @param id        Identificador de la fila.
+ * @param borrado   Si es una lápida: la fila ya no existe.
+ * @param datos     Estado actual ({@link CocheLectura} o {@link MotoLectura});
+ *                  {@code null} en los borrados.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record Cambio(
+        long secuencia,
+        String entidad,
+        Long id,
+        boolean borrado,
+        Object datos) {
+}
@@ -0,0 +1,25 @@
+package es.cic.curso25.proy008.dto;
+
+import java.time.Instant;
+
+import es.cic.curso25.proy008.enums.TipoCambio;
+
+/**
+ * Cambio de inventario enviado por {@code GET /concesionarios/{id}/coches/stream}.
+ *
+ * @param tipo            Tipo de cambio; también es el nombre del evento SSE.
+ * @param concesionarioId Concesionario del inventario.
+ * @param coche           Estado del coche tras el cambio (antes, si se borró);
+ *                        {@code null} en {@link TipoCambio#VACIADO}.
+ * @param instante        Momento del cambio.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record CambioInventario(
+        TipoCambio tipo,
+        Long concesionarioId,
+        CocheLectura coche,
+        Instant instante) {
+}
@@ -0,0 +1,15 @@
+package es.cic.curso25.proy008.dto;
+
+/**
+ * Coche con el motor encendido, tal como lo lee la recarga del índice de
+ * encendido: solo su id y el de su concesionario.
+ *
+ * @param id              Identificador del coche.
+ * @param concesionarioId Identificador de su concesionario.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record CocheEncendido(Long id, Long concesionarioId) {
+}
@@ -0,0 +1,28 @@
+package es.cic.curso25.proy008.dto;
+
+/**
+ * Vista de solo lectura de una fila de la tabla {@code coche}.
+ * <p>
+ * La usa la API reactiva, que lee directamente con R2DBC y no pasa por
+ * Hibernate; por eso el concesionario se expone solo por su identificador.
+ * </p>
+ *
+ * @param id              Identificador del coche.
+ * @param version         Versión de concurrencia optimista.
+ * @param potencia        Potencia en CV.
+ * @param marca           Marca del coche.
+ * @param encendido       Estado del motor.
+ * @param concesionarioId Identificador del concesionario propietario.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record CocheLectura(
+        Long id,
+        Long version,
+        double potencia,
+        String marca,
+        boolean encendido,
+        Long concesionarioId) {
+}
@@ -0,0 +1,38 @@
+package es.cic.curso25.proy008.dto;
+
+/**
+ * Fila de la lectura completa de {@code coche} con la que se recarga la
+ * analítica: las columnas de {@link CocheLectura} más el puesto del coche en
+ * su concesionario por potencia y el total de coches de éste, calculados por
+ * la BBDD con funciones de ventana.
+ *
+ * @param id              Identificador del coche.
+ * @param version         Versión de concurrencia optimista.
+ * @param potencia        Potencia en CV.
+ * @param marca           Marca del coche.
+ * @param encendido       Estado del motor.
+ * @param concesionarioId Identificador del concesionario propietario.
+ * @param puesto          Puesto en su concesionario, de mayor a menor potencia y por id; empieza en 1.
+ * @param coches          Coches que tiene el concesionario en total.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record CochePuesto(
+        Long id,
+        Long version,
+        double potencia,
+        String marca,
+        boolean encendido,
+        Long concesionarioId,
+        long puesto,
+        long coches) {
+
+    /**
+     * @return las columnas del coche, sin el puesto.
+     */
+    public CocheLectura lectura() {
+        return new CocheLectura(id, version, potencia, marca, encendido, concesionarioId);
+    }
+}
@@ -0,0 +1,28 @@
+package es.cic.curso25.proy008.dto;
+
+import java.time.LocalTime;
+
+/**
+ * Vista de solo lectura de una fila de la tabla {@code concesionario}.
+ *
+ * @param id       Identificador del concesionario.
+ * @param version  Versión de concurrencia optimista.
+ * @param nombre   Nombre comercial.
+ * @param telefono Teléfono de contacto.
+ * @param ciudad   Ciudad de ubicación.
+ * @param apertura Hora de apertura.
+ * @param cierre   Hora de cierre.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record ConcesionarioLectura(
+        Long id,
+        Long version,
+        String nombre,
+        int telefono,
+        String ciudad,
+        LocalTime apertura,
+        LocalTime cierre) {
+}
@@ -0,0 +1,18 @@
+package es.cic.curso25.proy008.dto;
+
+/**
+ * Concesionario con su número de coches, para los rankings del dashboard.
+ *
+ * @param id           Identificador del concesionario.
+ * @param nombre       Nombre comercial.
+ * @param numeroCoches Coches que tiene en stock.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record ConcesionarioTop(
+        Long id,
+        String nombre,
+        long numeroCoches) {
+}
@@ -0,0 +1,28 @@
+package es.cic.curso25.proy008.dto;
+
+import java.util.List;
+
+/**
+ * Resumen agregado que sirve {@code GET /dashboard}.
+ *
+ * @param totalConcesionarios Número de concesionarios.
+ * @param totalCoches         Número de coches.
+ * @param totalMotos          Número de motos.
+ * @param totalMotoristas     Número de motoristas.
+ * @param cochesEncendidos    Coches con el motor encendido.
+ * @param motosEncendidas     Motos con el motor encendido.
+ * @param topConcesionarios   Concesionarios con más coches, de mayor a menor.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record Dashboard(
+        long totalConcesionarios,
+        long totalCoches,
+        long totalMotos,
+        long totalMotoristas,
+        long cochesEncendidos,
+        long motosEncendidas,
+        List<ConcesionarioTop> topConcesionarios) {
+}
@@ -0,0 +1,36 @@
+package es.cic.curso25.proy008.dto;
+
+import java.util.List;
+
+/**
+ * Distribución de la potencia de {@code GET /analitica/potencia}.
+ * <p>
+ * Los percentiles, el mínimo y el máximo salen de cubetas con un error
+ * relativo menor del 1 %; la media es exacta.
+ * </p>
+ *
+ * @param marca     Marca consultada; {@code null} si son todas.
+ * @param vehiculos Vehículos contados.
+ * @param media     Potencia media, en CV.
+ * @param minimo    Potencia mínima.
+ * @param maximo    Potencia máxima.
+ * @param p50       Mediana.
+ * @param p90       Percentil 90.
+ * @param p99       Percentil 99.
+ * @param tramos    Tramos fijos con vehículos.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record DistribucionPotencia(
+        String marca,
+        long vehiculos,
+        double media,
+        double minimo,
+        double maximo,
+        double p50,
+        double p90,
+        double p99,
+        List<TramoPotencia> tramos) {
+}
@@ -0,0 +1,25 @@
+package es.cic.curso25.proy008.dto;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Estado de una fila en una versión pasada, reconstruido desde el historial.
+ *
+ * @param entidad      Nombre de la entidad ({@code Coche}, {@code Moto}...).
+ * @param id           Identificador de la fila.
+ * @param version      Versión reconstruida.
+ * @param modificadoEn Instante en que se guardó esa versión.
+ * @param estado       Valor de cada propiedad; las asociaciones, por su id.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record EstadoHistorico(
+        String entidad,
+        Long id,
+        Long version,
+        Instant modificadoEn,
+        Map<String, Object> estado) {
+}
@@ -0,0 +1,15 @@
+package es.cic.curso25.proy008.dto;
+
+/**
+ * Un grupo de la respuesta de {@code GET /analitica/coches}.
+ *
+ * @param grupo  Marca, o id del concesionario.
+ * @param coches Coches del grupo.
+ * @param valor  Agregado pedido de la potencia (o el número de coches).
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record GrupoAnalitica(String grupo, long coches, double valor) {
+}
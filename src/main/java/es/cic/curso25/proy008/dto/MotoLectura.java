@@ -0,0 +1,24 @@
+package es.cic.curso25.proy008.dto;
+
+/**
+ * Vista de solo lectura de una fila de la tabla {@code moto}.
+ *
+ * @param id        Identificador de la moto.
+ * @param version   Versión de concurrencia optimista.
+ * @param potencia  Potencia en CV.
+ * @param marca     Marca de la moto.
+ * @param encendido Estado del motor.
+ * @param tipo      Tipo de moto (naked, trail...).
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record MotoLectura(
+        Long id,
+        Long version,
+        double potencia,
+        String marca,
+        boolean encendido,
+        String tipo) {
+}
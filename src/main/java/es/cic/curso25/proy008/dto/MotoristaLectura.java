@@ -0,0 +1,30 @@
+package es.cic.curso25.proy008.dto;
+
+import es.cic.curso25.proy008.enums.TipoCarnet;
+
+/**
+ * Vista de solo lectura de una fila de la tabla {@code motorista}.
+ *
+ * @param id            Identificador del motorista.
+ * @param version       Versión de concurrencia optimista.
+ * @param nombre        Nombre.
+ * @param apellidos     Apellidos.
+ * @param edad          Edad en años.
+ * @param esMayorDeEdad Si es mayor de edad.
+ * @param tipoCarnet    Tipo de carnet de conducir.
+ * @param motoId        Identificador de su moto, o {@code null}.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record MotoristaLectura(
+        Long id,
+        Long version,
+        String nombre,
+        String apellidos,
+        int edad,
+        boolean esMayorDeEdad,
+        TipoCarnet tipoCarnet,
+        Long motoId) {
+}
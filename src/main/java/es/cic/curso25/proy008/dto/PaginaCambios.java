@@ -0,0 +1,20 @@
+package es.cic.curso25.proy008.dto;
+
+import java.util.List;
+
+/**
+ * Respuesta de {@code GET /cambios}.
+ *
+ * @param cambios Cambios posteriores al token recibido, en orden.
+ * @param token   Valor de {@code since} para la siguiente petición.
+ * @param hayMas  Si quedan cambios ya disponibles después de esta página.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record PaginaCambios(
+        List<Cambio> cambios,
+        long token,
+        boolean hayMas) {
+}
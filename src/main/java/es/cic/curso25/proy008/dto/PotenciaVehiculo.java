@@ -0,0 +1,16 @@
+package es.cic.curso25.proy008.dto;
+
+/**
+ * Marca y potencia de un vehículo, tal como las lee la recarga de las
+ * distribuciones de potencia.
+ *
+ * @param id       Identificador del vehículo.
+ * @param marca    Marca.
+ * @param potencia Potencia en CV.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record PotenciaVehiculo(Long id, String marca, double potencia) {
+}
@@ -0,0 +1,15 @@
+package es.cic.curso25.proy008.dto;
+
+/**
+ * Tramo fijo de potencia de {@code GET /analitica/potencia}.
+ *
+ * @param desde     Potencia mínima del tramo, en CV (incluida).
+ * @param hasta     Potencia máxima del tramo (excluida); {@code null} en el último.
+ * @param vehiculos Vehículos del tramo.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record TramoPotencia(int desde, Integer hasta, long vehiculos) {
+}
@@ -0,0 +1,30 @@
+package es.cic.curso25.proy008.enums;
+
+import java.util.Locale;
+
+/**
+ * Agregados de la potencia en {@code GET /analitica/coches}.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public enum AgregadoAnalitica {
+
+    AVG,
+    MAX,
+    COUNT;
+
+    /**
+     * @param valor Parámetro de la petición, sin distinguir mayúsculas.
+     * @return el agregado, o {@code null} si no existe.
+     */
+    public static AgregadoAnalitica desde(String valor) {
+        for (AgregadoAnalitica agregado : values()) {
+            if (agregado.name().equals(valor.toUpperCase(Locale.ROOT))) {
+                return agregado;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,29 @@
+package es.cic.curso25.proy008.enums;
+
+import java.util.Locale;
+
+/**
+ * Columnas por las que se agrupa en {@code GET /analitica/coches}.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public enum AgrupacionAnalitica {
+
+    MARCA,
+    CONCESIONARIO;
+
+    /**
+     * @param valor Parámetro de la petición, sin distinguir mayúsculas.
+     * @return la agrupación, o {@code null} si no existe.
+     */
+    public static AgrupacionAnalitica desde(String valor) {
+        for (AgrupacionAnalitica agrupacion : values()) {
+            if (agrupacion.name().equals(valor.toUpperCase(Locale.ROOT))) {
+                return agrupacion;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,22 @@
+package es.cic.curso25.proy008.enums;
+
+/**
+ * Tipo de cambio de un coche en el inventario de su concesionario.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public enum TipoCambio {
+
+    /** Alta, o llegada desde otro concesionario. */
+    CREADO,
+    /** Modificación que no cambia el encendido ni el concesionario. */
+    MODIFICADO,
+    ENCENDIDO,
+    APAGADO,
+    /** Borrado, o salida hacia otro concesionario. */
+    BORRADO,
+    /** Borrado de todos los coches del concesionario. */
+    VACIADO
+}
@@ -0,0 +1,30 @@
+package es.cic.curso25.proy008.enums;
+
+/**
+ * Tipos de vehículo del canal de encendido ({@code /ws/flota}).
+ * <p>
+ * El {@link #getCodigo() código} es el que viaja en los mensajes binarios.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public enum TipoVehiculo {
+
+    COCHE(0),
+    MOTO(1);
+
+    private final int codigo;
+
+    TipoVehiculo(int codigo) {
+        this.codigo = codigo;
+    }
+
+    /**
+     * @return código del tipo en el protocolo binario.
+     */
+    public int getCodigo() {
+        return codigo;
+    }
+}
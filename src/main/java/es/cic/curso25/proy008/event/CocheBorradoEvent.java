@@ -0,0 +1,20 @@
+package es.cic.curso25.proy008.event;
+
+/**
+ * Evento publicado por {@code CocheService} al borrar un coche.
+ * <p>
+ * Lleva una copia de los datos, no la entidad, porque se consume después del
+ * commit, cuando la fila ya no existe.
+ * </p>
+ *
+ * @param id              Identificador del coche borrado.
+ * @param potencia        Potencia en CV.
+ * @param marca           Marca del coche.
+ * @param concesionarioId Identificador de su concesionario.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record CocheBorradoEvent(Long id, double potencia, String marca, Long concesionarioId) {
+}
@@ -0,0 +1,31 @@
+package es.cic.curso25.proy008.event;
+
+import java.time.Instant;
+
+import es.cic.curso25.proy008.enums.TipoCambio;
+import es.cic.curso25.proy008.model.Coche;
+
+/**
+ * Evento publicado por {@code CocheService} y {@code ConcesionarioService}
+ * en cada cambio del inventario de un concesionario.
+ * <p>
+ * A diferencia de {@link CocheBorradoEvent} lleva la propia entidad: se
+ * consume después del commit, cuando Hibernate ya ha incrementado la
+ * versión, y solo se leen sus columnas y el id del concesionario.
+ * </p>
+ *
+ * @param tipo            Tipo de cambio.
+ * @param concesionarioId Concesionario cuyo inventario cambia.
+ * @param coche           Coche afectado; {@code null} en {@link TipoCambio#VACIADO}.
+ * @param instante        Momento del cambio.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record CocheCambiadoEvent(TipoCambio tipo, Long concesionarioId, Coche coche, Instant instante) {
+
+    public CocheCambiadoEvent(TipoCambio tipo, Long concesionarioId, Coche coche) {
+        this(tipo, concesionarioId, coche, Instant.now());
+    }
+}
@@ -0,0 +1,26 @@
+package es.cic.curso25.proy008.event;
+
+import java.time.Instant;
+
+/**
+ * Evento de dominio entregado por el outbox a los listeners de la propia
+ * aplicación ({@code @EventListener}).
+ * <p>
+ * La entrega es al menos una vez: un mismo {@code id} puede llegar más de
+ * una vez si el relé se reinicia a mitad de un lote.
+ * </p>
+ *
+ * @param id         Identificador del evento en el outbox.
+ * @param tipo       Tipo de evento ({@code CocheVendido}, {@code MotoristaMontado}).
+ * @param agregado   Entidad a la que se refiere.
+ * @param agregadoId Identificador de esa entidad.
+ * @param carga      Datos del evento en JSON.
+ * @param creadoEn   Instante del commit que lo originó (aprox.).
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record EventoDominio(Long id, String tipo, String agregado, Long agregadoId, String carga,
+        Instant creadoEn) {
+}
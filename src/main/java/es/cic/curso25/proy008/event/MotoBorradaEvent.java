@@ -0,0 +1,16 @@
+package es.cic.curso25.proy008.event;
+
+/**
+ * Evento publicado por {@code MotoService} al borrar una moto.
+ *
+ * @param id       Identificador de la moto borrada.
+ * @param potencia Potencia en CV.
+ * @param marca    Marca de la moto.
+ * @param tipo     Tipo de moto.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record MotoBorradaEvent(Long id, double potencia, String marca, String tipo) {
+}
@@ -0,0 +1,14 @@
+package es.cic.curso25.proy008.event;
+
+/**
+ * Evento publicado tras un borrado masivo de motos ({@code MotoService} y
+ * {@code MotoristaService}), que no pasa por los listeners de Hibernate.
+ *
+ * @param motos Número de motos borradas, si se conoce; -1 si no.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record MotosBorradasEvent(int motos) {
+}
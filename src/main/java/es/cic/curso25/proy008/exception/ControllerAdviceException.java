@@ -1,6 +1,8 @@
 package es.cic.curso25.proy008.exception;
 
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -69,9 +71,79 @@ public class ControllerAdviceException {
         return ex.getMessage();
     }
 
+    /**
+     * Maneja las {@link HistorialException}.
+     * <p>
+     * Se invoca cuando se pide una versión o un instante del que no hay
+     * historial. Retorna HTTP 404 Not Found con el mensaje de la excepción.
+     * </p>
+     *
+     * @param ex excepción capturada que indica la ausencia de historial
+     * @return mensaje de error descriptivo para el cliente
+     */
+    @ResponseStatus(HttpStatus.NOT_FOUND)
+    @ExceptionHandler(HistorialException.class)
+    public String handleHistorialNotFound(HistorialException ex) {
+        return ex.getMessage();
+    }
+
     @ResponseStatus(HttpStatus.NOT_FOUND)
     @ExceptionHandler(MotoException.class)
     public String handleMotoNotFound(MotoException ex) {
         return ex.getMessage(); // 404 + «Coche con id … no encontrado.»
     }
+
+    /**
+     * Maneja las {@link LimiteExcedidoException}.
+     * <p>
+     * Se invoca cuando una petición supera el límite de tasa o de
+     * concurrencia de su ruta. Retorna HTTP 429 Too Many Requests con la
+     * cabecera {@code Retry-After} y el mensaje de la excepción en el cuerpo.
+     * </p>
+     *
+     * @param ex excepción capturada con el tiempo de espera recomendado
+     * @return respuesta 429 con {@code Retry-After}
+     */
+    @ExceptionHandler(LimiteExcedidoException.class)
+    public ResponseEntity<String> handleLimiteExcedido(LimiteExcedidoException ex) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(ex.getReintentarEnSegundos()))
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Maneja las {@link SobrecargaException}.
+     * <p>
+     * Se invoca cuando el límite de concurrencia adaptativo descarta la
+     * petición o el ejecutor del dashboard rechaza una consulta. Retorna HTTP 503 Service Unavailable con
+     * {@code Retry-After: 1} y el mensaje de la excepción en el cuerpo.
+     * </p>
+     *
+     * @param ex excepción capturada que indica la saturación
+     * @return respuesta 503 con {@code Retry-After}
+     */
+    @ExceptionHandler(SobrecargaException.class)
+    public ResponseEntity<String> handleSobrecarga(SobrecargaException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
+
+    /**
+     * Maneja las {@link TiempoAgotadoException}.
+     * <p>
+     * Se invoca cuando una respuesta no se compone en su tiempo máximo.
+     * Retorna HTTP 503 Service Unavailable con {@code Retry-After: 1} y el
+     * mensaje de la excepción en el cuerpo.
+     * </p>
+     *
+     * @param ex excepción capturada que indica el tiempo agotado
+     * @return respuesta 503 con {@code Retry-After}
+     */
+    @ExceptionHandler(TiempoAgotadoException.class)
+    public ResponseEntity<String> handleTiempoAgotado(TiempoAgotadoException ex) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ex.getMessage());
+    }
 }
@@ -0,0 +1,25 @@
+package es.cic.curso25.proy008.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Excepción que indica que no hay historial de una fila en el momento
+ * pedido: la fila aún no existía o se modificó antes de guardarse historial.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class HistorialException extends RuntimeException {
+
+    /**
+     * @param entidad Nombre de la entidad.
+     * @param id      Identificador de la fila.
+     * @param momento Versión o instante pedido.
+     */
+    public HistorialException(String entidad, long id, Object momento) {
+        super("No hay historial de " + entidad + " con id " + id + " en " + momento + ".");
+    }
+}
@@ -0,0 +1,39 @@
+package es.cic.curso25.proy008.exception;
+
+/**
+ * Excepción que indica que una petición ha superado el límite de tasa o
+ * de concurrencia configurado para su ruta.
+ * <p>
+ * La lanza {@code LimiteRutaInterceptor} antes de llegar al controlador y
+ * {@code ControllerAdviceException} la traduce a HTTP 429 Too Many Requests
+ * con la cabecera {@code Retry-After}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class LimiteExcedidoException extends RuntimeException {
+
+    private final long reintentarEnSegundos;
+
+    /**
+     * Construye la excepción con el tiempo de espera recomendado.
+     *
+     * @param message              Mensaje que detalla el límite superado.
+     * @param reintentarEnSegundos Segundos tras los que tiene sentido reintentar.
+     */
+    public LimiteExcedidoException(String message, long reintentarEnSegundos) {
+        super(message);
+        this.reintentarEnSegundos = reintentarEnSegundos;
+    }
+
+    /**
+     * Segundos que el cliente debería esperar antes de reintentar.
+     *
+     * @return valor para la cabecera {@code Retry-After}.
+     */
+    public long getReintentarEnSegundos() {
+        return reintentarEnSegundos;
+    }
+}
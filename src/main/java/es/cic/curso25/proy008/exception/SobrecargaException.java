@@ -0,0 +1,27 @@
+package es.cic.curso25.proy008.exception;
+
+/**
+ * Excepción que indica que el servicio está saturado y descarta la petición.
+ * <p>
+ * La lanza {@code LimiteAdaptativoInterceptor} cuando no queda hueco en el
+ * límite de concurrencia adaptativo, antes de que la petición llegue al
+ * controlador, y {@code DashboardService} cuando su ejecutor rechaza una
+ * consulta. {@code ControllerAdviceException} la traduce a HTTP 503 Service
+ * Unavailable con la cabecera {@code Retry-After}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class SobrecargaException extends RuntimeException {
+
+    /**
+     * Construye la excepción con un mensaje descriptivo.
+     *
+     * @param message Mensaje que detalla el motivo del descarte.
+     */
+    public SobrecargaException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,26 @@
+package es.cic.curso25.proy008.exception;
+
+/**
+ * Excepción que indica que una respuesta compuesta de varias consultas no
+ * ha terminado en el tiempo máximo configurado.
+ * <p>
+ * La lanza {@code DashboardService} tras cancelar las consultas pendientes
+ * y {@code ControllerAdviceException} la traduce a HTTP 503 Service
+ * Unavailable con la cabecera {@code Retry-After}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class TiempoAgotadoException extends RuntimeException {
+
+    /**
+     * Construye la excepción con un mensaje descriptivo.
+     *
+     * @param message Mensaje que detalla qué no terminó a tiempo.
+     */
+    public TiempoAgotadoException(String message) {
+        super(message);
+    }
+}
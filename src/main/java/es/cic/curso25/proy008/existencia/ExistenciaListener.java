@@ -0,0 +1,148 @@
+package es.cic.curso25.proy008.existencia;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PersistContext;
+import org.hibernate.event.spi.PersistEvent;
+import org.hibernate.event.spi.PersistEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Listener de Hibernate que mantiene un {@link FiltroExistencia} por cada
+ * entidad vigilada.
+ * <p>
+ * Las altas se anotan al hacer {@code persist}, en cuanto la entidad tiene
+ * id aunque el {@code INSERT} espere al flush, y al insertar; se repiten
+ * tras el commit, por si una recarga las leyó antes de confirmarse; las bajas se anotan solo si la
+ * transacción se confirma. Las inserciones de transacciones abiertas
+ * quedan disponibles en {@link #getPendientes(Class)} para las recargas.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class ExistenciaListener
+        implements PersistEventListener, PostInsertEventListener, PostDeleteEventListener {
+
+    private final Map<Class<?>, FiltroExistencia> filtros = new ConcurrentHashMap<>();
+
+    private final Map<EventSource, Lote> lotes = new ConcurrentHashMap<>();
+
+    /**
+     * @param entidades Entidades vigiladas.
+     */
+    public ExistenciaListener(Set<Class<?>> entidades) {
+        entidades.forEach(entidad -> filtros.put(entidad, new FiltroExistencia()));
+    }
+
+    /**
+     * @param entidad Entidad vigilada.
+     * @return su filtro, o {@code null} si no se vigila.
+     */
+    public FiltroExistencia getFiltro(Class<?> entidad) {
+        return filtros.get(entidad);
+    }
+
+    /**
+     * @param entidad Entidad vigilada.
+     * @return ids insertados en transacciones todavía abiertas.
+     */
+    public List<Long> getPendientes(Class<?> entidad) {
+        List<Long> pendientes = new ArrayList<>();
+        for (Lote lote : lotes.values()) {
+            for (Anotacion anotacion : lote.altas) {
+                if (anotacion.entidad() == entidad) {
+                    pendientes.add(anotacion.id());
+                }
+            }
+        }
+        return pendientes;
+    }
+
+    @Override
+    public void onPersist(PersistEvent event) {
+        EventSource session = event.getSession();
+        Object entity = event.getObject();
+        // Con ids de secuencia el INSERT espera al flush, pero el id ya se puede usar
+        Object id = session.getContextEntityIdentifier(entity);
+        if (id != null) {
+            anotarAlta(session, session.getEntityPersister(event.getEntityName(), entity).getMappedClass(), id);
+        }
+    }
+
+    @Override
+    public void onPersist(PersistEvent event, PersistContext createdAlready) {
+        onPersist(event);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        anotarAlta(event.getSession(), event.getPersister().getMappedClass(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        Class<?> entidad = event.getPersister().getMappedClass();
+        if (filtros.containsKey(entidad)) {
+            lote(event.getSession()).bajas.add(new Anotacion(entidad, ((Number) event.getId()).longValue()));
+        }
+    }
+
+    private void anotarAlta(EventSource session, Class<?> entidad, Object id) {
+        FiltroExistencia filtro = filtros.get(entidad);
+        if (filtro != null) {
+            long valor = ((Number) id).longValue();
+            lote(session).altas.add(new Anotacion(entidad, valor));
+            filtro.alta(valor);
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Lote de la sesión; al acabar la transacción se confirma si hubo commit
+     * y se olvida en cualquier caso.
+     */
+    private Lote lote(EventSource session) {
+        return lotes.computeIfAbsent(session, s -> {
+            s.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (exito, sesion) -> {
+                Lote lote = lotes.remove(s);
+                if (exito && lote != null) {
+                    lote.altas.forEach(alta -> filtros.get(alta.entidad()).alta(alta.id()));
+                    lote.bajas.forEach(baja -> filtros.get(baja.entidad()).baja(baja.id()));
+                }
+            });
+            return new Lote();
+        });
+    }
+
+    private record Anotacion(Class<?> entidad, long id) {
+    }
+
+    /**
+     * Altas y bajas de una sesión. Las altas se leen desde otros hilos
+     * durante las recargas.
+     */
+    private static final class Lote {
+
+        private final Queue<Anotacion> altas = new ConcurrentLinkedQueue<>();
+
+        private final List<Anotacion> bajas = new ArrayList<>();
+    }
+}
@@ -0,0 +1,159 @@
+package es.cic.curso25.proy008.existencia;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import es.cic.curso25.proy008.flota.MapaBits;
+
+/**
+ * Ids existentes de una entidad, en un {@link MapaBits}, para descartar sin
+ * consulta los ids que seguro que no existen.
+ * <p>
+ * El conjunto solo puede equivocarse hacia «puede existir»: las altas se
+ * anotan en cuanto Hibernate inserta (aunque luego se deshaga la
+ * transacción) y las bajas solo tras el commit. Los borrados masivos no
+ * pasan por Hibernate y dejan falsos positivos hasta la siguiente recarga.
+ * </p>
+ * <p>
+ * Una recarga parte de los ids leídos de la BBDD, añade los de las
+ * inserciones aún sin confirmar y repite en orden las altas y bajas que
+ * llegaron mientras se leía. Hasta la primera recarga el filtro no
+ * descarta nada.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class FiltroExistencia {
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private MapaBits ids = new MapaBits();
+
+    private volatile boolean listo;
+
+    // Altas y bajas durante una recarga en curso (null si no hay)
+    private List<Operacion> durante;
+
+    /**
+     * @param id Id insertado, o confirmado.
+     */
+    public void alta(long id) {
+        if (id < 0 || id > MapaBits.MAX_ID) {
+            return;
+        }
+        lock.lock();
+        try {
+            ids.add(id);
+            if (durante != null) {
+                durante.add(new Operacion(true, id));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param id Id borrado en una transacción confirmada.
+     */
+    public void baja(long id) {
+        lock.lock();
+        try {
+            ids.remove(id);
+            if (durante != null) {
+                durante.add(new Operacion(false, id));
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param id Id a comprobar.
+     * @return {@code false} solo si el id seguro que no existe.
+     */
+    public boolean puedeExistir(long id) {
+        if (!listo || id < 0 || id > MapaBits.MAX_ID) {
+            return true;
+        }
+        lock.lock();
+        try {
+            return ids.contains(id);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Empieza una recarga; debe llamarse antes de leer los ids. Las
+     * recargas no pueden solaparse.
+     */
+    public void empezarRecarga() {
+        lock.lock();
+        try {
+            durante = new ArrayList<>();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sustituye el conjunto por el leído de la BBDD.
+     *
+     * @param leidos     Ids leídos de la BBDD tras {@link #empezarRecarga()}.
+     * @param pendientes Ids insertados en transacciones aún abiertas.
+     */
+    public void terminarRecarga(List<Long> leidos, Collection<Long> pendientes) {
+        MapaBits nuevo = new MapaBits();
+        for (Long id : leidos) {
+            if (id <= MapaBits.MAX_ID) {
+                nuevo.add(id);
+            }
+        }
+        for (Long id : pendientes) {
+            if (id <= MapaBits.MAX_ID) {
+                nuevo.add(id);
+            }
+        }
+        lock.lock();
+        try {
+            for (Operacion operacion : durante) {
+                if (operacion.alta()) {
+                    nuevo.add(operacion.id());
+                } else {
+                    nuevo.remove(operacion.id());
+                }
+            }
+            durante = null;
+            ids = nuevo;
+            listo = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return {@code true} tras la primera recarga.
+     */
+    public boolean isListo() {
+        return listo;
+    }
+
+    /**
+     * @return número de ids del conjunto.
+     */
+    public long getTamano() {
+        lock.lock();
+        try {
+            return ids.getCardinalidad();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private record Operacion(boolean alta, long id) {
+    }
+}
@@ -0,0 +1,26 @@
+package es.cic.curso25.proy008.flota;
+
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+
+/**
+ * Estado final de un vehículo tras una transacción, tal como lo anota
+ * {@link EncendidoListener}.
+ *
+ * @param tipo                  Tipo de vehículo.
+ * @param id                    Id del vehículo.
+ * @param encendido             Motor encendido; {@code false} si se ha borrado.
+ * @param concesionarioId       Concesionario actual (solo coches).
+ * @param concesionarioAnterior Concesionario antes del cambio; igual al
+ *                              actual si no ha cambiado o no se conoce.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public record CambioEncendido(
+        TipoVehiculo tipo,
+        Long id,
+        boolean encendido,
+        Long concesionarioId,
+        Long concesionarioAnterior) {
+}
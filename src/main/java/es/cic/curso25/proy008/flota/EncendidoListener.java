@@ -0,0 +1,124 @@
+package es.cic.curso25.proy008.flota;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.Moto;
+
+/**
+ * Listener de Hibernate que lleva a {@link EstadoEncendido} y a
+ * {@link IndiceEncendido} el encendido (y el concesionario) de cada
+ * {@link Coche} y {@link Moto} que se inserta, modifica o borra.
+ * <p>
+ * Los cambios se acumulan por sesión y solo se aplican si la transacción se
+ * confirma, así que el canal nunca anuncia un encendido que se deshizo. Los
+ * borrados masivos por JPQL no pasan por aquí: los corrige la recarga de
+ * {@code FlotaService}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class EncendidoListener implements PostInsertEventListener, PostUpdateEventListener, PostDeleteEventListener {
+
+    private static final String PROPIEDAD = "encendido";
+
+    private static final String CONCESIONARIO = "concesionario";
+
+    private static final Map<Class<?>, TipoVehiculo> ENTIDADES = Map.of(
+            Coche.class, TipoVehiculo.COCHE,
+            Moto.class, TipoVehiculo.MOTO);
+
+    private final Map<EventSource, List<CambioEncendido>> pendientes = new ConcurrentHashMap<>();
+
+    private final EstadoEncendido estadoEncendido;
+
+    private final IndiceEncendido indiceEncendido;
+
+    /**
+     * @param estadoEncendido Estado del canal {@code /ws/flota}.
+     * @param indiceEncendido Índice de vehículos encendidos por concesionario.
+     */
+    public EncendidoListener(EstadoEncendido estadoEncendido, IndiceEncendido indiceEncendido) {
+        this.estadoEncendido = estadoEncendido;
+        this.indiceEncendido = indiceEncendido;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        anotar(event.getSession(), event.getPersister(), event.getId(), event.getState(), null, true);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        anotar(event.getSession(), event.getPersister(), event.getId(), event.getState(), event.getOldState(),
+                true);
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        anotar(event.getSession(), event.getPersister(), event.getId(), event.getDeletedState(), null, false);
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void anotar(EventSource session, EntityPersister persister, Object id, Object[] estado,
+            Object[] anterior, boolean existe) {
+        TipoVehiculo tipo = ENTIDADES.get(persister.getMappedClass());
+        if (tipo == null) {
+            return;
+        }
+        List<String> propiedades = Arrays.asList(persister.getPropertyNames());
+        boolean encendido = existe && Boolean.TRUE.equals(estado[propiedades.indexOf(PROPIEDAD)]);
+        Long concesionarioId = null;
+        Long concesionarioAnterior = null;
+        int indiceConcesionario = propiedades.indexOf(CONCESIONARIO);
+        if (indiceConcesionario >= 0) {
+            concesionarioId = idDe(estado[indiceConcesionario]);
+            concesionarioAnterior = anterior != null ? idDe(anterior[indiceConcesionario]) : concesionarioId;
+        }
+        lista(session).add(new CambioEncendido(tipo, ((Number) id).longValue(), encendido,
+                concesionarioId, concesionarioAnterior));
+    }
+
+    private static Long idDe(Object concesionario) {
+        return concesionario instanceof Concesionario c ? c.getId() : null;
+    }
+
+    /**
+     * Lista de la sesión; al acabar la transacción se aplica si hubo commit
+     * y se olvida en cualquier caso.
+     */
+    private List<CambioEncendido> lista(EventSource session) {
+        return pendientes.computeIfAbsent(session, s -> {
+            s.getActionQueue().registerProcess((AfterTransactionCompletionProcess) (exito, sesion) -> {
+                List<CambioEncendido> cambios = pendientes.remove(s);
+                if (exito && cambios != null) {
+                    estadoEncendido.aplicar(cambios);
+                    indiceEncendido.aplicar(cambios);
+                }
+            });
+            return new ArrayList<>();
+        });
+    }
+}
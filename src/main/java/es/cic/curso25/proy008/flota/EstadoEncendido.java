@@ -0,0 +1,208 @@
+package es.cic.curso25.proy008.flota;
+
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+
+/**
+ * Qué vehículos tienen el motor encendido, como un {@link BitSet} de ids
+ * por {@link TipoVehiculo}, y qué ids han cambiado desde el último tick.
+ * <p>
+ * Lo alimentan {@link EncendidoListener} tras cada commit y las recargas
+ * completas desde la BBDD. Una recarga no pisa los cambios que llegan
+ * mientras se ejecuta su consulta: esos ids conservan el valor del
+ * listener, que es más reciente.
+ * </p>
+ * <p>
+ * Los ids deben caber en un {@code int}; los demás se ignoran.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class EstadoEncendido {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EstadoEncendido.class);
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Map<TipoVehiculo, BitSet> encendidos = porTipo();
+
+    private final Map<TipoVehiculo, BitSet> cambiados = porTipo();
+
+    // Ids cambiados por el listener durante una recarga en curso (null si no hay)
+    private final Map<TipoVehiculo, BitSet> tocados = new EnumMap<>(TipoVehiculo.class);
+
+    /**
+     * Aplica los cambios de una transacción confirmada.
+     *
+     * @param cambios Estado final de cada vehículo tocado.
+     */
+    public void aplicar(List<CambioEncendido> cambios) {
+        lock.lock();
+        try {
+            for (CambioEncendido cambio : cambios) {
+                int id = indice(cambio.id());
+                if (id < 0) {
+                    continue;
+                }
+                BitSet tocado = tocados.get(cambio.tipo());
+                if (tocado != null) {
+                    tocado.set(id);
+                }
+                BitSet actual = encendidos.get(cambio.tipo());
+                if (actual.get(id) != cambio.encendido()) {
+                    actual.set(id, cambio.encendido());
+                    cambiados.get(cambio.tipo()).set(id);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Empieza una recarga: desde aquí se apuntan los ids que cambie el
+     * listener, para respetarlos en {@link #terminarRecarga}.
+     *
+     * @param tipo Tipo que se va a recargar.
+     */
+    public void empezarRecarga(TipoVehiculo tipo) {
+        lock.lock();
+        try {
+            tocados.put(tipo, new BitSet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Sustituye el estado de un tipo por el leído de la BBDD y marca como
+     * cambiados los ids que difieren.
+     *
+     * @param tipo Tipo recargado.
+     * @param ids  Ids con el motor encendido según la BBDD.
+     */
+    public void terminarRecarga(TipoVehiculo tipo, List<Long> ids) {
+        BitSet leidos = new BitSet();
+        for (Long id : ids) {
+            int indice = indice(id);
+            if (indice >= 0) {
+                leidos.set(indice);
+            }
+        }
+        lock.lock();
+        try {
+            BitSet actual = encendidos.get(tipo);
+            BitSet tocado = tocados.remove(tipo);
+            if (tocado != null) {
+                for (int id = tocado.nextSetBit(0); id >= 0; id = tocado.nextSetBit(id + 1)) {
+                    leidos.set(id, actual.get(id));
+                }
+            }
+            BitSet diferencia = (BitSet) actual.clone();
+            diferencia.xor(leidos);
+            cambiados.get(tipo).or(diferencia);
+            encendidos.put(tipo, leidos);
+            if (!diferencia.isEmpty()) {
+                LOGGER.info("Recarga de {}: {} vehículos corregidos", tipo, diferencia.cardinality());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Copia del estado actual, para la instantánea de una sesión nueva.
+     * Se toma bajo el mismo cerrojo que {@link #drenar()}: lo que cambie
+     * después saldrá en el siguiente tick.
+     *
+     * @param alTomar Acción que se ejecuta dentro del cerrojo con la copia
+     *                (p. ej. registrar la sesión).
+     * @return copia de los ids encendidos por tipo.
+     */
+    public Map<TipoVehiculo, BitSet> instantanea(Runnable alTomar) {
+        lock.lock();
+        try {
+            Map<TipoVehiculo, BitSet> copia = new EnumMap<>(TipoVehiculo.class);
+            encendidos.forEach((tipo, bits) -> copia.put(tipo, (BitSet) bits.clone()));
+            alTomar.run();
+            return copia;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Devuelve y olvida los cambios del tick, con el valor actual de cada id.
+     *
+     * @return ids cambiados y estado actual, o {@code null} si no hubo cambios.
+     */
+    public Tick drenar() {
+        lock.lock();
+        try {
+            if (cambiados.values().stream().allMatch(BitSet::isEmpty)) {
+                return null;
+            }
+            Map<TipoVehiculo, BitSet> ids = new EnumMap<>(TipoVehiculo.class);
+            Map<TipoVehiculo, BitSet> estado = new EnumMap<>(TipoVehiculo.class);
+            for (TipoVehiculo tipo : TipoVehiculo.values()) {
+                BitSet tick = cambiados.put(tipo, new BitSet());
+                ids.put(tipo, tick);
+                // Solo hace falta el estado de los ids cambiados
+                BitSet valores = (BitSet) encendidos.get(tipo).clone();
+                valores.and(tick);
+                estado.put(tipo, valores);
+            }
+            return new Tick(ids, estado);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param tipo Tipo de vehículo.
+     * @return número de vehículos encendidos de ese tipo.
+     */
+    public int getEncendidos(TipoVehiculo tipo) {
+        lock.lock();
+        try {
+            return encendidos.get(tipo).cardinality();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static int indice(Long id) {
+        if (id == null || id < 0 || id > Integer.MAX_VALUE) {
+            LOGGER.warn("Id {} fuera del rango del canal de encendido", id);
+            return -1;
+        }
+        return id.intValue();
+    }
+
+    private static Map<TipoVehiculo, BitSet> porTipo() {
+        Map<TipoVehiculo, BitSet> mapa = new EnumMap<>(TipoVehiculo.class);
+        for (TipoVehiculo tipo : TipoVehiculo.values()) {
+            mapa.put(tipo, new BitSet());
+        }
+        return mapa;
+    }
+
+    /**
+     * Cambios de un tick.
+     *
+     * @param ids    Ids cambiados por tipo.
+     * @param estado Ids encendidos por tipo, restringido a {@code ids}.
+     */
+    public record Tick(Map<TipoVehiculo, BitSet> ids, Map<TipoVehiculo, BitSet> estado) {
+    }
+}
@@ -0,0 +1,206 @@
+package es.cic.curso25.proy008.flota;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+import es.cic.curso25.proy008.flota.EstadoEncendido.Tick;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Canal WebSocket {@code /ws/flota} con el encendido de todos los coches y
+ * motos, en el formato de {@link ProtocoloFlota}.
+ * <p>
+ * Al conectar se envía una instantánea; después, en cada tick
+ * ({@code proy008.flota.tick}), un delta con los vehículos cambiados. Cada
+ * sesión acumula lo pendiente en bitsets, así que si un cliente va lento
+ * sus cambios se funden en vez de encolarse: nunca recibe más de una
+ * entrada por vehículo y mensaje, ni más de un mensaje por tick, y la
+ * memoria por sesión no crece con el número de cambios.
+ * </p>
+ * <p>
+ * Los envíos se hacen en el {@code flotaExecutor}, con como mucho uno en
+ * curso por sesión; el tick solo reparte bitsets.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class FlotaWebSocketHandler extends BinaryWebSocketHandler {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlotaWebSocketHandler.class);
+
+    private final Map<String, SesionFlota> sesiones = new ConcurrentHashMap<>();
+
+    private final EstadoEncendido estadoEncendido;
+
+    private final TaskExecutor flotaExecutor;
+
+    /**
+     * @param estadoEncendido Estado de encendido de la flota.
+     * @param flotaExecutor   Ejecutor de los envíos.
+     * @param meterRegistry   Registro de métricas.
+     */
+    public FlotaWebSocketHandler(EstadoEncendido estadoEncendido, TaskExecutor flotaExecutor,
+            MeterRegistry meterRegistry) {
+        this.estadoEncendido = estadoEncendido;
+        this.flotaExecutor = flotaExecutor;
+        Gauge.builder("proy008.flota.sesiones", sesiones, Map::size)
+            .description("Sesiones abiertas en /ws/flota")
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        SesionFlota sesion = new SesionFlota(session);
+        // Hasta que salga la instantánea el tick no debe enviar deltas
+        sesion.enviando.set(true);
+        ByteBuffer instantanea = ProtocoloFlota.instantanea(
+                estadoEncendido.instantanea(() -> sesiones.put(session.getId(), sesion)));
+        flotaExecutor.execute(() -> {
+            if (sesion.enviar(instantanea)) {
+                // Lo acumulado mientras salía la instantánea se envía ya
+                sesion.enviarPendientes();
+            }
+        });
+        LOGGER.info("Nueva sesión {} en /ws/flota", session.getId());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        sesiones.remove(session.getId());
+    }
+
+    /**
+     * Reparte los cambios del tick a todas las sesiones y programa su envío.
+     */
+    @Scheduled(fixedDelayString = "${proy008.flota.tick:250}")
+    public void tick() {
+        Tick tick = estadoEncendido.drenar();
+        if (tick == null) {
+            return;
+        }
+        for (SesionFlota sesion : sesiones.values()) {
+            sesion.acumular(tick);
+            if (sesion.enviando.compareAndSet(false, true)) {
+                flotaExecutor.execute(sesion::enviarPendientes);
+            }
+        }
+    }
+
+    /**
+     * @return sesiones abiertas.
+     */
+    public int getSesiones() {
+        return sesiones.size();
+    }
+
+    /**
+     * Sesión con los cambios que aún no se le han enviado.
+     */
+    private final class SesionFlota {
+
+        private final WebSocketSession session;
+
+        private final ReentrantLock lock = new ReentrantLock();
+
+        private final AtomicBoolean enviando = new AtomicBoolean();
+
+        private Map<TipoVehiculo, BitSet> ids = new EnumMap<>(TipoVehiculo.class);
+
+        private Map<TipoVehiculo, BitSet> estado = new EnumMap<>(TipoVehiculo.class);
+
+        SesionFlota(WebSocketSession session) {
+            this.session = session;
+        }
+
+        /**
+         * Funde el tick con lo pendiente: para cada id queda el último valor.
+         */
+        void acumular(Tick tick) {
+            lock.lock();
+            try {
+                tick.ids().forEach((tipo, cambiados) -> {
+                    ids.computeIfAbsent(tipo, t -> new BitSet()).or(cambiados);
+                    BitSet valores = estado.computeIfAbsent(tipo, t -> new BitSet());
+                    valores.andNot(cambiados);
+                    valores.or(tick.estado().get(tipo));
+                });
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Envía lo pendiente; si durante el envío se acumula más, sigue
+         * enviando en lugar de esperar a un tick con cambios, como
+         * {@code InventarioEnVivoService}. Se llama con {@code enviando}
+         * tomado.
+         */
+        void enviarPendientes() {
+            do {
+                Map<TipoVehiculo, BitSet> cambiados;
+                Map<TipoVehiculo, BitSet> valores;
+                lock.lock();
+                try {
+                    cambiados = ids;
+                    valores = estado;
+                    ids = new EnumMap<>(TipoVehiculo.class);
+                    estado = new EnumMap<>(TipoVehiculo.class);
+                } finally {
+                    lock.unlock();
+                }
+                if (hayCambios(cambiados) && !enviar(ProtocoloFlota.delta(cambiados, valores))) {
+                    return;
+                }
+                enviando.set(false);
+            } while (hayPendientes() && enviando.compareAndSet(false, true));
+        }
+
+        private boolean hayPendientes() {
+            lock.lock();
+            try {
+                return hayCambios(ids);
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        private static boolean hayCambios(Map<TipoVehiculo, BitSet> cambiados) {
+            return cambiados.values().stream().anyMatch(bits -> !bits.isEmpty());
+        }
+
+        boolean enviar(ByteBuffer mensaje) {
+            try {
+                session.sendMessage(new BinaryMessage(mensaje));
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                LOGGER.warn("No se pudo enviar a la sesión {} de /ws/flota: {}", session.getId(), e.getMessage());
+                sesiones.remove(session.getId());
+                try {
+                    session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException ignorada) {
+                    // La conexión ya está rota
+                }
+                return false;
+            }
+        }
+    }
+}
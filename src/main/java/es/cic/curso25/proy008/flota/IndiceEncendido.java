@@ -0,0 +1,234 @@
+package es.cic.curso25.proy008.flota;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import es.cic.curso25.proy008.dto.CocheEncendido;
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+
+/**
+ * Índice en memoria de los vehículos con el motor encendido, sobre
+ * {@link MapaBits}: uno con todos los coches, uno por concesionario y uno
+ * con las motos.
+ * <p>
+ * Responde a «cuántos coches hay encendidos en el concesionario X» o «qué
+ * motos están encendidas» sin tocar la BBDD: contar es O(1) y listar es
+ * proporcional al resultado. Lo mantienen {@link EncendidoListener} tras
+ * cada commit y las recargas de {@code FlotaService}, como a
+ * {@link EstadoEncendido}. Los cambios que llegan durante una recarga se
+ * guardan y se vuelven a aplicar sobre el índice recargado.
+ * </p>
+ * <p>
+ * Las lecturas comparten un {@link ReentrantReadWriteLock}; solo las
+ * escrituras son exclusivas.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class IndiceEncendido {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(IndiceEncendido.class);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private MapaBits coches = new MapaBits();
+
+    private Map<Long, MapaBits> cochesPorConcesionario = new HashMap<>();
+
+    private MapaBits motos = new MapaBits();
+
+    // Cambios aplicados durante una recarga en curso, por tipo
+    private final Map<TipoVehiculo, List<CambioEncendido>> durante = new EnumMap<>(TipoVehiculo.class);
+
+    /**
+     * Aplica los cambios de una transacción confirmada.
+     *
+     * @param cambios Estado final de cada vehículo tocado.
+     */
+    public void aplicar(List<CambioEncendido> cambios) {
+        lock.writeLock().lock();
+        try {
+            for (CambioEncendido cambio : cambios) {
+                List<CambioEncendido> recarga = durante.get(cambio.tipo());
+                if (recarga != null) {
+                    recarga.add(cambio);
+                }
+                aplicar(cambio, coches, cochesPorConcesionario, motos);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empieza una recarga: desde aquí se guardan los cambios del listener
+     * para repetirlos en el índice recargado.
+     *
+     * @param tipo Tipo que se va a recargar.
+     */
+    public void empezarRecarga(TipoVehiculo tipo) {
+        lock.writeLock().lock();
+        try {
+            durante.put(tipo, new ArrayList<>());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Sustituye los coches del índice por los leídos de la BBDD.
+     *
+     * @param encendidos Coches encendidos según la BBDD.
+     */
+    public void terminarRecargaCoches(List<CocheEncendido> encendidos) {
+        MapaBits todos = new MapaBits();
+        Map<Long, MapaBits> porConcesionario = new HashMap<>();
+        for (CocheEncendido coche : encendidos) {
+            if (coche.id() <= MapaBits.MAX_ID) {
+                todos.add(coche.id());
+                porConcesionario.computeIfAbsent(coche.concesionarioId(), c -> new MapaBits()).add(coche.id());
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            List<CambioEncendido> recarga = durante.remove(TipoVehiculo.COCHE);
+            if (recarga != null) {
+                recarga.forEach(cambio -> aplicar(cambio, todos, porConcesionario, null));
+            }
+            coches = todos;
+            cochesPorConcesionario = porConcesionario;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.debug("Índice de coches encendidos recargado: {}", todos.getCardinalidad());
+    }
+
+    /**
+     * Sustituye las motos del índice por las leídas de la BBDD.
+     *
+     * @param ids Ids de las motos encendidas según la BBDD.
+     */
+    public void terminarRecargaMotos(List<Long> ids) {
+        MapaBits todas = new MapaBits();
+        for (Long id : ids) {
+            if (id <= MapaBits.MAX_ID) {
+                todas.add(id);
+            }
+        }
+        lock.writeLock().lock();
+        try {
+            List<CambioEncendido> recarga = durante.remove(TipoVehiculo.MOTO);
+            if (recarga != null) {
+                recarga.forEach(cambio -> aplicar(cambio, null, null, todas));
+            }
+            motos = todas;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        LOGGER.debug("Índice de motos encendidas recargado: {}", todas.getCardinalidad());
+    }
+
+    /**
+     * @param concesionarioId Concesionario, o {@code null} para todos.
+     * @return número de coches encendidos.
+     */
+    public long contarCoches(Long concesionarioId) {
+        lock.readLock().lock();
+        try {
+            MapaBits mapa = concesionarioId == null ? coches : cochesPorConcesionario.get(concesionarioId);
+            return mapa == null ? 0 : mapa.getCardinalidad();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @param concesionarioId Concesionario, o {@code null} para todos.
+     * @return ids de los coches encendidos, en orden.
+     */
+    public long[] getCoches(Long concesionarioId) {
+        lock.readLock().lock();
+        try {
+            MapaBits mapa = concesionarioId == null ? coches : cochesPorConcesionario.get(concesionarioId);
+            return mapa == null ? new long[0] : mapa.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return número de motos encendidas.
+     */
+    public long contarMotos() {
+        lock.readLock().lock();
+        try {
+            return motos.getCardinalidad();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * @return ids de las motos encendidas, en orden.
+     */
+    public long[] getMotos() {
+        lock.readLock().lock();
+        try {
+            return motos.toArray();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica un cambio sobre los mapas indicados (los de un tipo pueden ser
+     * {@code null} si el cambio es del otro).
+     */
+    private static void aplicar(CambioEncendido cambio, MapaBits coches, Map<Long, MapaBits> porConcesionario,
+            MapaBits motos) {
+        long id = cambio.id();
+        if (id > MapaBits.MAX_ID) {
+            return;
+        }
+        if (cambio.tipo() == TipoVehiculo.MOTO) {
+            if (motos != null) {
+                if (cambio.encendido()) {
+                    motos.add(id);
+                } else {
+                    motos.remove(id);
+                }
+            }
+            return;
+        }
+        if (coches == null) {
+            return;
+        }
+        if (!Objects.equals(cambio.concesionarioAnterior(), cambio.concesionarioId())) {
+            quitar(porConcesionario, cambio.concesionarioAnterior(), id);
+        }
+        if (cambio.encendido()) {
+            coches.add(id);
+            porConcesionario.computeIfAbsent(cambio.concesionarioId(), c -> new MapaBits()).add(id);
+        } else {
+            coches.remove(id);
+            quitar(porConcesionario, cambio.concesionarioId(), id);
+        }
+    }
+
+    private static void quitar(Map<Long, MapaBits> porConcesionario, Long concesionarioId, long id) {
+        MapaBits mapa = porConcesionario.get(concesionarioId);
+        if (mapa != null && mapa.remove(id) && mapa.isEmpty()) {
+            porConcesionario.remove(concesionarioId);
+        }
+    }
+}
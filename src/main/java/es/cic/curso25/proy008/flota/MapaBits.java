@@ -0,0 +1,319 @@
+package es.cic.curso25.proy008.flota;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Conjunto comprimido de ids al estilo Roaring.
+ * <p>
+ * Los ids se reparten en bloques de 65.536 según sus 16 bits altos. Cada
+ * bloque guarda los 16 bits bajos en el contenedor que menos ocupa:
+ * <ul>
+ *   <li>hasta {@value #MAX_ARRAY} ids, un array ordenado de {@code char}
+ *       (2 bytes por id);</li>
+ *   <li>a partir de ahí, un mapa de bits fijo de 8 KB.</li>
+ * </ul>
+ * Un mapa de bits no vuelve a array hasta bajar de {@value #MIN_BITS} ids.
+ * Sin ese margen, un bloque que oscila en torno a {@value #MAX_ARRAY} ids
+ * (motores que se encienden y se apagan) reconstruiría un contenedor en
+ * cada alta o baja.
+ * Así un conjunto disperso ocupa poco y uno denso no ocupa más que un
+ * {@link java.util.BitSet}. La cardinalidad se mantiene al día en cada
+ * cambio, de modo que {@link #getCardinalidad()} es O(1).
+ * </p>
+ * <p>
+ * Admite ids entre 0 y 2<sup>32</sup>-1. No es seguro para hilos: quien lo
+ * use debe protegerlo.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class MapaBits {
+
+    /**
+     * Id máximo admitido.
+     */
+    public static final long MAX_ID = 0xFFFF_FFFFL;
+
+    static final int MAX_ARRAY = 4096;
+
+    static final int MIN_BITS = MAX_ARRAY / 2;
+
+    private static final int PALABRAS = 1024;
+
+    // Claves (16 bits altos) ordenadas y sus contenedores, en paralelo
+    private char[] claves = new char[4];
+
+    private Object[] contenedores = new Object[4];
+
+    private int bloques;
+
+    private long cardinalidad;
+
+    /**
+     * @param id Id a añadir.
+     * @return {@code true} si no estaba.
+     * @throws IllegalArgumentException Si el id está fuera de rango.
+     */
+    public boolean add(long id) {
+        comprobar(id);
+        char clave = (char) (id >>> 16);
+        char bajo = (char) id;
+        int pos = Arrays.binarySearch(claves, 0, bloques, clave);
+        if (pos < 0) {
+            pos = -pos - 1;
+            insertarBloque(pos, clave, new Array());
+        }
+        Object contenedor = contenedores[pos];
+        boolean nuevo;
+        if (contenedor instanceof Array array) {
+            nuevo = array.add(bajo);
+            if (array.n > MAX_ARRAY) {
+                contenedores[pos] = array.aBits();
+            }
+        } else {
+            nuevo = ((Bits) contenedor).add(bajo);
+        }
+        if (nuevo) {
+            cardinalidad++;
+        }
+        return nuevo;
+    }
+
+    /**
+     * @param id Id a quitar.
+     * @return {@code true} si estaba.
+     */
+    public boolean remove(long id) {
+        if (id < 0 || id > MAX_ID) {
+            return false;
+        }
+        int pos = Arrays.binarySearch(claves, 0, bloques, (char) (id >>> 16));
+        if (pos < 0) {
+            return false;
+        }
+        char bajo = (char) id;
+        Object contenedor = contenedores[pos];
+        boolean quitado;
+        int quedan;
+        if (contenedor instanceof Array array) {
+            quitado = array.remove(bajo);
+            quedan = array.n;
+        } else {
+            Bits bits = (Bits) contenedor;
+            quitado = bits.remove(bajo);
+            quedan = bits.n;
+            if (quedan > 0 && quedan < MIN_BITS) {
+                contenedores[pos] = bits.aArray();
+            }
+        }
+        if (quitado) {
+            cardinalidad--;
+            if (quedan == 0) {
+                quitarBloque(pos);
+            }
+        }
+        return quitado;
+    }
+
+    /**
+     * @param id Id a buscar.
+     * @return {@code true} si está en el conjunto.
+     */
+    public boolean contains(long id) {
+        if (id < 0 || id > MAX_ID) {
+            return false;
+        }
+        int pos = Arrays.binarySearch(claves, 0, bloques, (char) (id >>> 16));
+        if (pos < 0) {
+            return false;
+        }
+        Object contenedor = contenedores[pos];
+        return contenedor instanceof Array array ? array.contains((char) id) : ((Bits) contenedor).contains((char) id);
+    }
+
+    /**
+     * @return número de ids del conjunto, en O(1).
+     */
+    public long getCardinalidad() {
+        return cardinalidad;
+    }
+
+    /**
+     * @return número de bloques guardados como mapa de bits.
+     */
+    public int getBloquesDensos() {
+        int densos = 0;
+        for (int i = 0; i < bloques; i++) {
+            if (contenedores[i] instanceof Bits) {
+                densos++;
+            }
+        }
+        return densos;
+    }
+
+    /**
+     * @return {@code true} si no hay ningún id.
+     */
+    public boolean isEmpty() {
+        return cardinalidad == 0;
+    }
+
+    /**
+     * Recorre los ids en orden ascendente.
+     *
+     * @param accion Acción a aplicar a cada id.
+     */
+    public void forEach(LongConsumer accion) {
+        for (int i = 0; i < bloques; i++) {
+            long alto = (long) claves[i] << 16;
+            Object contenedor = contenedores[i];
+            if (contenedor instanceof Array array) {
+                for (int j = 0; j < array.n; j++) {
+                    accion.accept(alto | array.valores[j]);
+                }
+            } else {
+                long[] palabras = ((Bits) contenedor).palabras;
+                for (int p = 0; p < PALABRAS; p++) {
+                    long palabra = palabras[p];
+                    while (palabra != 0) {
+                        accion.accept(alto | (long) p << 6 | Long.numberOfTrailingZeros(palabra));
+                        palabra &= palabra - 1;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return ids en orden ascendente.
+     */
+    public long[] toArray() {
+        long[] ids = new long[Math.toIntExact(cardinalidad)];
+        int[] i = { 0 };
+        forEach(id -> ids[i[0]++] = id);
+        return ids;
+    }
+
+    private static void comprobar(long id) {
+        if (id < 0 || id > MAX_ID) {
+            throw new IllegalArgumentException("Id fuera de rango: " + id);
+        }
+    }
+
+    private void insertarBloque(int pos, char clave, Object contenedor) {
+        if (bloques == claves.length) {
+            claves = Arrays.copyOf(claves, bloques * 2);
+            contenedores = Arrays.copyOf(contenedores, bloques * 2);
+        }
+        System.arraycopy(claves, pos, claves, pos + 1, bloques - pos);
+        System.arraycopy(contenedores, pos, contenedores, pos + 1, bloques - pos);
+        claves[pos] = clave;
+        contenedores[pos] = contenedor;
+        bloques++;
+    }
+
+    private void quitarBloque(int pos) {
+        System.arraycopy(claves, pos + 1, claves, pos, bloques - pos - 1);
+        System.arraycopy(contenedores, pos + 1, contenedores, pos, bloques - pos - 1);
+        contenedores[--bloques] = null;
+    }
+
+    /**
+     * Contenedor disperso: los 16 bits bajos ordenados.
+     */
+    private static final class Array {
+
+        private char[] valores = new char[4];
+
+        private int n;
+
+        boolean add(char valor) {
+            int pos = Arrays.binarySearch(valores, 0, n, valor);
+            if (pos >= 0) {
+                return false;
+            }
+            pos = -pos - 1;
+            if (n == valores.length) {
+                valores = Arrays.copyOf(valores, Math.min(n * 2, MAX_ARRAY + 1));
+            }
+            System.arraycopy(valores, pos, valores, pos + 1, n - pos);
+            valores[pos] = valor;
+            n++;
+            return true;
+        }
+
+        boolean remove(char valor) {
+            int pos = Arrays.binarySearch(valores, 0, n, valor);
+            if (pos < 0) {
+                return false;
+            }
+            System.arraycopy(valores, pos + 1, valores, pos, n - pos - 1);
+            n--;
+            return true;
+        }
+
+        boolean contains(char valor) {
+            return Arrays.binarySearch(valores, 0, n, valor) >= 0;
+        }
+
+        Bits aBits() {
+            Bits bits = new Bits();
+            for (int i = 0; i < n; i++) {
+                bits.add(valores[i]);
+            }
+            return bits;
+        }
+    }
+
+    /**
+     * Contenedor denso: un bit por cada uno de los 65.536 valores.
+     */
+    private static final class Bits {
+
+        private final long[] palabras = new long[PALABRAS];
+
+        private int n;
+
+        boolean add(char valor) {
+            long antes = palabras[valor >>> 6];
+            long despues = antes | 1L << valor;
+            palabras[valor >>> 6] = despues;
+            if (antes == despues) {
+                return false;
+            }
+            n++;
+            return true;
+        }
+
+        boolean remove(char valor) {
+            long antes = palabras[valor >>> 6];
+            long despues = antes & ~(1L << valor);
+            palabras[valor >>> 6] = despues;
+            if (antes == despues) {
+                return false;
+            }
+            n--;
+            return true;
+        }
+
+        boolean contains(char valor) {
+            return (palabras[valor >>> 6] & 1L << valor) != 0;
+        }
+
+        Array aArray() {
+            Array array = new Array();
+            array.valores = new char[Math.max(n, 4)];
+            for (int p = 0; p < PALABRAS; p++) {
+                long palabra = palabras[p];
+                while (palabra != 0) {
+                    array.valores[array.n++] = (char) (p << 6 | Long.numberOfTrailingZeros(palabra));
+                    palabra &= palabra - 1;
+                }
+            }
+            return array;
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package es.cic.curso25.proy008.flota;
+
+import java.nio.ByteBuffer;
+import java.util.BitSet;
+import java.util.Map;
+
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+
+/**
+ * Mensajes binarios de {@code /ws/flota}. Todos los enteros van en big-endian.
+ * <p>
+ * Instantánea, el primer mensaje de cada sesión:
+ * <pre>
+ * byte   0x01
+ * por cada TipoVehiculo:
+ *   byte   código del tipo
+ *   int    longitud en bytes
+ *   byte[] ids encendidos (BitSet.toByteArray: el bit i del byte j es el id 8*j+i)
+ * </pre>
+ * Delta, como mucho uno por tick y con una sola entrada por vehículo:
+ * <pre>
+ * byte   0x02
+ * int    número de entradas
+ * por entrada:
+ *   byte   código del tipo &lt;&lt; 1 | encendido
+ *   int    id
+ * </pre>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public final class ProtocoloFlota {
+
+    /**
+     * Primer byte de una instantánea.
+     */
+    public static final byte INSTANTANEA = 0x01;
+
+    /**
+     * Primer byte de un delta.
+     */
+    public static final byte DELTA = 0x02;
+
+    private static final int BYTES_ENTRADA = Byte.BYTES + Integer.BYTES;
+
+    private ProtocoloFlota() {
+    }
+
+    /**
+     * @param encendidos Ids encendidos por tipo.
+     * @return mensaje de instantánea.
+     */
+    public static ByteBuffer instantanea(Map<TipoVehiculo, BitSet> encendidos) {
+        byte[][] bits = new byte[TipoVehiculo.values().length][];
+        int longitud = 1;
+        for (TipoVehiculo tipo : TipoVehiculo.values()) {
+            bits[tipo.ordinal()] = encendidos.getOrDefault(tipo, new BitSet()).toByteArray();
+            longitud += 1 + Integer.BYTES + bits[tipo.ordinal()].length;
+        }
+        ByteBuffer mensaje = ByteBuffer.allocate(longitud).put(INSTANTANEA);
+        for (TipoVehiculo tipo : TipoVehiculo.values()) {
+            mensaje.put((byte) tipo.getCodigo()).putInt(bits[tipo.ordinal()].length).put(bits[tipo.ordinal()]);
+        }
+        return mensaje.flip();
+    }
+
+    /**
+     * @param ids    Ids cambiados por tipo.
+     * @param estado Ids encendidos por tipo (basta con los de {@code ids}).
+     * @return mensaje de delta.
+     */
+    public static ByteBuffer delta(Map<TipoVehiculo, BitSet> ids, Map<TipoVehiculo, BitSet> estado) {
+        int entradas = ids.values().stream().mapToInt(BitSet::cardinality).sum();
+        ByteBuffer mensaje = ByteBuffer.allocate(1 + Integer.BYTES + entradas * BYTES_ENTRADA)
+                .put(DELTA)
+                .putInt(entradas);
+        ids.forEach((tipo, cambiados) -> {
+            BitSet encendidos = estado.get(tipo);
+            for (int id = cambiados.nextSetBit(0); id >= 0; id = cambiados.nextSetBit(id + 1)) {
+                int encendido = encendidos != null && encendidos.get(id) ? 1 : 0;
+                mensaje.put((byte) (tipo.getCodigo() << 1 | encendido)).putInt(id);
+            }
+        });
+        return mensaje.flip();
+    }
+}
@@ -0,0 +1,21 @@
+package es.cic.curso25.proy008.historial;
+
+import java.time.Instant;
+
+/**
+ * Fila pendiente de la tabla {@code historial}.
+ *
+ * @param entidad      Nombre simple de la entidad.
+ * @param entidadId    Identificador de la fila.
+ * @param version      Versión tras el cambio.
+ * @param instantanea  Si {@code cambios} es el estado completo.
+ * @param cambios      Columnas cambiadas en JSON.
+ * @param modificadoEn Instante del cambio.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+record FilaHistorial(String entidad, long entidadId, long version, boolean instantanea, String cambios,
+        Instant modificadoEn) {
+}
@@ -0,0 +1,160 @@
+package es.cic.curso25.proy008.historial;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.hibernate.action.spi.AfterTransactionCompletionProcess;
+import org.hibernate.bytecode.enhance.spi.LazyPropertyInitializer;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.hibernate.proxy.HibernateProxy;
+import org.hibernate.type.CollectionType;
+import org.hibernate.type.EntityType;
+import org.hibernate.type.OneToOneType;
+import org.hibernate.type.Type;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.cic.curso25.proy008.cambios.CambiosListener;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.model.Motorista;
+
+/**
+ * Listener de Hibernate que anota en el historial cada alta y cada
+ * modificación de {@link Coche}, {@link Moto}, {@link Motorista} y
+ * {@link Concesionario}.
+ * <p>
+ * En el alta, y cada {@code instantaneaCada} versiones, guarda el estado
+ * completo; en el resto solo las propiedades sucias. Las asociaciones se
+ * guardan por su identificador, y se omiten las colecciones, el lado
+ * inverso de los {@code @OneToOne}, que no son columnas de la fila, y la
+ * {@code secuencia} de cambios y la {@code clave} de igualdad, que no forman
+ * parte del estado de negocio.
+ * Una modificación que solo renumera la secuencia no incrementa la versión
+ * y no se anota.
+ * </p>
+ * <p>
+ * Las filas se acumulan en un {@link LoteHistorial} por sesión que Hibernate
+ * ejecuta antes del commit; el listener no hace E/S durante el flush.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class HistorialListener implements PostInsertEventListener, PostUpdateEventListener {
+
+    private static final Set<Class<?>> ENTIDADES = Set.of(Coche.class, Moto.class, Motorista.class,
+            Concesionario.class);
+
+    private static final String CLAVE = "clave";
+
+    private final Map<EventSource, LoteHistorial> lotes = new ConcurrentHashMap<>();
+
+    private final ObjectMapper objectMapper;
+
+    private final int instantaneaCada;
+
+    /**
+     * @param objectMapper    Serializador de los cambios a JSON.
+     * @param instantaneaCada Cada cuántas versiones se guarda el estado completo.
+     */
+    public HistorialListener(ObjectMapper objectMapper, int instantaneaCada) {
+        this.objectMapper = objectMapper;
+        this.instantaneaCada = instantaneaCada;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        anotar(event.getSession(), event.getPersister(), event.getId(), event.getState(), null);
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        anotar(event.getSession(), event.getPersister(), event.getId(), event.getState(),
+                event.getDirtyProperties());
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    private void anotar(EventSource session, EntityPersister persister, Object id, Object[] estado,
+            int[] sucias) {
+        if (!ENTIDADES.contains(persister.getMappedClass()) || !persister.isVersioned()) {
+            return;
+        }
+        String[] nombres = persister.getPropertyNames();
+        if (sucias != null && Arrays.stream(sucias).allMatch(i -> CambiosListener.PROPIEDAD.equals(nombres[i]))) {
+            return;
+        }
+        long version = ((Number) estado[persister.getVersionProperty()]).longValue();
+        boolean instantanea = sucias == null || version % instantaneaCada == 0;
+
+        Map<String, Object> cambios = new LinkedHashMap<>();
+        Type[] tipos = persister.getPropertyTypes();
+        if (instantanea) {
+            for (int i = 0; i < nombres.length; i++) {
+                anotarPropiedad(cambios, session, persister, i, nombres[i], tipos[i], estado[i]);
+            }
+        } else {
+            for (int i : sucias) {
+                anotarPropiedad(cambios, session, persister, i, nombres[i], tipos[i], estado[i]);
+            }
+        }
+
+        FilaHistorial fila = new FilaHistorial(persister.getMappedClass().getSimpleName(),
+                ((Number) id).longValue(), version, instantanea, json(cambios), Instant.now());
+        lotes.computeIfAbsent(session, this::nuevoLote).anotar(fila);
+    }
+
+    private void anotarPropiedad(Map<String, Object> cambios, EventSource session, EntityPersister persister,
+            int indice, String nombre, Type tipo, Object valor) {
+        if (indice == persister.getVersionProperty() || CambiosListener.PROPIEDAD.equals(nombre) || CLAVE.equals(nombre)
+                || tipo instanceof CollectionType
+                || tipo instanceof OneToOneType || valor == LazyPropertyInitializer.UNFETCHED_PROPERTY) {
+            return;
+        }
+        if (tipo instanceof EntityType asociacion && valor != null) {
+            // La asociada puede ser un proxy o estar desasociada de la sesión
+            valor = valor instanceof HibernateProxy proxy
+                    ? proxy.getHibernateLazyInitializer().getInternalIdentifier()
+                    : session.getEntityPersister(asociacion.getAssociatedEntityName(), valor)
+                            .getIdentifier(valor, session);
+        }
+        cambios.put(nombre, valor);
+    }
+
+    /**
+     * Crea el lote de la sesión y lo registra en su cola de acciones; el
+     * segundo proceso lo olvida al acabar la transacción, también si se
+     * deshace.
+     */
+    private LoteHistorial nuevoLote(EventSource session) {
+        LoteHistorial lote = new LoteHistorial();
+        session.getActionQueue().registerProcess(lote);
+        session.getActionQueue().registerProcess(
+                (AfterTransactionCompletionProcess) (exito, s) -> lotes.remove(session));
+        return lote;
+    }
+
+    private String json(Map<String, Object> cambios) {
+        try {
+            return objectMapper.writeValueAsString(cambios);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el historial", e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package es.cic.curso25.proy008.historial;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+
+/**
+ * Filas de historial de una transacción, escritas en un único lote JDBC
+ * justo antes del commit.
+ * <p>
+ * Hibernate ejecuta este proceso después del último flush y dentro de la
+ * misma transacción, así que el historial se confirma (o se deshace) junto
+ * con los cambios que describe.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+class LoteHistorial implements BeforeTransactionCompletionProcess {
+
+    private static final String INSERT = "INSERT INTO historial "
+            + "(entidad, entidad_id, version, instantanea, cambios, modificado_en) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final List<FilaHistorial> filas = new ArrayList<>();
+
+    void anotar(FilaHistorial fila) {
+        filas.add(fila);
+    }
+
+    @Override
+    public void doBeforeTransactionCompletion(SessionImplementor session) {
+        if (filas.isEmpty()) {
+            return;
+        }
+        session.doWork(conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(INSERT)) {
+                for (FilaHistorial fila : filas) {
+                    ps.setString(1, fila.entidad());
+                    ps.setLong(2, fila.entidadId());
+                    ps.setLong(3, fila.version());
+                    ps.setBoolean(4, fila.instantanea());
+                    ps.setString(5, fila.cambios());
+                    ps.setTimestamp(6, Timestamp.from(fila.modificadoEn()));
+                    ps.addBatch();
+                }
+                ps.executeBatch();
+            }
+        });
+        filas.clear();
+    }
+}
@@ -0,0 +1,90 @@
+package es.cic.curso25.proy008.id;
+
+import java.io.Serializable;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.Optimizer;
+
+/**
+ * Reparto en memoria de bloques de ids con semántica pooled-lo.
+ * <p>
+ * Cada valor leído de la secuencia es el primer id de un bloque de
+ * {@code incrementSize} ids consecutivos; hasta agotarlo, los ids se
+ * entregan sin ir a la BBDD. Equivale al {@code PooledLoOptimizer} de
+ * Hibernate, pero protegido con un {@link ReentrantLock} en lugar de
+ * {@code synchronized}, de modo que la lectura de la secuencia no ancla
+ * el hilo portador cuando se trabaja con hilos virtuales.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class BloqueIdsOptimizer implements Optimizer {
+
+    private final Class<?> returnClass;
+
+    private final int incrementSize;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    // Protegidos por «lock»
+    private IntegralDataTypeHolder ultimoValorSecuencia;
+
+    private IntegralDataTypeHolder siguiente;
+
+    private IntegralDataTypeHolder limite;
+
+    /**
+     * Constructor que invoca {@code OptimizerFactory} por reflexión.
+     *
+     * @param returnClass   Tipo Java del id.
+     * @param incrementSize Ids por bloque; igual al incremento de la secuencia.
+     */
+    public BloqueIdsOptimizer(Class<?> returnClass, int incrementSize) {
+        if (incrementSize < 1) {
+            throw new IllegalArgumentException("El tamaño de bloque debe ser positivo: " + incrementSize);
+        }
+        this.returnClass = returnClass;
+        this.incrementSize = incrementSize;
+    }
+
+    @Override
+    public Serializable generate(AccessCallback callback) {
+        lock.lock();
+        try {
+            if (siguiente == null || !siguiente.lt(limite)) {
+                ultimoValorSecuencia = callback.getNextValue();
+                siguiente = ultimoValorSecuencia.copy();
+                limite = ultimoValorSecuencia.copy().add(incrementSize);
+            }
+            return siguiente.makeValueThenIncrement();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public IntegralDataTypeHolder getLastSourceValue() {
+        lock.lock();
+        try {
+            return ultimoValorSecuencia != null ? ultimoValorSecuencia.copy()
+                    : IdentifierGeneratorHelper.getIntegralDataTypeHolder(returnClass);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int getIncrementSize() {
+        return incrementSize;
+    }
+
+    @Override
+    public boolean applyIncrementSizeToSourceValues() {
+        return true;
+    }
+}
@@ -0,0 +1,47 @@
+package es.cic.curso25.proy008.id;
+
+import java.util.Properties;
+
+import org.hibernate.MappingException;
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.id.enhanced.SequenceStyleGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+/**
+ * Generador de ids por secuencia con reserva de bloques (pooled-lo).
+ * <p>
+ * Es un {@link SequenceStyleGenerator} corriente (misma secuencia
+ * {@code <entidad>_seq} que generaba {@code GenerationType.AUTO}) al que se
+ * le fija el optimizador {@link BloqueIdsOptimizer} y un incremento igual al
+ * tamaño de bloque configurado en {@value #TAMANO_BLOQUE}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class GeneradorIdAgrupado extends SequenceStyleGenerator {
+
+    /**
+     * Propiedad de Hibernate con el número de ids que se reservan por cada
+     * llamada a la secuencia.
+     */
+    public static final String TAMANO_BLOQUE = "proy008.ids.tamano-bloque";
+
+    /**
+     * Tamaño de bloque si no se configura otro.
+     */
+    public static final int TAMANO_BLOQUE_POR_DEFECTO = 50;
+
+    @Override
+    public void configure(Type type, Properties parameters, ServiceRegistry serviceRegistry)
+            throws MappingException {
+        Object tamano = serviceRegistry.requireService(ConfigurationService.class)
+                .getSettings().get(TAMANO_BLOQUE);
+        parameters.put(INCREMENT_PARAM, tamano != null ? tamano.toString()
+                : String.valueOf(TAMANO_BLOQUE_POR_DEFECTO));
+        parameters.put(OPT_PARAM, BloqueIdsOptimizer.class.getName());
+        super.configure(type, parameters, serviceRegistry);
+    }
+}
@@ -0,0 +1,25 @@
+package es.cic.curso25.proy008.id;
+
+import static java.lang.annotation.ElementType.FIELD;
+import static java.lang.annotation.ElementType.METHOD;
+import static java.lang.annotation.RetentionPolicy.RUNTIME;
+
+import java.lang.annotation.Retention;
+import java.lang.annotation.Target;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+/**
+ * Marca el identificador de una entidad para generarlo con
+ * {@link GeneradorIdAgrupado}: una secuencia propia por entidad
+ * ({@code <entidad>_seq}) de la que se reservan bloques de ids en memoria.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@IdGeneratorType(GeneradorIdAgrupado.class)
+@Retention(RUNTIME)
+@Target({ FIELD, METHOD })
+public @interface IdAgrupado {
+}
@@ -0,0 +1,106 @@
+package es.cic.curso25.proy008.id;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Ajusta al arrancar las secuencias de las entidades con {@link IdAgrupado}.
+ * <p>
+ * Al pasar de {@code GenerationType.AUTO} (optimizador pooled, en el que el
+ * valor de la secuencia es el <em>último</em> id del bloque) a pooled-lo (en
+ * el que es el <em>primero</em>), o al cambiar el tamaño de bloque, el
+ * siguiente valor de la secuencia podría solaparse con ids ya entregados.
+ * Cada secuencia se reinicia con el incremento nuevo en el mayor de estos
+ * valores: su siguiente valor actual, que nunca retrocede, y {@code max + 1}
+ * de los ids de la tabla y de sus copias (archivo de borrados, lápidas).
+ * Así los ids existentes no cambian y los nuevos no chocan con ellos ni
+ * reutilizan los de filas borradas, aunque la compactación ya haya quitado
+ * su copia.
+ * </p>
+ * <p>
+ * Se ejecuta al terminar de crear los singletons, antes de que el servidor
+ * web acepte peticiones y, por tanto, antes del primer insert.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class MigracionSecuencias implements SmartInitializingSingleton {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MigracionSecuencias.class);
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Class<?>, List<String>> copias;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param entityManagerFactory Factoría JPA de la que se leen las entidades.
+     * @param jdbcTemplate         Acceso JDBC para consultar y alterar secuencias.
+     * @param copias               Por entidad, consultas que devuelven el id
+     *                             máximo guardado fuera de su tabla.
+     */
+    public MigracionSecuencias(EntityManagerFactory entityManagerFactory, JdbcTemplate jdbcTemplate,
+            Map<Class<?>, List<String>> copias) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.jdbcTemplate = jdbcTemplate;
+        this.copias = copias;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<AbstractEntityPersister> persisters = new ArrayList<>();
+        entityManagerFactory.unwrap(SessionFactoryImplementor.class).getMappingMetamodel()
+                .forEachEntityDescriptor(descriptor -> {
+                    if (descriptor.getGenerator() instanceof GeneradorIdAgrupado
+                            && descriptor instanceof AbstractEntityPersister persister) {
+                        persisters.add(persister);
+                    }
+                });
+        persisters.forEach(this::migrar);
+    }
+
+    private void migrar(AbstractEntityPersister persister) {
+        GeneradorIdAgrupado generador = (GeneradorIdAgrupado) persister.getGenerator();
+        String secuencia = generador.getDatabaseStructure().getPhysicalName().render();
+        int tamanoBloque = generador.getOptimizer().getIncrementSize();
+
+        List<String> consultas = new ArrayList<>();
+        consultas.add("SELECT MAX(" + persister.getIdentifierColumnNames()[0] + ") FROM " + persister.getTableName());
+        consultas.addAll(copias.getOrDefault(persister.getMappedClass(), List.of()));
+        long siguiente = siguienteValor(secuencia);
+        for (String consulta : consultas) {
+            Long maximo = jdbcTemplate.queryForObject(consulta, Long.class);
+            if (maximo != null) {
+                siguiente = Math.max(siguiente, maximo + 1);
+            }
+        }
+        jdbcTemplate.execute("ALTER SEQUENCE " + secuencia + " RESTART WITH " + siguiente
+                + " INCREMENT BY " + tamanoBloque);
+        LOGGER.info("Secuencia {} reiniciada en {} con bloques de {}", secuencia, siguiente, tamanoBloque);
+    }
+
+    /**
+     * @return valor que daría ahora la secuencia; los menores pueden estar
+     *         ya repartidos aunque no queden en ninguna tabla.
+     */
+    private long siguienteValor(String secuencia) {
+        Long valor = jdbcTemplate.queryForObject("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES "
+                + "WHERE SEQUENCE_SCHEMA = CURRENT_SCHEMA AND UPPER(SEQUENCE_NAME) = UPPER(?)", Long.class, secuencia);
+        return valor != null ? valor : 1;
+    }
+}
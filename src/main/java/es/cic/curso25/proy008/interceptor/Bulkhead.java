@@ -0,0 +1,76 @@
+package es.cic.curso25.proy008.interceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Límite de peticiones simultáneas sin bloqueos.
+ * <p>
+ * A diferencia de un {@link java.util.concurrent.Semaphore}, nunca hace
+ * esperar: si no hay hueco, {@link #intentarEntrar()} devuelve
+ * {@code false} y la petición se rechaza de inmediato.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class Bulkhead {
+
+    private final int maxConcurrencia;
+
+    private final AtomicInteger enCurso = new AtomicInteger();
+
+    /**
+     * Crea un bulkhead vacío.
+     *
+     * @param maxConcurrencia Peticiones simultáneas permitidas. Mayor que cero.
+     */
+    public Bulkhead(int maxConcurrencia) {
+        if (maxConcurrencia < 1) {
+            throw new IllegalArgumentException("maxConcurrencia debe ser positivo: " + maxConcurrencia);
+        }
+        this.maxConcurrencia = maxConcurrencia;
+    }
+
+    /**
+     * Ocupa un hueco si lo hay.
+     *
+     * @return {@code true} si la petición puede pasar.
+     */
+    public boolean intentarEntrar() {
+        while (true) {
+            int actual = enCurso.get();
+            if (actual >= maxConcurrencia) {
+                return false;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el hueco ocupado por {@link #intentarEntrar()}.
+     */
+    public void salir() {
+        enCurso.decrementAndGet();
+    }
+
+    /**
+     * Peticiones dentro del bulkhead en este momento.
+     *
+     * @return número de peticiones en curso.
+     */
+    public int getEnCurso() {
+        return enCurso.get();
+    }
+
+    /**
+     * Capacidad del bulkhead.
+     *
+     * @return número máximo de peticiones simultáneas.
+     */
+    public int getMaxConcurrencia() {
+        return maxConcurrencia;
+    }
+}
@@ -0,0 +1,162 @@
+package es.cic.curso25.proy008.interceptor;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Límite de concurrencia que se ajusta solo según la latencia observada.
+ * <p>
+ * Sigue el esquema «gradiente»: compara una media móvil corta de la
+ * latencia con otra larga (la línea base). Mientras la corta no supera la
+ * base multiplicada por {@code tolerancia}, el límite crece en
+ * {@code √límite} por muestra; cuando la latencia sube, el límite se
+ * multiplica por {@code base / corta} (nunca menos de la mitad), con lo que
+ * se deja de encolar trabajo en la BBDD antes de que la latencia se dispare.
+ * </p>
+ * <p>
+ * Las peticiones no prioritarias (lecturas) sólo pueden ocupar
+ * {@code fraccionLecturas} del límite; el resto queda reservado para las
+ * escrituras. Adquirir y liberar son operaciones CAS; el recálculo del
+ * límite usa {@link ReentrantLock#tryLock()} y se salta la muestra si otro
+ * hilo ya está recalculando, así que nunca bloquea (ni ancla hilos virtuales).
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class LimiteAdaptativo {
+
+    private static final int VENTANA_CORTA = 10;
+
+    private final int limiteMinimo;
+
+    private final int limiteMaximo;
+
+    private final double fraccionLecturas;
+
+    private final double tolerancia;
+
+    private final double suavizado;
+
+    private final double alfaLargo;
+
+    private final double alfaCorto = 2.0 / (VENTANA_CORTA + 1);
+
+    private final AtomicInteger enCurso = new AtomicInteger();
+
+    private final ReentrantLock recalculo = new ReentrantLock();
+
+    private volatile double limite;
+
+    // Protegidos por «recalculo»
+    private double rttLargo;
+
+    private double rttCorto;
+
+    /**
+     * Crea el limitador.
+     *
+     * @param limiteInicial    Límite de partida.
+     * @param limiteMinimo     Límite por debajo del cual nunca se baja.
+     * @param limiteMaximo     Límite por encima del cual nunca se sube.
+     * @param fraccionLecturas Parte del límite que pueden usar las peticiones no prioritarias (0-1].
+     * @param tolerancia       Cuánto puede crecer la latencia sobre la base sin reducir el límite.
+     * @param suavizado        Peso del nuevo límite frente al anterior (0-1].
+     * @param ventanaLarga     Número de muestras de la media móvil de referencia.
+     */
+    public LimiteAdaptativo(int limiteInicial, int limiteMinimo, int limiteMaximo, double fraccionLecturas,
+            double tolerancia, double suavizado, int ventanaLarga) {
+        if (limiteMinimo < 1 || limiteMaximo < limiteMinimo) {
+            throw new IllegalArgumentException(
+                    "Límites incoherentes: mínimo " + limiteMinimo + ", máximo " + limiteMaximo);
+        }
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.fraccionLecturas = fraccionLecturas;
+        this.tolerancia = tolerancia;
+        this.suavizado = suavizado;
+        this.alfaLargo = 2.0 / (ventanaLarga + 1);
+        this.limite = Math.max(limiteMinimo, Math.min(limiteMaximo, limiteInicial));
+    }
+
+    /**
+     * Ocupa un hueco si lo permite el límite actual.
+     *
+     * @param prioritaria {@code true} para escrituras, que disponen del límite completo.
+     * @return {@code true} si la petición puede pasar.
+     */
+    public boolean intentarAdquirir(boolean prioritaria) {
+        int maximo = prioritaria ? getLimite() : Math.max(1, (int) (getLimite() * fraccionLecturas));
+        while (true) {
+            int actual = enCurso.get();
+            if (actual >= maximo) {
+                return false;
+            }
+            if (enCurso.compareAndSet(actual, actual + 1)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Libera el hueco y, si la muestra es válida, recalcula el límite.
+     *
+     * @param rttNanos       Duración de la petición.
+     * @param muestraValida  {@code false} si la petición falló y su latencia no es representativa.
+     */
+    public void liberar(long rttNanos, boolean muestraValida) {
+        int enVuelo = enCurso.getAndDecrement();
+        if (!muestraValida || rttNanos <= 0 || !recalculo.tryLock()) {
+            return;
+        }
+        try {
+            recalcular(rttNanos, enVuelo);
+        } finally {
+            recalculo.unlock();
+        }
+    }
+
+    private void recalcular(long rtt, int enVuelo) {
+        if (rttLargo == 0) {
+            rttLargo = rtt;
+            rttCorto = rtt;
+            return;
+        }
+        rttCorto = rttCorto * (1 - alfaCorto) + rtt * alfaCorto;
+        rttLargo = rttLargo * (1 - alfaLargo) + rtt * alfaLargo;
+        // Si la carga se mantiene alta mucho tiempo la base acaba absorbiéndola;
+        // se la hace bajar para poder volver a detectar la degradación.
+        if (rttLargo / rttCorto > 2) {
+            rttLargo *= 0.95;
+        }
+
+        double actual = limite;
+        double gradiente = Math.max(0.5, Math.min(1.0, tolerancia * rttLargo / rttCorto));
+        if (gradiente == 1.0 && enVuelo < actual / 2) {
+            // Limitados por la demanda, no por la BBDD: no hay información para crecer
+            return;
+        }
+        double nuevo = actual * gradiente + Math.sqrt(actual);
+        nuevo = actual * (1 - suavizado) + nuevo * suavizado;
+        limite = Math.max(limiteMinimo, Math.min(limiteMaximo, nuevo));
+    }
+
+    /**
+     * Límite de concurrencia vigente.
+     *
+     * @return peticiones simultáneas permitidas a las escrituras.
+     */
+    public int getLimite() {
+        return (int) limite;
+    }
+
+    /**
+     * Peticiones admitidas que aún no han terminado.
+     *
+     * @return número de peticiones en curso.
+     */
+    public int getEnCurso() {
+        return enCurso.get();
+    }
+}
@@ -0,0 +1,134 @@
+package es.cic.curso25.proy008.interceptor;
+
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.ReactiveAdapter;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import es.cic.curso25.proy008.config.AdaptativoProperties;
+import es.cic.curso25.proy008.exception.SobrecargaException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor que descarta carga con un {@link LimiteAdaptativo} común a
+ * todos los controladores.
+ * <p>
+ * Se registra el primero para rechazar cuanto antes: si no queda hueco se
+ * lanza {@link SobrecargaException} (HTTP 503) sin tocar la BBDD. Las
+ * escrituras (todo lo que no es GET, HEAD u OPTIONS, p. ej.
+ * {@code POST /concesionarios/ventas}) disponen del límite completo; las
+ * lecturas sólo de una fracción, de modo que se descartan antes.
+ * </p>
+ * <p>
+ * El hueco se libera en {@link #afterCompletion}, también tras el reenvío
+ * asíncrono de los endpoints reactivos, y la duración de la petición
+ * alimenta el recálculo del límite.
+ * </p>
+ * <p>
+ * Los flujos no pasan por el límite: los controladores que devuelven un
+ * tipo reactivo de varios valores ({@code Flux}, p. ej. en
+ * {@code /reactivo/**}), un {@link ResponseBodyEmitter} (SSE) o un
+ * {@link StreamingResponseBody}. Su duración es la del flujo, no la del
+ * servicio: ocuparían un hueco mientras el cliente lee y falsearían las
+ * latencias con las que se recalcula el límite.
+ * </p>
+ * <p>
+ * Métricas publicadas:
+ * <ul>
+ *   <li>{@code proy008.adaptativo.limite} – límite de concurrencia vigente.</li>
+ *   <li>{@code proy008.adaptativo.en.curso} – peticiones admitidas en curso.</li>
+ *   <li>{@code proy008.adaptativo.descartadas} – contador, etiqueta {@code tipo} = escritura | lectura.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class LimiteAdaptativoInterceptor implements HandlerInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LimiteAdaptativoInterceptor.class);
+
+    private static final String ATRIBUTO_INICIO = LimiteAdaptativoInterceptor.class.getName() + ".inicio";
+
+    private static final Set<String> METODOS_LECTURA = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final LimiteAdaptativo limite;
+
+    private final Counter descartadasEscritura;
+
+    private final Counter descartadasLectura;
+
+    /**
+     * Crea el limitador y registra sus métricas.
+     *
+     * @param properties    Configuración {@code proy008.adaptativo.*}.
+     * @param meterRegistry Registro de métricas de Actuator.
+     */
+    public LimiteAdaptativoInterceptor(AdaptativoProperties properties, MeterRegistry meterRegistry) {
+        this.limite = new LimiteAdaptativo(properties.getLimiteInicial(), properties.getLimiteMinimo(),
+                properties.getLimiteMaximo(), properties.getFraccionLecturas(), properties.getTolerancia(),
+                properties.getSuavizado(), properties.getVentanaLarga());
+
+        Gauge.builder("proy008.adaptativo.limite", limite, LimiteAdaptativo::getLimite)
+                .description("Límite de concurrencia adaptativo vigente")
+                .register(meterRegistry);
+        Gauge.builder("proy008.adaptativo.en.curso", limite, LimiteAdaptativo::getEnCurso)
+                .description("Peticiones admitidas en curso")
+                .register(meterRegistry);
+        this.descartadasEscritura = Counter.builder("proy008.adaptativo.descartadas")
+                .tag("tipo", "escritura")
+                .description("Peticiones descartadas con 503")
+                .register(meterRegistry);
+        this.descartadasLectura = Counter.builder("proy008.adaptativo.descartadas")
+                .tag("tipo", "lectura")
+                .description("Peticiones descartadas con 503")
+                .register(meterRegistry);
+        LOGGER.info("Límite adaptativo inicial: {}", limite.getLimite());
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST || isFlujo(handler)) {
+            return true;
+        }
+        boolean escritura = !METODOS_LECTURA.contains(request.getMethod());
+        if (!limite.intentarAdquirir(escritura)) {
+            (escritura ? descartadasEscritura : descartadasLectura).increment();
+            throw new SobrecargaException("Servicio saturado, reintente más tarde");
+        }
+        request.setAttribute(ATRIBUTO_INICIO, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(ATRIBUTO_INICIO) instanceof Long inicio) {
+            request.removeAttribute(ATRIBUTO_INICIO);
+            limite.liberar(System.nanoTime() - inicio, ex == null && response.getStatus() < 500);
+        }
+    }
+
+    private static boolean isFlujo(Object handler) {
+        if (!(handler instanceof HandlerMethod metodo)) {
+            return false;
+        }
+        Class<?> tipo = metodo.getReturnType().getParameterType();
+        ReactiveAdapter adaptador = ReactiveAdapterRegistry.getSharedInstance().getAdapter(tipo);
+        return (adaptador != null && adaptador.isMultiValue())
+                || ResponseBodyEmitter.class.isAssignableFrom(tipo)
+                || StreamingResponseBody.class.isAssignableFrom(tipo);
+    }
+}
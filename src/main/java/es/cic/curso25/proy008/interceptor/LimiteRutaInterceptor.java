@@ -0,0 +1,202 @@
+package es.cic.curso25.proy008.interceptor;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import es.cic.curso25.proy008.config.LimitesProperties;
+import es.cic.curso25.proy008.exception.LimiteExcedidoException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor que aplica, delante de los controladores, los límites de
+ * {@code proy008.limites.rutas}.
+ * <p>
+ * Para la primera ruta configurada que coincide con la petición:
+ * <ol>
+ *   <li>consume un token del {@link TokenBucket} del cliente;</li>
+ *   <li>si la ruta tiene {@code maxConcurrencia}, ocupa un hueco de su
+ *       {@link Bulkhead}, que se libera en {@link #afterCompletion}.</li>
+ * </ol>
+ * Si cualquiera de los dos falla se lanza {@link LimiteExcedidoException}
+ * (HTTP 429 con {@code Retry-After}). Ninguna de las estructuras usa
+ * bloqueos: todo son operaciones CAS.
+ * </p>
+ * <p>
+ * Métricas publicadas (etiqueta {@code ruta}):
+ * <ul>
+ *   <li>{@code proy008.limites.rechazos} – contador, etiqueta {@code motivo} = tasa | concurrencia.</li>
+ *   <li>{@code proy008.limites.en.curso} – peticiones dentro del bulkhead.</li>
+ *   <li>{@code proy008.limites.clientes} – buckets de cliente vivos.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class LimiteRutaInterceptor implements HandlerInterceptor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LimiteRutaInterceptor.class);
+
+    private static final String ATRIBUTO_BULKHEAD = LimiteRutaInterceptor.class.getName() + ".bulkhead";
+
+    private static final long PURGA_MINIMA_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<RutaLimitada> rutas;
+
+    private final String cabeceraCliente;
+
+    private final int maxClientes;
+
+    /**
+     * Compila las rutas configuradas y registra sus métricas.
+     *
+     * @param properties    Configuración {@code proy008.limites.*}.
+     * @param meterRegistry Registro de métricas de Actuator.
+     */
+    public LimiteRutaInterceptor(LimitesProperties properties, MeterRegistry meterRegistry) {
+        this.cabeceraCliente = properties.getCabeceraCliente();
+        this.maxClientes = properties.getMaxClientes();
+        this.rutas = properties.getRutas().stream()
+                .map(ruta -> new RutaLimitada(ruta, meterRegistry))
+                .toList();
+        rutas.forEach(ruta -> LOGGER.info("Limitando {}", ruta.nombre));
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() != DispatcherType.REQUEST) {
+            // Reenvíos asíncronos o de error: ya se contabilizó la petición original
+            return true;
+        }
+        PathContainer ruta = PathContainer.parsePath(
+                request.getRequestURI().substring(request.getContextPath().length()));
+        for (RutaLimitada limitada : rutas) {
+            if (limitada.aplica(request.getMethod(), ruta)) {
+                limitada.admitir(request, clienteDe(request));
+                return true;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+            Exception ex) {
+        if (request.getAttribute(ATRIBUTO_BULKHEAD) instanceof Bulkhead bulkhead) {
+            request.removeAttribute(ATRIBUTO_BULKHEAD);
+            bulkhead.salir();
+        }
+    }
+
+    private String clienteDe(HttpServletRequest request) {
+        String cliente = request.getHeader(cabeceraCliente);
+        return cliente != null && !cliente.isBlank() ? cliente : request.getRemoteAddr();
+    }
+
+    /**
+     * Estado de una ruta: buckets por cliente, bulkhead y métricas.
+     */
+    private final class RutaLimitada {
+
+        private final String nombre;
+
+        private final String metodo;
+
+        private final PathPattern patron;
+
+        private final int capacidad;
+
+        private final double recargaPorSegundo;
+
+        private final Bulkhead bulkhead;
+
+        private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+        private final AtomicLong ultimaPurga = new AtomicLong(System.nanoTime());
+
+        private final Counter rechazosTasa;
+
+        private final Counter rechazosConcurrencia;
+
+        private RutaLimitada(LimitesProperties.Ruta ruta, MeterRegistry meterRegistry) {
+            this.metodo = ruta.getMetodo();
+            this.patron = PathPatternParser.defaultInstance.parse(ruta.getPatron());
+            this.nombre = metodo + " " + ruta.getPatron();
+            this.capacidad = ruta.getCapacidad();
+            this.recargaPorSegundo = ruta.getRecargaPorSegundo();
+            this.bulkhead = ruta.getMaxConcurrencia() > 0 ? new Bulkhead(ruta.getMaxConcurrencia()) : null;
+
+            this.rechazosTasa = Counter.builder("proy008.limites.rechazos")
+                    .tag("ruta", nombre).tag("motivo", "tasa")
+                    .description("Peticiones rechazadas con 429")
+                    .register(meterRegistry);
+            this.rechazosConcurrencia = Counter.builder("proy008.limites.rechazos")
+                    .tag("ruta", nombre).tag("motivo", "concurrencia")
+                    .description("Peticiones rechazadas con 429")
+                    .register(meterRegistry);
+            Gauge.builder("proy008.limites.clientes", buckets, Map::size)
+                    .tag("ruta", nombre)
+                    .description("Buckets de cliente vivos")
+                    .register(meterRegistry);
+            if (bulkhead != null) {
+                Gauge.builder("proy008.limites.en.curso", bulkhead, Bulkhead::getEnCurso)
+                        .tag("ruta", nombre)
+                        .description("Peticiones dentro del bulkhead")
+                        .register(meterRegistry);
+            }
+        }
+
+        private boolean aplica(String metodoPeticion, PathContainer ruta) {
+            return metodo.equalsIgnoreCase(metodoPeticion) && patron.matches(ruta);
+        }
+
+        private void admitir(HttpServletRequest request, String cliente) {
+            long ahora = System.nanoTime();
+            purgarSiHaceFalta(ahora);
+            long espera = buckets.computeIfAbsent(cliente, c -> new TokenBucket(capacidad, recargaPorSegundo))
+                    .intentarConsumir(ahora);
+            if (espera > 0) {
+                rechazosTasa.increment();
+                throw new LimiteExcedidoException(
+                        "Límite de peticiones superado en " + nombre, Math.max(1, TimeUnit.NANOSECONDS.toSeconds(
+                                espera + TimeUnit.SECONDS.toNanos(1) - 1)));
+            }
+            if (bulkhead != null) {
+                if (!bulkhead.intentarEntrar()) {
+                    rechazosConcurrencia.increment();
+                    throw new LimiteExcedidoException(
+                            "Demasiadas peticiones simultáneas en " + nombre, 1);
+                }
+                request.setAttribute(ATRIBUTO_BULKHEAD, bulkhead);
+            }
+        }
+
+        /**
+         * Descarta los buckets llenos (clientes inactivos) cuando hay demasiados,
+         * como mucho una vez por segundo.
+         */
+        private void purgarSiHaceFalta(long ahora) {
+            long ultima = ultimaPurga.get();
+            if (buckets.size() > maxClientes && ahora - ultima > PURGA_MINIMA_NANOS
+                    && ultimaPurga.compareAndSet(ultima, ahora)) {
+                buckets.values().removeIf(bucket -> bucket.estaLleno(ahora));
+            }
+        }
+    }
+}
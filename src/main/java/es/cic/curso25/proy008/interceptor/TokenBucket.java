@@ -0,0 +1,75 @@
+package es.cic.curso25.proy008.interceptor;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket sin bloqueos, implementado con el algoritmo GCRA
+ * (<em>Generic Cell Rate Algorithm</em>).
+ * <p>
+ * En lugar de guardar "tokens restantes" y "última recarga" (dos valores que
+ * habría que actualizar juntos), se guarda un único instante teórico de
+ * llegada ({@code tat}) en un {@link AtomicLong}. Cada petición aceptada lo
+ * adelanta un intervalo de emisión; se rechaza si adelantarlo lo llevaría
+ * más allá de la ráfaga permitida. El resultado es equivalente a un bucket
+ * de {@code capacidad} tokens que se recarga a {@code recargaPorSegundo}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class TokenBucket {
+
+    private final long intervaloNanos;
+
+    private final long toleranciaNanos;
+
+    private final AtomicLong tat = new AtomicLong(Long.MIN_VALUE);
+
+    /**
+     * Crea un bucket lleno.
+     *
+     * @param capacidad         Tamaño máximo de ráfaga. Mayor que cero.
+     * @param recargaPorSegundo Tokens que se recuperan por segundo. Mayor que cero.
+     */
+    public TokenBucket(int capacidad, double recargaPorSegundo) {
+        if (capacidad < 1 || recargaPorSegundo <= 0) {
+            throw new IllegalArgumentException(
+                    "capacidad y recargaPorSegundo deben ser positivos: " + capacidad + ", " + recargaPorSegundo);
+        }
+        this.intervaloNanos = Math.max(1L, (long) (1_000_000_000L / recargaPorSegundo));
+        this.toleranciaNanos = intervaloNanos * (capacidad - 1);
+    }
+
+    /**
+     * Intenta consumir un token.
+     *
+     * @param ahoraNanos Instante actual ({@link System#nanoTime()}).
+     * @return {@code 0} si se concede; si no, nanosegundos hasta que haya un token.
+     */
+    public long intentarConsumir(long ahoraNanos) {
+        while (true) {
+            long actual = tat.get();
+            long base = actual == Long.MIN_VALUE || actual < ahoraNanos ? ahoraNanos : actual;
+            long espera = base - ahoraNanos - toleranciaNanos;
+            if (espera > 0) {
+                return espera;
+            }
+            if (tat.compareAndSet(actual, base + intervaloNanos)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Indica si el bucket está lleno, es decir, si lleva tiempo sin usarse
+     * y puede descartarse sin cambiar el comportamiento.
+     *
+     * @param ahoraNanos Instante actual ({@link System#nanoTime()}).
+     * @return {@code true} si no queda consumo pendiente de recargar.
+     */
+    public boolean estaLleno(long ahoraNanos) {
+        long actual = tat.get();
+        return actual == Long.MIN_VALUE || actual <= ahoraNanos;
+    }
+}
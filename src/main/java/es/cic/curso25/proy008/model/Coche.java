@@ -1,7 +1,16 @@
 package es.cic.curso25.proy008.model;
 
+import java.util.UUID;
+
+import org.hibernate.annotations.OptimisticLock;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
+import es.cic.curso25.proy008.cadenas.CadenaCanonicaConverter;
+import es.cic.curso25.proy008.cadenas.CadenaCanonicaDeserializer;
+import es.cic.curso25.proy008.id.IdAgrupado;
 import jakarta.persistence.*;
 
 /**
@@ -17,15 +26,20 @@ import jakarta.persistence.*;
  * @since 1.0
  */
 @Entity
-@Table(name = "coche")
+@Table(name = "coche", indexes = {
+    @Index(name = "idx_coche_secuencia", columnList = "secuencia"),
+    @Index(name = "idx_coche_concesionario_potencia", columnList = "concesionario_id, potencia"),
+    @Index(name = "idx_coche_encendido", columnList = "encendido, concesionario_id")
+})
 @JsonIgnoreProperties({ "hibernateLazyInitializer", "handler" })
 public class Coche {
 
     /**
-     * Identificador único de la entidad. Se genera automáticamente.
+     * Identificador único de la entidad. Se reserva por bloques de la
+     * secuencia {@code coche_seq} (ver {@link IdAgrupado}).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @IdAgrupado
     private Long id;
 
     /**
@@ -45,6 +59,8 @@ public class Coche {
     /**
      * Marca del coche. Longitud máxima de 20 caracteres y no puede ser nulo.
      */
+    @Convert(converter = CadenaCanonicaConverter.class)
+    @JsonDeserialize(using = CadenaCanonicaDeserializer.class)
     @Column(length = 20, nullable = false)
     private String marca;
 
@@ -63,6 +79,27 @@ public class Coche {
     @JoinColumn(name = "concesionario_id", nullable = false)
     private Concesionario concesionario;
 
+    /**
+     * Número del último cambio en la secuencia que sirve {@code GET /cambios}.
+     * Lo asigna {@code CambiosListener} en cada alta y modificación; no
+     * cuenta como cambio para el bloqueo optimista ni se expone en JSON.
+     */
+    @JsonIgnore
+    @OptimisticLock(excluded = true)
+    @Column(name = "secuencia")
+    private Long secuencia;
+
+    /**
+     * Clave aleatoria de la instancia, en la que se basan
+     * {@link #equals(Object)} y {@link #hashCode()}. Se genera la primera
+     * vez que se pide (o al guardar) y se persiste en la columna
+     * {@code clave}, de modo que la fila leída después conserva la del coche
+     * que se guardó. No se expone en JSON ni se modifica al actualizar.
+     */
+    @JsonIgnore
+    @Column(name = "clave", nullable = false, updatable = false)
+    private UUID clave;
+
     /**
      * Constructor vacío exigido por JPA.
      * Permite que Hibernate cree instancias por reflexión.
@@ -103,6 +140,33 @@ public class Coche {
         this.id = id;
     }
 
+    /**
+     * Obtiene la clave de la instancia, generándola si aún no la tiene.
+     *
+     * @return la clave, nunca {@code null}.
+     */
+    public UUID getClave() {
+        if (clave == null) {
+            clave = UUID.randomUUID();
+        }
+        return clave;
+    }
+
+    /**
+     * Adopta la clave de la fila guardada, para que la copia de
+     * {@code merge} no la sustituya por la de un coche recibido en JSON.
+     *
+     * @param clave Clave de la fila.
+     */
+    public void setClave(UUID clave) {
+        this.clave = clave;
+    }
+
+    @PrePersist
+    private void asignarClave() {
+        getClave();
+    }
+
     /**
      * Obtiene la versión de concurrencia de la entidad.
      * 
@@ -120,6 +184,15 @@ public class Coche {
         this.version = version;
     }
 
+    /**
+     * Obtiene el número del último cambio de este coche.
+     *
+     * @return la {@code secuencia}, o {@code null} si aún no se ha persistido.
+     */
+    public Long getSecuencia() {
+        return secuencia;
+    }
+
     /**
      * Obtiene la potencia del coche en CV.
      * 
@@ -195,8 +268,14 @@ public class Coche {
     /**
      * Compara dos coches por su identificador.
      * <p>
-     * Dos instancias se consideran iguales si tienen el mismo {@code id} no nulo.
-     * <strong>No</strong> se consideran iguales si ambos {@code id} son {@code null}.
+     * Dos instancias se consideran iguales si tienen la misma {@code clave}:
+     * la misma fila leída dos veces, o un coche nuevo y la fila que se guardó
+     * a partir de él. Un coche recibido en JSON trae una clave propia; para
+     * localizar su fila se compara por {@code id}. Dos {@code id} distintos
+     * bastan para descartar la igualdad sin leer la clave, que inicializaría
+     * un proxy sin cargar (el control de cambios de Hibernate compara así las
+     * asociaciones). Se usan los getters para que funcione también con proxies
+     * de Hibernate.
      * </p>
      * 
      * @param o objeto a comparar.
@@ -207,21 +286,22 @@ public class Coche {
         if (this == o) return true;
         if (!(o instanceof Coche)) return false;
         Coche other = (Coche) o;
-        return id != null && id.equals(other.id);
+        if (getId() != null && other.getId() != null && !getId().equals(other.getId())) return false;
+        return getClave().equals(other.getClave());
     }
 
     /**
-     * Calcula el código hash basado en el {@code id}.
+     * Calcula el código hash a partir de la {@code clave}.
      * <p>
-     * Si {@code id} es {@code null}, devuelve un valor constante (31)
-     * para mantener la estabilidad durante el ciclo de vida de la entidad.
+     * No cambia al guardar, coincide con el de la misma fila leída después y
+     * reparte los coches nuevos por los cubos de un {@code HashSet}.
      * </p>
      * 
      * @return el código hash de la entidad.
      */
     @Override
     public int hashCode() {
-        return id != null ? id.hashCode() : 31;
+        return getClave().hashCode();
     }
 
     /**
@@ -0,0 +1,85 @@
+package es.cic.curso25.proy008.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Copia de un {@link Coche} borrado, en la tabla {@code coche_archivo}.
+ * <p>
+ * La tabla es compacta a propósito: sin versión, sin estado de encendido y
+ * sin clave ajena a {@code concesionario} (el concesionario puede haberse
+ * borrado también). Conserva el {@code id} original, que las secuencias no
+ * reutilizan, y el instante de archivado, indexado para las consultas por
+ * fecha y para la compactación.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "coche_archivo", indexes = {
+        @Index(name = "idx_coche_archivo_fecha", columnList = "archivado_en"),
+        @Index(name = "idx_coche_archivo_concesionario", columnList = "concesionario_id")
+})
+public class CocheArchivado {
+
+    /**
+     * Identificador que tenía el coche en la tabla {@code coche}.
+     */
+    @Id
+    private Long id;
+
+    @Column(name = "potencia")
+    private double potencia;
+
+    @Column(length = 20, nullable = false)
+    private String marca;
+
+    /**
+     * Concesionario al que pertenecía, solo como valor.
+     */
+    @Column(name = "concesionario_id")
+    private Long concesionarioId;
+
+    @Column(name = "archivado_en", nullable = false)
+    private Instant archivadoEn;
+
+    /**
+     * Constructor vacío exigido por JPA.
+     */
+    protected CocheArchivado() {
+
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public double getPotencia() {
+        return potencia;
+    }
+
+    public String getMarca() {
+        return marca;
+    }
+
+    public Long getConcesionarioId() {
+        return concesionarioId;
+    }
+
+    public Instant getArchivadoEn() {
+        return archivadoEn;
+    }
+
+    @Override
+    public String toString() {
+        return "CocheArchivado [id=" + id + ", marca=" + marca + ", potencia=" + potencia
+                + ", concesionarioId=" + concesionarioId + ", archivadoEn=" + archivadoEn + "]";
+    }
+}
@@ -1,14 +1,21 @@
 package es.cic.curso25.proy008.model;
 
 import java.time.LocalTime;
+import java.util.Collections;
 import java.util.HashSet;
-import java.util.List;
-import java.util.Objects;
 import java.util.Set;
+import java.util.UUID;
+
+import org.hibernate.Hibernate;
+import org.hibernate.annotations.BatchSize;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
+import es.cic.curso25.proy008.cadenas.CadenaCanonicaConverter;
+import es.cic.curso25.proy008.cadenas.CadenaCanonicaDeserializer;
+import es.cic.curso25.proy008.id.IdAgrupado;
 import jakarta.persistence.*;
 
 /**
@@ -27,10 +34,11 @@ import jakarta.persistence.*;
 public class Concesionario {
 
     /**
-     * Identificador único de la entidad. Se genera automáticamente.
+     * Identificador único de la entidad. Se reserva por bloques de la
+     * secuencia {@code concesionario_seq} (ver {@link IdAgrupado}).
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @IdAgrupado
     private Long id;
 
     /**
@@ -55,6 +63,8 @@ public class Concesionario {
     /**
      * Ciudad donde se ubica el concesionario.
      */
+    @Convert(converter = CadenaCanonicaConverter.class)
+    @JsonDeserialize(using = CadenaCanonicaDeserializer.class)
     private String ciudad;
 
     /**
@@ -73,7 +83,9 @@ public class Concesionario {
      * <p>
      * {@code cascade = ALL} propaga operaciones de persistencia;
      * {@code orphanRemoval = true} elimina coches huérfanos;
-     * {@code fetch = LAZY} retrasa la carga hasta que se soliciten.
+     * {@code fetch = LAZY} retrasa la carga hasta que se soliciten;
+     * {@code @BatchSize} inicializa de una vez las colecciones de hasta 25
+     * concesionarios cargados en la misma sesión en lugar de una por uno.
      * </p>
      */
     @OneToMany(
@@ -82,10 +94,18 @@ public class Concesionario {
         orphanRemoval = true,
         fetch         = FetchType.LAZY
     )
-
+    @BatchSize(size = 25)
     @JsonIgnore
     private Set<Coche> listaCoches = new HashSet<>();
 
+    /**
+     * Clave aleatoria de la instancia, en la que se basan
+     * {@link #equals(Object)} y {@link #hashCode()}; ver {@link Coche#getClave()}.
+     */
+    @JsonIgnore
+    @Column(name = "clave", nullable = false, updatable = false)
+    private UUID clave;
+
     /**
      * Constructor vacío requerido por JPA.
      */
@@ -111,6 +131,32 @@ public class Concesionario {
         this.cierre   = cierre;
     }
 
+    /**
+     * Obtiene la clave de la instancia, generándola si aún no la tiene.
+     *
+     * @return la clave, nunca {@code null}.
+     */
+    public UUID getClave() {
+        if (clave == null) {
+            clave = UUID.randomUUID();
+        }
+        return clave;
+    }
+
+    /**
+     * Adopta la clave de la fila guardada antes de un {@code merge}.
+     *
+     * @param clave Clave de la fila.
+     */
+    public void setClave(UUID clave) {
+        this.clave = clave;
+    }
+
+    @PrePersist
+    private void asignarClave() {
+        getClave();
+    }
+
     /**
      * Obtiene el identificador único de este concesionario.
      * 
@@ -222,24 +268,47 @@ public class Concesionario {
     /**
      * Obtiene una vista inmutable de los coches asociados.
      * <p>
-     * Se devuelve una copia de la colección interna para proteger el estado
-     * de la entidad y mantener la inmutabilidad externa.
+     * Es una vista, no una copia: no duplica la colección en cada llamada,
+     * aunque recorrerla sí la inicializa si aún no se ha cargado.
      * </p>
      * 
-     * @return lista inmutable de {@link Coche} asociados.
+     * @return conjunto inmutable de {@link Coche} asociados.
+     */
+    public Set<Coche> getListaCoches() {
+        return Collections.unmodifiableSet(listaCoches);
+    }
+
+    /**
+     * Número de coches del concesionario.
+     * <p>
+     * Si la colección no está cargada se resuelve con un {@code count} en la
+     * BBDD ({@link Hibernate#size(java.util.Collection)}) sin inicializarla.
+     * Requiere una sesión abierta. No se serializa para no lanzar una
+     * consulta por cada concesionario de un listado.
+     * </p>
+     *
+     * @return número de coches asociados.
      */
-    public List<Coche> getListaCoches() {
-        return List.copyOf(listaCoches);
+    @JsonIgnore
+    public int getNumeroCoches() {
+        return Hibernate.size(listaCoches);
     }
 
     /**
      * Añade un coche a este concesionario y sincroniza la relación bidireccional.
+     * <p>
+     * Si la colección aún no está cargada no se inicializa solo para añadir
+     * un elemento: basta con fijar el lado propietario
+     * ({@link Coche#setConcesionario}). En ese caso el {@code cascade} no
+     * alcanza al coche y hay que guardarlo explícitamente.
+     * </p>
      * 
      * @param coche Instancia de {@link Coche} a agregar. No nula.
      */
     public void addCoche(Coche coche) {
-        if (listaCoches.add(coche)) {
-            coche.setConcesionario(this);
+        coche.setConcesionario(this);
+        if (Hibernate.isInitialized(listaCoches)) {
+            listaCoches.add(coche);
         }
     }
 
@@ -255,9 +324,12 @@ public class Concesionario {
     }
 
     /**
-     * Compara dos concesionarios por su identificador.
+     * Compara dos concesionarios por su {@code clave}.
      * <p>
-     * Dos instancias se consideran iguales si tienen el mismo {@code id} no nulo.
+     * Dos instancias se consideran iguales si son la misma fila, o el
+     * concesionario nuevo y la fila que se guardó a partir de él. Con
+     * {@code id} distintos se descarta sin leer la clave, que inicializaría un
+     * proxy sin cargar.
      * </p>
      * 
      * @param obj Objeto a comparar.
@@ -268,21 +340,19 @@ public class Concesionario {
         if (this == obj)                   return true;
         if (!(obj instanceof Concesionario)) return false;
         Concesionario other = (Concesionario) obj;
-        return id != null && Objects.equals(id, other.id);
+        if (getId() != null && other.getId() != null && !getId().equals(other.getId())) return false;
+        return getClave().equals(other.getClave());
     }
 
     /**
-     * Calcula el código hash basado en el {@code id}.
-     * <p>
-     * Si el {@code id} es {@code null}, devuelve un valor constante para
-     * mantener estabilidad durante toda la vida de la entidad.
-     * </p>
+     * Calcula el código hash a partir de la {@code clave}, que no cambia al
+     * guardar.
      * 
      * @return código hash de la entidad.
      */
     @Override
     public int hashCode() {
-        return id != null ? id.hashCode() : 31;
+        return getClave().hashCode();
     }
 
     /**
@@ -0,0 +1,101 @@
+package es.cic.curso25.proy008.model;
+
+import java.time.Instant;
+
+import es.cic.curso25.proy008.id.IdAgrupado;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Evento de dominio pendiente de publicar, en la tabla {@code outbox}.
+ * <p>
+ * Se inserta en la misma transacción que el cambio que describe, así que
+ * existe si y solo si el cambio se confirmó. El relé de salida lo entrega a
+ * los destinos configurados y lo borra; si algo falla antes de borrarlo se
+ * vuelve a entregar (al menos una vez), por lo que los consumidores deben
+ * descartar duplicados por {@link #getId() id}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "outbox")
+public class EventoSalida {
+
+    @Id
+    @IdAgrupado
+    private Long id;
+
+    /**
+     * Tipo de evento ({@code CocheVendido}, {@code MotoristaMontado}...).
+     */
+    @Column(length = 40, nullable = false)
+    private String tipo;
+
+    /**
+     * Entidad a la que se refiere el evento.
+     */
+    @Column(length = 30, nullable = false)
+    private String agregado;
+
+    @Column(name = "agregado_id", nullable = false)
+    private Long agregadoId;
+
+    /**
+     * Datos del evento en JSON.
+     */
+    @Column(length = 4000, nullable = false)
+    private String carga;
+
+    @Column(name = "creado_en", nullable = false)
+    private Instant creadoEn;
+
+    /**
+     * Constructor vacío exigido por JPA.
+     */
+    protected EventoSalida() {
+
+    }
+
+    public EventoSalida(String tipo, String agregado, Long agregadoId, String carga, Instant creadoEn) {
+        this.tipo = tipo;
+        this.agregado = agregado;
+        this.agregadoId = agregadoId;
+        this.carga = carga;
+        this.creadoEn = creadoEn;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public String getAgregado() {
+        return agregado;
+    }
+
+    public Long getAgregadoId() {
+        return agregadoId;
+    }
+
+    public String getCarga() {
+        return carga;
+    }
+
+    public Instant getCreadoEn() {
+        return creadoEn;
+    }
+
+    @Override
+    public String toString() {
+        return "EventoSalida [id=" + id + ", tipo=" + tipo + ", agregado=" + agregado + ", agregadoId="
+                + agregadoId + ", creadoEn=" + creadoEn + "]";
+    }
+}
@@ -0,0 +1,78 @@
+package es.cic.curso25.proy008.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EmbeddedId;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Table;
+
+/**
+ * Fila del historial de cambios (tabla {@code historial}), de solo inserción.
+ * <p>
+ * Cada versión de {@link Coche}, {@link Moto}, {@link Motorista} y
+ * {@link Concesionario} deja una fila con las columnas que cambiaron, en
+ * JSON. Cada {@code proy008.historial.instantanea-cada} versiones (y en el
+ * alta) se guarda el estado completo ({@code instantanea = true}), de modo
+ * que reconstruir cualquier versión solo exige leer la última instantánea y
+ * un número acotado de diferencias.
+ * </p>
+ * <p>
+ * Las filas las escribe {@code HistorialListener} por JDBC; esta entidad
+ * solo se usa para leer.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "historial")
+public class Historial {
+
+    @EmbeddedId
+    private HistorialId id;
+
+    /**
+     * Si {@link #cambios} contiene el estado completo.
+     */
+    private boolean instantanea;
+
+    /**
+     * Columnas cambiadas, o todas si es instantánea, como objeto JSON.
+     */
+    @Column(length = 4000)
+    private String cambios;
+
+    @Column(name = "modificado_en", nullable = false)
+    private Instant modificadoEn;
+
+    /**
+     * Constructor vacío exigido por JPA.
+     */
+    protected Historial() {
+
+    }
+
+    public HistorialId getId() {
+        return id;
+    }
+
+    public boolean isInstantanea() {
+        return instantanea;
+    }
+
+    public String getCambios() {
+        return cambios;
+    }
+
+    public Instant getModificadoEn() {
+        return modificadoEn;
+    }
+
+    @Override
+    public String toString() {
+        return "Historial [entidad=" + id.getEntidad() + ", id=" + id.getEntidadId() + ", version="
+                + id.getVersion() + ", instantanea=" + instantanea + ", cambios=" + cambios + "]";
+    }
+}
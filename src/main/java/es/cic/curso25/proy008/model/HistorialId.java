@@ -0,0 +1,75 @@
+package es.cic.curso25.proy008.model;
+
+import java.io.Serializable;
+import java.util.Objects;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+
+/**
+ * Clave de {@link Historial}: entidad, identificador y versión.
+ * <p>
+ * El bloqueo optimista garantiza que cada versión de una fila se escribe
+ * una sola vez, así que la terna es única.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Embeddable
+public class HistorialId implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Nombre simple de la clase de la entidad ({@code Coche}, {@code Moto}...).
+     */
+    @Column(length = 30)
+    private String entidad;
+
+    @Column(name = "entidad_id")
+    private Long entidadId;
+
+    private Long version;
+
+    /**
+     * Constructor vacío exigido por JPA.
+     */
+    protected HistorialId() {
+
+    }
+
+    public HistorialId(String entidad, Long entidadId, Long version) {
+        this.entidad = entidad;
+        this.entidadId = entidadId;
+        this.version = version;
+    }
+
+    public String getEntidad() {
+        return entidad;
+    }
+
+    public Long getEntidadId() {
+        return entidadId;
+    }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(entidad, entidadId, version);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj)
+            return true;
+        if (!(obj instanceof HistorialId other))
+            return false;
+        return Objects.equals(entidad, other.entidad) && Objects.equals(entidadId, other.entidadId)
+                && Objects.equals(version, other.version);
+    }
+}
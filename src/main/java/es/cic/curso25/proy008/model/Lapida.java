@@ -0,0 +1,105 @@
+package es.cic.curso25.proy008.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * Lápida de un {@link Coche} o una {@link Moto} borrados, en la tabla
+ * {@code lapida}.
+ * <p>
+ * Deja constancia del borrado en la secuencia de cambios para que
+ * {@code GET /cambios} pueda avisar a los clientes que sincronizan por
+ * diferencias. La clave es el propio número de secuencia, tomado de
+ * {@code cambio_seq} como las columnas {@code secuencia} de las filas vivas.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "lapida")
+public class Lapida {
+
+    /**
+     * Secuencia compartida por altas, modificaciones y borrados.
+     */
+    public static final String SECUENCIA = "cambio_seq";
+
+    /**
+     * Incremento de {@link #SECUENCIA}: valores que se reservan en memoria de
+     * cada lectura.
+     */
+    public static final int BLOQUE_SECUENCIA = 50;
+
+    /**
+     * Las lápidas se escriben con SQL y el número ya asignado; el generador
+     * solo sirve para que Hibernate cree {@value #SECUENCIA} con el esquema.
+     * Los valores los reparte {@code SecuenciaCambios}.
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = SECUENCIA)
+    @SequenceGenerator(name = SECUENCIA, sequenceName = SECUENCIA, allocationSize = BLOQUE_SECUENCIA)
+    private Long secuencia;
+
+    /**
+     * Entidad borrada ({@code Coche} o {@code Moto}).
+     */
+    @Column(length = 20, nullable = false)
+    private String entidad;
+
+    @Column(name = "entidad_id", nullable = false)
+    private Long entidadId;
+
+    @Column(name = "borrado_en", nullable = false)
+    private Instant borradoEn;
+
+    /**
+     * Constructor vacío exigido por JPA.
+     */
+    protected Lapida() {
+
+    }
+
+    /**
+     * @param secuencia Número ya tomado de {@link #SECUENCIA}.
+     * @param entidad   Entidad borrada.
+     * @param entidadId Identificador de la fila borrada.
+     * @param borradoEn Instante del borrado.
+     */
+    public Lapida(Long secuencia, String entidad, Long entidadId, Instant borradoEn) {
+        this.secuencia = secuencia;
+        this.entidad = entidad;
+        this.entidadId = entidadId;
+        this.borradoEn = borradoEn;
+    }
+
+    public Long getSecuencia() {
+        return secuencia;
+    }
+
+    public String getEntidad() {
+        return entidad;
+    }
+
+    public Long getEntidadId() {
+        return entidadId;
+    }
+
+    public Instant getBorradoEn() {
+        return borradoEn;
+    }
+
+    @Override
+    public String toString() {
+        return "Lapida [secuencia=" + secuencia + ", entidad=" + entidad + ", entidadId=" + entidadId
+                + ", borradoEn=" + borradoEn + "]";
+    }
+}
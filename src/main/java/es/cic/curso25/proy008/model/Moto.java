@@ -1,14 +1,24 @@
 package es.cic.curso25.proy008.model;
 
+import java.util.UUID;
+
+import org.hibernate.annotations.OptimisticLock;
+
 import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 
+import es.cic.curso25.proy008.cadenas.CadenaCanonicaConverter;
+import es.cic.curso25.proy008.cadenas.CadenaCanonicaDeserializer;
+import es.cic.curso25.proy008.id.IdAgrupado;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
+import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
+import jakarta.persistence.FetchType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 
@@ -19,11 +29,15 @@ import jakarta.persistence.Version;
  * ya que una moto puede existir sin un motorista pero no al reves
  */
 @Entity
-@Table(name = "moto") // Nombre exacto de la tabla
+@Table(name = "moto", // Nombre exacto de la tabla
+        indexes = {
+            @Index(name = "idx_moto_secuencia", columnList = "secuencia"),
+            @Index(name = "idx_moto_encendido", columnList = "encendido")
+        })
 public class Moto {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @IdAgrupado
     private Long id;
 
     @Version
@@ -32,6 +46,8 @@ public class Moto {
     @Column(name = "potencia")
     private double potencia;
 
+    @Convert(converter = CadenaCanonicaConverter.class)
+    @JsonDeserialize(using = CadenaCanonicaDeserializer.class)
     @Column(length = 20)
     private String marca;
 
@@ -39,8 +55,23 @@ public class Moto {
     // En caso de que queramos modificar algo
     private boolean encendido;
 
+    @Convert(converter = CadenaCanonicaConverter.class)
+    @JsonDeserialize(using = CadenaCanonicaDeserializer.class)
     private String tipo;
 
+    // Número del último cambio para GET /cambios; lo asigna CambiosListener
+    // en cada alta y modificación y no cuenta para el bloqueo optimista
+    @JsonIgnore
+    @OptimisticLock(excluded = true)
+    @Column(name = "secuencia")
+    private Long secuencia;
+
+    // Clave aleatoria de equals/hashCode: se genera al pedirla o al guardar y
+    // se persiste, así que la fila leída después conserva la de la moto nueva
+    @JsonIgnore
+    @Column(name = "clave", nullable = false, updatable = false)
+    private UUID clave;
+
     // ONE TO ONE
     @JsonIgnore //Ignora esto cuando traduzcas a Json
     /**
@@ -51,8 +82,12 @@ public class Moto {
      * 
      * Necesitaremos un control mas preciso con el remove ya que nos puede 
      * generar un bucle infinito y/o un StackOverflow
+     *
+     * En el lado inverso un proxy no sirve (habría que consultar para saber si
+     * es null), así que el LAZY solo se cumple con la mejora de bytecode del
+     * pom.xml; sin ella Hibernate lo carga siempre.
      */
-    @OneToOne(mappedBy = "moto", cascade = CascadeType.REMOVE) 
+    @OneToOne(mappedBy = "moto", cascade = CascadeType.REMOVE, fetch = FetchType.LAZY)
     private Motorista motorista;
 
     // CONSTRUCTORES
@@ -117,6 +152,27 @@ public class Moto {
         this.version = version;
     }
 
+    public Long getSecuencia() {
+        return secuencia;
+    }
+
+    public UUID getClave() {
+        if (clave == null) {
+            clave = UUID.randomUUID();
+        }
+        return clave;
+    }
+
+    // Para adoptar la clave de la fila guardada antes de un merge
+    public void setClave(UUID clave) {
+        this.clave = clave;
+    }
+
+    @PrePersist
+    private void asignarClave() {
+        getClave();
+    }
+
     public Motorista geMotorista() {
         return motorista;
     }
@@ -125,29 +181,31 @@ public class Moto {
         this.motorista = motorista;
     }
 
+    /**
+     * Hash de la {@code clave}: no cambia al guardar y reparte las motos
+     * nuevas por los cubos de un {@code HashSet}.
+     */
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((id == null) ? 0 : id.hashCode());
-        return result;
+        return getClave().hashCode();
     }
 
+    /**
+     * Dos motos son iguales si tienen la misma {@code clave}: la misma fila,
+     * o la moto nueva y la fila guardada a partir de ella. Con {@code instanceof}
+     * y {@code getClave()} para admitir proxies de Hibernate.
+     */
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
+        if (!(obj instanceof Moto))
             return false;
-        Motorista other = (Motorista) obj;
-        if (id == null) {
-            if (other.getId() != null)
-                return false;
-        } else if (!id.equals(other.getId()))
+        Moto other = (Moto) obj;
+        // Ids distintos descartan la igualdad sin inicializar un proxy sin cargar
+        if (getId() != null && other.getId() != null && !getId().equals(other.getId()))
             return false;
-        return true;
+        return getClave().equals(other.getClave());
     }
 
     @Override
@@ -0,0 +1,75 @@
+package es.cic.curso25.proy008.model;
+
+import java.time.Instant;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * Copia de una {@link Moto} borrada, en la tabla {@code moto_archivo}.
+ * <p>
+ * Igual que {@link CocheArchivado}: conserva el {@code id} original y los
+ * datos descriptivos, sin versión ni relaciones.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Entity
+@Table(name = "moto_archivo", indexes = @Index(name = "idx_moto_archivo_fecha", columnList = "archivado_en"))
+public class MotoArchivada {
+
+    /**
+     * Identificador que tenía la moto en la tabla {@code moto}.
+     */
+    @Id
+    private Long id;
+
+    @Column(name = "potencia")
+    private double potencia;
+
+    @Column(length = 20)
+    private String marca;
+
+    private String tipo;
+
+    @Column(name = "archivado_en", nullable = false)
+    private Instant archivadoEn;
+
+    /**
+     * Constructor vacío exigido por JPA.
+     */
+    protected MotoArchivada() {
+
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public double getPotencia() {
+        return potencia;
+    }
+
+    public String getMarca() {
+        return marca;
+    }
+
+    public String getTipo() {
+        return tipo;
+    }
+
+    public Instant getArchivadoEn() {
+        return archivadoEn;
+    }
+
+    @Override
+    public String toString() {
+        return "MotoArchivada [id=" + id + ", marca=" + marca + ", potencia=" + potencia
+                + ", tipo=" + tipo + ", archivadoEn=" + archivadoEn + "]";
+    }
+}
@@ -1,16 +1,20 @@
 package es.cic.curso25.proy008.model;
 
+import java.util.UUID;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import es.cic.curso25.proy008.enums.TipoCarnet;
+import es.cic.curso25.proy008.id.IdAgrupado;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.PrePersist;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
@@ -28,7 +32,7 @@ import jakarta.persistence.Version;
 public class Motorista {
 
     @Id // Campo en la BBD ID
-    @GeneratedValue(strategy = GenerationType.AUTO) // El valor se generará automáticamente
+    @IdAgrupado // El valor se reserva por bloques de la secuencia motorista_seq
     private Long id;
     
     @Version
@@ -69,6 +73,12 @@ public class Motorista {
     @JoinColumn(name = "moto_id", referencedColumnName = "id")
     private Moto moto;
 
+    // Clave aleatoria de equals/hashCode: se genera al pedirla o al guardar y
+    // se persiste, así que la fila leída después conserva la del motorista nuevo
+    @JsonIgnore
+    @Column(name = "clave", nullable = false, updatable = false)
+    private UUID clave;
+
     // CONSTRUCTORES
 
 
@@ -138,29 +148,48 @@ public class Motorista {
         this.moto = moto;
     }
 
+    public UUID getClave() {
+        if (clave == null) {
+            clave = UUID.randomUUID();
+        }
+        return clave;
+    }
+
+    // Para adoptar la clave de la fila guardada antes de un merge
+    public void setClave(UUID clave) {
+        this.clave = clave;
+    }
+
+    @PrePersist
+    private void asignarClave() {
+        getClave();
+    }
+
+    /**
+     * Hash de la {@code clave}: no cambia al guardar y reparte los motoristas
+     * nuevos por los cubos de un {@code HashSet}.
+     */
     @Override
     public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + ((id == null) ? 0 : id.hashCode());
-        return result;
+        return getClave().hashCode();
     }
 
+    /**
+     * Dos motoristas son iguales si tienen la misma {@code clave}: la misma
+     * fila, o el motorista nuevo y la fila guardada a partir de él. Con
+     * {@code instanceof} y {@code getClave()} para admitir proxies de Hibernate.
+     */
     @Override
     public boolean equals(Object obj) {
         if (this == obj)
             return true;
-        if (obj == null)
-            return false;
-        if (getClass() != obj.getClass())
+        if (!(obj instanceof Motorista))
             return false;
-        Moto other = (Moto) obj;
-        if (id == null) {
-            if (other.getId() != null)
-                return false;
-        } else if (!id.equals(other.getId()))
+        Motorista other = (Motorista) obj;
+        // Ids distintos descartan la igualdad sin inicializar un proxy sin cargar
+        if (getId() != null && other.getId() != null && !getId().equals(other.getId()))
             return false;
-        return true;
+        return getClave().equals(other.getClave());
     }
 
     @Override
@@ -0,0 +1,34 @@
+package es.cic.curso25.proy008.outbox;
+
+import java.util.List;
+
+import es.cic.curso25.proy008.model.EventoSalida;
+
+/**
+ * Destino al que {@link RelevoOutbox} entrega los eventos del outbox.
+ * <p>
+ * Basta con declarar un bean que implemente esta interfaz para añadir un
+ * destino. Si {@link #enviar} lanza una excepción, el lote entero se
+ * reintenta más tarde en todos los destinos, así que deben tolerar
+ * duplicados (por el {@code id} del evento).
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public interface DestinoEventos {
+
+    /**
+     * @return nombre del destino, para métricas y trazas.
+     */
+    String getNombre();
+
+    /**
+     * Entrega un lote de eventos, en orden.
+     *
+     * @param eventos Eventos a entregar.
+     * @throws Exception Si no se pudo entregar el lote completo.
+     */
+    void enviar(List<EventoSalida> eventos) throws Exception;
+}
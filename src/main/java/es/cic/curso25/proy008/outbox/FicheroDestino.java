@@ -0,0 +1,79 @@
+package es.cic.curso25.proy008.outbox;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.cic.curso25.proy008.model.EventoSalida;
+
+/**
+ * Destino en fichero local: añade cada evento como una línea JSON
+ * (NDJSON) y fuerza el lote a disco antes de darlo por entregado.
+ * <p>
+ * La carga va incrustada como objeto, no como texto escapado, para que el
+ * fichero pueda leerse con cualquier herramienta de JSON por líneas.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class FicheroDestino implements DestinoEventos {
+
+    private final Path ruta;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param ruta         Fichero de salida; se crea si no existe.
+     * @param objectMapper Serializador JSON.
+     */
+    public FicheroDestino(Path ruta, ObjectMapper objectMapper) {
+        this.ruta = ruta;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public String getNombre() {
+        return "fichero";
+    }
+
+    @Override
+    public void enviar(List<EventoSalida> eventos) throws IOException {
+        StringBuilder lineas = new StringBuilder();
+        for (EventoSalida evento : eventos) {
+            Map<String, Object> linea = new LinkedHashMap<>();
+            linea.put("id", evento.getId());
+            linea.put("tipo", evento.getTipo());
+            linea.put("agregado", evento.getAgregado());
+            linea.put("agregadoId", evento.getAgregadoId());
+            linea.put("creadoEn", evento.getCreadoEn());
+            linea.put("carga", objectMapper.readTree(evento.getCarga()));
+            lineas.append(objectMapper.writeValueAsString(linea)).append('\n');
+        }
+        if (ruta.getParent() != null) {
+            Files.createDirectories(ruta.getParent());
+        }
+        try (FileChannel canal = FileChannel.open(ruta, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.APPEND)) {
+            ByteBuffer datos = ByteBuffer.wrap(lineas.toString().getBytes(StandardCharsets.UTF_8));
+            while (datos.hasRemaining()) {
+                canal.write(datos);
+            }
+            canal.force(false);
+        }
+    }
+
+    public Path getRuta() {
+        return ruta;
+    }
+}
@@ -0,0 +1,41 @@
+package es.cic.curso25.proy008.outbox;
+
+import java.util.List;
+
+import org.springframework.context.ApplicationEventPublisher;
+
+import es.cic.curso25.proy008.event.EventoDominio;
+import es.cic.curso25.proy008.model.EventoSalida;
+
+/**
+ * Destino en proceso: publica cada evento como {@link EventoDominio} para
+ * los {@code @EventListener} de la aplicación.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class ListenerDestino implements DestinoEventos {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * @param eventPublisher Publicador de eventos de Spring.
+     */
+    public ListenerDestino(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public String getNombre() {
+        return "listener";
+    }
+
+    @Override
+    public void enviar(List<EventoSalida> eventos) {
+        for (EventoSalida evento : eventos) {
+            eventPublisher.publishEvent(new EventoDominio(evento.getId(), evento.getTipo(), evento.getAgregado(),
+                    evento.getAgregadoId(), evento.getCarga(), evento.getCreadoEn()));
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package es.cic.curso25.proy008.outbox;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.cic.curso25.proy008.model.EventoSalida;
+import es.cic.curso25.proy008.repository.EventoSalidaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Relé del outbox: lee los eventos pendientes en orden, los entrega a todos
+ * los {@link DestinoEventos} y solo entonces los borra.
+ * <p>
+ * Cada ronda procesa lotes de {@code proy008.outbox.lote} eventos hasta
+ * vaciar la tabla. Si un destino falla se detiene la ronda sin borrar el
+ * lote, que se vuelve a entregar entero en la siguiente: la entrega es al
+ * menos una vez y se conserva el orden. Las rondas se serializan con un
+ * {@link ReentrantLock}; la programada se salta si hay otra en curso.
+ * </p>
+ * <p>
+ * Métricas publicadas:
+ * <ul>
+ *   <li>{@code proy008.outbox.pendientes} – eventos en la tabla al terminar la última ronda.</li>
+ *   <li>{@code proy008.outbox.retraso} – segundos desde que se creó el evento más antiguo sin entregar.</li>
+ *   <li>{@code proy008.outbox.enviados} y {@code proy008.outbox.fallos} – por destino.</li>
+ *   <li>{@code proy008.outbox.latencia} – de la creación del evento a su entrega.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public class RelevoOutbox {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RelevoOutbox.class);
+
+    private final ReentrantLock ronda = new ReentrantLock();
+
+    private final AtomicInteger pendientes = new AtomicInteger();
+
+    private final AtomicReference<Instant> masAntiguo = new AtomicReference<>();
+
+    private final EventoSalidaRepository eventoSalidaRepository;
+
+    private final List<DestinoEventos> destinos;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Timer latencia;
+
+    private final int lote;
+
+    /**
+     * @param eventoSalidaRepository Repositorio del outbox.
+     * @param destinos               Destinos a los que se entrega cada lote.
+     * @param transactionManager     Gestor de transacciones de lectura y borrado.
+     * @param meterRegistry          Registro de métricas.
+     * @param lote                   Eventos por lote.
+     */
+    public RelevoOutbox(EventoSalidaRepository eventoSalidaRepository, List<DestinoEventos> destinos,
+            PlatformTransactionManager transactionManager, MeterRegistry meterRegistry, int lote) {
+        this.eventoSalidaRepository = eventoSalidaRepository;
+        this.destinos = List.copyOf(destinos);
+        // Transacción de escritura: el outbox se lee del primario, no de la réplica
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.lote = lote;
+        this.latencia = Timer.builder("proy008.outbox.latencia")
+            .description("Tiempo desde la creación del evento hasta su entrega")
+            .register(meterRegistry);
+        Gauge.builder("proy008.outbox.pendientes", pendientes, AtomicInteger::get)
+            .description("Eventos pendientes de entregar")
+            .register(meterRegistry);
+        Gauge.builder("proy008.outbox.retraso", masAntiguo, RelevoOutbox::segundosDesde)
+            .description("Segundos desde el evento más antiguo sin entregar")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Ronda programada; si ya hay una en curso no hace nada.
+     */
+    @Scheduled(fixedDelayString = "${proy008.outbox.intervalo:500}")
+    public void enviarPeriodicamente() {
+        if (ronda.tryLock()) {
+            try {
+                relevar();
+            } finally {
+                ronda.unlock();
+            }
+        }
+    }
+
+    /**
+     * Entrega ahora todo lo pendiente, esperando a una ronda en curso.
+     *
+     * @return eventos entregados y borrados del outbox.
+     */
+    public int enviar() {
+        ronda.lock();
+        try {
+            return relevar();
+        } finally {
+            ronda.unlock();
+        }
+    }
+
+    public List<DestinoEventos> getDestinos() {
+        return destinos;
+    }
+
+    private int relevar() {
+        int entregados = 0;
+        List<EventoSalida> eventos;
+        while (!(eventos = leerLote()).isEmpty()) {
+            masAntiguo.set(eventos.get(0).getCreadoEn());
+            if (!entregar(eventos)) {
+                pendientes.set((int) Math.min(Integer.MAX_VALUE, eventoSalidaRepository.count()));
+                return entregados;
+            }
+            List<Long> ids = eventos.stream().map(EventoSalida::getId).toList();
+            transactionTemplate.executeWithoutResult(estado -> eventoSalidaRepository.deleteAllByIdInBatch(ids));
+            Instant ahora = Instant.now();
+            eventos.forEach(evento -> latencia.record(Duration.between(evento.getCreadoEn(), ahora)));
+            entregados += eventos.size();
+            if (eventos.size() < lote) {
+                break;
+            }
+        }
+        masAntiguo.set(null);
+        pendientes.set(0);
+        if (entregados > 0) {
+            LOGGER.debug("Entregados {} eventos del outbox", entregados);
+        }
+        return entregados;
+    }
+
+    private List<EventoSalida> leerLote() {
+        return transactionTemplate.execute(estado -> eventoSalidaRepository.findPendientes(PageRequest.of(0, lote)));
+    }
+
+    /**
+     * Entrega el lote a cada destino en orden.
+     *
+     * @return {@code false} si algún destino falló.
+     */
+    private boolean entregar(List<EventoSalida> eventos) {
+        for (DestinoEventos destino : destinos) {
+            try {
+                destino.enviar(eventos);
+                contador("proy008.outbox.enviados", destino).increment(eventos.size());
+            } catch (Exception e) {
+                contador("proy008.outbox.fallos", destino).increment();
+                LOGGER.error("El destino {} no aceptó {} eventos del outbox; se reintentará",
+                        destino.getNombre(), eventos.size(), e);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private Counter contador(String nombre, DestinoEventos destino) {
+        return Counter.builder(nombre).tag("destino", destino.getNombre()).register(meterRegistry);
+    }
+
+    private static double segundosDesde(AtomicReference<Instant> instante) {
+        Instant valor = instante.get();
+        return valor == null ? 0 : Duration.between(valor, Instant.now()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,77 @@
+package es.cic.curso25.proy008.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.cic.curso25.proy008.model.CocheArchivado;
+
+/**
+ * Repositorio JPA para {@link CocheArchivado} (tabla {@code coche_archivo}).
+ * <p>
+ * Las altas una a una las hace {@code ArchivoService} por lotes JDBC; aquí
+ * están la consulta del archivo, el archivado en bloque con
+ * {@code INSERT ... SELECT} para los borrados masivos y la purga por lotes
+ * de la compactación.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public interface CocheArchivadoRepository extends JpaRepository<CocheArchivado, Long> {
+
+    /**
+     * Coches archivados, del más reciente al más antiguo. Los filtros a
+     * {@code null} no se aplican.
+     *
+     * @param concesionarioId Concesionario al que pertenecían.
+     * @param desde           Archivados en o después de este instante.
+     * @param hasta           Archivados antes de este instante.
+     * @param pageable        Página a devolver.
+     * @return coches archivados que cumplen los filtros.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT c FROM CocheArchivado c "
+            + "WHERE (:concesionarioId IS NULL OR c.concesionarioId = :concesionarioId) "
+            + "AND (:desde IS NULL OR c.archivadoEn >= :desde) "
+            + "AND (:hasta IS NULL OR c.archivadoEn < :hasta) "
+            + "ORDER BY c.archivadoEn DESC, c.id DESC")
+    List<CocheArchivado> buscar(@Param("concesionarioId") Long concesionarioId,
+            @Param("desde") Instant desde, @Param("hasta") Instant hasta, Pageable pageable);
+
+    /**
+     * Copia al archivo, con una sola sentencia, los coches de un
+     * concesionario. Debe ejecutarse en la misma transacción y justo antes
+     * de borrarlos.
+     *
+     * @param concesionarioId Identificador del concesionario.
+     * @return número de coches archivados.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO coche_archivo (id, potencia, marca, concesionario_id, archivado_en) "
+            + "SELECT id, potencia, marca, concesionario_id, CURRENT_TIMESTAMP FROM coche "
+            + "WHERE concesionario_id = :concesionarioId", nativeQuery = true)
+    int archivarPorConcesionario(@Param("concesionarioId") Long concesionarioId);
+
+    /**
+     * Borra como mucho {@code lote} coches archivados antes de {@code limite}.
+     *
+     * @param limite Instante de corte.
+     * @param lote   Máximo de filas por sentencia.
+     * @return número de filas borradas.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM coche_archivo WHERE id IN "
+            + "(SELECT id FROM coche_archivo WHERE archivado_en < :limite FETCH FIRST :lote ROWS ONLY)",
+            nativeQuery = true)
+    int purgarAnteriores(@Param("limite") Instant limite, @Param("lote") int lote);
+}
@@ -1,6 +1,19 @@
 package es.cic.curso25.proy008.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.cic.curso25.proy008.dto.CocheEncendido;
+import es.cic.curso25.proy008.dto.CocheLectura;
+import es.cic.curso25.proy008.dto.CochePuesto;
+import es.cic.curso25.proy008.dto.ConcesionarioTop;
+import es.cic.curso25.proy008.dto.PotenciaVehiculo;
 import es.cic.curso25.proy008.model.Coche;
 
 /**
@@ -22,6 +35,12 @@ import es.cic.curso25.proy008.model.Coche;
  * ejecución.
  * </p>
  * <p>
+ * Los métodos heredados de lectura ya son de solo lectura en
+ * {@code SimpleJpaRepository}; las consultas declaradas aquí no heredan esa
+ * configuración y se marcan explícitamente con
+ * {@code @Transactional(readOnly = true)}.
+ * </p>
+ * <p>
  * Parámetros genéricos:
  * <ul>
  *   <li><code>Coche</code> – Tipo de la entidad gestionada.</li>
@@ -34,6 +53,96 @@ import es.cic.curso25.proy008.model.Coche;
  * @since 1.0
  */
 public interface CocheRepository extends JpaRepository<Coche, Long> {
-    // No se requieren métodos adicionales: Spring Data JPA implementa
-    // automáticamente todos los métodos heredados de JpaRepository.
+
+    /**
+     * Cuenta los coches con el motor encendido.
+     *
+     * @return número de coches con {@code encendido = true}.
+     */
+    @Transactional(readOnly = true)
+    long countByEncendidoTrue();
+
+    /**
+     * Ids de todos los coches, para el filtro de existencia.
+     *
+     * @return ids de los coches.
+     */
+    @Query("SELECT c.id FROM Coche c")
+    List<Long> findAllIds();
+
+    /**
+     * Columnas de todos los coches, para la copia de analítica, con su
+     * puesto por potencia en el concesionario y el total de éste, para el
+     * ranking. Las funciones de ventana numeran y cuentan los coches de
+     * cada concesionario en la misma lectura de la tabla, sin ordenarla
+     * entera.
+     *
+     * @return una {@link CochePuesto} por coche, sin cargar entidades.
+     */
+    @Query("SELECT new es.cic.curso25.proy008.dto.CochePuesto(c.id, c.version, c.potencia, c.marca, "
+            + "c.encendido, c.concesionario.id, "
+            + "ROW_NUMBER() OVER (PARTITION BY c.concesionario.id ORDER BY c.potencia DESC, c.id), "
+            + "COUNT(*) OVER (PARTITION BY c.concesionario.id)) FROM Coche c")
+    List<CochePuesto> findAllPuestos();
+
+    /**
+     * Los coches más potentes de un concesionario, para rellenar su ranking.
+     *
+     * @param concesionarioId Concesionario.
+     * @param pageable        Número de coches.
+     * @return coches de mayor a menor potencia.
+     */
+    @Query("SELECT new es.cic.curso25.proy008.dto.PotenciaVehiculo(c.id, c.marca, c.potencia) FROM Coche c "
+            + "WHERE c.concesionario.id = :concesionarioId ORDER BY c.potencia DESC, c.id")
+    List<PotenciaVehiculo> findTopPotencias(@Param("concesionarioId") Long concesionarioId, Pageable pageable);
+
+    /**
+     * Coches con el motor encendido y su concesionario, sin cargar entidades.
+     *
+     * @return id y concesionario de cada coche con {@code encendido = true}.
+     */
+    @Query("SELECT new es.cic.curso25.proy008.dto.CocheEncendido(c.id, c.concesionario.id) "
+            + "FROM Coche c WHERE c.encendido = true")
+    List<CocheEncendido> findEncendidos();
+
+    /**
+     * Concesionarios ordenados por número de coches, de mayor a menor.
+     * <p>
+     * Se agrega en la BBDD sin cargar ninguna entidad.
+     * </p>
+     *
+     * @param pageable Página a devolver (normalmente {@code PageRequest.of(0, n)}).
+     * @return ranking de {@link ConcesionarioTop}.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT new es.cic.curso25.proy008.dto.ConcesionarioTop(c.concesionario.id, c.concesionario.nombre, COUNT(c)) "
+            + "FROM Coche c GROUP BY c.concesionario.id, c.concesionario.nombre ORDER BY COUNT(c) DESC")
+    List<ConcesionarioTop> findTopConcesionarios(Pageable pageable);
+
+    /**
+     * Borra con una sola sentencia todos los coches de un concesionario.
+     * <p>
+     * No carga las entidades: se vuelca el contexto de persistencia antes y
+     * se limpia después para no dejar coches borrados en memoria.
+     * </p>
+     *
+     * @param concesionarioId Identificador del concesionario.
+     * @return número de coches borrados.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Coche c WHERE c.concesionario.id = :concesionarioId")
+    int deleteInBulkByConcesionarioId(@Param("concesionarioId") Long concesionarioId);
+
+    /**
+     * Coches creados o modificados con secuencia en el intervalo abierto
+     * {@code (desde, hasta)}, en orden de secuencia.
+     *
+     * @param desde    Última secuencia que ya tiene el cliente.
+     * @param hasta    Primera secuencia que aún no puede servirse.
+     * @param pageable Límite de filas.
+     * @return coches cambiados.
+     */
+    @Query("SELECT c FROM Coche c WHERE c.secuencia > :desde AND c.secuencia < :hasta ORDER BY c.secuencia")
+    List<Coche> findCambios(@Param("desde") long desde, @Param("hasta") long hasta, Pageable pageable);
 }
@@ -1,6 +1,11 @@
 package es.cic.curso25.proy008.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
 import es.cic.curso25.proy008.model.Concesionario;
 
 /**
@@ -33,6 +38,12 @@ import es.cic.curso25.proy008.model.Concesionario;
  * @since 1.0
  */
 public interface ConcesionarioRepository extends JpaRepository<Concesionario, Long> {
-    // No es necesario declarar métodos adicionales:
-    // Spring Data JPA implementa automáticamente los heredados de JpaRepository.
+    // Los métodos CRUD los implementa automáticamente Spring Data JPA.
+
+    // Borrado sin cargar la entidad ni su colección de coches; hay que borrar
+    // antes los coches (ver CocheRepository.deleteInBulkByConcesionarioId).
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Concesionario c WHERE c.id = :id")
+    int deleteInBulkById(@Param("id") Long id);
 }
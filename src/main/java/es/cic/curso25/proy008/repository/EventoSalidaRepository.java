@@ -0,0 +1,32 @@
+package es.cic.curso25.proy008.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import es.cic.curso25.proy008.model.EventoSalida;
+
+/**
+ * Repositorio JPA de la tabla {@code outbox} ({@link EventoSalida}).
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public interface EventoSalidaRepository extends JpaRepository<EventoSalida, Long> {
+
+    /**
+     * Eventos pendientes, del más antiguo al más reciente.
+     * <p>
+     * No se marca como de solo lectura a propósito: el relé debe leer del
+     * pool de escritura y no de una réplica con retraso.
+     * </p>
+     *
+     * @param pageable Tamaño del lote (normalmente {@code PageRequest.of(0, n)}).
+     * @return siguiente lote de eventos.
+     */
+    @Query("SELECT e FROM EventoSalida e ORDER BY e.id")
+    List<EventoSalida> findPendientes(Pageable pageable);
+}
@@ -0,0 +1,54 @@
+package es.cic.curso25.proy008.repository;
+
+import java.time.Instant;
+import java.util.List;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.cic.curso25.proy008.model.Historial;
+import es.cic.curso25.proy008.model.HistorialId;
+
+/**
+ * Repositorio JPA de lectura del historial de cambios ({@link Historial}).
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public interface HistorialRepository extends JpaRepository<Historial, HistorialId> {
+
+    /**
+     * Última versión de una fila guardada en o antes de un instante.
+     *
+     * @param entidad   Nombre de la entidad.
+     * @param entidadId Identificador de la fila.
+     * @param instante  Instante de consulta.
+     * @return versión, o {@code null} si la fila aún no existía.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT MAX(h.id.version) FROM Historial h WHERE h.id.entidad = :entidad "
+            + "AND h.id.entidadId = :entidadId AND h.modificadoEn <= :instante")
+    Long findVersionEn(@Param("entidad") String entidad, @Param("entidadId") Long entidadId,
+            @Param("instante") Instant instante);
+
+    /**
+     * Filas necesarias para reconstruir una versión: la última instantánea
+     * hasta esa versión y las diferencias posteriores, en orden.
+     *
+     * @param entidad   Nombre de la entidad.
+     * @param entidadId Identificador de la fila.
+     * @param version   Versión a reconstruir.
+     * @return instantánea y diferencias; vacía si no hay historial.
+     */
+    @Transactional(readOnly = true)
+    @Query("SELECT h FROM Historial h WHERE h.id.entidad = :entidad AND h.id.entidadId = :entidadId "
+            + "AND h.id.version <= :version AND h.id.version >= ("
+            + "SELECT MAX(i.id.version) FROM Historial i WHERE i.id.entidad = :entidad "
+            + "AND i.id.entidadId = :entidadId AND i.instantanea = true AND i.id.version <= :version) "
+            + "ORDER BY h.id.version")
+    List<Historial> findReconstruccion(@Param("entidad") String entidad, @Param("entidadId") Long entidadId,
+            @Param("version") Long version);
+}
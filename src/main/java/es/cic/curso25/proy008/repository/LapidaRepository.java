@@ -0,0 +1,74 @@
+package es.cic.curso25.proy008.repository;
+
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.cic.curso25.proy008.model.Lapida;
+
+/**
+ * Repositorio JPA para {@link Lapida} (tabla {@code lapida}).
+ * <p>
+ * Los borrados individuales los anota {@code CambiosListener}; los masivos
+ * no pasan por Hibernate y dejan sus lápidas con {@code INSERT ... SELECT}
+ * justo antes del {@code DELETE}, como el archivo.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public interface LapidaRepository extends JpaRepository<Lapida, Long> {
+
+    /**
+     * Lápidas con secuencia en el intervalo abierto {@code (desde, hasta)}.
+     *
+     * @param desde    Última secuencia que ya tiene el cliente.
+     * @param hasta    Primera secuencia que aún no puede servirse.
+     * @param pageable Límite de filas.
+     * @return lápidas en orden de secuencia.
+     */
+    @Query("SELECT l FROM Lapida l WHERE l.secuencia > :desde AND l.secuencia < :hasta ORDER BY l.secuencia")
+    List<Lapida> findCambios(@Param("desde") long desde, @Param("hasta") long hasta, Pageable pageable);
+
+    /**
+     * Deja una lápida por cada coche del concesionario.
+     *
+     * @param concesionarioId Concesionario cuyos coches se van a borrar.
+     * @return número de lápidas escritas.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO lapida (secuencia, entidad, entidad_id, borrado_en) "
+            + "SELECT NEXT VALUE FOR cambio_seq, 'Coche', id, CURRENT_TIMESTAMP FROM coche "
+            + "WHERE concesionario_id = :concesionarioId", nativeQuery = true)
+    int lapidarCochesDeConcesionario(@Param("concesionarioId") Long concesionarioId);
+
+    /**
+     * Deja una lápida por cada moto.
+     *
+     * @return número de lápidas escritas.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO lapida (secuencia, entidad, entidad_id, borrado_en) "
+            + "SELECT NEXT VALUE FOR cambio_seq, 'Moto', id, CURRENT_TIMESTAMP FROM moto", nativeQuery = true)
+    int lapidarMotos();
+
+    /**
+     * Deja una lápida por cada moto con motorista.
+     *
+     * @return número de lápidas escritas.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO lapida (secuencia, entidad, entidad_id, borrado_en) "
+            + "SELECT NEXT VALUE FOR cambio_seq, 'Moto', id, CURRENT_TIMESTAMP FROM moto "
+            + "WHERE id IN (SELECT moto_id FROM motorista)", nativeQuery = true)
+    int lapidarMotosConMotorista();
+}
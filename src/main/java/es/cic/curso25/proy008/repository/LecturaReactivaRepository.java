@@ -0,0 +1,214 @@
+package es.cic.curso25.proy008.repository;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalTime;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.core.env.Environment;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import es.cic.curso25.proy008.dto.CocheLectura;
+import es.cic.curso25.proy008.dto.ConcesionarioLectura;
+import es.cic.curso25.proy008.dto.MotoLectura;
+import es.cic.curso25.proy008.dto.MotoristaLectura;
+import es.cic.curso25.proy008.enums.TipoCarnet;
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.Readable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Repositorio de solo lectura sobre R2DBC.
+ * <p>
+ * Lee las mismas tablas que crea Hibernate, pero sin entidades ni contexto de
+ * persistencia: cada consulta devuelve un {@link Flux} que emite filas a medida
+ * que el suscriptor las pide (backpressure), sin bloquear hilos.
+ * </p>
+ * <p>
+ * La URL R2DBC se toma de {@code proy008.reactivo.url}; si no se indica, se
+ * deriva de la conexión JDBC real para que ambos accesos compartan la misma
+ * BBDD H2 (incluida la BBDD en memoria con nombre aleatorio de los tests).
+ * El pool R2DBC es privado a esta clase: registrar un {@code ConnectionFactory}
+ * como bean haría que Spring Boot desactivase el {@link DataSource} JDBC.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Repository
+public class LecturaReactivaRepository implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LecturaReactivaRepository.class);
+
+    private final ConnectionPool pool;
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * Crea el pool R2DBC apuntando a la misma BBDD que el {@link DataSource}.
+     *
+     * @param dataSource           DataSource JDBC de la aplicación.
+     * @param dataSourceProperties Credenciales de {@code spring.datasource.*}.
+     * @param environment          Entorno del que se leen las propiedades {@code proy008.reactivo.*}.
+     * @throws SQLException Si no se puede averiguar la URL JDBC.
+     */
+    public LecturaReactivaRepository(DataSource dataSource, DataSourceProperties dataSourceProperties,
+            Environment environment) throws SQLException {
+        String url = environment.getProperty("proy008.reactivo.url");
+        if (url == null) {
+            try (Connection conexion = dataSource.getConnection()) {
+                url = aUrlR2dbc(conexion.getMetaData().getURL());
+            }
+        }
+        LOGGER.info("API reactiva leyendo de {}", url);
+
+        ConnectionFactoryOptions opciones = ConnectionFactoryOptions.parse(url).mutate()
+                .option(ConnectionFactoryOptions.USER, dataSourceProperties.determineUsername())
+                .option(ConnectionFactoryOptions.PASSWORD, dataSourceProperties.determinePassword())
+                .build();
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(opciones))
+                .maxSize(environment.getProperty("proy008.reactivo.pool.max-size", Integer.class, 20))
+                .build());
+        this.databaseClient = DatabaseClient.create(pool);
+    }
+
+    /**
+     * Convierte una URL JDBC de H2 en su equivalente R2DBC.
+     *
+     * @param jdbcUrl URL del tipo {@code jdbc:h2:mem:nombre} o {@code jdbc:h2:file:ruta}.
+     * @return URL {@code r2dbc:h2:mem:///nombre} o {@code r2dbc:h2:file:///ruta}.
+     */
+    static String aUrlR2dbc(String jdbcUrl) {
+        String prefijo = "jdbc:h2:";
+        if (!jdbcUrl.startsWith(prefijo)) {
+            throw new IllegalStateException(
+                    "No se puede derivar la URL R2DBC de " + jdbcUrl + "; configure proy008.reactivo.url");
+        }
+        String resto = jdbcUrl.substring(prefijo.length());
+        int opciones = resto.indexOf(';');
+        if (opciones >= 0) {
+            resto = resto.substring(0, opciones);
+        }
+        int separador = resto.indexOf(':');
+        String protocolo = separador > 0 ? resto.substring(0, separador) : "file";
+        String nombre = separador > 0 ? resto.substring(separador + 1) : resto;
+        return "r2dbc:h2:" + protocolo + ":///" + nombre;
+    }
+
+    /**
+     * Emite todos los coches.
+     *
+     * @return flujo de {@link CocheLectura}.
+     */
+    public Flux<CocheLectura> findCoches() {
+        return databaseClient
+                .sql("SELECT id, version, potencia, marca, encendido, concesionario_id FROM coche ORDER BY id")
+                .map(LecturaReactivaRepository::aCoche)
+                .all();
+    }
+
+    /**
+     * Busca un coche por su identificador.
+     *
+     * @param id Identificador del coche.
+     * @return {@link Mono} con el coche, o vacío si no existe.
+     */
+    public Mono<CocheLectura> findCoche(long id) {
+        return databaseClient
+                .sql("SELECT id, version, potencia, marca, encendido, concesionario_id FROM coche WHERE id = :id")
+                .bind("id", id)
+                .map(LecturaReactivaRepository::aCoche)
+                .one();
+    }
+
+    /**
+     * Emite todos los concesionarios.
+     *
+     * @return flujo de {@link ConcesionarioLectura}.
+     */
+    public Flux<ConcesionarioLectura> findConcesionarios() {
+        return databaseClient
+                .sql("SELECT id, version, nombre, telefono, ciudad, apertura, cierre FROM concesionario ORDER BY id")
+                .map((fila, meta) -> new ConcesionarioLectura(
+                        fila.get("id", Long.class),
+                        fila.get("version", Long.class),
+                        fila.get("nombre", String.class),
+                        fila.get("telefono", Integer.class),
+                        fila.get("ciudad", String.class),
+                        fila.get("apertura", LocalTime.class),
+                        fila.get("cierre", LocalTime.class)))
+                .all();
+    }
+
+    /**
+     * Emite todas las motos.
+     *
+     * @return flujo de {@link MotoLectura}.
+     */
+    public Flux<MotoLectura> findMotos() {
+        return databaseClient
+                .sql("SELECT id, version, potencia, marca, encendido, tipo FROM moto ORDER BY id")
+                .map((fila, meta) -> new MotoLectura(
+                        fila.get("id", Long.class),
+                        fila.get("version", Long.class),
+                        fila.get("potencia", Double.class),
+                        fila.get("marca", String.class),
+                        Boolean.TRUE.equals(fila.get("encendido", Boolean.class)),
+                        fila.get("tipo", String.class)))
+                .all();
+    }
+
+    /**
+     * Emite todos los motoristas.
+     *
+     * @return flujo de {@link MotoristaLectura}.
+     */
+    public Flux<MotoristaLectura> findMotoristas() {
+        return databaseClient
+                .sql("SELECT id, version, nombre, apellidos, edad, es_mayor_de_edad, tipo_de_carnet, moto_id "
+                        + "FROM motorista ORDER BY id")
+                .map((fila, meta) -> {
+                    String carnet = fila.get("tipo_de_carnet", String.class);
+                    return new MotoristaLectura(
+                            fila.get("id", Long.class),
+                            fila.get("version", Long.class),
+                            fila.get("nombre", String.class),
+                            fila.get("apellidos", String.class),
+                            fila.get("edad", Integer.class),
+                            Boolean.TRUE.equals(fila.get("es_mayor_de_edad", Boolean.class)),
+                            carnet == null ? null : TipoCarnet.valueOf(carnet),
+                            fila.get("moto_id", Long.class));
+                })
+                .all();
+    }
+
+    private static CocheLectura aCoche(Readable fila) {
+        return new CocheLectura(
+                fila.get("id", Long.class),
+                fila.get("version", Long.class),
+                fila.get("potencia", Double.class),
+                fila.get("marca", String.class),
+                Boolean.TRUE.equals(fila.get("encendido", Boolean.class)),
+                fila.get("concesionario_id", Long.class));
+    }
+
+    /**
+     * Libera las conexiones del pool R2DBC al cerrar el contexto.
+     */
+    @Override
+    public void destroy() {
+        pool.dispose();
+    }
+}
@@ -0,0 +1,63 @@
+package es.cic.curso25.proy008.repository;
+
+import java.time.Instant;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.cic.curso25.proy008.model.MotoArchivada;
+
+/**
+ * Repositorio JPA para {@link MotoArchivada} (tabla {@code moto_archivo}).
+ * <p>
+ * Como {@link CocheArchivadoRepository}: archivado en bloque para los
+ * borrados masivos de motos y purga por lotes.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+public interface MotoArchivadaRepository extends JpaRepository<MotoArchivada, Long> {
+
+    /**
+     * Copia al archivo todas las motos. Se usa justo antes de vaciar la tabla.
+     *
+     * @return número de motos archivadas.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO moto_archivo (id, potencia, marca, tipo, archivado_en) "
+            + "SELECT id, potencia, marca, tipo, CURRENT_TIMESTAMP FROM moto", nativeQuery = true)
+    int archivarTodas();
+
+    /**
+     * Copia al archivo las motos que tienen motorista. Se usa justo antes de
+     * borrar todos los motoristas, que arrastran su moto.
+     *
+     * @return número de motos archivadas.
+     */
+    @Transactional
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO moto_archivo (id, potencia, marca, tipo, archivado_en) "
+            + "SELECT id, potencia, marca, tipo, CURRENT_TIMESTAMP FROM moto "
+            + "WHERE id IN (SELECT moto_id FROM motorista)", nativeQuery = true)
+    int archivarConMotorista();
+
+    /**
+     * Borra como mucho {@code lote} motos archivadas antes de {@code limite}.
+     *
+     * @param limite Instante de corte.
+     * @param lote   Máximo de filas por sentencia.
+     * @return número de filas borradas.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "DELETE FROM moto_archivo WHERE id IN "
+            + "(SELECT id FROM moto_archivo WHERE archivado_en < :limite FETCH FIRST :lote ROWS ONLY)",
+            nativeQuery = true)
+    int purgarAnteriores(@Param("limite") Instant limite, @Param("lote") int lote);
+}
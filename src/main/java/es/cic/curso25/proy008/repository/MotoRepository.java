@@ -1,7 +1,14 @@
 package es.cic.curso25.proy008.repository;
 
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import es.cic.curso25.proy008.dto.PotenciaVehiculo;
 import es.cic.curso25.proy008.model.Moto;
 
 /*──────────────────────────────────────────────────────────────────────────────────────────────────────────────────────────────
@@ -12,4 +19,26 @@ import es.cic.curso25.proy008.model.Moto;
  */
 public interface MotoRepository extends JpaRepository<Moto, Long> {
 
+    // Cuenta las motos con el motor encendido (las consultas declaradas no heredan
+    // el readOnly de SimpleJpaRepository, se indica aquí)
+    @Transactional(readOnly = true)
+    long countByEncendidoTrue();
+
+    // Ids de todas las motos, para el filtro de existencia
+    @Query("SELECT m.id FROM Moto m")
+    List<Long> findAllIds();
+
+    // Ids de las motos con el motor encendido, sin cargar entidades
+    @Query("SELECT m.id FROM Moto m WHERE m.encendido = true")
+    List<Long> findIdsEncendidos();
+
+    // Marca y potencia de todas las motos, para los histogramas de potencia
+    @Query("SELECT new es.cic.curso25.proy008.dto.PotenciaVehiculo(m.id, m.marca, m.potencia) FROM Moto m")
+    List<PotenciaVehiculo> findPotencias();
+
+    // Motos creadas o modificadas con secuencia en (desde, hasta), en orden de
+    // secuencia; lo usa GET /cambios
+    @Query("SELECT m FROM Moto m WHERE m.secuencia > :desde AND m.secuencia < :hasta ORDER BY m.secuencia")
+    List<Moto> findCambios(@Param("desde") long desde, @Param("hasta") long hasta, Pageable pageable);
+
 }
@@ -1,6 +1,11 @@
 package es.cic.curso25.proy008.repository;
 
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.transaction.annotation.Transactional;
 
 import es.cic.curso25.proy008.model.Motorista;
 
@@ -11,4 +16,19 @@ import es.cic.curso25.proy008.model.Motorista;
  */
 public interface MotoristaRepository extends JpaRepository<Motorista, Long> {
 
+    // Ids de todos los motoristas, para el filtro de existencia
+    @Query("SELECT m.id FROM Motorista m")
+    List<Long> findAllIds();
+
+    // Ids de las motos con motorista, sin cargar ninguna entidad
+    @Transactional(readOnly = true)
+    @Query("SELECT m.moto.id FROM Motorista m WHERE m.moto IS NOT NULL")
+    List<Long> findMotoIds();
+
+    // Borra en una sentencia los motoristas que tienen moto (el cascade REMOVE
+    // de Moto.motorista cuando se borran todas las motos)
+    @Transactional
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Motorista m WHERE m.moto IS NOT NULL")
+    int deleteInBulkConMoto();
 }
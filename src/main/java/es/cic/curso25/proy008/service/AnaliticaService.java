@@ -0,0 +1,255 @@
+package es.cic.curso25.proy008.service;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.cic.curso25.proy008.analitica.CambioPotencia;
+import es.cic.curso25.proy008.analitica.ColumnasCoche;
+import es.cic.curso25.proy008.analitica.DistribucionesPotencia;
+import es.cic.curso25.proy008.analitica.HistogramaPotencia;
+import es.cic.curso25.proy008.analitica.RankingPotencia;
+import es.cic.curso25.proy008.dto.CocheLectura;
+import es.cic.curso25.proy008.dto.CochePuesto;
+import es.cic.curso25.proy008.dto.DistribucionPotencia;
+import es.cic.curso25.proy008.dto.GrupoAnalitica;
+import es.cic.curso25.proy008.dto.PotenciaVehiculo;
+import es.cic.curso25.proy008.enums.AgregadoAnalitica;
+import es.cic.curso25.proy008.enums.AgrupacionAnalitica;
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+import es.cic.curso25.proy008.event.CocheCambiadoEvent;
+import es.cic.curso25.proy008.event.MotosBorradasEvent;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.MotoRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Analítica de coches sobre la copia en columnas {@link ColumnasCoche}, de
+ * la potencia de coches (en la misma copia) y motos
+ * ({@link DistribucionesPotencia}) y de los coches más potentes de cada
+ * concesionario sobre {@link RankingPotencia}, sin pasar por entidades ni
+ * por la BBDD.
+ * <p>
+ * La copia sigue las escrituras de {@code CocheService} y
+ * {@code ConcesionarioService} con sus {@link CocheCambiadoEvent}, tras el
+ * commit. Un vaciado de concesionario es un borrado masivo sin filas: sus
+ * coches se buscan en la columna de concesionarios de la copia y se quitan
+ * también de los histogramas y del ranking, sin ir a la BBDD. La recarga al
+ * arrancar y cada {@code proy008.analitica.recarga} milisegundos corrige lo
+ * escrito por otras vías; lee de la primaria.
+ * </p>
+ * <p>
+ * Los histogramas de motos y el ranking los mantiene
+ * {@code PotenciaListener}; aquí solo se recargan, con la copia y tras un
+ * borrado masivo de motos ({@link MotosBorradasEvent}). La recarga lee la
+ * tabla {@code coche} una sola vez: con esas filas se cargan la copia, con
+ * sus histogramas, y el ranking. Si los borrados agotan el ranking de un
+ * concesionario, se rellena ese concesionario al consultarlo.
+ * </p>
+ * <p>
+ * Métricas publicadas:
+ * <ul>
+ *   <li>{@code proy008.analitica.filas} – coches en la copia.</li>
+ *   <li>{@code proy008.analitica.bytes} – memoria reservada fuera del heap.</li>
+ *   <li>{@code proy008.analitica.rellenos} – rankings de concesionario rellenados desde la BBDD.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class AnaliticaService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AnaliticaService.class);
+
+    private final ColumnasCoche columnasCoche = new ColumnasCoche();
+
+    private final DistribucionesPotencia distribucionesPotencia;
+
+    private final RankingPotencia rankingPotencia;
+
+    private final CocheRepository cocheRepository;
+
+    private final MotoRepository motoRepository;
+
+    private final TransactionTemplate escritura;
+
+    private final Counter rellenos;
+
+    // Una recarga a la vez: la programada puede coincidir con la de un vaciado
+    private final ReentrantLock recarga = new ReentrantLock();
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param distribucionesPotencia Histogramas de potencia.
+     * @param rankingPotencia        Coches más potentes de cada concesionario.
+     * @param cocheRepository        Repositorio de coches.
+     * @param motoRepository         Repositorio de motos.
+     * @param transactionManager     Gestor de transacciones para las recargas.
+     * @param meterRegistry          Registro de métricas, si existe.
+     */
+    public AnaliticaService(DistribucionesPotencia distribucionesPotencia, RankingPotencia rankingPotencia,
+            CocheRepository cocheRepository, MotoRepository motoRepository,
+            PlatformTransactionManager transactionManager, ObjectProvider<MeterRegistry> meterRegistry) {
+        this.distribucionesPotencia = distribucionesPotencia;
+        this.rankingPotencia = rankingPotencia;
+        this.cocheRepository = cocheRepository;
+        this.motoRepository = motoRepository;
+        // Transacción de escritura para leer de la primaria; nueva porque se
+        // lanza también desde la fase posterior al commit de otra
+        this.escritura = new TransactionTemplate(transactionManager);
+        this.escritura.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        Gauge.builder("proy008.analitica.filas", columnasCoche, ColumnasCoche::getFilas)
+            .description("Coches en la copia en columnas")
+            .register(registry);
+        Gauge.builder("proy008.analitica.bytes", columnasCoche, ColumnasCoche::getBytes)
+            .description("Memoria fuera del heap de la copia en columnas")
+            .baseUnit("bytes")
+            .register(registry);
+        this.rellenos = Counter.builder("proy008.analitica.rellenos")
+            .description("Rankings de potencia de concesionario rellenados desde la BBDD")
+            .register(registry);
+    }
+
+    /**
+     * @param agrupacion Columna por la que se agrupa.
+     * @param agregado   Agregado de la potencia.
+     * @param encendido  Si no es {@code null}, solo los coches con ese encendido.
+     * @return un grupo por marca o concesionario con coches.
+     */
+    public List<GrupoAnalitica> agregar(AgrupacionAnalitica agrupacion, AgregadoAnalitica agregado,
+            Boolean encendido) {
+        return columnasCoche.agregar(agrupacion, agregado, encendido);
+    }
+
+    /**
+     * @param tipo  Tipo de vehículo, o {@code null} para coches y motos.
+     * @param marca Marca, o {@code null} para todas.
+     * @return distribución de la potencia, según los histogramas en memoria.
+     */
+    public DistribucionPotencia distribucionPotencia(TipoVehiculo tipo, String marca) {
+        HistogramaPotencia suma = new HistogramaPotencia();
+        if (tipo != TipoVehiculo.MOTO) {
+            columnasCoche.sumarPotencias(marca, suma);
+        }
+        if (tipo != TipoVehiculo.COCHE) {
+            distribucionesPotencia.sumar(marca, suma);
+        }
+        return suma.resumen(marca);
+    }
+
+    /**
+     * Los coches más potentes de un concesionario, del ranking en memoria.
+     * Solo se consulta la BBDD si los borrados han dejado en el ranking menos
+     * coches de los que se piden y el concesionario tiene más.
+     *
+     * @param concesionarioId Concesionario.
+     * @param k               Coches que se piden, hasta {@link RankingPotencia#MAXIMO_K}.
+     * @return hasta {@code k} coches, de mayor a menor potencia.
+     */
+    public List<PotenciaVehiculo> topPotencia(long concesionarioId, int k) {
+        List<PotenciaVehiculo> top = rankingPotencia.consultar(concesionarioId, k);
+        if (top != null) {
+            return top;
+        }
+        LOGGER.debug("Rellenando el ranking de potencia del concesionario {}", concesionarioId);
+        rellenos.increment();
+        long leidos = rankingPotencia.getCambios();
+        List<PotenciaVehiculo> coches = escritura.execute(estado -> cocheRepository.findTopPotencias(
+                concesionarioId, PageRequest.of(0, RankingPotencia.CAPACIDAD)));
+        rankingPotencia.rellenar(concesionarioId, coches, leidos);
+        return coches.stream().limit(k).toList();
+    }
+
+    /**
+     * Lleva a la copia un cambio confirmado.
+     *
+     * @param evento Cambio de inventario.
+     */
+    @TransactionalEventListener
+    public void onCocheCambiado(CocheCambiadoEvent evento) {
+        Coche coche = evento.coche();
+        switch (evento.tipo()) {
+            case VACIADO -> vaciar(evento.concesionarioId());
+            // Un cambio de concesionario llega como BORRADO y CREADO del mismo coche
+            case BORRADO -> columnasCoche.borrar(coche.getId());
+            default -> columnasCoche.guardar(lectura(coche));
+        }
+    }
+
+    /**
+     * Tras un borrado masivo de motos se recargan sus histogramas sin
+     * esperar a la recarga periódica.
+     *
+     * @param evento Borrado masivo confirmado.
+     */
+    @TransactionalEventListener
+    public void onMotosBorradas(MotosBorradasEvent evento) {
+        recarga.lock();
+        try {
+            recargarMotos();
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    /**
+     * Recarga la copia, los histogramas y el ranking de potencia desde la
+     * BBDD.
+     */
+    @Scheduled(fixedDelayString = "${proy008.analitica.recarga:300000}")
+    public void recargar() {
+        recarga.lock();
+        try {
+            columnasCoche.empezarRecarga();
+            rankingPotencia.empezarRecarga();
+            List<CochePuesto> coches = escritura.execute(estado -> cocheRepository.findAllPuestos());
+            columnasCoche.terminarRecarga(coches.stream().map(CochePuesto::lectura).toList());
+            rankingPotencia.terminarRecarga(coches);
+            LOGGER.debug("Copia de analítica recargada: {} coches", coches.size());
+            recargarMotos();
+        } finally {
+            recarga.unlock();
+        }
+    }
+
+    private void vaciar(long concesionarioId) {
+        long[] ids = columnasCoche.vaciar(concesionarioId);
+        List<CambioPotencia> borrados = Arrays.stream(ids)
+                .mapToObj(id -> new CambioPotencia(TipoVehiculo.COCHE, id, null, 0, null, false))
+                .toList();
+        rankingPotencia.aplicar(borrados);
+        rankingPotencia.vaciar(concesionarioId);
+        LOGGER.debug("Concesionario {} vaciado en la analítica: {} coches", concesionarioId, ids.length);
+    }
+
+    private void recargarMotos() {
+        distribucionesPotencia.empezarRecarga();
+        distribucionesPotencia.terminarRecarga(escritura.execute(estado -> motoRepository.findPotencias()));
+    }
+
+    private static CocheLectura lectura(Coche coche) {
+        Long concesionarioId = coche.getConcesionario() != null ? coche.getConcesionario().getId() : null;
+        return new CocheLectura(coche.getId(), coche.getVersion(), coche.getPotencia(), coche.getMarca(),
+                coche.isEncendido(), concesionarioId);
+    }
+}
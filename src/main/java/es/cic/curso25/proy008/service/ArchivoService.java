@@ -0,0 +1,328 @@
+package es.cic.curso25.proy008.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.cic.curso25.proy008.event.CocheBorradoEvent;
+import es.cic.curso25.proy008.event.MotoBorradaEvent;
+import es.cic.curso25.proy008.model.CocheArchivado;
+import es.cic.curso25.proy008.repository.CocheArchivadoRepository;
+import es.cic.curso25.proy008.repository.MotoArchivadaRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Servicio del archivo de vehículos borrados ({@code coche_archivo} y
+ * {@code moto_archivo}).
+ * <p>
+ * Los borrados individuales de {@link CocheService} y {@link MotoService}
+ * publican un evento; tras el commit se encola aquí una copia de la fila y
+ * se vuelca al archivo por lotes JDBC, fuera de la transacción del borrado:
+ * <ul>
+ *   <li>cada {@code proy008.archivo.intervalo} ms (tarea programada);</li>
+ *   <li>en cuanto hay {@code proy008.archivo.lote} filas pendientes, en el
+ *       {@code archivoExecutor};</li>
+ *   <li>al parar la aplicación.</li>
+ * </ul>
+ * Si la aplicación cae entre el commit y el volcado esas filas no se
+ * archivan. Los borrados masivos no pasan por aquí: archivan con
+ * {@code INSERT ... SELECT} en su propia transacción.
+ * </p>
+ * <p>
+ * Si un lote falla se reintenta fila a fila, para que una fila mala (un id
+ * ya archivado, por ejemplo) no bloquee a las demás. Una fila que falla
+ * {@code proy008.archivo.intentos} veces se descarta: se deja en el log con
+ * sus datos y se cuenta en {@code proy008.archivo.descartadas}.
+ * </p>
+ * <p>
+ * La compactación programada purga, por lotes, lo archivado hace más de
+ * {@code proy008.archivo.retencion}. Los volcados se serializan con un
+ * {@link ReentrantLock}, no con {@code synchronized}, para no fijar hilos
+ * virtuales durante la E/S.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class ArchivoService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ArchivoService.class);
+
+    private static final String INSERT_COCHE = "INSERT INTO coche_archivo "
+            + "(id, potencia, marca, concesionario_id, archivado_en) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String INSERT_MOTO = "INSERT INTO moto_archivo "
+            + "(id, potencia, marca, tipo, archivado_en) VALUES (?, ?, ?, ?, ?)";
+
+    private final BlockingQueue<Pendiente<CocheBorradoEvent>> coches = new LinkedBlockingQueue<>();
+
+    private final BlockingQueue<Pendiente<MotoBorradaEvent>> motos = new LinkedBlockingQueue<>();
+
+    private final ReentrantLock volcado = new ReentrantLock();
+
+    private final CocheArchivadoRepository cocheArchivadoRepository;
+
+    private final MotoArchivadaRepository motoArchivadaRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TaskExecutor archivoExecutor;
+
+    private final int lote;
+
+    private final Duration retencion;
+
+    private final int intentos;
+
+    private final Counter descartadas;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param cocheArchivadoRepository Repositorio de {@code coche_archivo}.
+     * @param motoArchivadaRepository  Repositorio de {@code moto_archivo}.
+     * @param jdbcTemplate             Acceso JDBC para los lotes.
+     * @param transactionManager       Gestor de transacciones de cada lote.
+     * @param archivoExecutor          Ejecutor de los volcados por lote lleno.
+     * @param lote                     Filas por lote.
+     * @param retencion                Antigüedad máxima de lo archivado.
+     * @param intentos                 Intentos de cada fila antes de descartarla.
+     * @param meterRegistry            Registro de métricas, si existe.
+     */
+    public ArchivoService(CocheArchivadoRepository cocheArchivadoRepository,
+            MotoArchivadaRepository motoArchivadaRepository, JdbcTemplate jdbcTemplate,
+            PlatformTransactionManager transactionManager,
+            @Qualifier("archivoExecutor") TaskExecutor archivoExecutor,
+            @Value("${proy008.archivo.lote:500}") int lote,
+            @Value("${proy008.archivo.retencion:365d}") Duration retencion,
+            @Value("${proy008.archivo.intentos:5}") int intentos,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.cocheArchivadoRepository = cocheArchivadoRepository;
+        this.motoArchivadaRepository = motoArchivadaRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivoExecutor = archivoExecutor;
+        this.lote = lote;
+        this.retencion = retencion;
+        this.intentos = intentos;
+        this.descartadas = Counter.builder("proy008.archivo.descartadas")
+            .description("Filas descartadas del archivo tras agotar los intentos")
+            .register(meterRegistry.getIfAvailable(SimpleMeterRegistry::new));
+    }
+
+    /**
+     * Encola el coche borrado una vez confirmado el borrado.
+     *
+     * @param evento Copia del coche borrado.
+     */
+    @TransactionalEventListener
+    public void onCocheBorrado(CocheBorradoEvent evento) {
+        encolar(coches, evento);
+    }
+
+    /**
+     * Encola la moto borrada una vez confirmado el borrado.
+     *
+     * @param evento Copia de la moto borrada.
+     */
+    @TransactionalEventListener
+    public void onMotoBorrada(MotoBorradaEvent evento) {
+        encolar(motos, evento);
+    }
+
+    /**
+     * Consulta el archivo de coches, del más reciente al más antiguo.
+     *
+     * @param concesionarioId Concesionario al que pertenecían, o {@code null}.
+     * @param desde           Archivados desde este instante, o {@code null}.
+     * @param hasta           Archivados antes de este instante, o {@code null}.
+     * @param limite          Número máximo de resultados.
+     * @return coches archivados.
+     */
+    @Transactional(readOnly = true)
+    public List<CocheArchivado> getCoches(Long concesionarioId, Instant desde, Instant hasta, int limite) {
+        LOGGER.info("Consultando el archivo de coches del concesionario {} entre {} y {}",
+                concesionarioId, desde, hasta);
+        return cocheArchivadoRepository.buscar(concesionarioId, desde, hasta, PageRequest.of(0, limite));
+    }
+
+    /**
+     * Número de filas encoladas que aún no se han escrito en el archivo.
+     *
+     * @return filas pendientes.
+     */
+    public int getPendientes() {
+        return coches.size() + motos.size();
+    }
+
+    /**
+     * Vuelca ahora todo lo pendiente, esperando a un volcado en curso.
+     *
+     * @return filas escritas en el archivo.
+     */
+    public int vaciar() {
+        volcado.lock();
+        try {
+            return volcar();
+        } finally {
+            volcado.unlock();
+        }
+    }
+
+    /**
+     * Volcado periódico; si ya hay uno en curso no hace nada.
+     */
+    @Scheduled(fixedDelayString = "${proy008.archivo.intervalo:1000}")
+    public void vaciarPeriodicamente() {
+        if (volcado.tryLock()) {
+            try {
+                volcar();
+            } finally {
+                volcado.unlock();
+            }
+        }
+    }
+
+    /**
+     * Compactación programada del archivo.
+     */
+    @Scheduled(cron = "${proy008.archivo.compactacion:0 0 3 * * *}")
+    public void compactarPeriodicamente() {
+        compactar(Instant.now().minus(retencion));
+    }
+
+    /**
+     * Vuelca lo pendiente y purga, en lotes de {@code proy008.archivo.lote}
+     * filas, lo archivado antes de {@code limite}.
+     *
+     * @param limite Instante de corte.
+     * @return filas purgadas de ambas tablas.
+     */
+    public int compactar(Instant limite) {
+        vaciar();
+        int purgados = 0;
+        int borrados;
+        do {
+            borrados = cocheArchivadoRepository.purgarAnteriores(limite, lote);
+            purgados += borrados;
+        } while (borrados == lote);
+        do {
+            borrados = motoArchivadaRepository.purgarAnteriores(limite, lote);
+            purgados += borrados;
+        } while (borrados == lote);
+        LOGGER.info("Compactado el archivo: {} filas anteriores a {} purgadas", purgados, limite);
+        return purgados;
+    }
+
+    /**
+     * Último volcado al parar, antes de cerrar el {@code DataSource}.
+     */
+    @PreDestroy
+    public void cerrar() {
+        vaciar();
+    }
+
+    private <E> void encolar(BlockingQueue<Pendiente<E>> cola, E evento) {
+        cola.add(new Pendiente<>(evento, Instant.now(), 0));
+        if (cola.size() >= lote) {
+            archivoExecutor.execute(this::vaciarPeriodicamente);
+        }
+    }
+
+    private int volcar() {
+        return volcar(coches, INSERT_COCHE, p -> new Object[] { p.evento().id(), p.evento().potencia(),
+                p.evento().marca(), p.evento().concesionarioId(), Timestamp.from(p.archivadoEn()) })
+                + volcar(motos, INSERT_MOTO, p -> new Object[] { p.evento().id(), p.evento().potencia(),
+                        p.evento().marca(), p.evento().tipo(), Timestamp.from(p.archivadoEn()) });
+    }
+
+    /**
+     * Escribe la cola en lotes de {@code lote} filas, cada uno en su
+     * transacción. Si un lote falla se escribe fila a fila y se deja el
+     * resto de la cola para el siguiente volcado.
+     */
+    private <E> int volcar(BlockingQueue<Pendiente<E>> cola, String sql,
+            Function<Pendiente<E>, Object[]> fila) {
+        int escritos = 0;
+        List<Pendiente<E>> pendientes = new ArrayList<>(Math.min(lote, cola.size()));
+        while (cola.drainTo(pendientes, lote) > 0) {
+            List<Object[]> filas = pendientes.stream().map(fila).toList();
+            try {
+                transactionTemplate.executeWithoutResult(estado -> jdbcTemplate.batchUpdate(sql, filas));
+            } catch (DataAccessException e) {
+                LOGGER.warn("No se pudo archivar un lote de {} filas; se archivan una a una: {}",
+                        pendientes.size(), e.getMessage());
+                return escritos + volcarUnaAUna(cola, sql, fila, pendientes);
+            }
+            escritos += pendientes.size();
+            pendientes.clear();
+        }
+        if (escritos > 0) {
+            LOGGER.debug("Archivadas {} filas", escritos);
+        }
+        return escritos;
+    }
+
+    /**
+     * Escribe cada fila de un lote fallido en su transacción. Las que fallan
+     * vuelven a la cola hasta agotar sus intentos; entonces se descartan.
+     */
+    private <E> int volcarUnaAUna(BlockingQueue<Pendiente<E>> cola, String sql,
+            Function<Pendiente<E>, Object[]> fila, List<Pendiente<E>> pendientes) {
+        int escritos = 0;
+        for (Pendiente<E> pendiente : pendientes) {
+            try {
+                transactionTemplate.executeWithoutResult(estado -> jdbcTemplate.update(sql, fila.apply(pendiente)));
+                escritos++;
+            } catch (DataAccessException e) {
+                if (pendiente.intentos() + 1 >= intentos) {
+                    LOGGER.error("Descartada del archivo tras {} intentos: {}", intentos, pendiente.evento(), e);
+                    descartadas.increment();
+                } else {
+                    cola.add(pendiente.reintento());
+                }
+            }
+        }
+        return escritos;
+    }
+
+    /**
+     * Fila pendiente de archivar con el instante del borrado y los intentos
+     * fallidos.
+     */
+    private record Pendiente<E>(E evento, Instant archivadoEn, int intentos) {
+
+        Pendiente<E> reintento() {
+            return new Pendiente<>(evento, archivadoEn, intentos + 1);
+        }
+    }
+}
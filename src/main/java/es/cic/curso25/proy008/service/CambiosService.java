@@ -0,0 +1,172 @@
+package es.cic.curso25.proy008.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import org.hibernate.engine.spi.SessionImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.cic.curso25.proy008.cambios.SecuenciaCambios;
+import es.cic.curso25.proy008.dto.Cambio;
+import es.cic.curso25.proy008.dto.CocheLectura;
+import es.cic.curso25.proy008.dto.MotoLectura;
+import es.cic.curso25.proy008.dto.PaginaCambios;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Lapida;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.LapidaRepository;
+import es.cic.curso25.proy008.repository.MotoRepository;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Servicio de la secuencia de cambios de coches y motos.
+ * <p>
+ * Cada alta y modificación deja su número en la columna {@code secuencia} y
+ * cada borrado una {@link Lapida} (ver {@code CambiosListener}). Una página
+ * de cambios son las filas con secuencia entre el token del cliente y el
+ * horizonte de {@link SecuenciaCambios}, así que su coste depende de los
+ * cambios y no del tamaño de las tablas.
+ * </p>
+ * <p>
+ * Los borrados masivos no pasan por Hibernate: los servicios llaman aquí
+ * antes del {@code DELETE} para dejar las lápidas con un
+ * {@code INSERT ... SELECT}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@Transactional
+public class CambiosService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CambiosService.class);
+
+    private final CocheRepository cocheRepository;
+
+    private final MotoRepository motoRepository;
+
+    private final LapidaRepository lapidaRepository;
+
+    private final SecuenciaCambios secuenciaCambios;
+
+    private final EntityManager entityManager;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param cocheRepository  Repositorio de coches.
+     * @param motoRepository   Repositorio de motos.
+     * @param lapidaRepository Repositorio de lápidas.
+     * @param secuenciaCambios Reparto de la secuencia y horizonte de lectura.
+     * @param entityManager    Contexto de persistencia de la transacción.
+     */
+    public CambiosService(CocheRepository cocheRepository, MotoRepository motoRepository,
+            LapidaRepository lapidaRepository, SecuenciaCambios secuenciaCambios, EntityManager entityManager) {
+        this.cocheRepository = cocheRepository;
+        this.motoRepository = motoRepository;
+        this.lapidaRepository = lapidaRepository;
+        this.secuenciaCambios = secuenciaCambios;
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Cambios posteriores a {@code desde}, en orden de secuencia.
+     * <p>
+     * Se lee del primario (no es {@code readOnly}): en una réplica con
+     * retraso podría faltar un cambio que el horizonte ya da por confirmado.
+     * </p>
+     *
+     * @param desde  Token de la página anterior; {@code 0} la primera vez.
+     * @param limite Máximo de cambios.
+     * @return página de cambios con el token siguiente.
+     */
+    public PaginaCambios getCambios(long desde, int limite) {
+        long horizonte = secuenciaCambios.getHorizonte(sesion());
+        LOGGER.info("Consultando cambios entre {} y {}", desde, horizonte);
+
+        // Uno de más para saber si quedan cambios
+        Pageable pagina = PageRequest.of(0, limite + 1);
+        List<Cambio> cambios = new ArrayList<>();
+        for (Coche coche : cocheRepository.findCambios(desde, horizonte, pagina)) {
+            cambios.add(new Cambio(coche.getSecuencia(), "Coche", coche.getId(), false,
+                    new CocheLectura(coche.getId(), coche.getVersion(), coche.getPotencia(), coche.getMarca(),
+                            coche.isEncendido(), coche.getConcesionario().getId())));
+        }
+        for (Moto moto : motoRepository.findCambios(desde, horizonte, pagina)) {
+            cambios.add(new Cambio(moto.getSecuencia(), "Moto", moto.getId(), false,
+                    new MotoLectura(moto.getId(), moto.getVersion(), moto.getPotencia(), moto.getMarca(),
+                            moto.isEncendido(), moto.getTipo())));
+        }
+        for (Lapida lapida : lapidaRepository.findCambios(desde, horizonte, pagina)) {
+            cambios.add(new Cambio(lapida.getSecuencia(), lapida.getEntidad(), lapida.getEntidadId(), true, null));
+        }
+        cambios.sort(Comparator.comparingLong(Cambio::secuencia));
+
+        boolean hayMas = cambios.size() > limite;
+        if (hayMas) {
+            cambios = cambios.subList(0, limite);
+        }
+        long token = cambios.isEmpty() ? desde : cambios.get(cambios.size() - 1).secuencia();
+        return new PaginaCambios(List.copyOf(cambios), token, hayMas);
+    }
+
+    /**
+     * Deja las lápidas de los coches de un concesionario que se va a borrar.
+     *
+     * @param concesionarioId Identificador del concesionario.
+     * @return lápidas escritas.
+     */
+    public int lapidarCochesDeConcesionario(Long concesionarioId) {
+        SessionImplementor sesion = abrirLapidado();
+        int lapidas = lapidaRepository.lapidarCochesDeConcesionario(concesionarioId);
+        secuenciaCambios.saltarBloque(sesion);
+        return lapidas;
+    }
+
+    /**
+     * Deja las lápidas de todas las motos.
+     *
+     * @return lápidas escritas.
+     */
+    public int lapidarMotos() {
+        SessionImplementor sesion = abrirLapidado();
+        int lapidas = lapidaRepository.lapidarMotos();
+        secuenciaCambios.saltarBloque(sesion);
+        return lapidas;
+    }
+
+    /**
+     * Deja las lápidas de las motos que tienen motorista.
+     *
+     * @return lápidas escritas.
+     */
+    public int lapidarMotosConMotorista() {
+        SessionImplementor sesion = abrirLapidado();
+        int lapidas = lapidaRepository.lapidarMotosConMotorista();
+        secuenciaCambios.saltarBloque(sesion);
+        return lapidas;
+    }
+
+    /**
+     * Registra el suelo de la transacción antes de que la BBDD tome números
+     * de la secuencia por su cuenta.
+     */
+    private SessionImplementor abrirLapidado() {
+        SessionImplementor sesion = sesion();
+        secuenciaCambios.siguiente(sesion);
+        return sesion;
+    }
+
+    private SessionImplementor sesion() {
+        return entityManager.unwrap(SessionImplementor.class);
+    }
+}
@@ -1,16 +1,26 @@
 package es.cic.curso25.proy008.service;
 
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import es.cic.curso25.proy008.dto.EstadoHistorico;
+import es.cic.curso25.proy008.enums.TipoCambio;
+import es.cic.curso25.proy008.event.CocheBorradoEvent;
+import es.cic.curso25.proy008.event.CocheCambiadoEvent;
 import es.cic.curso25.proy008.exception.ModificationSecurityException;
 import es.cic.curso25.proy008.exception.CocheException;
 import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.repository.CocheArchivadoRepository;
 import es.cic.curso25.proy008.repository.CocheRepository;
-import jakarta.transaction.Transactional;
 
 /**
  * Servicio de negocio para la gestión de {@link Coche}.
@@ -20,8 +30,9 @@ import jakarta.transaction.Transactional;
  * creación, consulta, actualización y eliminación.
  * </p>
  * <p>
- * Cada método abre su propia transacción al invocar al repositorio
- * (no se utiliza @Transactional a nivel de clase).
+ * La clase es {@code @Transactional}: cada método público se ejecuta en una
+ * sola transacción, de modo que la lectura previa y el {@code save()} de una
+ * actualización comparten contexto de persistencia.
  * </p>
  * 
  * @author Pedro González
@@ -36,13 +47,40 @@ public class CocheService {
 
     private final CocheRepository cocheRepository;
 
+    private final CocheArchivadoRepository cocheArchivadoRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final HistorialService historialService;
+
+    private final OutboxService outboxService;
+
+    private final CambiosService cambiosService;
+
+    private final ExistenciaService existenciaService;
+
     /**
      * Constructor para inyección de dependencias.
      * 
-     * @param cocheRepository Repositorio JPA que gestiona la persistencia de {@link Coche}.
+     * @param cocheRepository          Repositorio JPA que gestiona la persistencia de {@link Coche}.
+     * @param cocheArchivadoRepository Repositorio del archivo de coches borrados.
+     * @param eventPublisher           Publicador del {@link CocheBorradoEvent} y
+     *                                 del {@link CocheCambiadoEvent}.
+     * @param historialService         Lectura del historial de cambios.
+     * @param outboxService            Registro del evento {@code CocheVendido}.
+     * @param cambiosService           Lápidas de los borrados masivos.
+     * @param existenciaService        Descarte de ids inexistentes sin consulta.
      */
-    public CocheService(CocheRepository cocheRepository) {
+    public CocheService(CocheRepository cocheRepository, CocheArchivadoRepository cocheArchivadoRepository,
+            ApplicationEventPublisher eventPublisher, HistorialService historialService,
+            OutboxService outboxService, CambiosService cambiosService, ExistenciaService existenciaService) {
         this.cocheRepository = cocheRepository;
+        this.cocheArchivadoRepository = cocheArchivadoRepository;
+        this.eventPublisher = eventPublisher;
+        this.historialService = historialService;
+        this.outboxService = outboxService;
+        this.cambiosService = cambiosService;
+        this.existenciaService = existenciaService;
     }
 
     /**
@@ -52,17 +90,45 @@ public class CocheService {
      * @return El {@link Coche} correspondiente al ID.
      * @throws CocheException Si no existe un coche con el ID indicado.
      */
+    @Transactional(readOnly = true)
     public Coche get(long id) {
         LOGGER.info("Buscando coche con id: {}", id);
         return cocheRepository.findById(id)
                 .orElseThrow(() -> new CocheException(id));
     }
 
+    /**
+     * Recupera un coche tal como estaba en una versión anterior.
+     *
+     * @param id      Identificador del coche.
+     * @param version Versión a reconstruir.
+     * @return estado del coche en esa versión.
+     * @throws es.cic.curso25.proy008.exception.HistorialException Si no hay historial de esa versión.
+     */
+    @Transactional(readOnly = true)
+    public EstadoHistorico get(long id, long version) {
+        return historialService.getEstado(Coche.class, id, version);
+    }
+
+    /**
+     * Recupera un coche tal como estaba en un instante.
+     *
+     * @param id       Identificador del coche.
+     * @param instante Instante de consulta.
+     * @return estado del coche en ese instante.
+     * @throws es.cic.curso25.proy008.exception.HistorialException Si el coche no existía entonces.
+     */
+    @Transactional(readOnly = true)
+    public EstadoHistorico get(long id, Instant instante) {
+        return historialService.getEstado(Coche.class, id, instante);
+    }
+
     /**
      * Obtiene el listado completo de coches.
      * 
      * @return Lista de todas las entidades {@link Coche} existentes.
      */
+    @Transactional(readOnly = true)
     public List<Coche> get() {
         LOGGER.info("Obteniendo listado de coches");
         return cocheRepository.findAll();
@@ -74,6 +140,10 @@ public class CocheService {
      * Regla de negocio: no se permite crear un coche que ya incluya un ID,
      * ya que ello implicaría una modificación encubierta.
      * </p>
+     * <p>
+     * En la misma transacción se registra el evento {@code CocheVendido} en
+     * el outbox.
+     * </p>
      * 
      * @param coche Entidad {@link Coche} a crear; debe tener {@code id == null}.
      * @return La entidad {@link Coche} recién persistida, con su ID generado.
@@ -86,7 +156,15 @@ public class CocheService {
                 "No se puede crear un coche con id existente: " + coche.getId()
             );
         }
-        return cocheRepository.save(coche);
+        Coche creado = cocheRepository.save(coche);
+        Map<String, Object> carga = new LinkedHashMap<>();
+        carga.put("id", creado.getId());
+        carga.put("marca", creado.getMarca());
+        carga.put("potencia", creado.getPotencia());
+        carga.put("concesionarioId", concesionarioId(creado));
+        outboxService.registrar("CocheVendido", "Coche", creado.getId(), carga);
+        eventPublisher.publishEvent(new CocheCambiadoEvent(TipoCambio.CREADO, concesionarioId(creado), creado));
+        return creado;
     }
 
     /**
@@ -96,6 +174,11 @@ public class CocheService {
      * para mantener la semántica de UPDATE. Utiliza el control optimista
      * basado en el campo {@code @Version}.
      * </p>
+     * <p>
+     * Publica un {@link CocheCambiadoEvent}: {@code ENCENDIDO}/{@code APAGADO}
+     * si cambia el encendido, y {@code BORRADO} en el concesionario anterior
+     * más {@code CREADO} en el nuevo si cambia de concesionario.
+     * </p>
      * 
      * @param coche Entidad {@link Coche} con ID no nulo y datos modificados.
      * @throws ModificationSecurityException Si {@code coche.getId() == null}.
@@ -108,17 +191,56 @@ public class CocheService {
                 "Para actualizar es obligatorio enviar el id"
             );
         }
-        if (!cocheRepository.existsById(coche.getId())) {
+        if (existenciaService.descartar(Coche.class, coche.getId())) {
             throw new CocheException(coche.getId());
         }
-        cocheRepository.save(coche);
+        // Una sola lectura comprueba que existe y deja la fila cargada para el merge de save()
+        Coche anterior = cocheRepository.findById(coche.getId())
+                .orElseThrow(() -> {
+                    existenciaService.anotarFalsoPositivo(Coche.class);
+                    return new CocheException(coche.getId());
+                });
+        // El merge copia todos los campos: se conserva la clave de la fila
+        coche.setClave(anterior.getClave());
+        boolean encendidoAntes = anterior.isEncendido();
+        Long concesionarioAntes = concesionarioId(anterior);
+
+        Coche guardado = cocheRepository.save(coche);
+        Long concesionarioDespues = concesionarioId(coche);
+        if (!Objects.equals(concesionarioAntes, concesionarioDespues)) {
+            eventPublisher.publishEvent(new CocheCambiadoEvent(TipoCambio.BORRADO, concesionarioAntes, guardado));
+            eventPublisher.publishEvent(new CocheCambiadoEvent(TipoCambio.CREADO, concesionarioDespues, guardado));
+        } else if (encendidoAntes != coche.isEncendido()) {
+            eventPublisher.publishEvent(new CocheCambiadoEvent(
+                    coche.isEncendido() ? TipoCambio.ENCENDIDO : TipoCambio.APAGADO, concesionarioDespues, guardado));
+        } else {
+            eventPublisher.publishEvent(new CocheCambiadoEvent(TipoCambio.MODIFICADO, concesionarioDespues, guardado));
+        }
+    }
+
+    /**
+     * Elimina todos los coches de un concesionario con una sola sentencia,
+     * copiándolos antes al archivo y dejando sus lápidas con otras dos.
+     *
+     * @param concesionarioId Identificador del concesionario.
+     * @return número de coches borrados.
+     */
+    public int deleteByConcesionario(Long concesionarioId) {
+        LOGGER.info("Borrando los coches del concesionario con id: {}", concesionarioId);
+        cocheArchivadoRepository.archivarPorConcesionario(concesionarioId);
+        cambiosService.lapidarCochesDeConcesionario(concesionarioId);
+        int borrados = cocheRepository.deleteInBulkByConcesionarioId(concesionarioId);
+        eventPublisher.publishEvent(new CocheCambiadoEvent(TipoCambio.VACIADO, concesionarioId, null));
+        return borrados;
     }
 
     /**
      * Elimina un coche por su identificador.
      * <p>
      * Verifica la existencia previa del coche; si no existe,
-     * lanza {@link CocheException}.
+     * lanza {@link CocheException}. Publica un {@link CocheBorradoEvent}
+     * para que {@link ArchivoService} lo archive tras el commit y un
+     * {@link CocheCambiadoEvent} para el inventario en vivo.
      * </p>
      * 
      * @param id Identificador del coche a eliminar.
@@ -126,9 +248,21 @@ public class CocheService {
      */
     public void delete(long id) {
         LOGGER.info("Borrando coche con id: {}", id);
-        if (!cocheRepository.existsById(id)) {
+        if (existenciaService.descartar(Coche.class, id)) {
             throw new CocheException(id);
         }
-        cocheRepository.deleteById(id);
+        Coche coche = cocheRepository.findById(id)
+                .orElseThrow(() -> {
+                    existenciaService.anotarFalsoPositivo(Coche.class);
+                    return new CocheException(id);
+                });
+        cocheRepository.delete(coche);
+        eventPublisher.publishEvent(new CocheBorradoEvent(coche.getId(), coche.getPotencia(), coche.getMarca(),
+                concesionarioId(coche)));
+        eventPublisher.publishEvent(new CocheCambiadoEvent(TipoCambio.BORRADO, concesionarioId(coche), coche));
+    }
+
+    private static Long concesionarioId(Coche coche) {
+        return coche.getConcesionario() != null ? coche.getConcesionario().getId() : null;
     }
 }
@@ -5,12 +5,19 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import es.cic.curso25.proy008.enums.TipoCambio;
+import es.cic.curso25.proy008.event.CocheCambiadoEvent;
 import es.cic.curso25.proy008.exception.ConcesionarioException;
+import es.cic.curso25.proy008.exception.ModificationSecurityException;
+import es.cic.curso25.proy008.model.Coche;
 import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.repository.CocheArchivadoRepository;
+import es.cic.curso25.proy008.repository.CocheRepository;
 import es.cic.curso25.proy008.repository.ConcesionarioRepository;
-import jakarta.transaction.Transactional;
 
 /**
  * Servicio de negocio para la gestión de concesionarios.
@@ -32,6 +39,21 @@ public class ConcesionarioService {
     @Autowired
     private ConcesionarioRepository concesionarioRepository;
 
+    @Autowired
+    private CocheRepository cocheRepository;
+
+    @Autowired
+    private CocheArchivadoRepository cocheArchivadoRepository;
+
+    @Autowired
+    private CocheService cocheService;
+
+    @Autowired
+    private CambiosService cambiosService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     /**
      * Recupera un concesionario por su identificador.
      *
@@ -39,6 +61,7 @@ public class ConcesionarioService {
      * @return El {@link Concesionario} correspondiente al ID proporcionado.
      * @throws ConcesionarioException Si no existe un concesionario con el ID indicado.
      */
+    @Transactional(readOnly = true)
     public Concesionario get(Long id) {
         LOGGER.info("Buscando el concesionario con id: {}", id);
         return concesionarioRepository.findById(id)
@@ -50,11 +73,46 @@ public class ConcesionarioService {
      *
      * @return Colección de todas las entidades {@link Concesionario} almacenadas.
      */
+    @Transactional(readOnly = true)
     public List<Concesionario> get() {
         LOGGER.info("Buscando todos los concesionarios");
         return concesionarioRepository.findAll();
     }
 
+    /**
+     * Cuenta los coches de un concesionario sin cargar su colección.
+     *
+     * @param id Identificador del concesionario.
+     * @return número de coches asociados.
+     * @throws ConcesionarioException Si no existe un concesionario con el ID indicado.
+     */
+    @Transactional(readOnly = true)
+    public int getNumeroCoches(Long id) {
+        LOGGER.info("Contando los coches del concesionario con id: {}", id);
+        return get(id).getNumeroCoches();
+    }
+
+    /**
+     * Añade un coche nuevo a un concesionario existente.
+     * <p>
+     * Solo se lee la fila del concesionario; su colección de coches no se
+     * inicializa, por grande que sea. El alta la hace
+     * {@link CocheService#create(Coche)}, que registra también el evento
+     * {@code CocheVendido} en el outbox.
+     * </p>
+     *
+     * @param id    Identificador del concesionario.
+     * @param coche Coche a crear; debe tener {@code id == null}.
+     * @return El {@link Coche} recién persistido, con su ID generado.
+     * @throws ModificationSecurityException Si {@code coche.getId() != null}.
+     * @throws ConcesionarioException        Si no existe un concesionario con el ID indicado.
+     */
+    public Coche addCoche(Long id, Coche coche) {
+        LOGGER.info("Añadiendo un coche al concesionario con id: {}", id);
+        get(id).addCoche(coche);
+        return cocheService.create(coche);
+    }
+
     /**
      * Crea un nuevo concesionario en la base de datos.
      *
@@ -75,16 +133,33 @@ public class ConcesionarioService {
      */
     public Concesionario update(Concesionario concesionario) {
         LOGGER.info("Actualizando el concesionario con id: {}", concesionario.getId());
+        if (concesionario.getId() != null) {
+            // El merge lo leería igualmente; cargado antes, se conserva la clave de la fila
+            concesionarioRepository.findById(concesionario.getId())
+                    .ifPresent(guardado -> concesionario.setClave(guardado.getClave()));
+        }
         return concesionarioRepository.save(concesionario);
     }
 
     /**
-     * Elimina un concesionario por su identificador.
+     * Elimina un concesionario por su identificador junto con sus coches.
+     * <p>
+     * Equivale al {@code cascade}/{@code orphanRemoval} de la colección, pero
+     * con dos sentencias DELETE: primero los coches (tienen la clave ajena) y
+     * después el concesionario, sin cargar ninguno en memoria. Los coches se
+     * copian antes al archivo, y se dejan sus lápidas para
+     * {@code GET /cambios}, con sendos {@code INSERT ... SELECT}.
+     * </p>
      *
      * @param id Identificador del concesionario a borrar.
      */
     public void delete(Long id) {
         LOGGER.info("Eliminando concesionario con id: {}", id);
-        concesionarioRepository.deleteById(id);
+        cocheArchivadoRepository.archivarPorConcesionario(id);
+        cambiosService.lapidarCochesDeConcesionario(id);
+        int coches = cocheRepository.deleteInBulkByConcesionarioId(id);
+        concesionarioRepository.deleteInBulkById(id);
+        eventPublisher.publishEvent(new CocheCambiadoEvent(TipoCambio.VACIADO, id, null));
+        LOGGER.info("Eliminado el concesionario {} y sus {} coches", id, coches);
     }
 }
@@ -0,0 +1,210 @@
+package es.cic.curso25.proy008.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.cic.curso25.proy008.dto.ConcesionarioTop;
+import es.cic.curso25.proy008.dto.Dashboard;
+import es.cic.curso25.proy008.exception.SobrecargaException;
+import es.cic.curso25.proy008.exception.TiempoAgotadoException;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import es.cic.curso25.proy008.repository.MotoRepository;
+import es.cic.curso25.proy008.repository.MotoristaRepository;
+
+/**
+ * Servicio que compone el resumen de {@code GET /dashboard}.
+ * <p>
+ * Las siete consultas son independientes, así que se lanzan a la vez en el
+ * {@code dashboardExecutor}, cada una en su propia transacción de solo
+ * lectura, y se combinan al terminar la última. El tiempo de respuesta es
+ * el de la consulta más lenta y no la suma de todas.
+ * </p>
+ * <p>
+ * Si el resumen no está en {@code proy008.dashboard.timeout} se cancelan
+ * las consultas pendientes (las que están en marcha se interrumpen y las
+ * que esperan en la cola ya no se ejecutan) y se lanza
+ * {@link TiempoAgotadoException}, que se responde con un 503. Las
+ * transacciones de lectura llevan además ese mismo tiempo como límite, para
+ * que la BBDD corte las consultas que no atiendan la interrupción.
+ * </p>
+ * <p>
+ * Si el ejecutor, con su cola llena, rechaza alguna consulta, se cancelan
+ * las ya lanzadas y se lanza {@link SobrecargaException}, que también se
+ * responde con un 503.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(DashboardService.class);
+
+    private final ConcesionarioRepository concesionarioRepository;
+
+    private final CocheRepository cocheRepository;
+
+    private final MotoRepository motoRepository;
+
+    private final MotoristaRepository motoristaRepository;
+
+    private final TaskExecutor dashboardExecutor;
+
+    private final TransactionTemplate lectura;
+
+    private final int tamanoTop;
+
+    private final Duration timeout;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param concesionarioRepository Repositorio de concesionarios.
+     * @param cocheRepository         Repositorio de coches.
+     * @param motoRepository          Repositorio de motos.
+     * @param motoristaRepository     Repositorio de motoristas.
+     * @param dashboardExecutor       Ejecutor dedicado a las consultas.
+     * @param transactionManager      Gestor de transacciones JPA.
+     * @param tamanoTop               Número de concesionarios del ranking.
+     * @param timeout                 Tiempo máximo para componer el resumen.
+     */
+    public DashboardService(ConcesionarioRepository concesionarioRepository,
+            CocheRepository cocheRepository,
+            MotoRepository motoRepository,
+            MotoristaRepository motoristaRepository,
+            @Qualifier("dashboardExecutor") TaskExecutor dashboardExecutor,
+            PlatformTransactionManager transactionManager,
+            @Value("${proy008.dashboard.top:5}") int tamanoTop,
+            @Value("${proy008.dashboard.timeout:5s}") Duration timeout) {
+        this.concesionarioRepository = concesionarioRepository;
+        this.cocheRepository = cocheRepository;
+        this.motoRepository = motoRepository;
+        this.motoristaRepository = motoristaRepository;
+        this.dashboardExecutor = dashboardExecutor;
+        this.lectura = new TransactionTemplate(transactionManager);
+        this.lectura.setReadOnly(true);
+        this.lectura.setTimeout((int) Math.max(1, timeout.toSeconds()));
+        this.tamanoTop = tamanoTop;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Calcula el resumen del dashboard.
+     *
+     * @return {@link Dashboard} con recuentos, ranking y encendidos.
+     * @throws TiempoAgotadoException Si no se compone a tiempo.
+     * @throws SobrecargaException    Si el ejecutor no admite las consultas.
+     */
+    public Dashboard get() {
+        LOGGER.info("Componiendo dashboard");
+
+        List<CompletableFuture<?>> consultas = new ArrayList<>();
+        CompletableFuture<Long> concesionarios;
+        CompletableFuture<Long> coches;
+        CompletableFuture<Long> motos;
+        CompletableFuture<Long> motoristas;
+        CompletableFuture<Long> cochesEncendidos;
+        CompletableFuture<Long> motosEncendidas;
+        CompletableFuture<List<ConcesionarioTop>> top;
+        try {
+            concesionarios = enParalelo(consultas, concesionarioRepository::count);
+            coches = enParalelo(consultas, cocheRepository::count);
+            motos = enParalelo(consultas, motoRepository::count);
+            motoristas = enParalelo(consultas, motoristaRepository::count);
+            cochesEncendidos = enParalelo(consultas, cocheRepository::countByEncendidoTrue);
+            motosEncendidas = enParalelo(consultas, motoRepository::countByEncendidoTrue);
+            top = enParalelo(consultas,
+                    () -> cocheRepository.findTopConcesionarios(PageRequest.of(0, tamanoTop)));
+        } catch (RejectedExecutionException e) {
+            // TaskRejectedException de Spring incluida: sin el resto el resumen no sirve
+            cancelar(consultas);
+            LOGGER.warn("Dashboard descartado: el ejecutor rechazó una consulta ({} lanzadas)", consultas.size());
+            throw new SobrecargaException("El dashboard no admite más consultas en este momento");
+        }
+
+        try {
+            return CompletableFuture.allOf(consultas.toArray(CompletableFuture[]::new))
+                    .thenApply(ignorado -> new Dashboard(
+                            concesionarios.join(),
+                            coches.join(),
+                            motos.join(),
+                            motoristas.join(),
+                            cochesEncendidos.join(),
+                            motosEncendidas.join(),
+                            top.join()))
+                    .orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                    .join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof TimeoutException) {
+                cancelar(consultas);
+                LOGGER.warn("Dashboard cancelado: no se compuso en {} ms", timeout.toMillis());
+                throw new TiempoAgotadoException("El dashboard no se compuso en " + timeout.toMillis() + " ms");
+            }
+            if (e.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            throw e;
+        }
+    }
+
+    private static void cancelar(List<CompletableFuture<?>> consultas) {
+        for (CompletableFuture<?> consulta : consultas) {
+            consulta.cancel(true);
+        }
+    }
+
+    /**
+     * Lanza una consulta en el ejecutor y, si la admite, añade su futuro a
+     * {@code consultas}. Cancelar el futuro devuelto cancela la tarea:
+     * {@code CompletableFuture.cancel} por sí solo no la interrumpe ni la
+     * saca de la cola.
+     *
+     * @throws RejectedExecutionException Si el ejecutor no admite la tarea.
+     */
+    private <T> CompletableFuture<T> enParalelo(List<CompletableFuture<?>> consultas, Supplier<T> consulta) {
+        CompletableFuture<T> resultado = new CompletableFuture<>();
+        FutureTask<T> tarea = new FutureTask<>(() -> lectura.execute(estado -> consulta.get())) {
+            @Override
+            protected void done() {
+                try {
+                    resultado.complete(get());
+                } catch (ExecutionException e) {
+                    resultado.completeExceptionally(e.getCause());
+                } catch (CancellationException | InterruptedException e) {
+                    resultado.cancel(false);
+                }
+            }
+        };
+        resultado.whenComplete((valor, error) -> {
+            if (resultado.isCancelled()) {
+                tarea.cancel(true);
+            }
+        });
+        dashboardExecutor.execute(tarea);
+        consultas.add(resultado);
+        return resultado;
+    }
+}
@@ -0,0 +1,147 @@
+package es.cic.curso25.proy008.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.cic.curso25.proy008.existencia.ExistenciaListener;
+import es.cic.curso25.proy008.existencia.FiltroExistencia;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.model.Motorista;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.MotoRepository;
+import es.cic.curso25.proy008.repository.MotoristaRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Comprobación previa de existencia para {@code update} y {@code delete}.
+ * <p>
+ * Antes de ir a la BBDD los servicios preguntan a {@link #descartar}: si el
+ * id no está en el {@link FiltroExistencia} de la entidad, no existe y se
+ * lanza la excepción de «no encontrado» sin consulta. Si está, se consulta
+ * como siempre, y si la BBDD no lo encuentra se anota un falso positivo
+ * con {@link #anotarFalsoPositivo}.
+ * </p>
+ * <p>
+ * Los filtros se recargan al arrancar y cada
+ * {@code proy008.existencia.recarga} milisegundos, lo que limpia los falsos
+ * positivos de los borrados masivos.
+ * </p>
+ * <p>
+ * Métricas publicadas (etiqueta {@code entidad}):
+ * <ul>
+ *   <li>{@code proy008.existencia.descartados} – ids descartados sin consultar.</li>
+ *   <li>{@code proy008.existencia.falsos.positivos} – ids que el filtro daba por posibles y no existían.</li>
+ *   <li>{@code proy008.existencia.ids} – ids en el filtro.</li>
+ * </ul>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class ExistenciaService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExistenciaService.class);
+
+    private final ExistenciaListener existenciaListener;
+
+    private final Map<Class<?>, Supplier<List<Long>>> lecturas;
+
+    private final MeterRegistry meterRegistry;
+
+    private final boolean habilitado;
+
+    // Una recarga a la vez: la programada puede coincidir con una manual
+    private final ReentrantLock recarga = new ReentrantLock();
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param existenciaListener  Listener con los filtros.
+     * @param cocheRepository     Repositorio de coches.
+     * @param motoRepository      Repositorio de motos.
+     * @param motoristaRepository Repositorio de motoristas.
+     * @param meterRegistry       Registro de métricas, si existe.
+     * @param habilitado          Si se descartan ids sin consultar.
+     */
+    public ExistenciaService(ExistenciaListener existenciaListener, CocheRepository cocheRepository,
+            MotoRepository motoRepository, MotoristaRepository motoristaRepository,
+            ObjectProvider<MeterRegistry> meterRegistry,
+            @Value("${proy008.existencia.habilitado:true}") boolean habilitado) {
+        this.existenciaListener = existenciaListener;
+        this.lecturas = Map.of(
+                Coche.class, cocheRepository::findAllIds,
+                Moto.class, motoRepository::findAllIds,
+                Motorista.class, motoristaRepository::findAllIds);
+        this.meterRegistry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.habilitado = habilitado;
+        lecturas.keySet().forEach(entidad ->
+            Gauge.builder("proy008.existencia.ids", existenciaListener.getFiltro(entidad), FiltroExistencia::getTamano)
+                .tag("entidad", entidad.getSimpleName())
+                .description("Ids en el filtro de existencia")
+                .register(this.meterRegistry));
+    }
+
+    /**
+     * @param entidad Entidad consultada.
+     * @param id      Id a comprobar.
+     * @return {@code true} si el id seguro que no existe y puede responderse
+     *         «no encontrado» sin consultar la BBDD.
+     */
+    public boolean descartar(Class<?> entidad, Long id) {
+        FiltroExistencia filtro = existenciaListener.getFiltro(entidad);
+        if (!habilitado || id == null || filtro == null || filtro.puedeExistir(id)) {
+            return false;
+        }
+        meterRegistry.counter("proy008.existencia.descartados", "entidad", entidad.getSimpleName()).increment();
+        LOGGER.debug("{} {} descartado sin consultar", entidad.getSimpleName(), id);
+        return true;
+    }
+
+    /**
+     * Anota que la BBDD no encontró un id que el filtro daba por posible.
+     *
+     * @param entidad Entidad consultada.
+     */
+    public void anotarFalsoPositivo(Class<?> entidad) {
+        FiltroExistencia filtro = existenciaListener.getFiltro(entidad);
+        if (habilitado && filtro != null && filtro.isListo()) {
+            meterRegistry.counter("proy008.existencia.falsos.positivos", "entidad", entidad.getSimpleName())
+                .increment();
+        }
+    }
+
+    /**
+     * Recarga los filtros desde la BBDD (solo ids).
+     */
+    @Scheduled(fixedDelayString = "${proy008.existencia.recarga:600000}")
+    @Transactional
+    public void recargar() {
+        recarga.lock();
+        try {
+            lecturas.forEach((entidad, lectura) -> {
+                FiltroExistencia filtro = existenciaListener.getFiltro(entidad);
+                filtro.empezarRecarga();
+                List<Long> ids = lectura.get();
+                filtro.terminarRecarga(ids, existenciaListener.getPendientes(entidad));
+                LOGGER.debug("Filtro de existencia de {} recargado: {} ids", entidad.getSimpleName(), ids.size());
+            });
+        } finally {
+            recarga.unlock();
+        }
+    }
+}
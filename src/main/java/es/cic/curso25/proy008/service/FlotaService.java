@@ -0,0 +1,167 @@
+package es.cic.curso25.proy008.service;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import es.cic.curso25.proy008.dto.CocheEncendido;
+import es.cic.curso25.proy008.enums.TipoCambio;
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+import es.cic.curso25.proy008.event.CocheCambiadoEvent;
+import es.cic.curso25.proy008.event.MotosBorradasEvent;
+import es.cic.curso25.proy008.flota.CambioEncendido;
+import es.cic.curso25.proy008.flota.EstadoEncendido;
+import es.cic.curso25.proy008.flota.IndiceEncendido;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.MotoRepository;
+
+/**
+ * Recarga desde la BBDD el {@link EstadoEncendido} del canal
+ * {@code /ws/flota} y el {@link IndiceEncendido}, y responde con este
+ * último a las consultas de vehículos encendidos.
+ * <p>
+ * El listener de Hibernate ve los cambios hechos con entidades, pero no
+ * los borrados masivos ni lo que escriban otras instancias. Los coches de
+ * un concesionario vaciado se apagan en memoria con el índice, que ya los
+ * tiene separados por concesionario; las motos se recargan tras un
+ * {@link MotosBorradasEvent}. Además se recarga todo al arrancar y cada
+ * {@code proy008.flota.recarga} milisegundos, como red de seguridad para lo
+ * escrito por otras vías. Solo se leen ids, por índices sobre
+ * {@code encendido}; las diferencias salen en el siguiente tick como
+ * cualquier otro cambio.
+ * </p>
+ * <p>
+ * Las lecturas van a la primaria (transacción de escritura): una réplica
+ * con retraso devolvería encendidos ya borrados.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class FlotaService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlotaService.class);
+
+    private final EstadoEncendido estadoEncendido;
+
+    private final IndiceEncendido indiceEncendido;
+
+    private final CocheRepository cocheRepository;
+
+    private final MotoRepository motoRepository;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param estadoEncendido Estado de encendido de la flota.
+     * @param indiceEncendido Índice de vehículos encendidos.
+     * @param cocheRepository Repositorio de coches.
+     * @param motoRepository  Repositorio de motos.
+     */
+    public FlotaService(EstadoEncendido estadoEncendido, IndiceEncendido indiceEncendido,
+            CocheRepository cocheRepository, MotoRepository motoRepository) {
+        this.estadoEncendido = estadoEncendido;
+        this.indiceEncendido = indiceEncendido;
+        this.cocheRepository = cocheRepository;
+        this.motoRepository = motoRepository;
+    }
+
+    /**
+     * Recarga coches y motos.
+     */
+    @Scheduled(fixedDelayString = "${proy008.flota.recarga:600000}")
+    @Transactional
+    public void recargar() {
+        LOGGER.debug("Recargando el encendido de la flota");
+        recargarCoches();
+        recargarMotos();
+    }
+
+    /**
+     * Tras un borrado masivo de motos se recargan las motos sin esperar a
+     * la recarga periódica.
+     *
+     * @param evento Borrado masivo confirmado.
+     */
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onMotosBorradas(MotosBorradasEvent evento) {
+        recargarMotos();
+    }
+
+    /**
+     * @param concesionarioId Concesionario, o {@code null} para todos.
+     * @return número de coches encendidos, según el índice en memoria.
+     */
+    public long contarCochesEncendidos(Long concesionarioId) {
+        return indiceEncendido.contarCoches(concesionarioId);
+    }
+
+    /**
+     * @param concesionarioId Concesionario, o {@code null} para todos.
+     * @return ids de los coches encendidos, según el índice en memoria.
+     */
+    public long[] getCochesEncendidos(Long concesionarioId) {
+        return indiceEncendido.getCoches(concesionarioId);
+    }
+
+    /**
+     * @return número de motos encendidas, según el índice en memoria.
+     */
+    public long contarMotosEncendidas() {
+        return indiceEncendido.contarMotos();
+    }
+
+    /**
+     * @return ids de las motos encendidas, según el índice en memoria.
+     */
+    public long[] getMotosEncendidas() {
+        return indiceEncendido.getMotos();
+    }
+
+    /**
+     * Tras vaciar un concesionario sus coches ya no existen: los que el
+     * índice tiene encendidos en él se apagan, como si se hubieran borrado
+     * uno a uno, sin ir a la BBDD.
+     *
+     * @param evento Cambio de inventario confirmado.
+     */
+    @TransactionalEventListener
+    public void onCocheCambiado(CocheCambiadoEvent evento) {
+        if (evento.tipo() != TipoCambio.VACIADO) {
+            return;
+        }
+        Long concesionarioId = evento.concesionarioId();
+        List<CambioEncendido> apagados = Arrays.stream(indiceEncendido.getCoches(concesionarioId))
+                .mapToObj(id -> new CambioEncendido(TipoVehiculo.COCHE, id, false, concesionarioId, concesionarioId))
+                .toList();
+        estadoEncendido.aplicar(apagados);
+        indiceEncendido.aplicar(apagados);
+        LOGGER.debug("Concesionario {} vaciado: {} coches apagados", concesionarioId, apagados.size());
+    }
+
+    private void recargarCoches() {
+        estadoEncendido.empezarRecarga(TipoVehiculo.COCHE);
+        indiceEncendido.empezarRecarga(TipoVehiculo.COCHE);
+        List<CocheEncendido> coches = cocheRepository.findEncendidos();
+        estadoEncendido.terminarRecarga(TipoVehiculo.COCHE, coches.stream().map(CocheEncendido::id).toList());
+        indiceEncendido.terminarRecargaCoches(coches);
+    }
+
+    private void recargarMotos() {
+        estadoEncendido.empezarRecarga(TipoVehiculo.MOTO);
+        indiceEncendido.empezarRecarga(TipoVehiculo.MOTO);
+        List<Long> motos = motoRepository.findIdsEncendidos();
+        estadoEncendido.terminarRecarga(TipoVehiculo.MOTO, motos);
+        indiceEncendido.terminarRecargaMotos(motos);
+    }
+}
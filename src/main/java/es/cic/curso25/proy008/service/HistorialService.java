@@ -0,0 +1,106 @@
+package es.cic.curso25.proy008.service;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.cic.curso25.proy008.dto.EstadoHistorico;
+import es.cic.curso25.proy008.exception.HistorialException;
+import es.cic.curso25.proy008.model.Historial;
+import es.cic.curso25.proy008.repository.HistorialRepository;
+
+/**
+ * Servicio de lectura del historial de cambios ("viaje en el tiempo").
+ * <p>
+ * Reconstruye el estado de una fila en una versión, o en un instante, a
+ * partir de la última instantánea anterior y de las diferencias que la
+ * siguen, que son como mucho {@code proy008.historial.instantanea-cada - 1}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@Transactional(readOnly = true)
+public class HistorialService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HistorialService.class);
+
+    private static final TypeReference<Map<String, Object>> MAPA = new TypeReference<>() {
+    };
+
+    private final HistorialRepository historialRepository;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param historialRepository Repositorio del historial.
+     * @param objectMapper        Lector de los cambios en JSON.
+     */
+    public HistorialService(HistorialRepository historialRepository, ObjectMapper objectMapper) {
+        this.historialRepository = historialRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Estado de una fila en una versión concreta.
+     *
+     * @param entidad Clase de la entidad.
+     * @param id      Identificador de la fila.
+     * @param version Versión a reconstruir.
+     * @return estado reconstruido.
+     * @throws HistorialException Si no hay historial de esa versión.
+     */
+    public EstadoHistorico getEstado(Class<?> entidad, long id, long version) {
+        LOGGER.info("Reconstruyendo {} {} en la versión {}", entidad.getSimpleName(), id, version);
+        List<Historial> filas = historialRepository.findReconstruccion(entidad.getSimpleName(), id, version);
+        if (filas.isEmpty()) {
+            throw new HistorialException(entidad.getSimpleName(), id, "la versión " + version);
+        }
+        Map<String, Object> estado = new LinkedHashMap<>();
+        for (Historial fila : filas) {
+            estado.putAll(leer(fila.getCambios()));
+        }
+        Historial ultima = filas.get(filas.size() - 1);
+        return new EstadoHistorico(entidad.getSimpleName(), id, ultima.getId().getVersion(),
+                ultima.getModificadoEn(), estado);
+    }
+
+    /**
+     * Estado de una fila tal como estaba en un instante.
+     *
+     * @param entidad  Clase de la entidad.
+     * @param id       Identificador de la fila.
+     * @param instante Instante de consulta.
+     * @return estado reconstruido.
+     * @throws HistorialException Si la fila no existía en ese instante.
+     */
+    public EstadoHistorico getEstado(Class<?> entidad, long id, Instant instante) {
+        Long version = historialRepository.findVersionEn(entidad.getSimpleName(), id, instante);
+        if (version == null) {
+            throw new HistorialException(entidad.getSimpleName(), id, instante);
+        }
+        return getEstado(entidad, id, version);
+    }
+
+    private Map<String, Object> leer(String cambios) {
+        try {
+            return objectMapper.readValue(cambios, MAPA);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Historial ilegible: " + cambios, e);
+        }
+    }
+}
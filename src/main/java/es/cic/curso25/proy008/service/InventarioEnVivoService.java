@@ -0,0 +1,229 @@
+package es.cic.curso25.proy008.service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter.SseEventBuilder;
+
+import es.cic.curso25.proy008.dto.CambioInventario;
+import es.cic.curso25.proy008.dto.CocheLectura;
+import es.cic.curso25.proy008.event.CocheCambiadoEvent;
+import es.cic.curso25.proy008.model.Coche;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Bus en proceso que reparte los cambios de inventario de cada concesionario
+ * a sus suscriptores SSE.
+ * <p>
+ * Los {@link CocheCambiadoEvent} se reciben tras el commit y se encolan en
+ * el buffer acotado de cada suscriptor del concesionario; un hilo virtual
+ * del {@code inventarioExecutor} los envía. Como mucho hay un envío en curso
+ * por suscriptor, lo que conserva el orden. Quien publica nunca espera a
+ * la red.
+ * </p>
+ * <p>
+ * Si el buffer de un suscriptor se llena, su cliente no lee al ritmo de los
+ * cambios. En vez de frenar a los demás o acumular memoria, se le
+ * desconecta ({@code proy008.inventario.descartados}); al reconectar puede
+ * ponerse al día con {@code GET /cambios}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class InventarioEnVivoService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(InventarioEnVivoService.class);
+
+    private final Map<Long, Set<Suscripcion>> suscripciones = new ConcurrentHashMap<>();
+
+    private final AtomicInteger total = new AtomicInteger();
+
+    private final TaskExecutor inventarioExecutor;
+
+    private final int buffer;
+
+    private final Duration timeout;
+
+    private final Counter descartados;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param inventarioExecutor Ejecutor de los envíos.
+     * @param buffer             Eventos pendientes por suscriptor.
+     * @param timeout            Duración máxima de una conexión.
+     * @param meterRegistry      Registro de métricas, si existe.
+     */
+    public InventarioEnVivoService(@Qualifier("inventarioExecutor") TaskExecutor inventarioExecutor,
+            @Value("${proy008.inventario.buffer:64}") int buffer,
+            @Value("${proy008.inventario.timeout:30m}") Duration timeout,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        this.inventarioExecutor = inventarioExecutor;
+        this.buffer = buffer;
+        this.timeout = timeout;
+        MeterRegistry registry = meterRegistry.getIfAvailable(SimpleMeterRegistry::new);
+        this.descartados = Counter.builder("proy008.inventario.descartados")
+            .description("Suscriptores desconectados por no leer a tiempo")
+            .register(registry);
+        Gauge.builder("proy008.inventario.suscriptores", total, AtomicInteger::get)
+            .description("Conexiones SSE abiertas")
+            .register(registry);
+    }
+
+    /**
+     * Abre una suscripción a los cambios de un concesionario.
+     *
+     * @param concesionarioId Concesionario a seguir.
+     * @return emisor SSE de la conexión.
+     */
+    public SseEmitter suscribir(Long concesionarioId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Suscripcion suscripcion = new Suscripcion(concesionarioId, emitter);
+        emitter.onCompletion(() -> quitar(suscripcion));
+        emitter.onTimeout(() -> quitar(suscripcion));
+        emitter.onError(e -> quitar(suscripcion));
+        suscripciones.computeIfAbsent(concesionarioId, id -> ConcurrentHashMap.newKeySet()).add(suscripcion);
+        total.incrementAndGet();
+        LOGGER.info("Nueva suscripción al inventario del concesionario {}", concesionarioId);
+        return emitter;
+    }
+
+    /**
+     * Reparte un cambio confirmado a los suscriptores de su concesionario.
+     *
+     * @param evento Cambio de inventario.
+     */
+    @TransactionalEventListener
+    public void onCocheCambiado(CocheCambiadoEvent evento) {
+        Set<Suscripcion> destino = suscripciones.get(evento.concesionarioId());
+        if (destino == null || destino.isEmpty()) {
+            return;
+        }
+        CambioInventario cambio = new CambioInventario(evento.tipo(), evento.concesionarioId(),
+                lectura(evento.coche()), evento.instante());
+        SseEventBuilder sse = SseEmitter.event().name(evento.tipo().name()).data(cambio);
+        destino.forEach(suscripcion -> suscripcion.ofrecer(sse));
+    }
+
+    /**
+     * Comentario periódico para que proxies y balanceadores no cierren las
+     * conexiones inactivas y para detectar clientes desaparecidos.
+     */
+    @Scheduled(fixedDelayString = "${proy008.inventario.latido:15000}")
+    public void latir() {
+        SseEventBuilder latido = SseEmitter.event().comment("latido");
+        suscripciones.values().forEach(grupo -> grupo.forEach(suscripcion -> suscripcion.ofrecer(latido)));
+    }
+
+    /**
+     * @return conexiones SSE abiertas.
+     */
+    public int getSuscriptores() {
+        return total.get();
+    }
+
+    /**
+     * Cierra todas las conexiones al parar la aplicación.
+     */
+    @PreDestroy
+    public void cerrar() {
+        suscripciones.values().forEach(grupo -> grupo.forEach(Suscripcion::desconectar));
+    }
+
+    private void quitar(Suscripcion suscripcion) {
+        Set<Suscripcion> grupo = suscripciones.get(suscripcion.concesionarioId);
+        if (grupo != null && grupo.remove(suscripcion)) {
+            total.decrementAndGet();
+        }
+    }
+
+    private static CocheLectura lectura(Coche coche) {
+        if (coche == null) {
+            return null;
+        }
+        return new CocheLectura(coche.getId(), coche.getVersion(), coche.getPotencia(), coche.getMarca(),
+                coche.isEncendido(), coche.getConcesionario() != null ? coche.getConcesionario().getId() : null);
+    }
+
+    /**
+     * Conexión de un cliente con su buffer de eventos pendientes.
+     */
+    private final class Suscripcion {
+
+        private final Long concesionarioId;
+
+        private final SseEmitter emitter;
+
+        private final BlockingQueue<SseEventBuilder> pendientes = new ArrayBlockingQueue<>(buffer);
+
+        private final AtomicBoolean enviando = new AtomicBoolean();
+
+        Suscripcion(Long concesionarioId, SseEmitter emitter) {
+            this.concesionarioId = concesionarioId;
+            this.emitter = emitter;
+        }
+
+        void ofrecer(SseEventBuilder evento) {
+            if (!pendientes.offer(evento)) {
+                descartados.increment();
+                LOGGER.warn("Suscriptor lento del concesionario {}: se desconecta", concesionarioId);
+                desconectar();
+                return;
+            }
+            if (enviando.compareAndSet(false, true)) {
+                inventarioExecutor.execute(this::enviar);
+            }
+        }
+
+        /**
+         * Vacía el buffer. Si llega algo justo al terminar, el mismo hilo
+         * sigue enviando en lugar de lanzar otro.
+         */
+        private void enviar() {
+            do {
+                SseEventBuilder evento;
+                while ((evento = pendientes.poll()) != null) {
+                    try {
+                        emitter.send(evento);
+                    } catch (IOException | IllegalStateException e) {
+                        // Cliente desconectado o emisor ya cerrado
+                        quitar(this);
+                        pendientes.clear();
+                        return;
+                    }
+                }
+                enviando.set(false);
+            } while (!pendientes.isEmpty() && enviando.compareAndSet(false, true));
+        }
+
+        void desconectar() {
+            quitar(this);
+            // complete() espera al envío en curso, que puede estar bloqueado en la red
+            inventarioExecutor.execute(emitter::complete);
+        }
+    }
+}
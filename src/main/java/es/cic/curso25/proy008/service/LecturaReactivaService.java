@@ -0,0 +1,95 @@
+package es.cic.curso25.proy008.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import es.cic.curso25.proy008.dto.CocheLectura;
+import es.cic.curso25.proy008.dto.ConcesionarioLectura;
+import es.cic.curso25.proy008.dto.MotoLectura;
+import es.cic.curso25.proy008.dto.MotoristaLectura;
+import es.cic.curso25.proy008.exception.CocheException;
+import es.cic.curso25.proy008.repository.LecturaReactivaRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Servicio de consultas reactivas de solo lectura.
+ * <p>
+ * Complementa a los servicios JPA para el tráfico de lectura con mucho
+ * fan-out: no abre transacciones ni carga entidades, solo encadena los
+ * flujos de {@link LecturaReactivaRepository}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+public class LecturaReactivaService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LecturaReactivaService.class);
+
+    private final LecturaReactivaRepository lecturaReactivaRepository;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param lecturaReactivaRepository Repositorio R2DBC de solo lectura.
+     */
+    public LecturaReactivaService(LecturaReactivaRepository lecturaReactivaRepository) {
+        this.lecturaReactivaRepository = lecturaReactivaRepository;
+    }
+
+    /**
+     * Flujo con todos los coches.
+     *
+     * @return {@link Flux} de {@link CocheLectura}.
+     */
+    public Flux<CocheLectura> coches() {
+        LOGGER.info("Emitiendo coches (reactivo)");
+        return lecturaReactivaRepository.findCoches();
+    }
+
+    /**
+     * Recupera un coche por su identificador.
+     *
+     * @param id Identificador del coche.
+     * @return {@link Mono} con el coche; termina con {@link CocheException} si no existe.
+     */
+    public Mono<CocheLectura> coche(long id) {
+        LOGGER.info("Buscando coche con id {} (reactivo)", id);
+        return lecturaReactivaRepository.findCoche(id)
+                .switchIfEmpty(Mono.error(() -> new CocheException(id)));
+    }
+
+    /**
+     * Flujo con todos los concesionarios.
+     *
+     * @return {@link Flux} de {@link ConcesionarioLectura}.
+     */
+    public Flux<ConcesionarioLectura> concesionarios() {
+        LOGGER.info("Emitiendo concesionarios (reactivo)");
+        return lecturaReactivaRepository.findConcesionarios();
+    }
+
+    /**
+     * Flujo con todas las motos.
+     *
+     * @return {@link Flux} de {@link MotoLectura}.
+     */
+    public Flux<MotoLectura> motos() {
+        LOGGER.info("Emitiendo motos (reactivo)");
+        return lecturaReactivaRepository.findMotos();
+    }
+
+    /**
+     * Flujo con todos los motoristas.
+     *
+     * @return {@link Flux} de {@link MotoristaLectura}.
+     */
+    public Flux<MotoristaLectura> motoristas() {
+        LOGGER.info("Emitiendo motoristas (reactivo)");
+        return lecturaReactivaRepository.findMotoristas();
+    }
+}
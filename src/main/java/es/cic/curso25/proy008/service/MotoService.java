@@ -5,13 +5,18 @@ import java.util.List;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import es.cic.curso25.proy008.event.MotoBorradaEvent;
+import es.cic.curso25.proy008.event.MotosBorradasEvent;
 import es.cic.curso25.proy008.exception.ModificationSecurityException;
 import es.cic.curso25.proy008.exception.MotoException;
 import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.repository.MotoArchivadaRepository;
 import es.cic.curso25.proy008.repository.MotoRepository;
-import jakarta.transaction.Transactional;
+import es.cic.curso25.proy008.repository.MotoristaRepository;
 
 /**
  * Servicio de dominio encargado de gestionar las operaciones CRUD de Moto
@@ -32,8 +37,25 @@ public class MotoService {
     
     private final MotoRepository motoRepository;
 
-    public MotoService(MotoRepository motoRepository) {
+    private final MotoristaRepository motoristaRepository;
+
+    private final MotoArchivadaRepository motoArchivadaRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final CambiosService cambiosService;
+
+    private final ExistenciaService existenciaService;
+
+    public MotoService(MotoRepository motoRepository, MotoristaRepository motoristaRepository,
+            MotoArchivadaRepository motoArchivadaRepository, ApplicationEventPublisher eventPublisher,
+            CambiosService cambiosService, ExistenciaService existenciaService) {
         this.motoRepository = motoRepository;
+        this.motoristaRepository = motoristaRepository;
+        this.motoArchivadaRepository = motoArchivadaRepository;
+        this.eventPublisher = eventPublisher;
+        this.cambiosService = cambiosService;
+        this.existenciaService = existenciaService;
     }
 
     // CRUD
@@ -64,6 +86,7 @@ public class MotoService {
      * 
      * @return Lista de entradas encontradas (Puede ser NULL, o estar vacía)
      */
+    @Transactional(readOnly = true)
     public List<Moto> get() {
         LOGGER.info("Obtenemos una lista de todas las motos");
         return motoRepository.findAll();
@@ -76,6 +99,7 @@ public class MotoService {
      * @return Entidad moto en caso de que exista. En caso contrario, devuelve un
      *         mensaje de error
      */
+    @Transactional(readOnly = true)
     public Moto get(long id) {
 
         // Utilizamos un placeholder {} ya que con + se evalúa siempre la concatenación.
@@ -104,11 +128,18 @@ public class MotoService {
             //Lanzamos una Excepcion de seguridad
             throw new ModificationSecurityException("El id no puede ser nulo");
         //Si el ID ya existe
-        }else if (!motoRepository.existsById(moto.getId())){
-            //Lanzamos una MotoException
+        //Si el filtro sabe que no existe, sin consultar
+        }else if (existenciaService.descartar(Moto.class, moto.getId())){
             throw new MotoException(moto.getId());
-        //En el resto de casos
         }else{
+            //Se lee en vez de existsById(): la misma consulta, y el merge la encuentra ya cargada
+            Moto anterior = motoRepository.findById(moto.getId()).orElseThrow(() -> {
+                //Lanzamos una MotoException
+                existenciaService.anotarFalsoPositivo(Moto.class);
+                return new MotoException(moto.getId());
+            });
+            //El merge copia todos los campos: se conserva la clave de la fila
+            moto.setClave(anterior.getClave());
             //Devolvemos la moto creada
             LOGGER.info("Moto actualiazda correctamente");
             return motoRepository.save(moto);
@@ -120,27 +151,43 @@ public class MotoService {
     /**
      * Metodo Borrar (DELETE)
      * Elimina una Entidad motor con un ID determinado
+     * Publica un MotoBorradaEvent para que ArchivoService la archive tras el commit
      * 
      * @param id
      */
     public void delete(long id) {
-        LOGGER.info("Actualizamos la moto con id "+id+"...");
-        if (!motoRepository.existsById(id)){
-            LOGGER.info("No se puede actualizar una moto que no existe");
+        LOGGER.info("Borramos la moto con id {}...", id);
+        if (existenciaService.descartar(Moto.class, id)) {
             throw new MotoException(id);
-        }else{
-            LOGGER.info("Moto Actualizada Correctamente");
-            motoRepository.deleteById(id);
         }
+        Moto moto = motoRepository.findById(id)
+                .orElseThrow(() -> {
+                    existenciaService.anotarFalsoPositivo(Moto.class);
+                    return new MotoException(id);
+                });
+        motoRepository.delete(moto);
+        eventPublisher.publishEvent(new MotoBorradaEvent(moto.getId(), moto.getPotencia(), moto.getMarca(),
+                moto.getTipo()));
+        LOGGER.info("Moto borrada correctamente");
     }
 
     /**
      * Metodo Borrar (DELETE)
-     * Borra todas las entidades de Moto existentes
+     * Borra todas las entidades de Moto existentes, y con ellas a sus
+     * motoristas (cascade REMOVE de Moto.motorista).
+     * Son dos sentencias DELETE sin cargar ninguna entidad: primero los
+     * motoristas con moto, que tienen la clave ajena, y después las motos.
+     * Antes se copian todas las motos al archivo y se dejan sus lápidas para
+     * GET /cambios, cada cosa con un INSERT ... SELECT.
      */
     public void deleteAll() {
         LOGGER.info("Borramos todas las motos existentes");
-        motoRepository.deleteAll();
+        motoArchivadaRepository.archivarTodas();
+        cambiosService.lapidarMotos();
+        int motoristas = motoristaRepository.deleteInBulkConMoto();
+        motoRepository.deleteAllInBatch();
+        eventPublisher.publishEvent(new MotosBorradasEvent(-1));
+        LOGGER.info("Borradas todas las motos y {} motoristas", motoristas);
     }
 
 }
@@ -1,18 +1,24 @@
 package es.cic.curso25.proy008.service;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import es.cic.curso25.proy008.event.MotoBorradaEvent;
+import es.cic.curso25.proy008.event.MotosBorradasEvent;
 import es.cic.curso25.proy008.model.Moto;
 import es.cic.curso25.proy008.exception.ModificationSecurityException;
 import es.cic.curso25.proy008.exception.MotoristaException;
 import es.cic.curso25.proy008.model.Motorista;
+import es.cic.curso25.proy008.repository.MotoArchivadaRepository;
 import es.cic.curso25.proy008.repository.MotoRepository;
 import es.cic.curso25.proy008.repository.MotoristaRepository;
 
@@ -24,11 +30,29 @@ public class MotoristaService {
     // Usamos Logger para mantener un registro de la actividad y los herrores
     private final static Logger LOGGER = LoggerFactory.getLogger(Motorista.class);
 
+    // Ids por sentencia DELETE ... IN (...) al borrar motos en bloque
+    private static final int LOTE_BORRADO = 1_000;
+
     private final MotoristaRepository motoristaRepository;
 
     @Autowired
     private MotoRepository motoRepository;
 
+    @Autowired
+    private MotoArchivadaRepository motoArchivadaRepository;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private CambiosService cambiosService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ExistenciaService existenciaService;
+
     /**
      * Constructor de Motoristaservice.
      * Llama a una instancia de motoristarepository para asegurar el correcto
@@ -45,7 +69,8 @@ public class MotoristaService {
     // ····CREATE····
 
     /**
-     * Crea una instancia de la entidad de motorista.
+     * Crea una instancia de la entidad de motorista y registra en el outbox,
+     * en la misma transacción, el evento {@code MotoristaMontado}.
      * 
      * @param motorista
      * @return
@@ -56,7 +81,14 @@ public class MotoristaService {
             throw new ModificationSecurityException(
                     "No se puede crear una Moto con un id existente " + motorista.getId());
         }
-        return motoristaRepository.save(motorista);
+        Motorista creado = motoristaRepository.save(motorista);
+        Map<String, Object> carga = new LinkedHashMap<>();
+        carga.put("id", creado.getId());
+        carga.put("nombre", creado.getNombre());
+        carga.put("motoId", creado.getMoto() == null ? null : creado.getMoto().getId());
+        carga.put("marca", creado.getMoto() == null ? null : creado.getMoto().getMarca());
+        outboxService.registrar("MotoristaMontado", "Motorista", creado.getId(), carga);
+        return creado;
     }
 
     // ····READ····
@@ -114,11 +146,23 @@ public class MotoristaService {
             // Lanzamos una Excepcion de seguridad
             throw new ModificationSecurityException("El id no puede ser nulo");
             // Si el ID ya existe
-        } else if (!motoristaRepository.existsById(motorista.getId())) {
-            // Lanzamos una MotoristaException
+            // Si el filtro sabe que no existe, sin consultar
+        } else if (existenciaService.descartar(Motorista.class, motorista.getId())) {
             throw new MotoristaException(motorista.getId());
-            // En el resto de casos
         } else {
+            // Se lee en vez de existsById(): la misma consulta, y el merge lo encuentra ya cargado
+            Motorista anterior = motoristaRepository.findById(motorista.getId()).orElseThrow(() -> {
+                // Lanzamos una MotoristaException
+                existenciaService.anotarFalsoPositivo(Motorista.class);
+                return new MotoristaException(motorista.getId());
+            });
+            // El merge copia todos los campos, también a la moto en cascada:
+            // se conservan las claves de las filas
+            motorista.setClave(anterior.getClave());
+            Moto moto = motorista.getMoto();
+            if (moto != null && anterior.getMoto() != null && anterior.getMoto().getId().equals(moto.getId())) {
+                moto.setClave(anterior.getMoto().getClave());
+            }
             // Devolvemos la moto creada
             return motoristaRepository.save(motorista);
         }
@@ -129,26 +173,52 @@ public class MotoristaService {
     /**
      * Elimina una instancia de moto que coincida con el id proporcionado.
      * En caso de no haber coincidencia lanza una MotoristaException
+     * Su moto se borra en cascada (cascade REMOVE de Motorista.moto); se
+     * publica un MotoBorradaEvent para que ArchivoService la archive tras el
+     * commit, igual que MotoService.delete y deleteAll()
      * 
      * @param id ID de motorista
      */
     public void delete(long id) {
         LOGGER.info("Se intenta eliminar un Motorista con id "+id);
         
-        if (!motoristaRepository.existsById(id)) {
+        if (existenciaService.descartar(Motorista.class, id)) {
             throw new MotoristaException(id);
-        } else {
-            motoristaRepository.deleteById(id);
-            LOGGER.info("Borrado satisfactoriemante motorista con ID " +id);
         }
+        Motorista motorista = motoristaRepository.findById(id).orElseThrow(() -> {
+            existenciaService.anotarFalsoPositivo(Motorista.class);
+            return new MotoristaException(id);
+        });
+        Moto moto = motorista.getMoto();
+        motoristaRepository.delete(motorista);
+        if (moto != null) {
+            eventPublisher.publishEvent(new MotoBorradaEvent(moto.getId(), moto.getPotencia(), moto.getMarca(),
+                    moto.getTipo()));
+        }
+        LOGGER.info("Borrado satisfactoriemante motorista con ID " +id);
     }
 
     /**
-     * Elimina todas las instancias de moto almacenadas en la BBDD.
+     * Elimina todos los motoristas y, con ellos, sus motos (cascade REMOVE
+     * de Motorista.moto), sin cargar ninguna entidad.
+     * Se leen solo los ids de las motos afectadas, se borran los motoristas
+     * (tienen la clave ajena) y después esas motos en lotes de
+     * {@value #LOTE_BORRADO} ids, las que no tienen motorista se conservan.
+     * Esas motos se copian antes al archivo, y se dejan sus lápidas para
+     * GET /cambios, con sendos INSERT ... SELECT.
      */
     public void deleteAll() {
         LOGGER.info("Borramos TODOS los motoristas existentes");
-        motoristaRepository.deleteAll();
+        motoArchivadaRepository.archivarConMotorista();
+        cambiosService.lapidarMotosConMotorista();
+        List<Long> motoIds = motoristaRepository.findMotoIds();
+        motoristaRepository.deleteAllInBatch();
+        for (int desde = 0; desde < motoIds.size(); desde += LOTE_BORRADO) {
+            motoRepository.deleteAllByIdInBatch(
+                    motoIds.subList(desde, Math.min(desde + LOTE_BORRADO, motoIds.size())));
+        }
+        eventPublisher.publishEvent(new MotosBorradasEvent(motoIds.size()));
+        LOGGER.info("Borrados todos los motoristas y {} motos", motoIds.size());
     }
 
     /**
@@ -0,0 +1,70 @@
+package es.cic.curso25.proy008.service;
+
+import java.time.Instant;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.cic.curso25.proy008.model.EventoSalida;
+import es.cic.curso25.proy008.repository.EventoSalidaRepository;
+
+/**
+ * Servicio de escritura del outbox.
+ * <p>
+ * Solo puede llamarse dentro de una transacción ya abierta
+ * ({@link Propagation#MANDATORY}): el evento se confirma o se deshace junto
+ * con el cambio que lo origina. La entrega la hace
+ * {@code es.cic.curso25.proy008.outbox.RelevoOutbox}.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@Service
+@Transactional(propagation = Propagation.MANDATORY)
+public class OutboxService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(OutboxService.class);
+
+    private final EventoSalidaRepository eventoSalidaRepository;
+
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor para inyección de dependencias.
+     *
+     * @param eventoSalidaRepository Repositorio del outbox.
+     * @param objectMapper           Serializador de la carga.
+     */
+    public OutboxService(EventoSalidaRepository eventoSalidaRepository, ObjectMapper objectMapper) {
+        this.eventoSalidaRepository = eventoSalidaRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Añade un evento al outbox en la transacción actual.
+     *
+     * @param tipo       Tipo de evento.
+     * @param agregado   Entidad a la que se refiere.
+     * @param agregadoId Identificador de esa entidad.
+     * @param carga      Datos del evento, que se guardan en JSON.
+     * @return evento guardado.
+     */
+    public EventoSalida registrar(String tipo, String agregado, Long agregadoId, Map<String, Object> carga) {
+        LOGGER.debug("Registrando {} de {} {} en el outbox", tipo, agregado, agregadoId);
+        try {
+            return eventoSalidaRepository.save(new EventoSalida(tipo, agregado, agregadoId,
+                    objectMapper.writeValueAsString(carga), Instant.now()));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("No se pudo serializar el evento " + tipo, e);
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.service.AnaliticaService;
+import es.cic.curso25.proy008.service.CocheService;
+import es.cic.curso25.proy008.service.ConcesionarioService;
+import es.cic.curso25.proy008.service.MotoService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Pruebas de integración de {@code GET /analitica/coches},
+ * {@code GET /analitica/potencia} y
+ * {@code GET /concesionarios/{id}/top-potencia}.
+ * <p>
+ * Los vehículos se escriben con los servicios y se agregan sin que se lance
+ * ninguna sentencia SQL. Las recargas periódicas y el relé del outbox se
+ * espacian para que no cuenten en las estadísticas.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "proy008.analitica.recarga=3600000",
+    "proy008.existencia.recarga=3600000",
+    "proy008.flota.recarga=3600000",
+    "proy008.outbox.intervalo=3600000"
+})
+@AutoConfigureMockMvc
+@DisplayName("AnaliticaIntegrationTest")
+public class AnaliticaIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConcesionarioService concesionarioService;
+
+    @Autowired
+    private CocheService cocheService;
+
+    @Autowired
+    private MotoService motoService;
+
+    @Autowired
+    private AnaliticaService analiticaService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Altas, cambios, borrados y vaciados se reflejan en los agregados por
+     * concesionario sin consultar la BBDD.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("Los agregados siguen a las escrituras sin consultar la BBDD")
+    public void shouldAggregateByConcesionario() throws Exception {
+        Long cons = concesionarioService.create(new Concesionario(
+                "Columnas", 600777111, "Zamora", LocalTime.of(9, 0), LocalTime.of(18, 0))).getId();
+        String grupo = "$[?(@.grupo == '" + cons + "')]";
+        concesionarioService.addCoche(cons, new Coche("Lancia", 100, null));
+        Coche potente = concesionarioService.addCoche(cons, new Coche("Lancia", 300, null));
+        Long borrado = concesionarioService.addCoche(cons, new Coche("Alpine", 500, null)).getId();
+        cocheService.delete(borrado);
+        potente = cocheService.get(potente.getId());
+        potente.setEncendido(true);
+        cocheService.update(potente);
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        mockMvc.perform(get("/analitica/coches").param("groupBy", "concesionario").param("agg", "avg"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath(grupo + ".coches").value(2))
+            .andExpect(jsonPath(grupo + ".valor").value(200.0));
+        mockMvc.perform(get("/analitica/coches").param("groupBy", "concesionario").param("agg", "max")
+                .param("encendido", "false"))
+            .andExpect(jsonPath(grupo + ".valor").value(100.0));
+        mockMvc.perform(get("/analitica/coches").param("groupBy", "MARCA").param("agg", "count"))
+            .andExpect(jsonPath("$[?(@.grupo == 'Lancia')].valor").value(2.0))
+            .andExpect(jsonPath("$[?(@.grupo == 'Alpine')]").isEmpty());
+        assertEquals(0, estadisticas.getPrepareStatementCount(), "La analítica no debe tocar la BBDD");
+
+        // El vaciado no lleva filas: se quitan los coches del concesionario en memoria
+        concesionarioService.delete(cons);
+        mockMvc.perform(get("/analitica/coches").param("groupBy", "concesionario"))
+            .andExpect(jsonPath(grupo).isEmpty());
+        mockMvc.perform(get("/analitica/coches").param("groupBy", "MARCA").param("agg", "count"))
+            .andExpect(jsonPath("$[?(@.grupo == 'Lancia')]").isEmpty());
+        mockMvc.perform(get("/analitica/potencia").param("marca", "Lancia"))
+            .andExpect(jsonPath("$.vehiculos").value(0));
+    }
+
+    /**
+     * Altas, cambios y borrados de coches y motos se reflejan en la
+     * distribución de potencia de su marca sin consultar la BBDD.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("La distribución de potencia sigue a las escrituras sin consultar la BBDD")
+    public void shouldServePotenciaDistribution() throws Exception {
+        String marca = "Histograma";
+        Long cons = concesionarioService.create(new Concesionario(
+                "Potencias", 600777222, "Soria", LocalTime.of(9, 0), LocalTime.of(18, 0))).getId();
+        Coche lento = concesionarioService.addCoche(cons, new Coche(marca, 90, null));
+        concesionarioService.addCoche(cons, new Coche(marca, 110, null));
+        Long borrado = concesionarioService.addCoche(cons, new Coche(marca, 1000, null)).getId();
+        cocheService.delete(borrado);
+        lento = cocheService.get(lento.getId());
+        lento.setPotencia(100);
+        cocheService.update(lento);
+        Moto moto = motoService.create(new Moto(300, marca, "Trail"));
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        mockMvc.perform(get("/analitica/potencia").param("marca", marca))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.vehiculos").value(3))
+            .andExpect(jsonPath("$.media").value(170.0))
+            .andExpect(jsonPath("$.minimo").value(100.0))
+            .andExpect(jsonPath("$.p50").value(110.0))
+            .andExpect(jsonPath("$.p99").value(300.5))
+            .andExpect(jsonPath("$.tramos.length()").value(2))
+            .andExpect(jsonPath("$.tramos[0].desde").value(100))
+            .andExpect(jsonPath("$.tramos[0].vehiculos").value(2));
+        mockMvc.perform(get("/analitica/potencia").param("marca", marca).param("tipo", "moto"))
+            .andExpect(jsonPath("$.vehiculos").value(1));
+        assertEquals(0, estadisticas.getPrepareStatementCount(), "La distribución no debe tocar la BBDD");
+
+        motoService.delete(moto.getId());
+        mockMvc.perform(get("/analitica/potencia").param("marca", marca).param("tipo", "moto"))
+            .andExpect(jsonPath("$.vehiculos").value(0))
+            .andExpect(jsonPath("$.tramos").isEmpty());
+        mockMvc.perform(get("/analitica/potencia").param("tipo", "camion"))
+            .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Los coches más potentes de un concesionario siguen a las escrituras
+     * sin consultar la BBDD.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("El ranking de potencia sigue a las escrituras sin consultar la BBDD")
+    public void shouldServeTopPotencia() throws Exception {
+        Long cons = concesionarioService.create(new Concesionario(
+                "Ranking", 600777333, "Teruel", LocalTime.of(9, 0), LocalTime.of(18, 0))).getId();
+        Coche medio = concesionarioService.addCoche(cons, new Coche("Volvo", 150, null));
+        concesionarioService.addCoche(cons, new Coche("Skoda", 90, null));
+        Long borrado = concesionarioService.addCoche(cons, new Coche("Tesla", 500, null)).getId();
+        cocheService.delete(borrado);
+        medio = cocheService.get(medio.getId());
+        medio.setPotencia(400);
+        cocheService.update(medio);
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        mockMvc.perform(get("/concesionarios/" + cons + "/top-potencia").param("k", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(medio.getId()))
+            .andExpect(jsonPath("$[0].potencia").value(400.0));
+        mockMvc.perform(get("/concesionarios/" + cons + "/top-potencia"))
+            .andExpect(jsonPath("$[*].marca").value(org.hamcrest.Matchers.contains("Volvo", "Skoda")));
+        assertEquals(0, estadisticas.getPrepareStatementCount(), "El ranking no debe tocar la BBDD");
+
+        // La recarga con funciones de ventana da el mismo ranking
+        analiticaService.recargar();
+        mockMvc.perform(get("/concesionarios/" + cons + "/top-potencia"))
+            .andExpect(jsonPath("$[*].marca").value(org.hamcrest.Matchers.contains("Volvo", "Skoda")));
+
+        mockMvc.perform(get("/concesionarios/" + cons + "/top-potencia").param("k", "0"))
+            .andExpect(status().isBadRequest());
+        concesionarioService.delete(cons);
+        mockMvc.perform(get("/concesionarios/" + cons + "/top-potencia"))
+            .andExpect(status().isNotFound());
+    }
+
+    /**
+     * Una agrupación o un agregado desconocidos se rechazan con 400.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("Rechaza groupBy y agg desconocidos")
+    public void shouldRejectUnknownParameters() throws Exception {
+        mockMvc.perform(get("/analitica/coches").param("groupBy", "color"))
+            .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/analitica/coches").param("agg", "median"))
+            .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,102 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import es.cic.curso25.proy008.service.ArchivoService;
+
+/**
+ * Pruebas de integración del archivo de coches borrados y de
+ * {@code GET /archivo/coches}.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("ArchivoControllerIntegrationTest")
+public class ArchivoControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CocheRepository cocheRepository;
+
+    @Autowired
+    private ConcesionarioRepository concesionarioRepository;
+
+    @Autowired
+    private ArchivoService archivoService;
+
+    /**
+     * DELETE /coches/{id} encola el coche tras el commit y, al volcar la
+     * cola, aparece en el archivo filtrando por su concesionario.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("DELETE /coches/{id} archiva el coche de forma asíncrona")
+    public void shouldArchiveDeletedCoche() throws Exception {
+        Concesionario cons = concesionarioRepository.save(new Concesionario(
+                "Archivo1", 600888111, "Lugo", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+        Coche coche = cocheRepository.save(new Coche("Saab", 150, cons));
+
+        mockMvc.perform(delete("/coches/{id}", coche.getId()))
+            .andExpect(status().isOk());
+        archivoService.vaciar();
+
+        mockMvc.perform(get("/archivo/coches").param("concesionarioId", cons.getId().toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$[0].id").value(coche.getId()))
+            .andExpect(jsonPath("$[0].marca").value("Saab"))
+            .andExpect(jsonPath("$[0].archivadoEn").exists());
+        assertFalse(cocheRepository.existsById(coche.getId()), "La fila viva debe desaparecer");
+
+        concesionarioRepository.deleteById(cons.getId());
+    }
+
+    /**
+     * DELETE /coches?concesionarioId= archiva en la misma transacción todos
+     * los coches del concesionario.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("El borrado masivo archiva con INSERT ... SELECT")
+    public void shouldArchiveBulkDeletedCoches() throws Exception {
+        Concesionario cons = concesionarioRepository.save(new Concesionario(
+                "Archivo2", 600888222, "Ourense", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+        for (int i = 0; i < 3; i++) {
+            cocheRepository.save(new Coche("Skoda", 100 + i, cons));
+        }
+
+        mockMvc.perform(delete("/coches").param("concesionarioId", cons.getId().toString()))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(get("/archivo/coches")
+                .param("concesionarioId", cons.getId().toString())
+                .param("limite", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(2));
+        assertEquals(3, archivoService.getCoches(cons.getId(), null, null, 10).size());
+
+        concesionarioRepository.deleteById(cons.getId());
+    }
+}
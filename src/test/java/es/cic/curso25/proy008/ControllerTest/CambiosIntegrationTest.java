@@ -0,0 +1,215 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.cic.curso25.proy008.cambios.SecuenciaCambios;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import es.cic.curso25.proy008.repository.MotoRepository;
+import es.cic.curso25.proy008.service.CocheService;
+import es.cic.curso25.proy008.service.ConcesionarioService;
+
+/**
+ * Pruebas de integración de {@code GET /cambios}.
+ * <p>
+ * El contexto se comparte con otros tests, así que cada prueba parte del
+ * token actual y solo mira las filas que crea.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("CambiosIntegrationTest")
+public class CambiosIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CocheService cocheService;
+
+    @Autowired
+    private ConcesionarioService concesionarioService;
+
+    @Autowired
+    private CocheRepository cocheRepository;
+
+    @Autowired
+    private MotoRepository motoRepository;
+
+    @Autowired
+    private ConcesionarioRepository concesionarioRepository;
+
+    @Autowired
+    private SecuenciaCambios secuenciaCambios;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Altas, modificaciones y borrados, individuales y masivos, aparecen
+     * una sola vez y en orden a partir del token.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("GET /cambios devuelve altas, modificaciones y lápidas desde el token")
+    public void shouldReturnChangesSinceToken() throws Exception {
+        long inicio = tokenActual();
+
+        Concesionario cons = concesionarioRepository.save(new Concesionario(
+                "Delta", 600444555, "Lugo", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+        Coche coche = cocheRepository.save(new Coche("Fiat", 70, cons));
+        Moto moto = motoRepository.save(new Moto(60, "Vespa", "Scooter"));
+        Coche cambiado = cocheService.get(coche.getId());
+        cambiado.setPotencia(75);
+        cocheService.update(cambiado);
+
+        JsonNode pagina = cambios(inicio, 100);
+        List<JsonNode> propios = propios(pagina, coche.getId(), moto.getId());
+        assertEquals(2, propios.size(), "Cada fila aparece una vez, con su último estado");
+        assertEquals("Moto", propios.get(0).get("entidad").asText());
+        assertEquals("Coche", propios.get(1).get("entidad").asText());
+        assertEquals(75.0, propios.get(1).get("datos").get("potencia").asDouble());
+        assertEquals(cons.getId(), propios.get(1).get("datos").get("concesionarioId").asLong());
+
+        // Nada nuevo desde el token devuelto
+        long token = pagina.get("token").asLong();
+        assertTrue(propios(cambios(token, 100), coche.getId(), moto.getId()).isEmpty());
+
+        // Borrado individual y masivo
+        Coche otro = cocheRepository.save(new Coche("Fiat", 90, cons));
+        motoRepository.deleteById(moto.getId());
+        concesionarioService.delete(cons.getId());
+        assertEquals(0, secuenciaCambios.getPendientes(), "Ninguna transacción queda abierta");
+
+        List<JsonNode> borrados = propios(cambios(token, 100), coche.getId(), moto.getId(), otro.getId())
+            .stream().filter(c -> c.get("borrado").asBoolean()).toList();
+        assertEquals(3, borrados.size());
+        assertEquals(moto.getId(), borrados.get(0).get("id").asLong());
+        assertTrue(borrados.get(1).get("datos").isNull());
+    }
+
+    /**
+     * {@code limit} corta la página y {@code hayMas} indica que hay que
+     * seguir pidiendo.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("GET /cambios pagina con limit")
+    public void shouldPage() throws Exception {
+        long inicio = tokenActual();
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            ids.add(motoRepository.save(new Moto(100 + i, "Honda", "Naked")).getId());
+        }
+
+        JsonNode primera = cambios(inicio, 2);
+        assertEquals(2, primera.get("cambios").size());
+        assertTrue(primera.get("hayMas").asBoolean());
+        JsonNode segunda = cambios(primera.get("token").asLong(), 2);
+        assertEquals(ids.get(2), segunda.get("cambios").get(0).get("id").asLong());
+
+        motoRepository.deleteAllById(ids);
+        mockMvc.perform(get("/cambios").param("since", "abc"))
+            .andExpect(status().isBadRequest());
+    }
+
+    /**
+     * Un cambio confirmado no se sirve mientras otra transacción con un
+     * número menor siga abierta: el cliente no debe saltársela.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("GET /cambios no adelanta a una transacción abierta")
+    public void shouldNotSkipOpenTransactions() throws Exception {
+        long inicio = tokenActual();
+        CountDownLatch escrita = new CountDownLatch(1);
+        CountDownLatch seguir = new CountDownLatch(1);
+
+        CompletableFuture<Long> lenta = CompletableFuture.supplyAsync(() ->
+            new TransactionTemplate(transactionManager).execute(estado -> {
+                Moto moto = motoRepository.saveAndFlush(new Moto(50, "Lenta", "Scooter"));
+                escrita.countDown();
+                try {
+                    seguir.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return moto.getId();
+            }));
+        assertTrue(escrita.await(10, TimeUnit.SECONDS));
+
+        Long rapida = motoRepository.save(new Moto(51, "Rapida", "Scooter")).getId();
+        assertTrue(propios(cambios(inicio, 100), rapida).isEmpty(),
+                "La moto confirmada queda detrás de la transacción abierta");
+
+        seguir.countDown();
+        Long lentaId = lenta.get(10, TimeUnit.SECONDS);
+        List<JsonNode> propios = propios(cambios(inicio, 100), rapida, lentaId);
+        assertEquals(List.of(lentaId, rapida), propios.stream().map(c -> c.get("id").asLong()).toList());
+
+        motoRepository.deleteAllById(List.of(rapida, lentaId));
+    }
+
+    private long tokenActual() throws Exception {
+        long token = 0;
+        JsonNode pagina;
+        do {
+            pagina = cambios(token, 1_000);
+            token = pagina.get("token").asLong();
+        } while (pagina.get("hayMas").asBoolean());
+        return token;
+    }
+
+    private JsonNode cambios(long since, int limit) throws Exception {
+        return objectMapper.readTree(mockMvc.perform(get("/cambios")
+                .param("since", String.valueOf(since))
+                .param("limit", String.valueOf(limit)))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString());
+    }
+
+    private static List<JsonNode> propios(JsonNode pagina, Long... ids) {
+        List<Long> buscados = List.of(ids);
+        List<JsonNode> propios = new ArrayList<>();
+        pagina.get("cambios").forEach(c -> {
+            if (buscados.contains(c.get("id").asLong())) {
+                propios.add(c);
+            }
+        });
+        return propios;
+    }
+}
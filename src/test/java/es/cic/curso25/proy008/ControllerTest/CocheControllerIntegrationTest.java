@@ -191,4 +191,34 @@ public class CocheControllerIntegrationTest {
         assertFalse(cocheRepository.existsById(toDelete.getId()),
                     "El coche debería haber sido eliminado de la BD");
     }
+
+    /**
+     * DELETE /coches?concesionarioId={id}
+     * <p>
+     * Vacía el stock de un concesionario con una sola sentencia y deja
+     * intacto el concesionario.
+     * </p>
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("DELETE /coches?concesionarioId= borra los coches del concesionario")
+    public void shouldDeleteCochesByConcesionario() throws Exception {
+        Concesionario cons = concesionarioRepository.save(
+            new Concesionario("TestCons5", 600333555, "Huelva",
+                              LocalTime.of(10, 0), LocalTime.of(19, 0))
+        );
+        Coche primero = cocheRepository.save(new Coche("Seat", 75, cons));
+        Coche segundo = cocheRepository.save(new Coche("Cupra", 300, cons));
+
+        mockMvc.perform(delete("/coches").param("concesionarioId", cons.getId().toString()))
+            .andExpect(status().isOk());
+
+        assertFalse(cocheRepository.existsById(primero.getId()));
+        assertFalse(cocheRepository.existsById(segundo.getId()));
+        assertTrue(concesionarioRepository.existsById(cons.getId()),
+                   "El concesionario no debe borrarse");
+
+        concesionarioRepository.deleteById(cons.getId());
+    }
 }
@@ -0,0 +1,92 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.cic.curso25.proy008.dto.Dashboard;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+
+/**
+ * Pruebas de integración para {@code DashboardController}.
+ * <p>
+ * Las consultas del dashboard se ejecutan en otros hilos y en sus propias
+ * transacciones, por lo que los datos de prueba se guardan confirmados
+ * (sin {@code @Transactional}) y se comparan contra el estado previo.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("DashboardControllerIntegrationTest")
+public class DashboardControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CocheRepository cocheRepository;
+
+    @Autowired
+    private ConcesionarioRepository concesionarioRepository;
+
+    /**
+     * GET /dashboard refleja los coches nuevos en recuentos, encendidos y ranking.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("GET /dashboard devuelve recuentos, encendidos y top de concesionarios")
+    public void shouldComposeDashboard() throws Exception {
+        Dashboard antes = leer();
+
+        Concesionario cons = concesionarioRepository.save(new Concesionario(
+                "DashboardCons", 600222333, "Soria", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+        for (int i = 0; i < 20; i++) {
+            Coche coche = new Coche("Dash" + i, 100 + i, cons);
+            coche.setEncendido(i < 3);
+            cocheRepository.save(coche);
+        }
+
+        Dashboard despues = leer();
+
+        assertEquals(antes.totalConcesionarios() + 1, despues.totalConcesionarios());
+        assertEquals(antes.totalCoches() + 20, despues.totalCoches());
+        assertEquals(antes.cochesEncendidos() + 3, despues.cochesEncendidos());
+        assertEquals(antes.totalMotos(), despues.totalMotos());
+        assertTrue(despues.topConcesionarios().size() <= 5, "El ranking se limita a 5");
+        assertEquals(cons.getId(), despues.topConcesionarios().get(0).id(),
+                "El concesionario con 20 coches debe encabezar el ranking");
+        assertEquals(20, despues.topConcesionarios().get(0).numeroCoches());
+
+        // Limpiamos: el borrado del concesionario arrastra sus coches
+        concesionarioRepository.deleteById(cons.getId());
+    }
+
+    private Dashboard leer() throws Exception {
+        String json = mockMvc.perform(get("/dashboard"))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString();
+        return objectMapper.readValue(json, Dashboard.class);
+    }
+}
@@ -0,0 +1,150 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.repository.MotoRepository;
+import es.cic.curso25.proy008.service.CocheService;
+import es.cic.curso25.proy008.service.ConcesionarioService;
+import es.cic.curso25.proy008.service.FlotaService;
+import es.cic.curso25.proy008.service.MotoService;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Pruebas de integración de las consultas de vehículos encendidos
+ * ({@code EncendidosController}).
+ * <p>
+ * Los cambios se hacen con los servicios y se consultan sin que se lance
+ * ninguna sentencia SQL. Las recargas periódicas y el relé del outbox se
+ * espacian para que no cuenten en las estadísticas.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "proy008.flota.recarga=3600000",
+    "proy008.outbox.intervalo=3600000"
+})
+@AutoConfigureMockMvc
+@DisplayName("EncendidosIntegrationTest")
+public class EncendidosIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConcesionarioService concesionarioService;
+
+    @Autowired
+    private CocheService cocheService;
+
+    @Autowired
+    private MotoService motoService;
+
+    @Autowired
+    private MotoRepository motoRepository;
+
+    @Autowired
+    private FlotaService flotaService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Encender, cambiar de concesionario, apagar y vaciar se reflejan en
+     * los contadores por concesionario sin consultar la BBDD.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("Los contadores siguen a las escrituras sin consultar la BBDD")
+    public void shouldTrackEncendidosPorConcesionario() throws Exception {
+        Long norte = concesionarioService.create(new Concesionario(
+                "Norte", 600888111, "Lugo", LocalTime.of(9, 0), LocalTime.of(18, 0))).getId();
+        Long sur = concesionarioService.create(new Concesionario(
+                "Sur", 600888222, "Cadiz", LocalTime.of(9, 0), LocalTime.of(18, 0))).getId();
+        long total = flotaService.contarCochesEncendidos(null);
+
+        Coche uno = encender(concesionarioService.addCoche(norte, new Coche("Cupra", 300, null)).getId());
+        encender(concesionarioService.addCoche(norte, new Coche("Cupra", 310, null)).getId());
+        concesionarioService.addCoche(norte, new Coche("Dacia", 90, null));
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+        mockMvc.perform(get("/coches/encendidos/count").param("concesionarioId", norte.toString()))
+            .andExpect(status().isOk())
+            .andExpect(content().string("2"));
+        mockMvc.perform(get("/coches/encendidos/count"))
+            .andExpect(content().string(String.valueOf(total + 2)));
+        mockMvc.perform(get("/coches/encendidos").param("concesionarioId", norte.toString()))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$[0]").value(uno.getId()));
+        assertEquals(0, estadisticas.getPrepareStatementCount(), "Las consultas no deben tocar la BBDD");
+
+        // Cambio de concesionario sin tocar el encendido
+        Coche movido = cocheService.get(uno.getId());
+        movido.setConcesionario(concesionarioService.get(sur));
+        cocheService.update(movido);
+        assertEquals(1, flotaService.contarCochesEncendidos(norte));
+        assertEquals(1, flotaService.contarCochesEncendidos(sur));
+
+        Coche apagado = cocheService.get(uno.getId());
+        apagado.setEncendido(false);
+        cocheService.update(apagado);
+        assertEquals(0, flotaService.contarCochesEncendidos(sur));
+
+        // El vaciado masivo no pasa por Hibernate: se apagan en memoria sus coches
+        concesionarioService.delete(norte);
+        assertEquals(0, flotaService.contarCochesEncendidos(norte));
+        assertEquals(total, flotaService.contarCochesEncendidos(null));
+
+        concesionarioService.delete(sur);
+    }
+
+    /**
+     * Las motos encendidas se listan y desaparecen al borrarlas.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("GET /motos/encendidas lista las motos encendidas")
+    public void shouldListMotosEncendidas() throws Exception {
+        Moto moto = new Moto(95, "Honda", "Trail");
+        moto.setEncendido(true);
+        Long id = motoService.create(moto).getId();
+        long antes = flotaService.contarMotosEncendidas();
+
+        mockMvc.perform(get("/motos/encendidas"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$[?(@ == " + id + ")]").exists());
+
+        motoRepository.deleteById(id);
+        mockMvc.perform(get("/motos/encendidas/count"))
+            .andExpect(content().string(String.valueOf(antes - 1)));
+    }
+
+    private Coche encender(Long id) {
+        Coche coche = cocheService.get(id);
+        coche.setEncendido(true);
+        cocheService.update(coche);
+        return coche;
+    }
+}
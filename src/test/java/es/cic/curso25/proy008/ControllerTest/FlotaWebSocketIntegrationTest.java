@@ -0,0 +1,145 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.time.LocalTime;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.BinaryWebSocketHandler;
+
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+import es.cic.curso25.proy008.flota.FlotaWebSocketHandler;
+import es.cic.curso25.proy008.flota.ProtocoloFlota;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import es.cic.curso25.proy008.repository.MotoRepository;
+
+/**
+ * Pruebas de integración del canal WebSocket {@code /ws/flota}.
+ * <p>
+ * Se levanta el servidor en un puerto aleatorio y se conecta un cliente
+ * real. El tick automático se espacia para lanzarlo a mano y saber qué
+ * cambios caen en cada delta.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "proy008.flota.tick=3600000",
+    "proy008.flota.recarga=3600000"
+})
+@DisplayName("FlotaWebSocketIntegrationTest")
+public class FlotaWebSocketIntegrationTest {
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private FlotaWebSocketHandler flotaWebSocketHandler;
+
+    @Autowired
+    private ConcesionarioRepository concesionarioRepository;
+
+    @Autowired
+    private CocheRepository cocheRepository;
+
+    @Autowired
+    private MotoRepository motoRepository;
+
+    /**
+     * La sesión recibe primero la instantánea y luego un delta con una sola
+     * entrada por vehículo, aunque cambie varias veces en el tick.
+     *
+     * @throws Exception Si falla la conexión.
+     */
+    @Test
+    @DisplayName("Instantánea inicial y deltas fundidos por tick")
+    public void shouldSendSnapshotAndCoalescedDeltas() throws Exception {
+        Concesionario cons = concesionarioRepository.save(new Concesionario(
+                "FlotaCons", 600777999, "Huesca", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+        Coche coche = new Coche("Abarth", 180, cons);
+        coche.setEncendido(true);
+        coche = cocheRepository.save(coche);
+
+        BlockingQueue<ByteBuffer> recibidos = new LinkedBlockingQueue<>();
+        WebSocketSession cliente = new StandardWebSocketClient().execute(new BinaryWebSocketHandler() {
+            @Override
+            protected void handleBinaryMessage(WebSocketSession session, BinaryMessage message) {
+                recibidos.add(message.getPayload());
+            }
+        }, "ws://localhost:" + puerto + "/ws/flota").get(5, TimeUnit.SECONDS);
+        try {
+            ByteBuffer instantanea = recibidos.poll(5, TimeUnit.SECONDS);
+            assertNotNull(instantanea, "Debe llegar la instantánea");
+            assertEquals(ProtocoloFlota.INSTANTANEA, instantanea.get());
+            Map<Integer, BitSet> encendidos = new HashMap<>();
+            while (instantanea.hasRemaining()) {
+                int tipo = instantanea.get();
+                byte[] bits = new byte[instantanea.getInt()];
+                instantanea.get(bits);
+                encendidos.put(tipo, BitSet.valueOf(bits));
+            }
+            assertTrue(encendidos.get(TipoVehiculo.COCHE.getCodigo()).get(coche.getId().intValue()),
+                       "El coche encendido debe salir en la instantánea");
+
+            coche.setEncendido(false);
+            coche = cocheRepository.save(coche);
+            Moto moto = new Moto(125, "Vespa", "Scooter");
+            moto.setEncendido(true);
+            moto = motoRepository.save(moto);
+            moto.setEncendido(false);
+            moto = motoRepository.save(moto);
+            moto.setEncendido(true);
+            moto = motoRepository.save(moto);
+
+            flotaWebSocketHandler.tick();
+
+            ByteBuffer delta = recibidos.poll(5, TimeUnit.SECONDS);
+            assertNotNull(delta, "Debe llegar el delta del tick");
+            assertEquals(ProtocoloFlota.DELTA, delta.get());
+            int entradas = delta.getInt();
+            Map<String, Integer> vistos = new HashMap<>();
+            Map<String, Boolean> estado = new HashMap<>();
+            for (int i = 0; i < entradas; i++) {
+                int cabecera = delta.get();
+                String clave = (cabecera >> 1) + ":" + delta.getInt();
+                vistos.merge(clave, 1, Integer::sum);
+                estado.put(clave, (cabecera & 1) == 1);
+            }
+            String claveCoche = TipoVehiculo.COCHE.getCodigo() + ":" + coche.getId();
+            String claveMoto = TipoVehiculo.MOTO.getCodigo() + ":" + moto.getId();
+            assertEquals(1, vistos.get(claveCoche));
+            assertFalse(estado.get(claveCoche), "El coche se ha apagado");
+            assertEquals(1, vistos.get(claveMoto), "Tres cambios de la moto en un tick: una sola entrada");
+            assertTrue(estado.get(claveMoto), "Debe llegar el último valor de la moto");
+            assertFalse(delta.hasRemaining());
+
+            assertNull(recibidos.poll(200, TimeUnit.MILLISECONDS), "Sin tick no hay más mensajes");
+            motoRepository.deleteById(moto.getId());
+        } finally {
+            cliente.close(CloseStatus.NORMAL);
+            cocheRepository.deleteById(coche.getId());
+            concesionarioRepository.deleteById(cons.getId());
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.Historial;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import es.cic.curso25.proy008.repository.HistorialRepository;
+import es.cic.curso25.proy008.service.CocheService;
+
+/**
+ * Pruebas de integración del historial de cambios y de
+ * {@code GET /coches/{id}?asOf=}.
+ * <p>
+ * Se guarda el estado completo cada 3 versiones para que las consultas
+ * tengan que aplicar diferencias sobre una instantánea.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest(properties = "proy008.historial.instantanea-cada=3")
+@AutoConfigureMockMvc
+@DisplayName("HistorialIntegrationTest")
+public class HistorialIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CocheService cocheService;
+
+    @Autowired
+    private CocheRepository cocheRepository;
+
+    @Autowired
+    private ConcesionarioRepository concesionarioRepository;
+
+    @Autowired
+    private HistorialRepository historialRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Cinco versiones de un coche: cada una se lee por versión y por
+     * instante, reconstruida desde la instantánea más cercana.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("GET /coches/{id}?asOf= reconstruye versiones e instantes pasados")
+    public void shouldTimeTravel() throws Exception {
+        Concesionario cons = concesionarioRepository.save(new Concesionario(
+                "Historico", 600999111, "Burgos", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+        Long id = cocheRepository.save(new Coche("Citroen", 100, cons)).getId();
+        Instant antesDeCrear = Instant.now().minusSeconds(60);
+
+        Instant[] instantes = new Instant[5];
+        instantes[0] = Instant.now();
+        for (int v = 1; v <= 4; v++) {
+            Coche coche = cocheService.get(id);
+            coche.setPotencia(100 + v * 10);
+            if (v == 2) {
+                coche.setMarca("DS");
+            }
+            cocheService.update(coche);
+            instantes[v] = Instant.now();
+        }
+
+        // v0 y v3 son instantáneas; v1, v2 y v4, diferencias
+        List<Historial> filas = historialRepository.findReconstruccion("Coche", id, 4L);
+        assertEquals(2, filas.size(), "v4 se reconstruye desde la instantánea v3");
+        assertTrue(filas.get(0).isInstantanea());
+        assertEquals("{\"potencia\":140.0}", filas.get(1).getCambios());
+
+        mockMvc.perform(get("/coches/{id}", id).param("asOf", "0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(0))
+            .andExpect(jsonPath("$.estado.marca").value("Citroen"))
+            .andExpect(jsonPath("$.estado.potencia").value(100.0))
+            .andExpect(jsonPath("$.estado.concesionario").value(cons.getId()));
+
+        mockMvc.perform(get("/coches/{id}", id).param("asOf", "2"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.estado.marca").value("DS"))
+            .andExpect(jsonPath("$.estado.potencia").value(120.0));
+
+        mockMvc.perform(get("/coches/{id}", id).param("asOf", instantes[1].toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(1))
+            .andExpect(jsonPath("$.estado.marca").value("Citroen"))
+            .andExpect(jsonPath("$.estado.potencia").value(110.0));
+
+        mockMvc.perform(get("/coches/{id}", id).param("asOf", instantes[4].toString()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.version").value(4))
+            .andExpect(jsonPath("$.estado.marca").value("DS"))
+            .andExpect(jsonPath("$.estado.potencia").value(140.0));
+
+        mockMvc.perform(get("/coches/{id}", id).param("asOf", antesDeCrear.toString()))
+            .andExpect(status().isNotFound());
+        mockMvc.perform(get("/coches/{id}", id).param("asOf", "ayer"))
+            .andExpect(status().isBadRequest());
+
+        concesionarioRepository.deleteById(cons.getId());
+    }
+
+    /**
+     * El historial se escribe en la transacción del cambio: si esta se
+     * deshace, no queda rastro.
+     */
+    @Test
+    @DisplayName("Un cambio deshecho no deja historial")
+    public void shouldNotWriteHistoryOnRollback() {
+        Concesionario cons = concesionarioRepository.save(new Concesionario(
+                "Deshecho", 600999222, "Palencia", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+        Long id = cocheRepository.save(new Coche("Lada", 70, cons)).getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+            cocheRepository.findById(id).orElseThrow().setPotencia(75);
+            cocheRepository.flush();
+            estado.setRollbackOnly();
+        });
+
+        assertFalse(historialRepository.existsById(
+                new es.cic.curso25.proy008.model.HistorialId("Coche", id, 1L)));
+        assertTrue(historialRepository.existsById(
+                new es.cic.curso25.proy008.model.HistorialId("Coche", id, 0L)));
+
+        concesionarioRepository.deleteById(cons.getId());
+    }
+}
@@ -0,0 +1,117 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.service.CocheService;
+import es.cic.curso25.proy008.service.ConcesionarioService;
+import es.cic.curso25.proy008.service.InventarioEnVivoService;
+
+/**
+ * Pruebas de integración de {@code GET /concesionarios/{id}/coches/stream}.
+ * <p>
+ * La conexión SSE queda abierta mientras se hacen cambios con los servicios
+ * y se lee lo que va llegando a la respuesta.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("InventarioEnVivoIntegrationTest")
+public class InventarioEnVivoIntegrationTest {
+
+    private static final long ESPERA_MS = 5_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConcesionarioService concesionarioService;
+
+    @Autowired
+    private CocheService cocheService;
+
+    @Autowired
+    private InventarioEnVivoService inventarioEnVivoService;
+
+    /**
+     * El suscriptor recibe, en orden, el alta, el encendido, el borrado y el
+     * vaciado de su concesionario, y nada de otros concesionarios.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("El stream emite los cambios del concesionario en orden")
+    public void shouldStreamCambiosDelConcesionario() throws Exception {
+        Long seguido = concesionarioService.create(new Concesionario(
+                "StreamCons", 600444555, "Cuenca", LocalTime.of(9, 0), LocalTime.of(18, 0))).getId();
+        Long otro = concesionarioService.create(new Concesionario(
+                "OtroCons", 600444556, "Teruel", LocalTime.of(9, 0), LocalTime.of(18, 0))).getId();
+
+        MvcResult async = mockMvc.perform(get("/concesionarios/{id}/coches/stream", seguido))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        MockHttpServletResponse respuesta = async.getResponse();
+        assertTrue(inventarioEnVivoService.getSuscriptores() >= 1);
+
+        Long cocheId = concesionarioService.addCoche(seguido, new Coche("Alpine", 250, null)).getId();
+        concesionarioService.addCoche(otro, new Coche("Bugatti", 1500, null));
+        Coche coche = cocheService.get(cocheId);
+        coche.setEncendido(true);
+        cocheService.update(coche);
+        cocheService.delete(cocheId);
+        concesionarioService.delete(seguido);
+
+        String cuerpo = esperar(respuesta, "event:VACIADO");
+        int creado = cuerpo.indexOf("event:CREADO");
+        int encendido = cuerpo.indexOf("event:ENCENDIDO");
+        int borrado = cuerpo.indexOf("event:BORRADO");
+        assertTrue(creado >= 0 && creado < encendido && encendido < borrado,
+                   "Los eventos deben llegar en el orden de los commits: " + cuerpo);
+        assertTrue(cuerpo.contains("\"marca\":\"Alpine\""));
+        assertTrue(cuerpo.contains("\"encendido\":true"));
+        assertFalse(cuerpo.contains("Bugatti"), "No deben llegar cambios de otros concesionarios");
+
+        concesionarioService.delete(otro);
+    }
+
+    /**
+     * No se puede seguir un concesionario que no existe.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("El stream de un concesionario inexistente devuelve 404")
+    public void shouldRejectUnknownConcesionario() throws Exception {
+        mockMvc.perform(get("/concesionarios/{id}/coches/stream", 987_654L))
+            .andExpect(status().isNotFound());
+    }
+
+    private static String esperar(MockHttpServletResponse respuesta, String texto) throws Exception {
+        long limite = System.currentTimeMillis() + ESPERA_MS;
+        String cuerpo = respuesta.getContentAsString();
+        while (!cuerpo.contains(texto) && System.currentTimeMillis() < limite) {
+            Thread.sleep(20);
+            cuerpo = respuesta.getContentAsString();
+        }
+        assertTrue(cuerpo.contains(texto), "No ha llegado " + texto + ": " + cuerpo);
+        return cuerpo;
+    }
+}
@@ -0,0 +1,104 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Pruebas de integración del descarte de carga ({@code LimiteAdaptativoInterceptor}).
+ * <p>
+ * Se fija el límite en 2 con la mitad para lecturas. Una petición reactiva
+ * de un solo valor mantiene ocupado su hueco hasta el reenvío asíncrono, lo
+ * que permite saturar las lecturas sin hilos adicionales.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest(properties = {
+    "proy008.adaptativo.limite-inicial=2",
+    "proy008.adaptativo.limite-minimo=2",
+    "proy008.adaptativo.limite-maximo=2",
+    "proy008.adaptativo.fraccion-lecturas=0.5"
+})
+@AutoConfigureMockMvc
+@DisplayName("LimiteAdaptativoIntegrationTest")
+public class LimiteAdaptativoIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Con las lecturas saturadas, otra lectura recibe 503 y una escritura pasa.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("Descarta lecturas con 503 y deja pasar escrituras")
+    public void shouldShedReadsBeforeWrites() throws Exception {
+        MvcResult enCurso = mockMvc.perform(get("/reactivo/coches/{id}", -1L))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertEquals(1.0, meterRegistry.get("proy008.adaptativo.en.curso").gauge().value());
+
+        mockMvc.perform(get("/coches"))
+            .andExpect(status().isServiceUnavailable())
+            .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"));
+
+        // La escritura llega al controlador (que la rechaza por ids distintos)
+        mockMvc.perform(put("/concesionarios/{id}", 1L)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"id\":2}"))
+            .andExpect(status().isBadRequest());
+
+        mockMvc.perform(asyncDispatch(enCurso))
+            .andExpect(status().isNotFound());
+        assertEquals(0.0, meterRegistry.get("proy008.adaptativo.en.curso").gauge().value());
+
+        mockMvc.perform(get("/coches"))
+            .andExpect(status().isOk());
+
+        assertEquals(1.0, meterRegistry.get("proy008.adaptativo.descartadas")
+            .tag("tipo", "lectura").counter().count());
+        assertEquals(0.0, meterRegistry.get("proy008.adaptativo.descartadas")
+            .tag("tipo", "escritura").counter().count());
+        assertEquals(2.0, meterRegistry.get("proy008.adaptativo.limite").gauge().value());
+    }
+
+    /**
+     * Un flujo reactivo no ocupa hueco mientras se emite.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("Los flujos no ocupan hueco del límite")
+    public void shouldNotLimitStreams() throws Exception {
+        MvcResult flujo = mockMvc.perform(get("/reactivo/motos"))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        assertEquals(0.0, meterRegistry.get("proy008.adaptativo.en.curso").gauge().value());
+
+        mockMvc.perform(get("/coches"))
+            .andExpect(status().isOk());
+
+        mockMvc.perform(asyncDispatch(flujo))
+            .andExpect(status().isOk());
+        assertEquals(0.0, meterRegistry.get("proy008.adaptativo.en.curso").gauge().value());
+    }
+}
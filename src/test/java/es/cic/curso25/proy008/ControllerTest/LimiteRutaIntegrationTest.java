@@ -0,0 +1,80 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Pruebas de integración del limitador por ruta ({@code LimiteRutaInterceptor}).
+ * <p>
+ * Se sustituye la lista de rutas por una sola muy restrictiva sobre
+ * {@code GET /motoristas/{id}} para poder agotarla en pocas peticiones.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest(properties = {
+    "proy008.limites.rutas[0].metodo=GET",
+    "proy008.limites.rutas[0].patron=/motoristas/{id}",
+    "proy008.limites.rutas[0].capacidad=2",
+    "proy008.limites.rutas[0].recarga-por-segundo=0.01"
+})
+@AutoConfigureMockMvc
+@DisplayName("LimiteRutaIntegrationTest")
+public class LimiteRutaIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    /**
+     * Tras agotar la ráfaga, el mismo cliente recibe 429 con {@code Retry-After}
+     * mientras que otro cliente sigue teniendo su propio bucket.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("Responde 429 con Retry-After al agotar el bucket del cliente")
+    public void shouldRejectWhenBucketIsEmpty() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/motoristas/{id}", 1L).header("X-Cliente-Id", "app-movil"))
+                .andExpect(status().isOk());
+        }
+
+        String retryAfter = mockMvc.perform(get("/motoristas/{id}", 1L).header("X-Cliente-Id", "app-movil"))
+            .andExpect(status().isTooManyRequests())
+            .andExpect(header().exists(HttpHeaders.RETRY_AFTER))
+            .andReturn().getResponse().getHeader(HttpHeaders.RETRY_AFTER);
+        assertTrue(Long.parseLong(retryAfter) >= 1, "Retry-After debe ser al menos 1 segundo");
+
+        // Otro cliente no se ve afectado
+        mockMvc.perform(get("/motoristas/{id}", 1L).header("X-Cliente-Id", "backoffice"))
+            .andExpect(status().isOk());
+
+        // Las rutas no configuradas no se limitan
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/motoristas").header("X-Cliente-Id", "app-movil"))
+                .andExpect(status().isOk());
+        }
+
+        double rechazos = meterRegistry.get("proy008.limites.rechazos")
+            .tag("ruta", "GET /motoristas/{id}")
+            .tag("motivo", "tasa")
+            .counter().count();
+        assertEquals(1.0, rechazos, "Debe contabilizarse un rechazo por tasa");
+    }
+}
@@ -0,0 +1,118 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.model.Motorista;
+import es.cic.curso25.proy008.repository.MotoRepository;
+import es.cic.curso25.proy008.repository.MotoristaRepository;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Cuenta las sentencias SQL de {@code GET /motos} con las estadísticas de
+ * Hibernate.
+ * <p>
+ * {@code Moto.motorista} es el lado inverso de un {@code @OneToOne}: sin la
+ * mejora de bytecode Hibernate lanza una consulta por moto para saber si
+ * tiene motorista. El listado debe resolverse con una sola sentencia aunque
+ * la mitad de las motos tengan motorista.
+ * </p>
+ * <p>
+ * Las estadísticas son globales, así que se espacia el relé del outbox para
+ * que no lance consultas durante la medición.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    // El relé del outbox consulta su tabla en segundo plano y contaría en las estadísticas
+    "proy008.outbox.intervalo=3600000"
+})
+@AutoConfigureMockMvc
+@DisplayName("MotoConsultasIntegrationTest")
+public class MotoConsultasIntegrationTest {
+
+    private static final int MOTOS = 1_000;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MotoRepository motoRepository;
+
+    @Autowired
+    private MotoristaRepository motoristaRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private final List<Long> motoristaIds = new ArrayList<>();
+
+    private final List<Long> motoIds = new ArrayList<>();
+
+    @AfterEach
+    void limpiar() {
+        motoristaRepository.deleteAllByIdInBatch(motoristaIds);
+        motoRepository.deleteAllByIdInBatch(motoIds);
+    }
+
+    /**
+     * GET /motos con 1.000 motos, 500 de ellas con motorista, ejecuta una
+     * única sentencia y no carga ningún motorista.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("GET /motos lanza una sola consulta con 1.000 motos")
+    public void shouldListMotosWithSingleStatement() throws Exception {
+        List<Motorista> motoristas = new ArrayList<>();
+        List<Moto> sueltas = new ArrayList<>();
+        for (int i = 0; i < MOTOS; i++) {
+            Moto moto = new Moto(100 + i % 100, "Marca" + i % 10, "Naked");
+            if (i % 2 == 0) {
+                Motorista motorista = new Motorista();
+                motorista.setNombre("Piloto" + i);
+                motorista.setEdad(30);
+                motorista.setMoto(moto);
+                motoristas.add(motorista);
+            } else {
+                sueltas.add(moto);
+            }
+        }
+        for (Motorista motorista : motoristaRepository.saveAll(motoristas)) {
+            motoristaIds.add(motorista.getId());
+            motoIds.add(motorista.getMoto().getId());
+        }
+        motoRepository.saveAll(sueltas).forEach(moto -> motoIds.add(moto.getId()));
+
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estadisticas.clear();
+
+        mockMvc.perform(get("/motos"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(org.hamcrest.Matchers.greaterThanOrEqualTo(MOTOS)));
+
+        assertEquals(1, estadisticas.getPrepareStatementCount(),
+                     "El listado no debe lanzar consultas por moto");
+        assertEquals(0, estadisticas.getEntityStatistics(Motorista.class.getName()).getLoadCount(),
+                     "No debe cargarse ningún motorista");
+    }
+}
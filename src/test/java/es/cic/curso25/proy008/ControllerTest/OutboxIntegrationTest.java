@@ -0,0 +1,268 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.event.ApplicationEvents;
+import org.springframework.test.context.event.RecordApplicationEvents;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.cic.curso25.proy008.event.EventoDominio;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.EventoSalida;
+import es.cic.curso25.proy008.model.Motorista;
+import es.cic.curso25.proy008.outbox.DestinoEventos;
+import es.cic.curso25.proy008.outbox.RelevoOutbox;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import es.cic.curso25.proy008.repository.EventoSalidaRepository;
+import es.cic.curso25.proy008.repository.MotoRepository;
+import es.cic.curso25.proy008.repository.MotoristaRepository;
+import es.cic.curso25.proy008.service.CocheService;
+import es.cic.curso25.proy008.service.ConcesionarioService;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Pruebas de integración del outbox de eventos de dominio.
+ * <p>
+ * El relé programado se espacia una hora para que solo entregue cuando el
+ * test llama a {@link RelevoOutbox#enviar()}. Se añade un destino de prueba
+ * que puede forzarse a fallar.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest(properties = {
+    "proy008.outbox.intervalo=3600000",
+    "proy008.outbox.fichero.ruta=target/outbox-test/outbox.ndjson"
+})
+@AutoConfigureMockMvc
+@RecordApplicationEvents
+@DisplayName("OutboxIntegrationTest")
+public class OutboxIntegrationTest {
+
+    private static final Path FICHERO = Path.of("target/outbox-test/outbox.ndjson");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ApplicationEvents eventos;
+
+    @Autowired
+    private RelevoOutbox relevoOutbox;
+
+    @Autowired
+    private DestinoPrueba destinoPrueba;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CocheService cocheService;
+
+    @Autowired
+    private ConcesionarioService concesionarioService;
+
+    @Autowired
+    private EventoSalidaRepository eventoSalidaRepository;
+
+    @Autowired
+    private CocheRepository cocheRepository;
+
+    @Autowired
+    private ConcesionarioRepository concesionarioRepository;
+
+    @Autowired
+    private MotoristaRepository motoristaRepository;
+
+    @Autowired
+    private MotoRepository motoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private Concesionario concesionario;
+
+    @BeforeEach
+    void preparar() throws Exception {
+        relevoOutbox.enviar();
+        Files.deleteIfExists(FICHERO);
+        concesionario = concesionarioRepository.save(new Concesionario(
+                "Outbox", 600111333, "Cuenca", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+    }
+
+    @AfterEach
+    void limpiar() {
+        destinoPrueba.fallar.set(false);
+        relevoOutbox.enviar();
+        cocheRepository.deleteInBulkByConcesionarioId(concesionario.getId());
+        concesionarioRepository.deleteById(concesionario.getId());
+    }
+
+    /**
+     * Una venta y una montura dejan su evento en el outbox; el relé los
+     * entrega en orden al listener y al fichero y vacía la tabla.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("Ventas y monturas se entregan al listener y al fichero")
+    public void shouldRelayEventsToAllSinks() throws Exception {
+        String cocheJson = objectMapper.writeValueAsString(new Coche("Seat", 115, concesionario));
+        Long cocheId = objectMapper.readTree(mockMvc.perform(post("/concesionarios/ventas")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(cocheJson))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString()).get("id").asLong();
+
+        String motoristaJson = """
+                {"nombre":"Jorge","apellidos":"Lorenzo","edad":37,
+                 "moto":{"potencia":210,"marca":"Yamaha","tipo":"Carreras"}}""";
+        Motorista motorista = objectMapper.readValue(mockMvc.perform(post("/motos/montura")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(motoristaJson))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getContentAsString(), Motorista.class);
+
+        List<EventoSalida> pendientes = eventoSalidaRepository.findAll();
+        assertEquals(List.of("CocheVendido", "MotoristaMontado"),
+                pendientes.stream().map(EventoSalida::getTipo).toList());
+        assertEquals(0, eventos.stream(EventoDominio.class).count(), "Nada se entrega antes del relé");
+
+        assertEquals(2, relevoOutbox.enviar());
+
+        List<EventoDominio> recibidos = eventos.stream(EventoDominio.class).toList();
+        assertEquals(2, recibidos.size());
+        assertEquals(cocheId, recibidos.get(0).agregadoId());
+        JsonNode carga = objectMapper.readTree(recibidos.get(1).carga());
+        assertEquals("Yamaha", carga.get("marca").asText());
+        assertEquals(motorista.getMoto().getId(), carga.get("motoId").asLong());
+
+        List<String> lineas = Files.readAllLines(FICHERO, StandardCharsets.UTF_8);
+        assertEquals(2, lineas.size());
+        JsonNode venta = objectMapper.readTree(lineas.get(0));
+        assertEquals("CocheVendido", venta.get("tipo").asText());
+        assertEquals(concesionario.getId(), venta.get("carga").get("concesionarioId").asLong());
+
+        assertEquals(0, eventoSalidaRepository.count(), "El outbox queda vacío");
+        assertEquals(2.0, meterRegistry.get("proy008.outbox.enviados").tag("destino", "fichero")
+            .counter().count(), 0.0);
+
+        motoristaRepository.deleteById(motorista.getId());
+        motoRepository.deleteById(motorista.getMoto().getId());
+    }
+
+    /**
+     * Añadir un coche a un concesionario también es una venta: deja su
+     * evento en el outbox.
+     *
+     * @throws Exception Si la carga no es JSON.
+     */
+    @Test
+    @DisplayName("Un coche añadido a un concesionario deja su evento en el outbox")
+    public void shouldWriteEventForAddedCoche() throws Exception {
+        Coche coche = concesionarioService.addCoche(concesionario.getId(), new Coche("Cupra", 150, null));
+
+        List<EventoSalida> pendientes = eventoSalidaRepository.findAll();
+        assertEquals(1, pendientes.size());
+        assertEquals("CocheVendido", pendientes.get(0).getTipo());
+        assertEquals(coche.getId(), pendientes.get(0).getAgregadoId());
+        assertEquals(concesionario.getId(),
+                objectMapper.readTree(pendientes.get(0).getCarga()).get("concesionarioId").asLong());
+    }
+
+    /**
+     * Si un destino falla el lote no se borra y se vuelve a entregar entero
+     * en la siguiente ronda.
+     */
+    @Test
+    @DisplayName("Un destino caído provoca la reentrega del lote")
+    public void shouldRedeliverAfterFailure() {
+        cocheService.create(new Coche("Kia", 90, concesionario));
+        destinoPrueba.fallar.set(true);
+
+        assertEquals(0, relevoOutbox.enviar());
+        assertEquals(1, eventoSalidaRepository.count(), "El evento sigue pendiente");
+        assertEquals(1, eventos.stream(EventoDominio.class).count(), "El listener ya lo recibió una vez");
+        assertTrue(meterRegistry.get("proy008.outbox.retraso").gauge().value() >= 0);
+
+        destinoPrueba.fallar.set(false);
+        assertEquals(1, relevoOutbox.enviar());
+        assertEquals(2, eventos.stream(EventoDominio.class).count(), "Entrega al menos una vez");
+        assertEquals(0, eventoSalidaRepository.count());
+    }
+
+    /**
+     * El evento se escribe en la transacción de la venta: si esta se
+     * deshace, no queda evento.
+     */
+    @Test
+    @DisplayName("Una venta deshecha no deja evento en el outbox")
+    public void shouldNotWriteEventOnRollback() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(estado -> {
+            cocheService.create(new Coche("Skoda", 95, concesionario));
+            estado.setRollbackOnly();
+        });
+
+        assertEquals(0, eventoSalidaRepository.count());
+    }
+
+    /**
+     * Destino adicional que falla mientras {@link #fallar} esté activo.
+     */
+    static class DestinoPrueba implements DestinoEventos {
+
+        final AtomicBoolean fallar = new AtomicBoolean();
+
+        @Override
+        public String getNombre() {
+            return "prueba";
+        }
+
+        @Override
+        public void enviar(List<EventoSalida> eventos) {
+            if (fallar.get()) {
+                throw new IllegalStateException("Destino caído");
+            }
+        }
+    }
+
+    @TestConfiguration
+    static class DestinoPruebaConfig {
+
+        @Bean
+        DestinoPrueba destinoPrueba() {
+            return new DestinoPrueba();
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package es.cic.curso25.proy008.ControllerTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+
+/**
+ * Pruebas de integración para {@code ReactivoController}.
+ * <p>
+ * Los datos se guardan con los repositorios JPA y se leen con R2DBC,
+ * comprobando así que ambos accesos comparten la misma BBDD H2.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DisplayName("ReactivoControllerIntegrationTest")
+public class ReactivoControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CocheRepository cocheRepository;
+
+    @Autowired
+    private ConcesionarioRepository concesionarioRepository;
+
+    /**
+     * GET /reactivo/coches con NDJSON emite una línea JSON por coche.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("GET /reactivo/coches emite NDJSON con los coches guardados por JPA")
+    public void shouldStreamCochesAsNdjson() throws Exception {
+        Concesionario cons = concesionarioRepository.save(new Concesionario(
+                "ReactivoCons", 600111333, "Toledo", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+        Coche coche = cocheRepository.save(new Coche("Lancia", 140, cons));
+
+        MvcResult async = mockMvc.perform(get("/reactivo/coches")
+                .accept(MediaType.APPLICATION_NDJSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        String cuerpo = mockMvc.perform(asyncDispatch(async))
+            .andExpect(status().isOk())
+            .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+            .andReturn().getResponse().getContentAsString();
+
+        assertTrue(cuerpo.contains("\"id\":" + coche.getId() + ","), "Debe emitir el coche guardado");
+        assertTrue(cuerpo.contains("\"concesionarioId\":" + cons.getId()), "Debe exponer el id del concesionario");
+
+        concesionarioRepository.deleteById(cons.getId());
+    }
+
+    /**
+     * GET /reactivo/coches/{id} devuelve 200 si existe y 404 si no.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("GET /reactivo/coches/{id} devuelve 200 o 404 según existencia")
+    public void shouldReturnCocheOrNotFound() throws Exception {
+        Concesionario cons = concesionarioRepository.save(new Concesionario(
+                "ReactivoCons2", 600111444, "Cuenca", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+        Coche coche = cocheRepository.save(new Coche("Alfa", 200, cons));
+
+        MvcResult async = mockMvc.perform(get("/reactivo/coches/{id}", coche.getId()))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(async))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.marca").value("Alfa"))
+            .andExpect(jsonPath("$.potencia").value(200.0));
+
+        MvcResult noExiste = mockMvc.perform(get("/reactivo/coches/{id}", 987654L))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+        mockMvc.perform(asyncDispatch(noExiste))
+            .andExpect(status().isNotFound());
+
+        concesionarioRepository.deleteById(cons.getId());
+    }
+
+    /**
+     * GET /reactivo/motos responde aunque la tabla esté vacía.
+     *
+     * @throws Exception Si la petición HTTP falla.
+     */
+    @Test
+    @DisplayName("GET /reactivo/motos responde con JSON")
+    public void shouldListMotosAsJson() throws Exception {
+        MvcResult async = mockMvc.perform(get("/reactivo/motos")
+                .accept(MediaType.APPLICATION_JSON))
+            .andExpect(request().asyncStarted())
+            .andReturn();
+
+        mockMvc.perform(asyncDispatch(async))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isArray());
+    }
+}
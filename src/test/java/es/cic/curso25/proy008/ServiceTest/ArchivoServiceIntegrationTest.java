@@ -0,0 +1,113 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Instant;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import es.cic.curso25.proy008.event.MotoBorradaEvent;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.model.Motorista;
+import es.cic.curso25.proy008.repository.MotoArchivadaRepository;
+import es.cic.curso25.proy008.repository.MotoRepository;
+import es.cic.curso25.proy008.service.ArchivoService;
+import es.cic.curso25.proy008.service.MotoService;
+import es.cic.curso25.proy008.service.MotoristaService;
+
+/**
+ * Pruebas de integración de {@link ArchivoService}: archivado de motos y
+ * compactación.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest
+@DisplayName("ArchivoServiceIntegrationTest")
+public class ArchivoServiceIntegrationTest {
+
+    @Autowired
+    private ArchivoService archivoService;
+
+    @Autowired
+    private MotoService motoService;
+
+    @Autowired
+    private MotoristaService motoristaService;
+
+    @Autowired
+    private MotoRepository motoRepository;
+
+    @Autowired
+    private MotoArchivadaRepository motoArchivadaRepository;
+
+    /**
+     * La moto borrada llega al archivo y la compactación la purga cuando
+     * supera la retención.
+     */
+    @Test
+    @DisplayName("delete() archiva la moto y compactar() la purga")
+    void shouldArchiveAndCompact() {
+        Long id = motoRepository.save(new Moto(90, "Vespa", "Scooter")).getId();
+
+        motoService.delete(id);
+        archivoService.vaciar();
+
+        assertEquals(0, archivoService.getPendientes());
+        assertEquals("Vespa", motoArchivadaRepository.findById(id).orElseThrow().getMarca());
+
+        // Con el corte en el pasado no se purga nada reciente
+        archivoService.compactar(Instant.now().minusSeconds(3600));
+        assertTrue(motoArchivadaRepository.existsById(id));
+
+        assertTrue(archivoService.compactar(Instant.now().plusSeconds(1)) >= 1);
+        assertFalse(motoArchivadaRepository.existsById(id), "La compactación debe purgar lo caducado");
+    }
+
+    /**
+     * Una fila que no se puede archivar (id repetido) no bloquea a las demás
+     * de su lote y se descarta al agotar los intentos.
+     */
+    @Test
+    @DisplayName("Una fila mala se descarta tras sus intentos sin bloquear el lote")
+    void shouldDiscardPoisonRow() {
+        Long id = motoRepository.save(new Moto(70, "Derbi", "Scooter")).getId();
+        Long otra = motoRepository.save(new Moto(80, "Rieju", "Trail")).getId();
+        archivoService.onMotoBorrada(new MotoBorradaEvent(id, 70, "Derbi", "Scooter"));
+        archivoService.onMotoBorrada(new MotoBorradaEvent(id, 70, "Derbi", "Scooter"));
+        archivoService.onMotoBorrada(new MotoBorradaEvent(otra, 80, "Rieju", "Trail"));
+
+        archivoService.vaciar();
+        assertTrue(motoArchivadaRepository.existsById(id));
+        assertTrue(motoArchivadaRepository.existsById(otra), "Las filas buenas se archivan aunque falle el lote");
+
+        for (int i = 0; i < 10 && archivoService.getPendientes() > 0; i++) {
+            archivoService.vaciar();
+        }
+        assertEquals(0, archivoService.getPendientes(), "La repetida se descarta al agotar los intentos");
+    }
+
+    /**
+     * Al borrar un motorista su moto se borra en cascada y también se
+     * archiva.
+     */
+    @Test
+    @DisplayName("delete() de un motorista archiva su moto")
+    void shouldArchiveMotoOfDeletedMotorista() {
+        Motorista motorista = new Motorista();
+        motorista.setNombre("Archivado");
+        motorista.setMoto(new Moto(125, "Montesa", "Trial"));
+        motorista = motoristaService.create(motorista);
+        Long motoId = motorista.getMoto().getId();
+
+        motoristaService.delete(motorista.getId());
+        archivoService.vaciar();
+
+        assertFalse(motoRepository.existsById(motoId));
+        assertEquals("Montesa", motoArchivadaRepository.findById(motoId).orElseThrow().getMarca());
+    }
+}
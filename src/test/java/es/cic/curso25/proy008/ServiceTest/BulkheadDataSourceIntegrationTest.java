@@ -0,0 +1,85 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.cic.curso25.proy008.datasource.BulkheadDataSource;
+import es.cic.curso25.proy008.service.CocheService;
+
+/**
+ * Pruebas de integración de los bulkheads de BBDD en modo hilos virtuales
+ * ({@code HilosVirtualesConfig}).
+ * <p>
+ * Cada pool tiene su propio semáforo: agotar los permisos del de escritura
+ * no impide leer de la réplica. Las tareas programadas también escriben, así
+ * que no se da por hecho que el pool de escritura esté libre.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest(properties = {
+        "spring.threads.virtual.enabled=true",
+        "proy008.bulkhead.max-concurrencia=2",
+        "proy008.bulkhead.tiempo-espera=200ms" })
+@DisplayName("BulkheadDataSourceIntegrationTest")
+public class BulkheadDataSourceIntegrationTest {
+
+    @Autowired
+    private LazyConnectionDataSourceProxy dataSource;
+
+    @Autowired
+    private CocheService cocheService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * El pool de escritura queda detrás de un bulkhead con los permisos
+     * configurados.
+     */
+    @Test
+    @DisplayName("El pool de escritura tiene su propio bulkhead")
+    public void shouldWrapWritePool() {
+        BulkheadDataSource escritura = assertInstanceOf(BulkheadDataSource.class, dataSource.getTargetDataSource());
+
+        assertEquals(2, escritura.getMaxConcurrencia());
+    }
+
+    /**
+     * Con todos los permisos de escritura ocupados, las lecturas siguen
+     * obteniendo conexión de la réplica.
+     */
+    @Test
+    @DisplayName("Agotar el bulkhead de escritura no bloquea las lecturas")
+    public void shouldReadWithWriteBulkheadExhausted() throws Exception {
+        BulkheadDataSource escritura = (BulkheadDataSource) dataSource.getTargetDataSource();
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+
+        List<Connection> conexiones = new ArrayList<>();
+        try {
+            while (escritura.getPermisosDisponibles() > 0) {
+                conexiones.add(escritura.getConnection());
+            }
+
+            assertNotNull(soloLectura.execute(estado -> cocheService.get()));
+        } finally {
+            for (Connection conexion : conexiones) {
+                conexion.close();
+            }
+        }
+    }
+}
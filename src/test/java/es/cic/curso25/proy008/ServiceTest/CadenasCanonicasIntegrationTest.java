@@ -0,0 +1,103 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import es.cic.curso25.proy008.cadenas.CadenasCanonicas;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Pruebas de integración de {@link CadenasCanonicas} al cargar entidades y
+ * al leer JSON.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest
+@DisplayName("CadenasCanonicasIntegrationTest")
+public class CadenasCanonicasIntegrationTest {
+
+    @Autowired
+    private ConcesionarioRepository concesionarioRepository;
+
+    @Autowired
+    private CocheRepository cocheRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Dos coches de la misma marca cargados de la BBDD comparten la cadena.
+     */
+    @Test
+    @DisplayName("Las entidades cargadas comparten las cadenas repetidas")
+    void shouldShareStringsOnLoad() {
+        Concesionario cons = concesionarioRepository.save(new Concesionario(
+                "Canonico", 600555111, "Teruel", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+        List<Coche> guardados = cocheRepository.saveAll(List.of(
+                new Coche(new String("Lada"), 80, cons), new Coche(new String("Lada"), 90, cons)));
+
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            Coche uno = em.find(Coche.class, guardados.get(0).getId());
+            Coche otro = em.find(Coche.class, guardados.get(1).getId());
+            assertEquals("Lada", uno.getMarca());
+            assertSame(uno.getMarca(), otro.getMarca(), "La marca debe ser la misma instancia");
+        } finally {
+            em.close();
+            cocheRepository.deleteAll(guardados);
+            concesionarioRepository.delete(cons);
+        }
+    }
+
+    /**
+     * Dos motos leídas de JSON comparten marca y tipo.
+     *
+     * @throws Exception Si el JSON no se puede leer.
+     */
+    @Test
+    @DisplayName("El JSON leído comparte las cadenas repetidas")
+    void shouldShareStringsOnDeserialization() throws Exception {
+        String json = "{\"potencia\":90,\"marca\":\"Vespa\",\"tipo\":\"Scooter\"}";
+
+        Moto una = objectMapper.readValue(json, Moto.class);
+        Moto otra = objectMapper.readValue(json, Moto.class);
+
+        assertEquals("Vespa", una.getMarca());
+        assertSame(una.getMarca(), otra.getMarca());
+        assertSame(una.getTipo(), otra.getTipo());
+    }
+
+    /**
+     * Las cadenas demasiado largas no entran en el diccionario.
+     */
+    @Test
+    @DisplayName("No admite cadenas más largas que el máximo")
+    void shouldSkipLongStrings() {
+        String larga = "x".repeat(CadenasCanonicas.LONGITUD_MAXIMA + 1);
+        long fuera = CadenasCanonicas.getFuera();
+
+        assertNotSame(CadenasCanonicas.canonica(larga), CadenasCanonicas.canonica(new String(larga)));
+        assertEquals(fuera + 2, CadenasCanonicas.getFuera());
+        assertNull(CadenasCanonicas.canonica(null));
+    }
+}
@@ -3,7 +3,10 @@ package es.cic.curso25.proy008.ServiceTest;
 import static org.junit.jupiter.api.Assertions.*;
 
 import java.time.LocalTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.UUID;
 
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -18,6 +21,7 @@ import es.cic.curso25.proy008.model.Concesionario;
 import es.cic.curso25.proy008.repository.CocheRepository;
 import es.cic.curso25.proy008.repository.ConcesionarioRepository;
 import es.cic.curso25.proy008.service.CocheService;
+import jakarta.persistence.EntityManager;
 
 /**
  * Integración de pruebas para {@link CocheService}.
@@ -45,6 +49,9 @@ class CocheServiceIntegrationTest {
     @Autowired
     private ConcesionarioRepository concesionarioRepository;
 
+    @Autowired
+    private EntityManager entityManager;
+
     /**
      * Verifica que crear un coche sin ID persiste la entidad
      * y le asigna un identificador.
@@ -67,6 +74,33 @@ class CocheServiceIntegrationTest {
                    "El coche debería existir en BD");
     }
 
+    /**
+     * Verifica que un coche metido en un {@code Set} antes de guardarlo se
+     * encuentra con la misma fila leída después en otra instancia, como pide
+     * el contrato de {@code equals}/{@code hashCode}.
+     */
+    @Test
+    @DisplayName("Un coche guardado se encuentra en un Set al leerlo de nuevo")
+    void shouldFindSavedCocheInSet() {
+        Concesionario cons = concesionarioRepository.save(new Concesionario("ConsHash", 600111222, "Lugo",
+                LocalTime.of(9,0), LocalTime.of(18,0)));
+        Coche coche = new Coche("Dacia", 90, cons);
+        Set<Coche> coches = new HashSet<>();
+        coches.add(coche);
+        int hash = coche.hashCode();
+        cocheService.create(coche);
+        assertEquals(hash, coche.hashCode(), "El hash no cambia al guardar");
+        entityManager.flush();
+        entityManager.clear();
+
+        Coche mismaFila = cocheRepository.findById(coche.getId()).orElseThrow();
+        assertNotSame(coche, mismaFila);
+        assertEquals(coche, mismaFila);
+        assertEquals(coche.hashCode(), mismaFila.hashCode());
+        assertTrue(coches.contains(mismaFila), "Debe encontrarse la misma fila");
+        assertTrue(coches.remove(mismaFila), "Debe poder quitarse la misma fila");
+    }
+
     /**
      * Verifica que intentar crear un coche con ID preexistente
      * lanza {@link ModificationSecurityException}.
@@ -157,6 +191,35 @@ class CocheServiceIntegrationTest {
         assertEquals(150, actualizado.getPotencia(), "Potencia debe haber cambiado");
     }
 
+    /**
+     * Verifica que un coche recibido como en JSON, con clave propia, se
+     * localiza por su id y no cambia la clave de la fila al actualizarlo.
+     */
+    @Test
+    @DisplayName("update() conserva la clave de la fila")
+    void shouldKeepClaveOnUpdate() {
+        Concesionario cons = concesionarioRepository.save(new Concesionario("ConsClave", 600777999, "Soria",
+                LocalTime.of(8,30), LocalTime.of(17,30)));
+        Coche coche = cocheRepository.save(new Coche("Seat", 120, cons));
+        entityManager.flush();
+        entityManager.clear();
+        UUID clave = cocheRepository.findById(coche.getId()).orElseThrow().getClave();
+
+        Coche recibido = new Coche("Cupra", 180, cons);
+        recibido.setId(coche.getId());
+        recibido.setVersion(coche.getVersion());
+        assertNotEquals(clave, recibido.getClave());
+        cocheService.update(recibido);
+
+        Coche enMemoria = cocheRepository.findById(coche.getId()).orElseThrow();
+        assertEquals(clave, enMemoria.getClave(), "La copia gestionada conserva la clave");
+        entityManager.flush();
+        entityManager.clear();
+        Coche actualizado = cocheRepository.findById(coche.getId()).orElseThrow();
+        assertEquals("Cupra", actualizado.getMarca());
+        assertEquals(clave, actualizado.getClave(), "La fila conserva la clave");
+    }
+
     /**
      * Verifica que update(coche) sin ID lanza
      * {@link ModificationSecurityException}.
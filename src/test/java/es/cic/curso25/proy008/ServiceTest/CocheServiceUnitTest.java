@@ -13,12 +13,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 
+import es.cic.curso25.proy008.event.CocheBorradoEvent;
 import es.cic.curso25.proy008.exception.CocheException;
 import es.cic.curso25.proy008.exception.ModificationSecurityException;
 import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.repository.CocheArchivadoRepository;
 import es.cic.curso25.proy008.repository.CocheRepository;
 import es.cic.curso25.proy008.service.CocheService;
+import es.cic.curso25.proy008.service.ExistenciaService;
+import es.cic.curso25.proy008.service.OutboxService;
 
 /**
  * Pruebas unitarias para {@link CocheService}.
@@ -37,6 +42,18 @@ public class CocheServiceUnitTest {
     @Mock
     private CocheRepository cocheRepository;
 
+    @Mock
+    private CocheArchivadoRepository cocheArchivadoRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ExistenciaService existenciaService;
+
     @InjectMocks
     private CocheService cocheService;
 
@@ -66,6 +83,7 @@ public class CocheServiceUnitTest {
         // Verificación
         assertEquals(5L, result.getId(), "Debe devolver el ID asignado por el repositorio");
         verify(cocheRepository, times(1)).save(input);
+        verify(outboxService).registrar(eq("CocheVendido"), eq("Coche"), eq(5L), any());
     }
 
     /**
@@ -150,11 +168,14 @@ public class CocheServiceUnitTest {
         input.setMarca("Ford");
         input.setPotencia(80);
 
-        when(cocheRepository.existsById(8L)).thenReturn(true);
+        Coche existente = new Coche();
+        existente.setId(8L);
+        when(cocheRepository.findById(8L)).thenReturn(Optional.of(existente));
 
         cocheService.update(input);
 
-        verify(cocheRepository, times(1)).existsById(8L);
+        verify(cocheRepository, times(1)).findById(8L);
+        verify(cocheRepository, never()).existsById(any());
         verify(cocheRepository, times(1)).save(input);
     }
 
@@ -187,28 +208,53 @@ public class CocheServiceUnitTest {
         input.setMarca("Ghost");
         input.setPotencia(1);
 
-        when(cocheRepository.existsById(99L)).thenReturn(false);
+        when(cocheRepository.findById(99L)).thenReturn(Optional.empty());
 
         assertThrows(CocheException.class,
             () -> cocheService.update(input),
             "Debe lanzar CocheException si no existe el ID");
-        verify(cocheRepository, times(1)).existsById(99L);
+        verify(cocheRepository, times(1)).findById(99L);
         verify(cocheRepository, never()).save(any());
+        verify(existenciaService).anotarFalsoPositivo(Coche.class);
+    }
+
+    /**
+     * Verifica que {@code update(coche)} no consulte la BBDD si el filtro de
+     * existencia descarta el ID.
+     */
+    @Test
+    @DisplayName("update() descarta sin consultar un ID que seguro que no existe")
+    void testUpdateDescartado() {
+        Coche input = new Coche();
+        input.setId(123_456L);
+        input.setMarca("Bot");
+        input.setPotencia(1);
+
+        when(existenciaService.descartar(Coche.class, 123_456L)).thenReturn(true);
+
+        assertThrows(CocheException.class, () -> cocheService.update(input));
+        verifyNoInteractions(cocheRepository);
     }
 
     /**
-     * Verifica que {@code delete(id)} elimine correctamente cuando el coche existe.
+     * Verifica que {@code delete(id)} elimine correctamente cuando el coche existe
+     * y publique el evento para archivarlo.
      */
     @Test
     @DisplayName("delete(id) elimina coche existente")
     void testDeleteSuccess() {
         long id = 3L;
-        when(cocheRepository.existsById(id)).thenReturn(true);
+        Coche existente = new Coche();
+        existente.setId(id);
+        existente.setMarca("Seat");
+        existente.setPotencia(75);
+        when(cocheRepository.findById(id)).thenReturn(Optional.of(existente));
 
         cocheService.delete(id);
 
-        verify(cocheRepository, times(1)).existsById(id);
-        verify(cocheRepository, times(1)).deleteById(id);
+        verify(cocheRepository, times(1)).findById(id);
+        verify(cocheRepository, times(1)).delete(existente);
+        verify(eventPublisher, times(1)).publishEvent(new CocheBorradoEvent(id, 75, "Seat", null));
     }
 
     /**
@@ -219,12 +265,13 @@ public class CocheServiceUnitTest {
     @DisplayName("delete(id) lanza excepción si no existe")
     void testDeleteRejectNonExisting() {
         long id = 7L;
-        when(cocheRepository.existsById(id)).thenReturn(false);
+        when(cocheRepository.findById(id)).thenReturn(Optional.empty());
 
         assertThrows(CocheException.class,
             () -> cocheService.delete(id),
             "Debe lanzar CocheException para ID inexistente");
-        verify(cocheRepository, times(1)).existsById(id);
-        verify(cocheRepository, never()).deleteById(id);
+        verify(cocheRepository, times(1)).findById(id);
+        verify(cocheRepository, never()).delete(any());
+        verify(eventPublisher, never()).publishEvent(any());
     }
 }
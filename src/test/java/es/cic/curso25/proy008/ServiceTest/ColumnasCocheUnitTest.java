@@ -0,0 +1,171 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import es.cic.curso25.proy008.analitica.ColumnasCoche;
+import es.cic.curso25.proy008.analitica.HistogramaPotencia;
+import es.cic.curso25.proy008.dto.CocheLectura;
+import es.cic.curso25.proy008.dto.GrupoAnalitica;
+import es.cic.curso25.proy008.enums.AgregadoAnalitica;
+import es.cic.curso25.proy008.enums.AgrupacionAnalitica;
+
+/**
+ * Pruebas unitarias de {@link ColumnasCoche}, comparando con un mapa de
+ * coches.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("ColumnasCocheUnitTest")
+public class ColumnasCocheUnitTest {
+
+    private static final String[] MARCAS = { "Seat", "Opel", "Fiat", "Kia" };
+
+    /**
+     * Altas, cambios, borrados y vaciados aleatorios, que hacen crecer las
+     * columnas y mueven filas, dan los mismos agregados que el mapa.
+     */
+    @Test
+    @DisplayName("Coincide con un mapa tras altas, cambios, borrados y vaciados")
+    void shouldMatchMap() {
+        Random random = new Random(11);
+        ColumnasCoche columnas = new ColumnasCoche();
+        Map<Long, CocheLectura> esperado = new HashMap<>();
+        for (int i = 0; i < 20_000; i++) {
+            long id = 1 + random.nextInt(5_000);
+            if (random.nextInt(2_000) == 0) {
+                long concesionario = random.nextInt(7);
+                Set<Long> quitados = esperado.values().stream()
+                        .filter(coche -> coche.concesionarioId() == concesionario)
+                        .map(CocheLectura::id)
+                        .collect(Collectors.toSet());
+                assertEquals(quitados, Arrays.stream(columnas.vaciar(concesionario)).boxed()
+                        .collect(Collectors.toSet()));
+                esperado.keySet().removeAll(quitados);
+            } else if (random.nextInt(4) == 0) {
+                columnas.borrar(id);
+                esperado.remove(id);
+            } else {
+                long version = esperado.containsKey(id) ? esperado.get(id).version() + 1 : 0;
+                CocheLectura coche = new CocheLectura(id, version, 50 + random.nextInt(300),
+                        MARCAS[random.nextInt(MARCAS.length)], random.nextBoolean(), (long) random.nextInt(7));
+                columnas.guardar(coche);
+                esperado.put(id, coche);
+            }
+        }
+
+        assertEquals(esperado.size(), columnas.getFilas());
+        for (String marca : new String[] { null, "Seat", "Kia" }) {
+            HistogramaPotencia histograma = new HistogramaPotencia();
+            esperado.values().stream()
+                    .filter(coche -> marca == null || coche.marca().equals(marca))
+                    .forEach(coche -> histograma.anadir(coche.potencia()));
+            HistogramaPotencia suma = new HistogramaPotencia();
+            columnas.sumarPotencias(marca, suma);
+            assertEquals(histograma.resumen(marca), suma.resumen(marca), "Potencias de " + marca);
+        }
+        for (Boolean encendido : new Boolean[] { null, true, false }) {
+            for (AgrupacionAnalitica agrupacion : AgrupacionAnalitica.values()) {
+                for (AgregadoAnalitica agregado : AgregadoAnalitica.values()) {
+                    assertEquals(calcular(esperado.values(), agrupacion, agregado, encendido),
+                            valores(columnas.agregar(agrupacion, agregado, encendido)),
+                            agrupacion + " " + agregado + " encendido=" + encendido);
+                }
+            }
+        }
+    }
+
+    /**
+     * Un cambio con una versión anterior a la guardada se ignora.
+     */
+    @Test
+    @DisplayName("No sobrescribe con una versión anterior")
+    void shouldIgnoreStaleVersion() {
+        ColumnasCoche columnas = new ColumnasCoche();
+        columnas.guardar(new CocheLectura(1L, 3L, 200, "Seat", false, 1L));
+        columnas.guardar(new CocheLectura(1L, 2L, 100, "Seat", false, 1L));
+
+        List<GrupoAnalitica> grupos = columnas.agregar(AgrupacionAnalitica.MARCA, AgregadoAnalitica.MAX, null);
+        assertEquals(List.of(new GrupoAnalitica("Seat", 1, 200)), grupos);
+    }
+
+    /**
+     * Los cambios que llegan durante una recarga se repiten sobre las filas
+     * leídas.
+     */
+    @Test
+    @DisplayName("Repite tras la recarga los cambios que llegaron durante ella")
+    void shouldReplayChangesDuringReload() {
+        ColumnasCoche columnas = new ColumnasCoche();
+        columnas.guardar(new CocheLectura(1L, 0L, 100, "Seat", false, 1L));
+        columnas.empezarRecarga();
+        columnas.guardar(new CocheLectura(2L, 0L, 120, "Opel", true, 1L));
+        columnas.borrar(3L);
+        // La lectura no vio el alta de 2 pero sí el coche 3, ya borrado
+        columnas.terminarRecarga(List.of(
+                new CocheLectura(1L, 0L, 100, "Seat", false, 1L),
+                new CocheLectura(3L, 0L, 90, "Fiat", false, 2L)));
+
+        assertEquals(2, columnas.getFilas());
+        assertEquals(List.of(new GrupoAnalitica("1", 2, 2)),
+                columnas.agregar(AgrupacionAnalitica.CONCESIONARIO, AgregadoAnalitica.COUNT, null));
+    }
+
+    /**
+     * Un vaciado durante una recarga quita también los coches de ese
+     * concesionario que trae la lectura.
+     */
+    @Test
+    @DisplayName("Repite tras la recarga los vaciados que llegaron durante ella")
+    void shouldReplayVaciadoDuringReload() {
+        ColumnasCoche columnas = new ColumnasCoche();
+        columnas.guardar(new CocheLectura(1L, 0L, 100, "Seat", false, 1L));
+        columnas.empezarRecarga();
+        assertArrayEquals(new long[] { 1L }, columnas.vaciar(1L));
+        columnas.terminarRecarga(List.of(
+                new CocheLectura(1L, 0L, 100, "Seat", false, 1L),
+                new CocheLectura(2L, 0L, 90, "Fiat", false, 2L)));
+
+        assertEquals(List.of(new GrupoAnalitica("2", 1, 1)),
+                columnas.agregar(AgrupacionAnalitica.CONCESIONARIO, AgregadoAnalitica.COUNT, null));
+        assertArrayEquals(new long[0], columnas.vaciar(9L));
+    }
+
+    private static Map<String, Double> valores(List<GrupoAnalitica> grupos) {
+        Map<String, Double> valores = new HashMap<>();
+        grupos.forEach(grupo -> valores.put(grupo.grupo(), grupo.valor()));
+        return valores;
+    }
+
+    private static Map<String, Double> calcular(Iterable<CocheLectura> coches, AgrupacionAnalitica agrupacion,
+            AgregadoAnalitica agregado, Boolean encendido) {
+        Map<String, List<Double>> potencias = new HashMap<>();
+        for (CocheLectura coche : coches) {
+            if (encendido == null || coche.encendido() == encendido) {
+                String grupo = agrupacion == AgrupacionAnalitica.MARCA
+                        ? coche.marca() : String.valueOf(coche.concesionarioId());
+                potencias.computeIfAbsent(grupo, g -> new ArrayList<>()).add(coche.potencia());
+            }
+        }
+        Map<String, Double> valores = new HashMap<>();
+        potencias.forEach((grupo, lista) -> valores.put(grupo, switch (agregado) {
+            case AVG -> lista.stream().mapToDouble(Double::doubleValue).sum() / lista.size();
+            case MAX -> lista.stream().mapToDouble(Double::doubleValue).max().orElseThrow();
+            case COUNT -> (double) lista.size();
+        }));
+        return valores;
+    }
+}
@@ -12,9 +12,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.transaction.annotation.Transactional;
 
 import es.cic.curso25.proy008.exception.ConcesionarioException;
+import es.cic.curso25.proy008.model.Coche;
 import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.repository.CocheRepository;
 import es.cic.curso25.proy008.repository.ConcesionarioRepository;
 import es.cic.curso25.proy008.service.ConcesionarioService;
+import jakarta.persistence.EntityManager;
 
 /**
  * Pruebas de integración para {@link ConcesionarioService}.
@@ -39,6 +42,12 @@ public class ConcesionarioServiceIntegrationTest {
     @Autowired
     private ConcesionarioRepository concesionarioRepository;
 
+    @Autowired
+    private CocheRepository cocheRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
     /**
      * Verifica que {@code create()} persista un nuevo concesionario
      * y le asigne un ID.
@@ -143,4 +152,78 @@ public class ConcesionarioServiceIntegrationTest {
         assertFalse(concesionarioRepository.existsById(id),
                     "El concesionario debería haber sido eliminado");
     }
+
+    /**
+     * Verifica que {@code delete(id)} borre también los coches del
+     * concesionario sin tocar los de otros.
+     */
+    @Test
+    @DisplayName("delete(id) elimina el concesionario y sus coches en bloque")
+    void shouldDeleteConcesionarioWithCoches() {
+        Concesionario cons = concesionarioRepository.save(
+            new Concesionario("ConStock", 444444444, "StockCity",
+                              LocalTime.of(8, 0), LocalTime.of(20, 0))
+        );
+        Concesionario otro = concesionarioRepository.save(
+            new Concesionario("Otro", 555555555, "OtherCity",
+                              LocalTime.of(8, 0), LocalTime.of(20, 0))
+        );
+        for (int i = 0; i < 3; i++) {
+            cocheRepository.save(new Coche("Marca" + i, 100 + i, cons));
+        }
+        Coche ajeno = cocheRepository.save(new Coche("Ajeno", 90, otro));
+
+        concesionarioService.delete(cons.getId());
+
+        assertFalse(concesionarioRepository.existsById(cons.getId()),
+                    "El concesionario debería haber sido eliminado");
+        assertEquals(1, concesionarioService.getNumeroCoches(otro.getId()),
+                     "El otro concesionario conserva su coche");
+        assertTrue(cocheRepository.existsById(ajeno.getId()));
+        assertTrue(cocheRepository.findAll().stream()
+                       .noneMatch(coche -> coche.getMarca().startsWith("Marca")),
+                   "Los coches del concesionario borrado no deben quedar");
+    }
+
+    /**
+     * Verifica que {@code addCoche()} inserte el coche sin inicializar la
+     * colección del concesionario y que {@code getNumeroCoches()} lo cuente
+     * con una consulta.
+     */
+    @Test
+    @DisplayName("addCoche() no carga la colección y getNumeroCoches() la cuenta")
+    void shouldAddCocheWithoutLoadingCollection() {
+        Concesionario cons = concesionarioRepository.save(
+            new Concesionario("Grande", 333333333, "BigCity",
+                              LocalTime.of(8, 0), LocalTime.of(20, 0))
+        );
+        for (int i = 0; i < 3; i++) {
+            cocheRepository.save(new Coche("Marca" + i, 100 + i, cons));
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        Coche nuevo = concesionarioService.addCoche(cons.getId(), new Coche("Seat", 110, null));
+        entityManager.flush();
+
+        assertNotNull(nuevo.getId(), "El coche debe recibir ID");
+        Concesionario gestionado = entityManager.find(Concesionario.class, cons.getId());
+        assertFalse(entityManager.getEntityManagerFactory().getPersistenceUnitUtil()
+                        .isLoaded(gestionado, "listaCoches"),
+                    "La colección no debe inicializarse al añadir");
+        assertEquals(4, concesionarioService.getNumeroCoches(cons.getId()));
+        assertFalse(entityManager.getEntityManagerFactory().getPersistenceUnitUtil()
+                        .isLoaded(gestionado, "listaCoches"),
+                    "Contar no debe inicializar la colección");
+    }
+
+    /**
+     * Verifica que {@code addCoche()} rechace concesionarios inexistentes.
+     */
+    @Test
+    @DisplayName("addCoche() lanza excepción si el concesionario no existe")
+    void shouldFailAddCocheToMissingConcesionario() {
+        assertThrows(ConcesionarioException.class,
+                     () -> concesionarioService.addCoche(999_999L, new Coche("Seat", 110, null)));
+    }
 }
@@ -0,0 +1,134 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import es.cic.curso25.proy008.exception.SobrecargaException;
+import es.cic.curso25.proy008.exception.TiempoAgotadoException;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import es.cic.curso25.proy008.repository.MotoRepository;
+import es.cic.curso25.proy008.repository.MotoristaRepository;
+import es.cic.curso25.proy008.service.DashboardService;
+
+/**
+ * Pruebas unitarias para {@link DashboardService}.
+ * <p>
+ * Utiliza Mockito para simular una consulta que no termina, sola o con el
+ * ejecutor saturado.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DashboardServiceUnitTest")
+public class DashboardServiceUnitTest {
+
+    @Mock
+    private ConcesionarioRepository concesionarioRepository;
+
+    @Mock
+    private CocheRepository cocheRepository;
+
+    @Mock
+    private MotoRepository motoRepository;
+
+    @Mock
+    private MotoristaRepository motoristaRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+
+    @AfterEach
+    void limpiar() {
+        executor.shutdown();
+    }
+
+    /**
+     * Una consulta que no termina da {@link TiempoAgotadoException} y se
+     * interrumpe; las que esperaban en la cola ya no se ejecutan.
+     *
+     * @throws InterruptedException Si la espera se interrumpe.
+     */
+    @Test
+    @DisplayName("get() cancela las consultas pendientes al agotar el tiempo")
+    void shouldCancelPendingQueriesOnTimeout() throws InterruptedException {
+        // Un solo hilo: la primera consulta lo ocupa y las demás esperan en la cola
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.initialize();
+        CountDownLatch interrumpida = new CountDownLatch(1);
+        when(concesionarioRepository.count()).thenAnswer(invocacion -> {
+            try {
+                Thread.sleep(60_000);
+            } catch (InterruptedException e) {
+                interrumpida.countDown();
+            }
+            return 0L;
+        });
+        DashboardService dashboardService = new DashboardService(concesionarioRepository, cocheRepository,
+                motoRepository, motoristaRepository, executor, transactionManager, 5, Duration.ofMillis(200));
+
+        assertThrows(TiempoAgotadoException.class, dashboardService::get);
+
+        assertTrue(interrumpida.await(5, TimeUnit.SECONDS), "La consulta en marcha debe interrumpirse");
+        executor.shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+        verifyNoInteractions(cocheRepository, motoRepository, motoristaRepository);
+    }
+
+    /**
+     * Con el ejecutor saturado, la consulta rechazada da
+     * {@link SobrecargaException} y se cancelan las ya lanzadas, que
+     * esperaban en la cola y ya no se ejecutan.
+     *
+     * @throws InterruptedException Si la espera se interrumpe.
+     */
+    @Test
+    @DisplayName("get() cancela las consultas lanzadas si el ejecutor rechaza una")
+    void shouldCancelSubmittedQueriesOnRejection() throws InterruptedException {
+        // Un hilo, ocupado por otra tarea, y dos huecos en la cola: la tercera consulta se rechaza
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setQueueCapacity(2);
+        executor.initialize();
+        CountDownLatch ocupado = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        executor.execute(() -> {
+            ocupado.countDown();
+            try {
+                liberar.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        assertTrue(ocupado.await(5, TimeUnit.SECONDS));
+        DashboardService dashboardService = new DashboardService(concesionarioRepository, cocheRepository,
+                motoRepository, motoristaRepository, executor, transactionManager, 5, Duration.ofSeconds(30));
+
+        assertThrows(SobrecargaException.class, dashboardService::get);
+
+        liberar.countDown();
+        executor.shutdown();
+        assertTrue(executor.getThreadPoolExecutor().awaitTermination(5, TimeUnit.SECONDS));
+        verifyNoInteractions(concesionarioRepository, cocheRepository, motoRepository, motoristaRepository,
+                transactionManager);
+    }
+}
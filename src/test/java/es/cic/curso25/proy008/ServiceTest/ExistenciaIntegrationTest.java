@@ -0,0 +1,161 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalTime;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import es.cic.curso25.proy008.exception.CocheException;
+import es.cic.curso25.proy008.exception.MotoException;
+import es.cic.curso25.proy008.exception.MotoristaException;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.model.Motorista;
+import es.cic.curso25.proy008.service.CocheService;
+import es.cic.curso25.proy008.service.ConcesionarioService;
+import es.cic.curso25.proy008.service.ExistenciaService;
+import es.cic.curso25.proy008.service.MotoService;
+import es.cic.curso25.proy008.service.MotoristaService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Pruebas de integración de los filtros de existencia de
+ * {@link ExistenciaService}.
+ * <p>
+ * Se cuentan las sentencias SQL con las estadísticas de Hibernate; las
+ * tareas periódicas que consultan la BBDD se espacian para que no cuenten.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest(properties = {
+    "spring.jpa.properties.hibernate.generate_statistics=true",
+    "proy008.existencia.recarga=3600000",
+    "proy008.flota.recarga=3600000",
+    "proy008.outbox.intervalo=3600000"
+})
+@DisplayName("ExistenciaIntegrationTest")
+public class ExistenciaIntegrationTest {
+
+    private static final long INEXISTENTE = 987_654L;
+
+    @Autowired
+    private ExistenciaService existenciaService;
+
+    @Autowired
+    private CocheService cocheService;
+
+    @Autowired
+    private ConcesionarioService concesionarioService;
+
+    @Autowired
+    private MotoService motoService;
+
+    @Autowired
+    private MotoristaService motoristaService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estadisticas;
+
+    @BeforeEach
+    void preparar() {
+        existenciaService.recargar();
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    /**
+     * Actualizar o borrar ids que nunca existieron no lanza ninguna sentencia.
+     */
+    @Test
+    @DisplayName("Los ids inexistentes se descartan sin consultar")
+    void shouldRejectMissingIdsWithoutQuery() {
+        Moto moto = new Moto(100, "Fantasma", "Naked");
+        moto.setId(INEXISTENTE);
+        Motorista motorista = new Motorista();
+        motorista.setId(INEXISTENTE);
+        double antes = descartados("Moto");
+
+        estadisticas.clear();
+        assertThrows(CocheException.class, () -> cocheService.delete(INEXISTENTE));
+        assertThrows(MotoException.class, () -> motoService.update(moto));
+        assertThrows(MotoException.class, () -> motoService.delete(INEXISTENTE));
+        assertThrows(MotoristaException.class, () -> motoristaService.update(motorista));
+        assertThrows(MotoristaException.class, () -> motoristaService.delete(INEXISTENTE));
+
+        assertEquals(0, estadisticas.getPrepareStatementCount(), "Ningún id inexistente debe llegar a la BBDD");
+        assertEquals(antes + 2, descartados("Moto"));
+    }
+
+    /**
+     * Un coche recién creado se puede actualizar con una sola lectura y,
+     * tras borrarlo, su id vuelve a descartarse.
+     */
+    @Test
+    @DisplayName("Las altas y bajas mantienen el filtro")
+    void shouldFollowCreateAndDelete() {
+        Long cons = concesionarioService.create(new Concesionario(
+                "Filtro", 600999111, "Avila", LocalTime.of(9, 0), LocalTime.of(18, 0))).getId();
+        Coche coche = cocheService.create(new Coche("Skoda", 110, concesionarioService.get(cons)));
+        coche.setPotencia(115);
+        estadisticas.clear();
+        cocheService.update(coche);
+        // Sin existsById(): la lectura de la fila y el UPDATE
+        assertEquals(2, estadisticas.getPrepareStatementCount(), "El update no debe repetir la lectura");
+
+        cocheService.delete(coche.getId());
+        estadisticas.clear();
+        assertThrows(CocheException.class, () -> cocheService.delete(coche.getId()));
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+
+        concesionarioService.delete(cons);
+    }
+
+    /**
+     * Un borrado masivo deja falsos positivos, que se cuentan y desaparecen
+     * con la recarga.
+     */
+    @Test
+    @DisplayName("Los borrados masivos cuentan como falsos positivos hasta la recarga")
+    void shouldCountFalsePositivesAfterBulkDelete() {
+        Long cons = concesionarioService.create(new Concesionario(
+                "Masivo", 600999222, "Segovia", LocalTime.of(9, 0), LocalTime.of(18, 0))).getId();
+        Long id = concesionarioService.addCoche(cons, new Coche("Seat", 90, null)).getId();
+        cocheService.deleteByConcesionario(cons);
+        double antes = falsosPositivos("Coche");
+
+        assertThrows(CocheException.class, () -> cocheService.delete(id));
+        assertEquals(antes + 1, falsosPositivos("Coche"));
+
+        existenciaService.recargar();
+        estadisticas.clear();
+        assertThrows(CocheException.class, () -> cocheService.delete(id));
+        assertEquals(0, estadisticas.getPrepareStatementCount());
+        assertEquals(antes + 1, falsosPositivos("Coche"));
+
+        concesionarioService.delete(cons);
+    }
+
+    private double descartados(String entidad) {
+        return meterRegistry.counter("proy008.existencia.descartados", "entidad", entidad).count();
+    }
+
+    private double falsosPositivos(String entidad) {
+        return meterRegistry.counter("proy008.existencia.falsos.positivos", "entidad", entidad).count();
+    }
+}
@@ -0,0 +1,115 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import es.cic.curso25.proy008.analitica.DistribucionesPotencia;
+import es.cic.curso25.proy008.analitica.CambioPotencia;
+import es.cic.curso25.proy008.analitica.HistogramaPotencia;
+import es.cic.curso25.proy008.dto.DistribucionPotencia;
+import es.cic.curso25.proy008.dto.PotenciaVehiculo;
+import es.cic.curso25.proy008.dto.TramoPotencia;
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+
+/**
+ * Pruebas unitarias de {@link HistogramaPotencia} y
+ * {@link DistribucionesPotencia}, comparando con las potencias ordenadas.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("HistogramaPotenciaUnitTest")
+public class HistogramaPotenciaUnitTest {
+
+    /**
+     * Los percentiles quedan a menos del 1 % de los exactos, también tras
+     * quitar potencias.
+     */
+    @Test
+    @DisplayName("Los percentiles tienen un error menor del 1 %")
+    void shouldApproximatePercentiles() {
+        Random random = new Random(7);
+        HistogramaPotencia histograma = new HistogramaPotencia();
+        double[] potencias = new double[50_000];
+        for (int i = 0; i < potencias.length; i++) {
+            potencias[i] = Math.round(Math.exp(3 + random.nextDouble() * 7));
+            histograma.anadir(potencias[i]);
+        }
+        // Se quita la mitad: los contadores deben quedar como si no se hubieran añadido
+        for (int i = potencias.length / 2; i < potencias.length; i++) {
+            histograma.quitar(potencias[i]);
+        }
+        double[] quedan = Arrays.copyOf(potencias, potencias.length / 2);
+        Arrays.sort(quedan);
+
+        assertEquals(quedan.length, histograma.getTotal());
+        assertEquals(Arrays.stream(quedan).average().orElseThrow(), histograma.getMedia(), 1e-6);
+        for (double percentil : new double[] { 1, 50, 90, 99, 100 }) {
+            double exacto = quedan[(int) Math.ceil(percentil / 100 * quedan.length) - 1];
+            assertEquals(exacto, histograma.percentil(percentil), exacto * 0.01, "p" + percentil);
+        }
+        assertEquals(quedan[0], histograma.getMinimo(), quedan[0] * 0.01);
+        assertEquals(quedan[quedan.length - 1], histograma.getMaximo(), quedan[quedan.length - 1] * 0.01);
+    }
+
+    /**
+     * Los tramos fijos cuentan cada potencia en el suyo y el último recoge
+     * todo lo que pasa del límite.
+     */
+    @Test
+    @DisplayName("Los tramos fijos cuentan cada potencia en el suyo")
+    void shouldCountTramos() {
+        HistogramaPotencia histograma = new HistogramaPotencia();
+        histograma.anadir(0);
+        histograma.anadir(49);
+        histograma.anadir(120);
+        histograma.anadir(5_000);
+
+        assertEquals(List.of(
+                new TramoPotencia(0, 50, 2),
+                new TramoPotencia(100, 150, 1),
+                new TramoPotencia(1_000, null, 1)), histograma.getTramos());
+    }
+
+    /**
+     * Aplicar dos veces el mismo estado no descuadra nada, un cambio de
+     * marca mueve la moto, los coches se ignoran y lo que llega durante una
+     * recarga se repite sobre lo recargado.
+     */
+    @Test
+    @DisplayName("Los cambios son estados finales y sobreviven a una recarga")
+    void shouldApplyAbsoluteChanges() {
+        DistribucionesPotencia distribuciones = new DistribucionesPotencia();
+        CambioPotencia alta = new CambioPotencia(TipoVehiculo.MOTO, 1, "Seat", 100, null, true);
+        distribuciones.aplicar(List.of(alta, alta));
+        distribuciones.aplicar(List.of(new CambioPotencia(TipoVehiculo.COCHE, 1, "Seat", 40, null, true)));
+        assertEquals(1, consultar(distribuciones, "Seat").vehiculos());
+
+        distribuciones.aplicar(List.of(new CambioPotencia(TipoVehiculo.MOTO, 1, "Opel", 150, null, true)));
+        assertEquals(0, consultar(distribuciones, "Seat").vehiculos());
+        assertEquals(150, consultar(distribuciones, "Opel").p50());
+
+        distribuciones.empezarRecarga();
+        distribuciones.aplicar(List.of(new CambioPotencia(TipoVehiculo.MOTO, 2, "Opel", 0, null, false)));
+        distribuciones.terminarRecarga(List.of(
+                new PotenciaVehiculo(1L, "Opel", 150),
+                new PotenciaVehiculo(2L, "Opel", 90)));
+        DistribucionPotencia opel = consultar(distribuciones, "Opel");
+        assertEquals(1, opel.vehiculos());
+        assertEquals(150, opel.media());
+        assertEquals(1, consultar(distribuciones, null).vehiculos());
+    }
+
+    private static DistribucionPotencia consultar(DistribucionesPotencia distribuciones, String marca) {
+        HistogramaPotencia suma = new HistogramaPotencia();
+        distribuciones.sumar(marca, suma);
+        return suma.resumen(marca);
+    }
+}
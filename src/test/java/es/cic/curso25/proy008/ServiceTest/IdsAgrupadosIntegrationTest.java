@@ -0,0 +1,129 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalTime;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import es.cic.curso25.proy008.id.MigracionSecuencias;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+
+/**
+ * Pruebas de integración de la generación de ids por bloques
+ * ({@code GeneradorIdAgrupado}) y de {@link MigracionSecuencias}.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest
+@DisplayName("IdsAgrupadosIntegrationTest")
+public class IdsAgrupadosIntegrationTest {
+
+    @Autowired
+    private ConcesionarioRepository concesionarioRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MigracionSecuencias migracionSecuencias;
+
+    /**
+     * Cada entidad tiene su propia secuencia con el incremento configurado.
+     */
+    @Test
+    @DisplayName("Crea una secuencia por entidad con incremento igual al bloque")
+    public void shouldCreateOneSequencePerEntity() {
+        List<String> secuencias = jdbcTemplate.queryForList(
+                "SELECT SEQUENCE_NAME FROM INFORMATION_SCHEMA.SEQUENCES WHERE INCREMENT = 50", String.class);
+
+        assertTrue(secuencias.containsAll(List.of("COCHE_SEQ", "CONCESIONARIO_SEQ", "MOTO_SEQ", "MOTORISTA_SEQ")),
+                "Secuencias encontradas: " + secuencias);
+    }
+
+    /**
+     * Los ids de un mismo bloque se entregan consecutivos sin ir a la secuencia.
+     */
+    @Test
+    @DisplayName("Entrega ids consecutivos dentro de un bloque")
+    public void shouldHandOutConsecutiveIds() {
+        Long antes = valorSecuencia("CONCESIONARIO_SEQ");
+        Concesionario a = concesionarioRepository.save(nuevo("IdsA"));
+        Concesionario b = concesionarioRepository.save(nuevo("IdsB"));
+        Long despues = valorSecuencia("CONCESIONARIO_SEQ");
+
+        if (antes.equals(despues)) {
+            assertEquals(a.getId() + 1, b.getId());
+        } else {
+            // El primer save agotó el bloque: como mucho una llamada a la secuencia
+            assertEquals(antes + 50, despues);
+        }
+
+        concesionarioRepository.deleteById(a.getId());
+        concesionarioRepository.deleteById(b.getId());
+    }
+
+    /**
+     * La migración reinicia la secuencia por encima del id máximo existente.
+     */
+    @Test
+    @DisplayName("Reinicia la secuencia por encima de los ids existentes")
+    public void shouldRestartSequenceAboveExistingIds() {
+        jdbcTemplate.update("INSERT INTO concesionario (id, version, nombre, telefono, ciudad, "
+                + "apertura, cierre, clave) VALUES (900000, 0, 'Legado', 600000000, 'Soria', '09:00', '18:00', "
+                + "RANDOM_UUID())");
+        try {
+            migracionSecuencias.afterSingletonsInstantiated();
+            assertEquals(900001L, valorSecuencia("CONCESIONARIO_SEQ"));
+        } finally {
+            concesionarioRepository.deleteById(900000L);
+        }
+    }
+
+    /**
+     * Un id que solo queda en el archivo de borrados tampoco se reutiliza.
+     */
+    @Test
+    @DisplayName("Reinicia la secuencia por encima de los ids archivados")
+    public void shouldRestartSequenceAboveArchivedIds() {
+        jdbcTemplate.update("INSERT INTO coche_archivo (id, potencia, marca, concesionario_id, archivado_en) "
+                + "VALUES (950000, 90, 'Seat', NULL, CURRENT_TIMESTAMP)");
+        try {
+            migracionSecuencias.afterSingletonsInstantiated();
+            assertEquals(950001L, valorSecuencia("COCHE_SEQ"));
+        } finally {
+            jdbcTemplate.update("DELETE FROM coche_archivo WHERE id = 950000");
+        }
+    }
+
+    /**
+     * Sin filas por encima, la secuencia sigue donde estaba: los valores ya
+     * repartidos pueden no estar en ninguna tabla.
+     */
+    @Test
+    @DisplayName("No hace retroceder la secuencia")
+    public void shouldNotMoveSequenceBackwards() {
+        jdbcTemplate.execute("ALTER SEQUENCE motorista_seq RESTART WITH 970000");
+
+        migracionSecuencias.afterSingletonsInstantiated();
+
+        assertEquals(970000L, valorSecuencia("MOTORISTA_SEQ"));
+    }
+
+    private Long valorSecuencia(String nombre) {
+        return jdbcTemplate.queryForObject(
+                "SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES WHERE SEQUENCE_NAME = ?", Long.class, nombre);
+    }
+
+    private static Concesionario nuevo(String nombre) {
+        return new Concesionario(nombre, 600222333, "Ávila", LocalTime.of(9, 0), LocalTime.of(18, 0));
+    }
+}
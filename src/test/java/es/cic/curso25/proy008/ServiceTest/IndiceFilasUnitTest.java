@@ -0,0 +1,54 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import es.cic.curso25.proy008.analitica.IndiceFilas;
+
+/**
+ * Pruebas unitarias de {@link IndiceFilas}, comparando con un
+ * {@link HashMap}.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("IndiceFilasUnitTest")
+public class IndiceFilasUnitTest {
+
+    /**
+     * Altas, cambios y borrados aleatorios, que hacen crecer la tabla y
+     * desplazan entradas al borrar, dan lo mismo que el mapa.
+     */
+    @Test
+    @DisplayName("Coincide con un HashMap tras altas, cambios y borrados")
+    void shouldMatchHashMap() {
+        Random random = new Random(3);
+        IndiceFilas indice = new IndiceFilas(4);
+        Map<Long, Integer> esperado = new HashMap<>();
+        for (int i = 0; i < 200_000; i++) {
+            // Ids próximos y alguno negativo, para forzar colisiones y claves raras
+            long id = random.nextInt(3) == 0 ? -random.nextInt(500) : random.nextInt(20_000) * 64L;
+            if (random.nextInt(3) == 0) {
+                assertEquals(esperado.getOrDefault(id, IndiceFilas.AUSENTE), indice.remove(id));
+                esperado.remove(id);
+            } else {
+                int fila = random.nextInt(1_000_000);
+                indice.put(id, fila);
+                esperado.put(id, fila);
+            }
+        }
+
+        assertEquals(esperado.size(), indice.size());
+        for (long id = -500; id < 20_000 * 64L; id += random.nextInt(40) + 1) {
+            assertEquals(esperado.getOrDefault(id, IndiceFilas.AUSENTE), indice.get(id), "Id " + id);
+        }
+        esperado.forEach((id, fila) -> assertEquals(fila, indice.get(id), "Id " + id));
+    }
+}
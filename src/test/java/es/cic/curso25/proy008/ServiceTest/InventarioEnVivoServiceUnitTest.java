@@ -0,0 +1,80 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import es.cic.curso25.proy008.enums.TipoCambio;
+import es.cic.curso25.proy008.event.CocheCambiadoEvent;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.service.InventarioEnVivoService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Pruebas unitarias del buffer por suscriptor de {@link InventarioEnVivoService}.
+ * <p>
+ * El ejecutor solo guarda las tareas, así que ningún envío avanza: es un
+ * cliente que no lee.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("InventarioEnVivoServiceUnitTest")
+public class InventarioEnVivoServiceUnitTest {
+
+    private final List<Runnable> tareas = new ArrayList<>();
+
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private InventarioEnVivoService service;
+
+    @BeforeEach
+    void preparar() {
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        beans.addBean("registry", registry);
+        ObjectProvider<MeterRegistry> provider = beans.getBeanProvider(MeterRegistry.class);
+        service = new InventarioEnVivoService(tareas::add, 2, Duration.ofMinutes(1), provider);
+    }
+
+    /**
+     * Con el buffer lleno el suscriptor se desconecta y no frena al resto.
+     */
+    @Test
+    @DisplayName("Un suscriptor lento se descarta al llenar su buffer")
+    void shouldDropSlowSubscriber() {
+        service.suscribir(1L);
+        service.suscribir(2L);
+
+        for (int i = 0; i < 3; i++) {
+            service.onCocheCambiado(new CocheCambiadoEvent(TipoCambio.CREADO, 1L, new Coche("Lento", 90, null)));
+        }
+
+        assertEquals(1, service.getSuscriptores(), "Solo debe seguir el suscriptor del otro concesionario");
+        assertEquals(1.0, registry.counter("proy008.inventario.descartados").count());
+        assertEquals(1.0, registry.get("proy008.inventario.suscriptores").gauge().value());
+    }
+
+    /**
+     * Los eventos de un concesionario sin suscriptores no lanzan envíos.
+     */
+    @Test
+    @DisplayName("Sin suscriptores no se programa ningún envío")
+    void shouldIgnoreConcesionarioSinSuscriptores() {
+        service.suscribir(1L);
+
+        service.onCocheCambiado(new CocheCambiadoEvent(TipoCambio.BORRADO, 3L, new Coche("Nadie", 90, null)));
+
+        assertTrue(tareas.isEmpty());
+    }
+}
@@ -0,0 +1,85 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalTime;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.service.CocheService;
+import es.cic.curso25.proy008.service.ConcesionarioService;
+
+/**
+ * Pruebas de integración del enrutado lectura/escritura
+ * ({@code LecturaEscrituraDataSourceConfig}).
+ * <p>
+ * Dentro de cada transacción se comprueba qué pool tiene la conexión activa.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest
+@DisplayName("LecturaEscrituraDataSourceIntegrationTest")
+public class LecturaEscrituraDataSourceIntegrationTest {
+
+    @Autowired
+    private CocheService cocheService;
+
+    @Autowired
+    private ConcesionarioService concesionarioService;
+
+    @Autowired
+    private HikariDataSource escrituraDataSource;
+
+    @Autowired
+    private HikariDataSource lecturaDataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Los métodos {@code get} de los servicios usan el pool de lectura.
+     */
+    @Test
+    @DisplayName("Las lecturas van a la réplica")
+    public void shouldRouteReadOnlyToReplica() {
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+
+        soloLectura.executeWithoutResult(estado -> {
+            cocheService.get();
+            assertEquals(1, lecturaDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertEquals(0, escrituraDataSource.getHikariPoolMXBean().getActiveConnections());
+        });
+    }
+
+    /**
+     * Las escrituras siguen usando el primario y la réplica ve sus datos.
+     */
+    @Test
+    @DisplayName("Las escrituras van al primario")
+    public void shouldRouteWritesToPrimary() {
+        TransactionTemplate escritura = new TransactionTemplate(transactionManager);
+
+        Concesionario creado = escritura.execute(estado -> {
+            Concesionario c = concesionarioService.create(new Concesionario(
+                    "Primario", 600333444, "Segovia", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+            assertEquals(1, escrituraDataSource.getHikariPoolMXBean().getActiveConnections());
+            assertEquals(0, lecturaDataSource.getHikariPoolMXBean().getActiveConnections());
+            return c;
+        });
+
+        assertEquals("Primario", concesionarioService.get(creado.getId()).getNombre());
+        concesionarioService.delete(creado.getId());
+    }
+}
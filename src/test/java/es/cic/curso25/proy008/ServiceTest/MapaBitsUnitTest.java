@@ -0,0 +1,117 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import es.cic.curso25.proy008.flota.MapaBits;
+
+/**
+ * Pruebas unitarias de {@link MapaBits}, comparando con un {@link BitSet}.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("MapaBitsUnitTest")
+public class MapaBitsUnitTest {
+
+    /**
+     * Un bloque que pasa de disperso a denso y vuelve conserva los ids.
+     */
+    @Test
+    @DisplayName("Cambia de contenedor sin perder ids")
+    void shouldSwitchContainers() {
+        MapaBits mapa = new MapaBits();
+        for (long id = 0; id < 10_000; id++) {
+            assertTrue(mapa.add(id * 2));
+        }
+        assertFalse(mapa.add(4));
+        assertEquals(10_000, mapa.getCardinalidad());
+        assertTrue(mapa.contains(19_998));
+        assertFalse(mapa.contains(19_999));
+
+        for (long id = 0; id < 9_000; id++) {
+            assertTrue(mapa.remove(id * 2));
+        }
+        assertEquals(1_000, mapa.getCardinalidad());
+        long[] ids = mapa.toArray();
+        assertEquals(18_000, ids[0]);
+        assertEquals(19_998, ids[ids.length - 1]);
+    }
+
+    /**
+     * Un bloque pasa a mapa de bits por encima de 4.096 ids y no vuelve a
+     * array hasta bajar de 2.048, aunque oscile en torno al umbral.
+     */
+    @Test
+    @DisplayName("Aplica histéresis al volver a array")
+    void shouldKeepBitsAroundThreshold() {
+        MapaBits mapa = new MapaBits();
+        for (long id = 0; id < 4_096; id++) {
+            mapa.add(id);
+        }
+        assertEquals(0, mapa.getBloquesDensos());
+        mapa.add(4_096);
+        assertEquals(1, mapa.getBloquesDensos());
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(mapa.remove(4_096));
+            assertEquals(1, mapa.getBloquesDensos());
+            assertTrue(mapa.add(4_096));
+            assertEquals(1, mapa.getBloquesDensos());
+        }
+
+        for (long id = 4_096; id >= 2_048; id--) {
+            assertTrue(mapa.remove(id));
+        }
+        assertEquals(2_048, mapa.getCardinalidad());
+        assertEquals(1, mapa.getBloquesDensos());
+        assertTrue(mapa.remove(2_047));
+        assertEquals(0, mapa.getBloquesDensos());
+        assertEquals(2_047, mapa.getCardinalidad());
+        assertTrue(mapa.contains(2_046));
+        assertFalse(mapa.contains(2_047));
+        assertEquals(2_046, mapa.toArray()[2_046]);
+    }
+
+    /**
+     * Altas y bajas aleatorias repartidas por muchos bloques dan el mismo
+     * resultado que un {@link BitSet}.
+     */
+    @Test
+    @DisplayName("Coincide con BitSet en altas y bajas aleatorias")
+    void shouldMatchBitSet() {
+        Random random = new Random(42);
+        MapaBits mapa = new MapaBits();
+        BitSet esperado = new BitSet();
+        for (int i = 0; i < 200_000; i++) {
+            int id = random.nextInt(1 << 22);
+            if (random.nextInt(3) == 0) {
+                assertEquals(esperado.get(id), mapa.remove(id));
+                esperado.clear(id);
+            } else {
+                assertEquals(!esperado.get(id), mapa.add(id));
+                esperado.set(id);
+            }
+        }
+        assertEquals(esperado.cardinality(), mapa.getCardinalidad());
+        assertArrayEquals(esperado.stream().asLongStream().toArray(), mapa.toArray());
+    }
+
+    /**
+     * Los ids fuera de 32 bits se rechazan.
+     */
+    @Test
+    @DisplayName("Rechaza ids fuera de rango")
+    void shouldRejectOutOfRange() {
+        MapaBits mapa = new MapaBits();
+        assertTrue(mapa.add(MapaBits.MAX_ID));
+        assertThrows(IllegalArgumentException.class, () -> mapa.add(MapaBits.MAX_ID + 1));
+        assertFalse(mapa.contains(-1));
+    }
+}
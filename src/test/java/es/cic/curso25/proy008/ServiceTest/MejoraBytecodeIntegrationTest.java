@@ -0,0 +1,97 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalTime;
+
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.model.Motorista;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import es.cic.curso25.proy008.repository.MotoristaRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceUnitUtil;
+
+/**
+ * Pruebas de integración de la mejora de bytecode que aplica
+ * {@code hibernate-enhance-maven-plugin} a las entidades.
+ * <p>
+ * Cada test se ejecuta dentro de una transacción que se revierte al finalizar.
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest
+@Transactional
+@DisplayName("MejoraBytecodeIntegrationTest")
+public class MejoraBytecodeIntegrationTest {
+
+    @Autowired
+    private CocheRepository cocheRepository;
+
+    @Autowired
+    private ConcesionarioRepository concesionarioRepository;
+
+    @Autowired
+    private MotoristaRepository motoristaRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Las entidades gestionadas anotan los campos modificados, sin
+     * necesidad de compararlas con una instantánea al hacer flush.
+     */
+    @Test
+    @DisplayName("Las entidades llevan dirty tracking en línea")
+    void shouldTrackDirtyAttributes() {
+        Concesionario cons = concesionarioRepository.save(new Concesionario(
+                "Mejorado", 600777888, "Soria", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+        Long id = cocheRepository.save(new Coche("Opel", 100, cons)).getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Coche coche = entityManager.find(Coche.class, id);
+        SelfDirtinessTracker tracker = assertInstanceOf(SelfDirtinessTracker.class, coche,
+                "Coche debe estar mejorado por el plugin");
+        assertFalse(tracker.$$_hibernate_hasDirtyAttributes());
+
+        coche.setPotencia(150);
+
+        assertArrayEquals(new String[] { "potencia" }, tracker.$$_hibernate_getDirtyAttributes());
+    }
+
+    /**
+     * El lado inverso {@code Moto.motorista} ya no se carga al leer la moto.
+     */
+    @Test
+    @DisplayName("Moto.motorista se carga de forma perezosa")
+    void shouldLoadMotoristaLazily() {
+        Motorista motorista = new Motorista();
+        motorista.setNombre("Marc");
+        motorista.setApellidos("Marquez");
+        motorista.setEdad(32);
+        motorista.setMoto(new Moto(220, "Ducati", "Carreras"));
+        Long motoId = motoristaRepository.save(motorista).getMoto().getId();
+        entityManager.flush();
+        entityManager.clear();
+
+        Moto moto = entityManager.find(Moto.class, motoId);
+        PersistenceUnitUtil util = entityManager.getEntityManagerFactory().getPersistenceUnitUtil();
+        assertFalse(util.isLoaded(moto, "motorista"), "El motorista no debe cargarse con la moto");
+
+        assertEquals("Marc", moto.geMotorista().getNombre());
+        assertTrue(util.isLoaded(moto, "motorista"));
+    }
+}
@@ -0,0 +1,148 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import es.cic.curso25.proy008.analitica.CambioPotencia;
+import es.cic.curso25.proy008.analitica.RankingPotencia;
+import es.cic.curso25.proy008.dto.CocheLectura;
+import es.cic.curso25.proy008.dto.CochePuesto;
+import es.cic.curso25.proy008.dto.PotenciaVehiculo;
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+
+/**
+ * Pruebas unitarias de {@link RankingPotencia}, comparando con un mapa de
+ * coches ordenado en cada consulta.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@DisplayName("RankingPotenciaUnitTest")
+public class RankingPotenciaUnitTest {
+
+    private static final Comparator<PotenciaVehiculo> ORDEN = Comparator
+            .comparingDouble(PotenciaVehiculo::potencia).reversed()
+            .thenComparing(PotenciaVehiculo::id);
+
+    /**
+     * Altas, cambios de potencia y de concesionario y borrados aleatorios,
+     * con listas que se llenan y se agotan, dan los mismos coches que ordenar
+     * el mapa; cuando el ranking no basta, se rellena desde el mapa.
+     */
+    @Test
+    @DisplayName("Coincide con ordenar un mapa tras altas, cambios y borrados")
+    void shouldMatchSortedMap() {
+        Random random = new Random(5);
+        RankingPotencia ranking = new RankingPotencia();
+        Map<Long, CambioPotencia> coches = new HashMap<>();
+        int rellenos = 0;
+        for (int i = 0; i < 30_000; i++) {
+            long id = 1 + random.nextInt(400);
+            CambioPotencia cambio = random.nextInt(3) == 0
+                    ? new CambioPotencia(TipoVehiculo.COCHE, id, "Seat", 0, null, false)
+                    : new CambioPotencia(TipoVehiculo.COCHE, id, "Seat", random.nextInt(300),
+                            (long) random.nextInt(4), true);
+            ranking.aplicar(List.of(cambio));
+            if (cambio.existe()) {
+                coches.put(id, cambio);
+            } else {
+                coches.remove(id);
+            }
+
+            long concesionario = random.nextInt(4);
+            int k = 1 + random.nextInt(RankingPotencia.MAXIMO_K);
+            List<PotenciaVehiculo> esperado = top(coches, concesionario, RankingPotencia.CAPACIDAD);
+            List<PotenciaVehiculo> top = ranking.consultar(concesionario, k);
+            if (top == null) {
+                rellenos++;
+                ranking.rellenar(concesionario, esperado, ranking.getCambios());
+                top = ranking.consultar(concesionario, k);
+            }
+            assertEquals(esperado.stream().limit(k).toList(), top, "Concesionario " + concesionario);
+        }
+        assertTrue(rellenos > 0, "La prueba debe agotar alguna lista");
+    }
+
+    /**
+     * La recarga con todos los coches, numerados como lo hace la consulta
+     * con funciones de ventana, da las listas completas o incompletas según
+     * el total de coches de cada concesionario, y repite los cambios que
+     * llegan mientras tanto.
+     */
+    @Test
+    @DisplayName("La recarga marca las listas incompletas y repite los cambios")
+    void shouldReloadAndReplay() {
+        RankingPotencia ranking = new RankingPotencia();
+        ranking.empezarRecarga();
+        ranking.aplicar(List.of(new CambioPotencia(TipoVehiculo.COCHE, 1, "Seat", 0, null, false)));
+        List<CocheLectura> coches = new ArrayList<>(List.of(
+                new CocheLectura(1L, 0L, 300, "Seat", false, 7L),
+                new CocheLectura(2L, 0L, 200, "Opel", false, 7L),
+                new CocheLectura(3L, 0L, 100, "Fiat", false, 8L),
+                new CocheLectura(5L, 0L, 500, "Audi", false, null)));
+        // Uno más de los que caben, todos por debajo del coche 3
+        for (long id = 100; id < 100 + RankingPotencia.CAPACIDAD; id++) {
+            coches.add(new CocheLectura(id, 0L, 50, "Kia", false, 8L));
+        }
+        ranking.terminarRecarga(conPuestos(coches));
+
+        assertEquals(List.of(new PotenciaVehiculo(2L, "Opel", 200)), ranking.consultar(7, 5));
+        assertEquals(List.of(new PotenciaVehiculo(3L, "Fiat", 100)), ranking.consultar(8, 1));
+        assertEquals(RankingPotencia.MAXIMO_K, ranking.consultar(8, RankingPotencia.MAXIMO_K).size());
+        assertEquals(List.of(), ranking.consultar(5, 1), "Los coches sin concesionario no cuentan");
+        for (long id = 100; id < 100 + RankingPotencia.CAPACIDAD - 1; id++) {
+            ranking.aplicar(List.of(new CambioPotencia(TipoVehiculo.COCHE, id, "Kia", 0, null, false)));
+        }
+        assertNull(ranking.consultar(8, 2), "Al concesionario 8 le faltan coches");
+        assertEquals(List.of(), ranking.consultar(9, 5));
+
+        // Un relleno leído antes de otro cambio se descarta
+        long leidos = ranking.getCambios();
+        ranking.aplicar(List.of(new CambioPotencia(TipoVehiculo.COCHE, 4, "Kia", 50, 9L, true)));
+        ranking.rellenar(8, List.of(), leidos);
+        assertNull(ranking.consultar(8, 2));
+
+        ranking.vaciar(9);
+        assertEquals(List.of(), ranking.consultar(9, 5));
+    }
+
+    /**
+     * Numera los coches como {@code ROW_NUMBER()} y {@code COUNT(*)} con
+     * {@code OVER (PARTITION BY concesionario_id)}.
+     */
+    private static List<CochePuesto> conPuestos(List<CocheLectura> coches) {
+        Comparator<CocheLectura> orden = Comparator.comparingDouble(CocheLectura::potencia).reversed()
+                .thenComparing(CocheLectura::id);
+        Map<Long, List<CocheLectura>> porConcesionario = new HashMap<>();
+        coches.forEach(c -> porConcesionario.computeIfAbsent(c.concesionarioId(), id -> new ArrayList<>()).add(c));
+        List<CochePuesto> puestos = new ArrayList<>();
+        porConcesionario.values().forEach(lista -> {
+            lista.sort(orden);
+            for (int i = 0; i < lista.size(); i++) {
+                CocheLectura c = lista.get(i);
+                puestos.add(new CochePuesto(c.id(), c.version(), c.potencia(), c.marca(), c.encendido(),
+                        c.concesionarioId(), i + 1, lista.size()));
+            }
+        });
+        return puestos;
+    }
+
+    private static List<PotenciaVehiculo> top(Map<Long, CambioPotencia> coches, long concesionario, int k) {
+        return coches.values().stream()
+                .filter(c -> c.concesionarioId() == concesionario)
+                .map(c -> new PotenciaVehiculo(c.id(), c.marca(), c.potencia()))
+                .sorted(ORDEN)
+                .limit(k)
+                .toList();
+    }
+}
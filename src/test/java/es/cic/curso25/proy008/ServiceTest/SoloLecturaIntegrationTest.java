@@ -0,0 +1,75 @@
+package es.cic.curso25.proy008.ServiceTest;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.LocalTime;
+
+import org.hibernate.FlushMode;
+import org.hibernate.Session;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import es.cic.curso25.proy008.service.CocheService;
+import jakarta.persistence.EntityManager;
+
+/**
+ * Pruebas de integración del modo de solo lectura de Hibernate en los
+ * métodos {@code get} de los servicios.
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@SpringBootTest
+@DisplayName("SoloLecturaIntegrationTest")
+public class SoloLecturaIntegrationTest {
+
+    @Autowired
+    private CocheService cocheService;
+
+    @Autowired
+    private CocheRepository cocheRepository;
+
+    @Autowired
+    private ConcesionarioRepository concesionarioRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    /**
+     * Las entidades leídas con {@code get} no guardan instantánea y los
+     * cambios sobre ellas no se vuelcan al confirmar.
+     */
+    @Test
+    @DisplayName("get() carga entidades de solo lectura con FlushMode.MANUAL")
+    public void shouldLoadReadOnlyEntities() {
+        Concesionario cons = concesionarioRepository.save(new Concesionario(
+                "SoloLectura", 600444555, "Zamora", LocalTime.of(9, 0), LocalTime.of(18, 0)));
+        Coche guardado = cocheRepository.save(new Coche("Dacia", 90, cons));
+
+        TransactionTemplate soloLectura = new TransactionTemplate(transactionManager);
+        soloLectura.setReadOnly(true);
+        soloLectura.executeWithoutResult(estado -> {
+            Session session = entityManager.unwrap(Session.class);
+            Coche coche = cocheService.get(guardado.getId());
+
+            assertTrue(session.isReadOnly(coche), "La entidad debe cargarse en modo solo lectura");
+            assertEquals(FlushMode.MANUAL, session.getHibernateFlushMode());
+            coche.setPotencia(999);
+        });
+
+        assertEquals(90.0, cocheRepository.findById(guardado.getId()).orElseThrow().getPotencia(), 0.0);
+        concesionarioRepository.deleteById(cons.getId());
+    }
+}
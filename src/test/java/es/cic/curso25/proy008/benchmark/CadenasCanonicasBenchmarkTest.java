@@ -0,0 +1,154 @@
+package es.cic.curso25.proy008.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalTime;
+import java.util.List;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.h2.tools.Server;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import es.cic.curso25.proy008.Proy008Application;
+import es.cic.curso25.proy008.cadenas.CadenasCanonicas;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Benchmark de memoria de un {@code findAll} de un millón de {@link Coche}
+ * con y sin {@link CadenasCanonicas}.
+ * <p>
+ * Se toma un histograma de clases del heap (el de
+ * {@code jcmd GC.class_histogram}, que solo cuenta objetos vivos) antes de
+ * sembrar la tabla y con los coches cargados, y se muestra cuánto crecen
+ * las cadenas ({@code java.lang.String} y sus {@code byte[]}). Cada fila se
+ * inserta con su propia cadena, como las que crea el driver de una BBDD en
+ * red. Para comparar se ejecuta con el diccionario y sin él:
+ * <pre>
+ * mvn test -Dtest=CadenasCanonicasBenchmarkTest -Dbenchmark=true -Dbenchmark.filas=1000000
+ * mvn test -Dtest=CadenasCanonicasBenchmarkTest -Dbenchmark=true -Dproy008.cadenas.canonicas=false
+ * </pre>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("CadenasCanonicasBenchmarkTest")
+class CadenasCanonicasBenchmarkTest {
+
+    private static final int FILAS = Integer.getInteger("benchmark.filas", 1_000_000);
+
+    private static final int LOTE = 10_000;
+
+    private static final String[] MARCAS = { "Seat", "Opel", "Fiat", "Kia", "Audi", "Dacia", "Skoda", "Cupra" };
+
+    @Test
+    @DisplayName("Mide las cadenas en el heap tras cargar un millón de coches")
+    void medirHistograma() throws Exception {
+        // BBDD en un servidor TCP y sin la caché de objetos de H2, que comparte las cadenas
+        // repetidas: el driver crea una cadena por fila, como con una BBDD en red
+        System.setProperty("h2.objectCache", "false");
+        Server servidor = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(Proy008Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.es.cic=WARN",
+                        "spring.datasource.url=jdbc:h2:tcp://localhost:" + servidor.getPort()
+                                + "/mem:cadenas;DB_CLOSE_DELAY=-1",
+                        "spring.datasource.username=sa", "spring.datasource.password=bench",
+                        "spring.jpa.hibernate.ddl-auto=create-drop",
+                        "proy008.reactivo.url=r2dbc:h2:mem:///reactivo",
+                        "proy008.analitica.recarga=3600000", "proy008.existencia.recarga=3600000",
+                        "proy008.flota.recarga=3600000")
+                .run()) {
+            sembrar(ctx);
+            EntityManager em = ctx.getBean(EntityManagerFactory.class).createEntityManager();
+            try {
+                long[] antes = cadenas();
+                List<Coche> coches = em.createQuery("SELECT c FROM Coche c", Coche.class)
+                    .setHint("org.hibernate.readOnly", true)
+                    .getResultList();
+                long[] despues = cadenas();
+                assertEquals(FILAS, coches.size());
+
+                System.out.println("-------- Benchmark cadenas canónicas (" + FILAS + " coches, "
+                        + MARCAS.length + " marcas) --------");
+                System.out.println("diccionario = " + Boolean.parseBoolean(
+                        System.getProperty("proy008.cadenas.canonicas", "true")));
+                System.out.printf("String: +%,d instancias (+%,d bytes)   byte[]: +%,d instancias (+%,d bytes)%n",
+                        despues[0] - antes[0], despues[1] - antes[1], despues[2] - antes[2], despues[3] - antes[3]);
+                System.out.println("(control " + coches.get(FILAS - 1).getMarca() + ")");
+            } finally {
+                em.close();
+            }
+        } finally {
+            servidor.stop();
+        }
+    }
+
+    private void sembrar(ConfigurableApplicationContext ctx) {
+        Long concesionario = ctx.getBean(ConcesionarioRepository.class)
+            .save(new Concesionario("Bench", 600000000, "Madrid", LocalTime.of(9, 0), LocalTime.of(20, 0)))
+            .getId();
+        JdbcTemplate jdbc = ctx.getBean(JdbcTemplate.class);
+        // Ids muy por encima de los de la secuencia; cada marca es una cadena nueva, como las de un driver
+        for (int desde = 0; desde < FILAS; desde += LOTE) {
+            int inicio = desde;
+            jdbc.batchUpdate("INSERT INTO coche (id, version, potencia, marca, encendido, concesionario_id, clave) "
+                    + "VALUES (?, 0, ?, ?, false, ?, RANDOM_UUID())", new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    int fila = inicio + i;
+                    ps.setLong(1, 1_000_000_000L + fila);
+                    ps.setDouble(2, 60 + fila % 400);
+                    ps.setString(3, new String(MARCAS[fila % MARCAS.length].toCharArray()));
+                    ps.setLong(4, concesionario);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return Math.min(LOTE, FILAS - inicio);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return instancias y bytes de {@code String} y de {@code byte[]} vivos.
+     */
+    private static long[] cadenas() throws Exception {
+        MBeanServer servidor = ManagementFactory.getPlatformMBeanServer();
+        String histograma = (String) servidor.invoke(new ObjectName("com.sun.management:type=DiagnosticCommand"),
+                "gcClassHistogram", new Object[] { new String[0] }, new String[] { String[].class.getName() });
+        long[] resultado = new long[4];
+        for (String linea : histograma.split("\n")) {
+            String[] campos = linea.trim().split("\\s+");
+            if (campos.length >= 4 && campos[0].endsWith(":")) {
+                if (campos[3].equals("java.lang.String")) {
+                    resultado[0] = Long.parseLong(campos[1]);
+                    resultado[1] = Long.parseLong(campos[2]);
+                } else if (campos[3].equals("[B")) {
+                    resultado[2] = Long.parseLong(campos[1]);
+                    resultado[3] = Long.parseLong(campos[2]);
+                }
+            }
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,83 @@
+package es.cic.curso25.proy008.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import es.cic.curso25.proy008.analitica.ColumnasCoche;
+import es.cic.curso25.proy008.dto.CocheLectura;
+import es.cic.curso25.proy008.enums.AgregadoAnalitica;
+import es.cic.curso25.proy008.enums.AgrupacionAnalitica;
+
+/**
+ * Benchmark de las agregaciones de {@link ColumnasCoche} con millones de
+ * coches.
+ * <p>
+ * Se cargan las columnas como lo haría una recarga y se mide el tiempo
+ * medio de agrupar por marca y por concesionario, con y sin filtro de
+ * encendido.
+ * </p>
+ * <pre>
+ * mvn test -Dtest=ColumnasCocheBenchmarkTest -Dbenchmark=true \
+ *          -Dbenchmark.filas=5000000 -Dbenchmark.concesionarios=200
+ * </pre>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("ColumnasCocheBenchmarkTest")
+class ColumnasCocheBenchmarkTest {
+
+    private static final int FILAS = Integer.getInteger("benchmark.filas", 5_000_000);
+
+    private static final int CONCESIONARIOS = Integer.getInteger("benchmark.concesionarios", 200);
+
+    private static final int ITERACIONES = Integer.getInteger("benchmark.iteraciones", 50);
+
+    private static final String[] MARCAS = { "Seat", "Opel", "Fiat", "Kia", "Audi", "Dacia", "Skoda", "Cupra" };
+
+    @Test
+    @DisplayName("Mide las agregaciones con millones de coches")
+    void medirAgregaciones() {
+        Random random = new Random(7);
+        List<CocheLectura> coches = new ArrayList<>(FILAS);
+        for (long id = 1; id <= FILAS; id++) {
+            coches.add(new CocheLectura(id, 0L, 60 + random.nextInt(400), MARCAS[random.nextInt(MARCAS.length)],
+                    random.nextInt(5) == 0, id % CONCESIONARIOS));
+        }
+        ColumnasCoche columnas = new ColumnasCoche();
+        long t0 = System.nanoTime();
+        columnas.terminarRecarga(coches);
+        double carga = (System.nanoTime() - t0) / 1e6;
+        assertEquals(FILAS, columnas.getFilas());
+
+        double marca = medir(columnas, AgrupacionAnalitica.MARCA, AgregadoAnalitica.AVG, null);
+        double concesionario = medir(columnas, AgrupacionAnalitica.CONCESIONARIO, AgregadoAnalitica.MAX, null);
+        double encendidos = medir(columnas, AgrupacionAnalitica.CONCESIONARIO, AgregadoAnalitica.AVG, true);
+
+        System.out.println("-------- Benchmark columnas de coches (" + FILAS + " coches, " + CONCESIONARIOS
+                + " concesionarios, " + columnas.getBytes() / (1 << 20) + " MiB fuera del heap) --------");
+        System.out.printf("carga = %8.1f ms   marca/avg = %6.2f ms   concesionario/max = %6.2f ms   "
+                + "encendidos = %6.2f ms%n", carga, marca, concesionario, encendidos);
+    }
+
+    private static double medir(ColumnasCoche columnas, AgrupacionAnalitica agrupacion, AgregadoAnalitica agregado,
+            Boolean encendido) {
+        for (int i = 0; i < ITERACIONES / 5 + 1; i++) {
+            columnas.agregar(agrupacion, agregado, encendido); // calentamiento
+        }
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            columnas.agregar(agrupacion, agregado, encendido);
+        }
+        return (System.nanoTime() - inicio) / 1e6 / ITERACIONES;
+    }
+}
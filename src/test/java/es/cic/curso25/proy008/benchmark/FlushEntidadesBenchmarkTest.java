@@ -0,0 +1,124 @@
+package es.cic.curso25.proy008.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.engine.spi.SelfDirtinessTracker;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import es.cic.curso25.proy008.Proy008Application;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Benchmark del {@code flush} de una sesión con miles de {@link Coche}
+ * gestionados, de los que solo se modifica una pequeña parte.
+ * <p>
+ * Sin mejora de bytecode Hibernate compara en cada flush todos los campos de
+ * cada entidad con su instantánea. Con la mejora del plugin
+ * {@code hibernate-enhance-maven-plugin} cada entidad anota qué campos
+ * cambian ({@link SelfDirtinessTracker}) y el flush solo visita esas. Se
+ * mide el tiempo medio de {@code flush()} con la sesión cargada.
+ * </p>
+ * <p>
+ * Para comparar se ejecuta con la mejora (build normal) y sin ella, saltando
+ * el plugin:
+ * <pre>
+ * mvn test -Dtest=FlushEntidadesBenchmarkTest -Dbenchmark=true \
+ *          -Dbenchmark.filas=20000 -Dbenchmark.iteraciones=30
+ * mvn clean test -Dtest=FlushEntidadesBenchmarkTest -Dbenchmark=true -Dhibernate-enhance.phase=none
+ * </pre>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("FlushEntidadesBenchmarkTest")
+class FlushEntidadesBenchmarkTest {
+
+    private static final int FILAS = Integer.getInteger("benchmark.filas", 20_000);
+
+    private static final int ITERACIONES = Integer.getInteger("benchmark.iteraciones", 30);
+
+    // Coches modificados en cada iteración
+    private static final int CAMBIOS = 50;
+
+    @Test
+    @DisplayName("Mide el flush de una sesión con miles de coches gestionados")
+    void medirFlush() {
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(Proy008Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.es.cic=WARN")
+                .run()) {
+            sembrar(ctx);
+            EntityManagerFactory emf = ctx.getBean(EntityManagerFactory.class);
+
+            medir(emf, ITERACIONES / 5 + 1); // calentamiento
+            double[] tiempos = medir(emf, ITERACIONES);
+
+            System.out.println("-------- Benchmark flush (" + FILAS + " coches gestionados, "
+                    + CAMBIOS + " modificados, " + ITERACIONES + " iteraciones) --------");
+            System.out.println("entidades mejoradas = "
+                    + SelfDirtinessTracker.class.isAssignableFrom(Coche.class));
+            System.out.printf("flush sin cambios = %7.2f ms   flush con cambios = %7.2f ms%n",
+                    tiempos[0], tiempos[1]);
+        }
+    }
+
+    private void sembrar(ConfigurableApplicationContext ctx) {
+        Concesionario concesionario = ctx.getBean(ConcesionarioRepository.class)
+                .save(new Concesionario("Bench", 600000000, "Madrid", LocalTime.of(9, 0), LocalTime.of(20, 0)));
+        List<Coche> coches = new ArrayList<>(FILAS);
+        for (int i = 0; i < FILAS; i++) {
+            coches.add(new Coche("Marca" + (i % 10), 100 + i % 400, concesionario));
+        }
+        ctx.getBean(CocheRepository.class).saveAll(coches);
+    }
+
+    /**
+     * @return tiempo medio en ms del flush sin cambios y con {@link #CAMBIOS} coches modificados.
+     */
+    private double[] medir(EntityManagerFactory emf, int iteraciones) {
+        long limpio = 0;
+        long sucio = 0;
+        for (int i = 0; i < iteraciones; i++) {
+            EntityManager em = emf.createEntityManager();
+            try {
+                em.getTransaction().begin();
+                List<Coche> coches = em.createQuery("SELECT c FROM Coche c", Coche.class).getResultList();
+                assertEquals(FILAS, coches.size());
+
+                long t0 = System.nanoTime();
+                em.flush();
+                limpio += System.nanoTime() - t0;
+
+                for (int j = 0; j < CAMBIOS; j++) {
+                    Coche coche = coches.get((i * CAMBIOS + j) % FILAS);
+                    coche.setEncendido(!coche.isEncendido());
+                }
+                long t1 = System.nanoTime();
+                em.flush();
+                sucio += System.nanoTime() - t1;
+
+                em.getTransaction().rollback();
+            } finally {
+                em.close();
+            }
+        }
+        return new double[] { limpio / 1e6 / iteraciones, sucio / 1e6 / iteraciones };
+    }
+}
@@ -0,0 +1,157 @@
+package es.cic.curso25.proy008.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+
+/**
+ * Benchmark de {@code add}/{@code contains} en un {@code HashSet} de coches
+ * nuevos y de coches ya guardados.
+ * <p>
+ * Compara el {@code hashCode()} actual de {@link Coche}, por su
+ * {@code clave}, con un hash constante por clase; este último se reproduce
+ * con un envoltorio de hash fijo. Los coches guardados se simulan como los
+ * deja Hibernate al leerlos: con {@code id} y la clave de su fila. Con la
+ * clave se mide también el cuádruple de coches: el coste por operación debe
+ * mantenerse, mientras que con el hash constante crece con el tamaño del
+ * conjunto. También se mide {@link Concesionario#addCoche(Coche)} sobre un
+ * concesionario nuevo.
+ * </p>
+ * <p>
+ * No forma parte de la batería normal; se ejecuta con:
+ * <pre>
+ * mvn test -Dtest=HashEntidadesBenchmarkTest -Dbenchmark=true -Dbenchmark.coches=10000
+ * </pre>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("HashEntidadesBenchmarkTest")
+class HashEntidadesBenchmarkTest {
+
+    private static final int COCHES = Integer.getInteger("benchmark.coches", 10_000);
+
+    private static final int RONDAS = Integer.getInteger("benchmark.rondas", 20);
+
+    @Test
+    @DisplayName("Compara hash constante y clave con coches nuevos y guardados")
+    void compararEstrategiasDeHash() {
+        // Calentamiento
+        for (int i = 0; i < 3; i++) {
+            medir(HashEntidadesBenchmarkTest::nuevo, HashConstante::new, COCHES);
+            medir(HashEntidadesBenchmarkTest::nuevo, coche -> coche, COCHES);
+            medir(HashEntidadesBenchmarkTest::guardado, coche -> coche, COCHES);
+            medirAddCoche();
+        }
+
+        System.out.println("-------- Benchmark HashSet (ns por operación) --------");
+        imprimir("nuevos     hash constante", medir(HashEntidadesBenchmarkTest::nuevo, HashConstante::new, COCHES), COCHES);
+        imprimir("guardados  hash constante", medir(HashEntidadesBenchmarkTest::guardado, HashConstante::new, COCHES), COCHES);
+        for (int coches : new int[] { COCHES, COCHES * 4 }) {
+            imprimir("nuevos     clave         ", medir(HashEntidadesBenchmarkTest::nuevo, coche -> coche, coches), coches);
+            imprimir("guardados  clave         ", medir(HashEntidadesBenchmarkTest::guardado, coche -> coche, coches), coches);
+        }
+        System.out.printf("Concesionario.addCoche (%d coches)  %8.2f ms%n", COCHES, medirAddCoche());
+    }
+
+    private static void imprimir(String estrategia, double[] resultado, int coches) {
+        System.out.printf("%s %7d coches  add=%10.1f  contains=%10.1f%n", estrategia, coches, resultado[0],
+                resultado[1]);
+    }
+
+    private static Coche nuevo(int i) {
+        return new Coche("Marca" + i, 100, null);
+    }
+
+    private static Coche guardado(int i) {
+        Coche coche = new Coche("Marca" + i, 100, null);
+        coche.setId((long) i + 1);
+        coche.setClave(UUID.randomUUID());
+        return coche;
+    }
+
+    private double[] medir(IntFunction<Coche> fabrica, Function<Coche, Object> clave, int coches) {
+        long add = 0;
+        long contains = 0;
+        for (int r = 0; r < RONDAS; r++) {
+            List<Object> elementos = new ArrayList<>(coches);
+            for (int i = 0; i < coches; i++) {
+                elementos.add(clave.apply(fabrica.apply(i)));
+            }
+            Set<Object> conjunto = new HashSet<>();
+            long t0 = System.nanoTime();
+            for (Object e : elementos) {
+                conjunto.add(e);
+            }
+            long t1 = System.nanoTime();
+            int encontrados = 0;
+            for (Object e : elementos) {
+                if (conjunto.contains(e)) {
+                    encontrados++;
+                }
+            }
+            long t2 = System.nanoTime();
+            assertEquals(coches, encontrados);
+            add += t1 - t0;
+            contains += t2 - t1;
+        }
+        return new double[] { (double) add / RONDAS / coches, (double) contains / RONDAS / coches };
+    }
+
+    private double medirAddCoche() {
+        long total = 0;
+        for (int r = 0; r < RONDAS; r++) {
+            Concesionario concesionario = new Concesionario("Bench", 600000000, "Madrid",
+                    LocalTime.of(9, 0), LocalTime.of(20, 0));
+            List<Coche> coches = new ArrayList<>(COCHES);
+            for (int i = 0; i < COCHES; i++) {
+                coches.add(nuevo(i));
+            }
+            long t0 = System.nanoTime();
+            coches.forEach(concesionario::addCoche);
+            total += System.nanoTime() - t0;
+            assertTrue(concesionario.getListaCoches().containsAll(coches));
+        }
+        return total / 1e6 / RONDAS;
+    }
+
+    /**
+     * Reproduce un {@code hashCode()} constante por clase.
+     */
+    private static final class HashConstante {
+
+        private final Coche coche;
+
+        private HashConstante(Coche coche) {
+            this.coche = coche;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof HashConstante otro && otro.coche.equals(coche);
+        }
+
+        @Override
+        public int hashCode() {
+            return Coche.class.hashCode();
+        }
+    }
+}
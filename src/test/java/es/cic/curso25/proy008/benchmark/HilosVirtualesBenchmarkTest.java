@@ -0,0 +1,200 @@
+package es.cic.curso25.proy008.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import es.cic.curso25.proy008.Proy008Application;
+import es.cic.curso25.proy008.enums.TipoCarnet;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.model.Moto;
+import es.cic.curso25.proy008.model.Motorista;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+import es.cic.curso25.proy008.repository.MotoristaRepository;
+import jdk.jfr.consumer.RecordingStream;
+
+/**
+ * Benchmark de carga: hilos de plataforma frente a hilos virtuales.
+ * <p>
+ * Arranca la aplicación dos veces en un puerto aleatorio (una con
+ * {@code spring.threads.virtual.enabled=false} y otra con el perfil
+ * {@code virtual}), siembra datos y lanza la misma carga concurrente
+ * contra {@code GET /coches} y {@code GET /motoristas}. Durante la pasada
+ * virtual se escuchan con JFR los eventos {@code jdk.VirtualThreadPinned}
+ * para detectar secciones {@code synchronized} que anclan el hilo portador.
+ * </p>
+ * <p>
+ * No forma parte de la batería normal; se ejecuta con:
+ * <pre>
+ * mvn test -Dtest=HilosVirtualesBenchmarkTest -Dbenchmark=true \
+ *          -Dbenchmark.concurrencia=400 -Dbenchmark.peticiones=20000
+ * </pre>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("HilosVirtualesBenchmarkTest")
+class HilosVirtualesBenchmarkTest {
+
+    private static final int CONCURRENCIA = Integer.getInteger("benchmark.concurrencia", 400);
+
+    private static final int PETICIONES = Integer.getInteger("benchmark.peticiones", 20_000);
+
+    private static final int FILAS = Integer.getInteger("benchmark.filas", 200);
+
+    @Test
+    @DisplayName("Compara hilos de plataforma y virtuales en /coches y /motoristas")
+    void compararModosDeEjecucion() throws Exception {
+        Resultado plataforma = ejecutar(false);
+        Resultado virtual = ejecutar(true);
+
+        System.out.println("-------- Benchmark hilos (" + CONCURRENCIA + " clientes, "
+                + PETICIONES + " peticiones) --------");
+        System.out.println(plataforma);
+        System.out.println(virtual);
+        virtual.pinning().forEach((marco, veces) ->
+                System.out.println("  pinning x" + veces + " en " + marco));
+
+        assertEquals(0, plataforma.errores(), "No debe haber errores con hilos de plataforma");
+        assertEquals(0, virtual.errores(), "No debe haber errores con hilos virtuales");
+    }
+
+    private Resultado ejecutar(boolean virtual) throws Exception {
+        SpringApplicationBuilder builder = new SpringApplicationBuilder(Proy008Application.class)
+                .properties("server.port=0", "logging.level.es.cic=WARN", "proy008.limites.habilitado=false", "proy008.adaptativo.habilitado=false");
+        if (virtual) {
+            builder.profiles("virtual");
+        }
+        Map<String, Long> pinning = new ConcurrentHashMap<>();
+        try (ConfigurableApplicationContext ctx = builder.run();
+             RecordingStream jfr = new RecordingStream()) {
+            sembrar(ctx);
+            if (virtual) {
+                jfr.enable("jdk.VirtualThreadPinned").withStackTrace().withThreshold(Duration.ofMillis(1));
+                jfr.onEvent("jdk.VirtualThreadPinned", evento -> {
+                    String marco = evento.getStackTrace() == null ? "?"
+                            : evento.getStackTrace().getFrames().stream()
+                                    .filter(f -> f.isJavaFrame())
+                                    .map(f -> f.getMethod().getType().getName() + "." + f.getMethod().getName())
+                                    .filter(m -> !m.startsWith("java."))
+                                    .findFirst().orElse("?");
+                    pinning.merge(marco, 1L, Long::sum);
+                });
+                jfr.startAsync();
+            }
+            int puerto = ((WebServerApplicationContext) ctx).getWebServer().getPort();
+
+            // Calentamiento para que JIT y pool de conexiones estén listos
+            lanzar(puerto, Math.min(PETICIONES, 2_000));
+            Resultado resultado = lanzar(puerto, PETICIONES);
+            return new Resultado(virtual ? "virtual   " : "plataforma", resultado.segundos(),
+                    resultado.latencias(), resultado.errores(), pinning);
+        }
+    }
+
+    private void sembrar(ConfigurableApplicationContext ctx) {
+        Concesionario concesionario = ctx.getBean(ConcesionarioRepository.class)
+                .save(new Concesionario("Bench", 600000000, "Madrid", LocalTime.of(9, 0), LocalTime.of(20, 0)));
+        List<Coche> coches = new ArrayList<>();
+        List<Motorista> motoristas = new ArrayList<>();
+        for (int i = 0; i < FILAS; i++) {
+            coches.add(new Coche("Marca" + (i % 10), 100 + i, concesionario));
+            Motorista motorista = new Motorista();
+            motorista.setNombre("Piloto" + i);
+            motorista.setApellidos("Bench");
+            motorista.setEdad(30);
+            motorista.setEsMayorDeEdad(true);
+            motorista.setTipoCarnet(TipoCarnet.A);
+            motorista.setMoto(new Moto(50 + i, "Marca" + (i % 5), "Naked"));
+            motoristas.add(motorista);
+        }
+        ctx.getBean(CocheRepository.class).saveAll(coches);
+        ctx.getBean(MotoristaRepository.class).saveAll(motoristas);
+    }
+
+    private Resultado lanzar(int puerto, int peticiones) throws Exception {
+        HttpClient cliente = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        URI[] rutas = {
+                URI.create("http://localhost:" + puerto + "/coches"),
+                URI.create("http://localhost:" + puerto + "/motoristas")
+        };
+        long[] latencias = new long[peticiones];
+        AtomicLong siguiente = new AtomicLong();
+        AtomicLong errores = new AtomicLong();
+
+        long inicio = System.nanoTime();
+        try (ExecutorService clientes = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> tareas = new ArrayList<>();
+            for (int c = 0; c < CONCURRENCIA; c++) {
+                tareas.add(clientes.submit(() -> {
+                    long n;
+                    while ((n = siguiente.getAndIncrement()) < peticiones) {
+                        HttpRequest peticion = HttpRequest.newBuilder(rutas[(int) (n % rutas.length)]).GET().build();
+                        long t0 = System.nanoTime();
+                        try {
+                            HttpResponse<Void> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+                            if (respuesta.statusCode() != 200) {
+                                errores.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errores.incrementAndGet();
+                        }
+                        latencias[(int) n] = System.nanoTime() - t0;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+        }
+        double segundos = (System.nanoTime() - inicio) / 1e9;
+        return new Resultado("", segundos, latencias, errores.get(), Map.of());
+    }
+
+    private record Resultado(String modo, double segundos, long[] latencias, long errores,
+            Map<String, Long> pinning) {
+
+        double percentilMs(double p) {
+            long[] ordenadas = latencias.clone();
+            Arrays.sort(ordenadas);
+            int idx = (int) Math.min(ordenadas.length - 1, Math.ceil(p * ordenadas.length) - 1);
+            return ordenadas[Math.max(idx, 0)] / 1e6;
+        }
+
+        @Override
+        public String toString() {
+            long totalPinning = pinning.values().stream().mapToLong(Long::longValue).sum();
+            return String.format("%s  %8.0f pet/s  p50=%6.2f ms  p99=%7.2f ms  errores=%d  pinning=%d",
+                    modo, latencias.length / segundos, percentilMs(0.50), percentilMs(0.99), errores, totalPinning);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package es.cic.curso25.proy008.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import es.cic.curso25.proy008.dto.CocheEncendido;
+import es.cic.curso25.proy008.enums.TipoVehiculo;
+import es.cic.curso25.proy008.flota.CambioEncendido;
+import es.cic.curso25.proy008.flota.IndiceEncendido;
+
+/**
+ * Benchmark de {@link IndiceEncendido} con millones de coches.
+ * <p>
+ * Se carga el índice como lo haría una recarga, con un porcentaje de coches
+ * encendidos repartidos entre los concesionarios, y se mide el tiempo medio
+ * de contar y listar los encendidos de un concesionario y de aplicar un
+ * lote de cambios tras un commit.
+ * </p>
+ * <pre>
+ * mvn test -Dtest=IndiceEncendidoBenchmarkTest -Dbenchmark=true \
+ *          -Dbenchmark.filas=5000000 -Dbenchmark.concesionarios=200
+ * </pre>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("IndiceEncendidoBenchmarkTest")
+class IndiceEncendidoBenchmarkTest {
+
+    private static final int FILAS = Integer.getInteger("benchmark.filas", 5_000_000);
+
+    private static final int CONCESIONARIOS = Integer.getInteger("benchmark.concesionarios", 200);
+
+    private static final int ITERACIONES = Integer.getInteger("benchmark.iteraciones", 10_000);
+
+    // Uno de cada N coches está encendido
+    private static final int ENCENDIDO_CADA = 5;
+
+    @Test
+    @DisplayName("Mide contar, listar y actualizar con millones de coches")
+    void medirIndice() {
+        List<CocheEncendido> encendidos = new ArrayList<>(FILAS / ENCENDIDO_CADA);
+        for (long id = 1; id <= FILAS; id += ENCENDIDO_CADA) {
+            encendidos.add(new CocheEncendido(id, id % CONCESIONARIOS));
+        }
+        IndiceEncendido indice = new IndiceEncendido();
+        long t0 = System.nanoTime();
+        indice.terminarRecargaCoches(encendidos);
+        double carga = (System.nanoTime() - t0) / 1e6;
+        assertEquals(encendidos.size(), indice.contarCoches(null));
+
+        Random random = new Random(7);
+        long suma = 0;
+        long inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            suma += indice.contarCoches((long) random.nextInt(CONCESIONARIOS));
+        }
+        double contar = (System.nanoTime() - inicio) / 1e3 / ITERACIONES;
+
+        inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES / 100; i++) {
+            suma += indice.getCoches((long) random.nextInt(CONCESIONARIOS)).length;
+        }
+        double listar = (System.nanoTime() - inicio) / 1e3 / (ITERACIONES / 100);
+
+        List<CambioEncendido> lote = new ArrayList<>();
+        inicio = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            long id = 1 + random.nextInt(FILAS);
+            Long concesionario = id % CONCESIONARIOS;
+            lote.clear();
+            lote.add(new CambioEncendido(TipoVehiculo.COCHE, id, random.nextBoolean(), concesionario, concesionario));
+            indice.aplicar(lote);
+        }
+        double aplicar = (System.nanoTime() - inicio) / 1e3 / ITERACIONES;
+
+        System.out.println("-------- Benchmark indice de encendido (" + FILAS + " coches, "
+                + CONCESIONARIOS + " concesionarios, 1 de cada " + ENCENDIDO_CADA + " encendido) --------");
+        System.out.printf("carga = %8.1f ms   contar = %6.2f us   listar = %8.1f us   aplicar = %6.2f us%n",
+                carga, contar, listar, aplicar);
+        System.out.println("(control " + suma + ")");
+    }
+}
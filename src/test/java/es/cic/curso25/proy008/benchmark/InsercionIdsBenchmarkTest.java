@@ -0,0 +1,104 @@
+package es.cic.curso25.proy008.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import es.cic.curso25.proy008.Proy008Application;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+
+/**
+ * Benchmark de inserción según el tamaño de bloque de ids.
+ * <p>
+ * Arranca la aplicación (sin servidor web) una vez por cada valor de
+ * {@code proy008.ids.tamano-bloque} e inserta los mismos coches en lotes con
+ * {@code saveAll}. Un bloque de 1 reproduce el comportamiento anterior (una
+ * llamada a la secuencia por insert); con bloques mayores los ids se
+ * reparten en memoria. El lote JDBC de Hibernate se activa en todas las
+ * pasadas para que la diferencia venga sólo de la secuencia.
+ * </p>
+ * <p>
+ * No forma parte de la batería normal; se ejecuta con:
+ * <pre>
+ * mvn test -Dtest=InsercionIdsBenchmarkTest -Dbenchmark=true \
+ *          -Dbenchmark.filas=50000 -Dbenchmark.bloques=1,50,500
+ * </pre>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("InsercionIdsBenchmarkTest")
+class InsercionIdsBenchmarkTest {
+
+    private static final int FILAS = Integer.getInteger("benchmark.filas", 50_000);
+
+    private static final int LOTE = Integer.getInteger("benchmark.lote", 1_000);
+
+    private static final int[] BLOQUES = Arrays.stream(System.getProperty("benchmark.bloques", "1,50,500").split(","))
+            .map(String::trim).mapToInt(Integer::parseInt).toArray();
+
+    @Test
+    @DisplayName("Compara el rendimiento de inserción con distintos tamaños de bloque")
+    void compararTamanosDeBloque() {
+        List<String> resultados = new ArrayList<>();
+        for (int bloque : BLOQUES) {
+            resultados.add(ejecutar(bloque));
+        }
+
+        System.out.println("-------- Benchmark insert (" + FILAS + " coches, lotes de " + LOTE + ") --------");
+        resultados.forEach(System.out::println);
+    }
+
+    private String ejecutar(int bloque) {
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(Proy008Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.es.cic=WARN",
+                        "proy008.ids.tamano-bloque=" + bloque,
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=" + LOTE)
+                .run()) {
+            CocheRepository cocheRepository = ctx.getBean(CocheRepository.class);
+            Concesionario concesionario = ctx.getBean(ConcesionarioRepository.class)
+                    .save(new Concesionario("Bench", 600000000, "Madrid", LocalTime.of(9, 0), LocalTime.of(20, 0)));
+
+            // Calentamiento
+            insertar(cocheRepository, concesionario, Math.min(FILAS, 5_000));
+            cocheRepository.deleteAllInBatch();
+
+            long inicio = System.nanoTime();
+            insertar(cocheRepository, concesionario, FILAS);
+            double segundos = (System.nanoTime() - inicio) / 1e9;
+
+            assertEquals(FILAS, cocheRepository.count());
+            return String.format("bloque=%5d  %9.0f inserts/s  llamadas a la secuencia ~%d",
+                    bloque, FILAS / segundos, (FILAS + bloque - 1) / bloque);
+        }
+    }
+
+    private static void insertar(CocheRepository cocheRepository, Concesionario concesionario, int filas) {
+        List<Coche> lote = new ArrayList<>(LOTE);
+        for (int i = 0; i < filas; i++) {
+            lote.add(new Coche("Marca" + (i % 10), 100 + i % 400, concesionario));
+            if (lote.size() == LOTE) {
+                cocheRepository.saveAll(lote);
+                lote.clear();
+            }
+        }
+        cocheRepository.saveAll(lote);
+    }
+}
@@ -0,0 +1,128 @@
+package es.cic.curso25.proy008.benchmark;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.lang.management.ManagementFactory;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+
+import es.cic.curso25.proy008.Proy008Application;
+import es.cic.curso25.proy008.model.Coche;
+import es.cic.curso25.proy008.model.Concesionario;
+import es.cic.curso25.proy008.repository.CocheRepository;
+import es.cic.curso25.proy008.repository.ConcesionarioRepository;
+
+/**
+ * Benchmark de {@code findAll} en transacciones de lectura/escritura frente a
+ * transacciones de solo lectura.
+ * <p>
+ * En una transacción normal Hibernate guarda una instantánea de cada entidad
+ * cargada y, al confirmar, la compara campo a campo (dirty checking). En
+ * modo solo lectura no hay instantáneas y el {@code FlushMode} es
+ * {@code MANUAL}, así que el commit no recorre el contexto de persistencia.
+ * Para cada modo se mide la memoria reservada por iteración (con
+ * {@code ThreadMXBean#getCurrentThreadAllocatedBytes}) y el tiempo de la
+ * consulta y del commit por separado.
+ * </p>
+ * <p>
+ * No forma parte de la batería normal; se ejecuta con:
+ * <pre>
+ * mvn test -Dtest=SoloLecturaBenchmarkTest -Dbenchmark=true \
+ *          -Dbenchmark.filas=20000 -Dbenchmark.iteraciones=50
+ * </pre>
+ * </p>
+ *
+ * @author Pedro González
+ * @version 1.0
+ * @since 1.0
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@DisplayName("SoloLecturaBenchmarkTest")
+class SoloLecturaBenchmarkTest {
+
+    private static final int FILAS = Integer.getInteger("benchmark.filas", 20_000);
+
+    private static final int ITERACIONES = Integer.getInteger("benchmark.iteraciones", 50);
+
+    private static final com.sun.management.ThreadMXBean HILOS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    @DisplayName("Compara memoria y tiempo de commit de findAll con y sin readOnly")
+    void compararModosDeTransaccion() {
+        try (ConfigurableApplicationContext ctx = new SpringApplicationBuilder(Proy008Application.class)
+                .web(WebApplicationType.NONE)
+                .properties("logging.level.es.cic=WARN")
+                .run()) {
+            sembrar(ctx);
+            CocheRepository cocheRepository = ctx.getBean(CocheRepository.class);
+            PlatformTransactionManager transactionManager = ctx.getBean(PlatformTransactionManager.class);
+
+            // Calentamiento de ambos caminos
+            medir(transactionManager, cocheRepository, false, ITERACIONES / 5 + 1);
+            medir(transactionManager, cocheRepository, true, ITERACIONES / 5 + 1);
+
+            Resultado escritura = medir(transactionManager, cocheRepository, false, ITERACIONES);
+            Resultado lectura = medir(transactionManager, cocheRepository, true, ITERACIONES);
+
+            System.out.println("-------- Benchmark findAll (" + FILAS + " coches, "
+                    + ITERACIONES + " iteraciones) --------");
+            System.out.println(escritura);
+            System.out.println(lectura);
+        }
+    }
+
+    private void sembrar(ConfigurableApplicationContext ctx) {
+        Concesionario concesionario = ctx.getBean(ConcesionarioRepository.class)
+                .save(new Concesionario("Bench", 600000000, "Madrid", LocalTime.of(9, 0), LocalTime.of(20, 0)));
+        List<Coche> coches = new ArrayList<>(FILAS);
+        for (int i = 0; i < FILAS; i++) {
+            coches.add(new Coche("Marca" + (i % 10), 100 + i % 400, concesionario));
+        }
+        ctx.getBean(CocheRepository.class).saveAll(coches);
+    }
+
+    private Resultado medir(PlatformTransactionManager transactionManager, CocheRepository cocheRepository,
+            boolean soloLectura, int iteraciones) {
+        DefaultTransactionDefinition definicion = new DefaultTransactionDefinition();
+        definicion.setReadOnly(soloLectura);
+        long bytes = 0;
+        long consulta = 0;
+        long commit = 0;
+        for (int i = 0; i < iteraciones; i++) {
+            long b0 = HILOS.getCurrentThreadAllocatedBytes();
+            long t0 = System.nanoTime();
+            TransactionStatus estado = transactionManager.getTransaction(definicion);
+            int leidos = cocheRepository.findAll().size();
+            long t1 = System.nanoTime();
+            transactionManager.commit(estado);
+            long t2 = System.nanoTime();
+            bytes += HILOS.getCurrentThreadAllocatedBytes() - b0;
+            consulta += t1 - t0;
+            commit += t2 - t1;
+            assertEquals(FILAS, leidos);
+        }
+        return new Resultado(soloLectura ? "readOnly  " : "read-write", bytes / iteraciones,
+                consulta / iteraciones, commit / iteraciones);
+    }
+
+    private record Resultado(String modo, long bytesPorIteracion, long consultaNanos, long commitNanos) {
+
+        @Override
+        public String toString() {
+            return String.format("%s  %8.2f MB/iter  consulta=%7.2f ms  commit=%6.2f ms",
+                    modo, bytesPorIteracion / 1048576.0, consultaNanos / 1e6, commitNanos / 1e6);
+        }
+    }
+}